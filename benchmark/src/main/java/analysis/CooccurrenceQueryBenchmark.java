@@ -0,0 +1,48 @@
+package analysis;
+
+import javafx.util.Pair;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link WordCooccurrenceCalculator#getOrderedCooccurrenceList(String, int)}의 이웃 리스트 조회 벤치마크<br>
+ * 상위 순위의 {@link Term}부터 돌아가며 조회하므로, cacheCapacity가 질의되는 {@link Term} 수보다 작으면 매번 다시 고른다.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class CooccurrenceQueryBenchmark
+{
+    @Param({"10", "2147483647"})
+    public int k;
+
+    @Param({"0", "1024"})
+    public int cacheCapacity;
+
+    @Param({"256"})
+    public int numQueryTerms;
+
+    private WordCooccurrenceCalculator wcCalculator;
+    private int nextTermRank = 0;
+
+    @Setup(Level.Trial)
+    public void buildCalculator(final CorpusState corpus)
+    {
+        wcCalculator = new WordCooccurrenceCalculator(corpus.documentList, 2);
+        wcCalculator.setCacheCapacity(cacheCapacity);
+    }
+
+    @Benchmark
+    public List<Pair<Term, Integer>> getOrderedCooccurrenceList()
+    {
+        final String CONTENT = ("t" + nextTermRank);
+        nextTermRank = ((nextTermRank + 1) % numQueryTerms);
+
+        return wcCalculator.getOrderedCooccurrenceList(CONTENT, k);
+    }
+}
@@ -0,0 +1,77 @@
+package analysis;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * 벤치마크용 합성 말뭉치 생성기<br>
+ * {@link Term}의 출현 빈도가 Zipf 분포(순위 r의 확률이 1 / r^s에 비례)를 따르는 {@link Document} 리스트를 만든다.
+ */
+public class CorpusGenerator
+{
+    /**
+     * 순위 별 누적 확률
+     */
+    private final double[] cumulativeProbabilities;
+
+    private final Random random;
+
+    /**
+     * @param vocabularySize 서로 다른 {@link Term}의 개수
+     * @param exponent Zipf 분포의 지수 s
+     * @param seed 난수 시드
+     */
+    public CorpusGenerator(final int vocabularySize, final double exponent, final long seed)
+    {
+        cumulativeProbabilities = new double[vocabularySize];
+        random = new Random(seed);
+
+        double sum = 0.0;
+
+        for (int rank = 1; rank <= vocabularySize; ++rank)
+        {
+            sum += (1.0 / Math.pow(rank, exponent));
+            cumulativeProbabilities[rank - 1] = sum;
+        }
+
+        for (int i = 0; i < vocabularySize; ++i)
+            cumulativeProbabilities[i] /= sum;
+    }
+
+    /**
+     * @param numDocuments {@link Document} 개수
+     * @param documentLength {@link Document} 별 {@link Term} 개수
+     * @return {@link Document} 리스트
+     */
+    public List<Document> generate(final int numDocuments, final int documentLength)
+    {
+        List<Document> retVal = new ArrayList<>(numDocuments);
+
+        for (int documentIndex = 0; documentIndex < numDocuments; ++documentIndex)
+        {
+            List<Term> termList = new ArrayList<>(documentLength);
+
+            for (int i = 0; i < documentLength; ++i)
+                termList.add(new Term("t" + nextRank()));
+
+            retVal.add(new Document(("doc" + documentIndex), termList));
+        }
+
+        return retVal;
+    }
+
+    /**
+     * @return Zipf 분포를 따르는 순위 (0부터 시작)
+     */
+    private int nextRank()
+    {
+        final int POSITION = Arrays.binarySearch(cumulativeProbabilities, random.nextDouble());
+
+        if (POSITION >= 0)
+            return POSITION;
+
+        return Math.min((-POSITION - 1), (cumulativeProbabilities.length - 1));
+    }
+}
@@ -0,0 +1,31 @@
+package analysis;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+
+/**
+ * 모든 벤치마크가 공유하는 말뭉치 규모 파라미터와 합성 말뭉치
+ *
+ * @see CorpusGenerator
+ */
+@State(Scope.Benchmark)
+public class CorpusState
+{
+    @Param({"100", "1000", "10000"})
+    public int numDocuments;
+
+    @Param({"200"})
+    public int documentLength;
+
+    @Param({"20000"})
+    public int vocabularySize;
+
+    public List<Document> documentList;
+
+    @Setup(Level.Trial)
+    public void generateCorpus()
+    {
+        documentList = new CorpusGenerator(vocabularySize, 1.0, 42L).generate(numDocuments, documentLength);
+    }
+}
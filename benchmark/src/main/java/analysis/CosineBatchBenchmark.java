@@ -0,0 +1,86 @@
+package analysis;
+
+import javafx.util.Pair;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 여러 원본 문서의 유사도 상위 k개를 하나씩 질의하는 경로와 한 번에 질의하는 경로의 벤치마크 (질의 하나당 시간)
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class CosineBatchBenchmark
+{
+    /**
+     * 한 번에 처리하는 질의 개수
+     */
+    private static final int BATCH_SIZE = 256;
+
+    @Param({"5"})
+    public int numFeatures;
+
+    @Param({"10"})
+    public int k;
+
+    @Param({"1", "4"})
+    public int parallelism;
+
+    private DocumentVectorStore vectorStore;
+    private int nextDocumentIndex = 0;
+
+    /**
+     * 일괄 질의에 사용할 {@link ForkJoinPool} (parallelism이 1인 경우 null)
+     */
+    private ForkJoinPool pool;
+
+    @Setup(Level.Trial)
+    public void buildVectorStore(final CorpusState corpus)
+    {
+        vectorStore = new TFIDFCalculator(corpus.documentList).getVectorStore(numFeatures);
+        pool = ((parallelism > 1) ? new ForkJoinPool(parallelism) : null);
+    }
+
+    @TearDown(Level.Trial)
+    public void shutdownPool()
+    {
+        if (pool != null)
+            pool.shutdown();
+    }
+
+    private List<Document> nextBatch(final CorpusState corpus)
+    {
+        List<Document> retVal = new ArrayList<>(BATCH_SIZE);
+
+        for (int i = 0; i < BATCH_SIZE; ++i)
+        {
+            nextDocumentIndex = ((nextDocumentIndex + 1) % corpus.numDocuments);
+            retVal.add(corpus.documentList.get(nextDocumentIndex));
+        }
+
+        return retVal;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH_SIZE)
+    public void calculateTopKOneByOne(final CorpusState corpus, final Blackhole blackhole)
+    {
+        for (final Document src : nextBatch(corpus))
+            blackhole.consume(CosineSimilarityCalculator.calculateTopK(src, vectorStore, k));
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH_SIZE)
+    public List<List<Pair<Document, Double>>> calculateBatchTopK(final CorpusState corpus)
+    {
+        return CosineSimilarityCalculator.calculateBatchTopK(nextBatch(corpus), vectorStore, k, pool);
+    }
+}
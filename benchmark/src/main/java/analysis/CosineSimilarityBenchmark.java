@@ -0,0 +1,88 @@
+package analysis;
+
+import javafx.util.Pair;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link CosineSimilarityCalculator}의 유사도 계산 벤치마크
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class CosineSimilarityBenchmark
+{
+    @Param({"5"})
+    public int numFeatures;
+
+    private DocumentVectorStore vectorStore;
+    private MinHashIndex minHashIndex;
+    private int nextDocumentIndex = 0;
+
+    @Setup(Level.Trial)
+    public void buildVectorStore(final CorpusState corpus)
+    {
+        vectorStore = new TFIDFCalculator(corpus.documentList).getVectorStore(numFeatures);
+        minHashIndex = new MinHashIndex(corpus.documentList, 128, 32);
+    }
+
+    private Document nextDocument(final CorpusState corpus)
+    {
+        nextDocumentIndex = ((nextDocumentIndex + 1) % corpus.numDocuments);
+
+        return corpus.documentList.get(nextDocumentIndex);
+    }
+
+    /**
+     * 질의마다 TF-IDF 벡터를 새로 구축하는 경로
+     */
+    @Benchmark
+    public List<Pair<Document, Double>> calculate(final CorpusState corpus)
+    {
+        return CosineSimilarityCalculator.calculate(nextDocument(corpus), corpus.documentList, numFeatures);
+    }
+
+    /**
+     * 미리 구축된 {@link DocumentVectorStore}를 공유하는 경로
+     */
+    @Benchmark
+    public List<Pair<Document, Double>> calculateWithVectorStore(final CorpusState corpus)
+    {
+        return CosineSimilarityCalculator.calculate(nextDocument(corpus), vectorStore);
+    }
+
+    /**
+     * 역색인 점수 누적으로 상위 10개만 구하는 경로
+     */
+    @Benchmark
+    public List<Pair<Document, Double>> calculateTopK(final CorpusState corpus)
+    {
+        return CosineSimilarityCalculator.calculateTopK(nextDocument(corpus), vectorStore, 10);
+    }
+
+    @Benchmark
+    public List<Pair<Document, Double>> calculateWithManualWeight(final CorpusState corpus)
+    {
+        return CosineSimilarityCalculator.calculateWithManualWeight(nextDocument(corpus), corpus.documentList, 1.0);
+    }
+
+    /**
+     * {@link MinHashIndex}가 고른 후보 문서만 계산하는 경로
+     */
+    @Benchmark
+    public List<Pair<Document, Double>> calculateWithManualWeightOnCandidates(final CorpusState corpus)
+    {
+        return CosineSimilarityCalculator.calculateWithManualWeight(nextDocument(corpus), minHashIndex, 1.0);
+    }
+
+    @Benchmark
+    public List<NearDuplicate> findNearDuplicates()
+    {
+        return minHashIndex.findNearDuplicates(0.8);
+    }
+}
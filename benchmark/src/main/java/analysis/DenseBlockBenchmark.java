@@ -0,0 +1,75 @@
+package analysis;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 질의 하나와 모든 목표 문서의 유사도를 구할 때, {@link SparseVector#dot(SparseVector)}의 병합 조인과
+ * {@link DenseFeatureBlock}(밀집 행 + {@link DotProductKernel}, 나머지 Term은 포스팅)을 비교하는 벤치마크<br>
+ * SIMD 커널은 -jvmArgsAppend --add-modules=jdk.incubator.vector로 실행한 경우에만 사용된다.
+ * {@link DenseFeatureBlock#DEFAULT_WIDTH}는 이 벤치마크의 결과로 정한다.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class DenseBlockBenchmark
+{
+    @Param({"5"})
+    public int numFeatures;
+
+    @Param({"8", "16", "32", "64"})
+    public int width;
+
+    private DocumentVectorStore vectorStore;
+    private DenseFeatureBlock denseBlock;
+    private double[] scores;
+    private int nextDocumentIndex = 0;
+
+    @Setup(Level.Trial)
+    public void buildVectorStore(final CorpusState corpus)
+    {
+        vectorStore = new TFIDFCalculator(corpus.documentList).getVectorStore(numFeatures);
+        denseBlock = new DenseFeatureBlock(vectorStore, width);
+        scores = new double[vectorStore.size()];
+    }
+
+    private SparseVector nextQuery()
+    {
+        nextDocumentIndex = ((nextDocumentIndex + 1) % vectorStore.size());
+
+        return vectorStore.getVector(nextDocumentIndex);
+    }
+
+    /**
+     * 목표 벡터마다 병합 조인으로 내적을 구하는 경로
+     */
+    @Benchmark
+    public double[] mergeJoin()
+    {
+        final SparseVector QUERY = nextQuery();
+        final double QUERY_NORM = QUERY.getNorm();
+
+        for (int documentIndex = 0; documentIndex < scores.length; ++documentIndex)
+        {
+            final SparseVector TARGET = vectorStore.getVector(documentIndex);
+            scores[documentIndex] = (QUERY.dot(TARGET) / (QUERY_NORM * TARGET.getNorm()));
+        }
+
+        return scores;
+    }
+
+    /**
+     * 밀집 블록의 행과 {@link DotProductKernel}로 내적을 구하는 경로
+     */
+    @Benchmark
+    public double[] denseBlock()
+    {
+        denseBlock.score(nextQuery(), vectorStore, scores);
+
+        return scores;
+    }
+}
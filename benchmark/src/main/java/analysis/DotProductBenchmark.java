@@ -0,0 +1,66 @@
+package analysis;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link DotProductKernel}의 스칼라 루프, 펼친 루프, SIMD 커널 비교 벤치마크<br>
+ * SIMD 커널은 -jvmArgsAppend --add-modules=jdk.incubator.vector로 실행한 경우에만 측정된다. (그 외에는 펼친 루프와 같다.)
+ * {@link DotProductKernel#UNROLL_THRESHOLD}는 이 벤치마크의 결과로, {@link DotProductKernel#VECTOR_THRESHOLD}는 이 벤치마크와
+ * 실제 유사도 계산 루프를 측정하는 {@link DenseBlockBenchmark}의 결과로 정한다.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class DotProductBenchmark
+{
+    @Param({"5", "8", "16", "32", "64", "256", "4096"})
+    public int length;
+
+    private double[] vector1;
+    private double[] vector2;
+
+    @Setup(Level.Trial)
+    public void generateVectors()
+    {
+        Random random = new Random(42L);
+
+        vector1 = new double[length];
+        vector2 = new double[length];
+
+        for (int i = 0; i < length; ++i)
+        {
+            vector1[i] = random.nextDouble();
+            vector2[i] = random.nextDouble();
+        }
+    }
+
+    @Benchmark
+    public double dot()
+    {
+        return DotProductKernel.dot(vector1, vector2, length);
+    }
+
+    @Benchmark
+    public double dotScalar()
+    {
+        return DotProductKernel.dotScalar(vector1, vector2, length);
+    }
+
+    @Benchmark
+    public double dotUnrolled()
+    {
+        return DotProductKernel.dotUnrolled(vector1, vector2, length);
+    }
+
+    @Benchmark
+    public double dotVector()
+    {
+        return DotProductKernel.dotVector(vector1, vector2, length);
+    }
+}
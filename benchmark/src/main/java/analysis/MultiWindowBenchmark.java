@@ -0,0 +1,47 @@
+package analysis;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 윈도우 크기 2, 5, 10의 희소 행렬을 각각 구축하는 경우와 거리별로 한 번에 세는 경우의 비교 벤치마크
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class MultiWindowBenchmark
+{
+    private static final int[] WINDOW_SIZES = { 2, 5, 10 };
+
+    @Benchmark
+    public int rebuildPerWindow(final CorpusState corpus)
+    {
+        int retVal = 0;
+
+        for (final int WINDOW_SIZE : WINDOW_SIZES)
+            retVal += new WordCooccurrenceCalculator(corpus.documentList, WINDOW_SIZE).getMatrixSize();
+
+        return retVal;
+    }
+
+    @Benchmark
+    public int distanceBuckets(final CorpusState corpus)
+    {
+        WordCooccurrenceCalculator calculator = new WordCooccurrenceCalculator();
+        calculator.setDocumentList(corpus.documentList, WINDOW_SIZES[0], WINDOW_SIZES[WINDOW_SIZES.length - 1]);
+
+        int retVal = 0;
+
+        for (final int WINDOW_SIZE : WINDOW_SIZES)
+        {
+            calculator.setWindowSize(WINDOW_SIZE);
+            retVal += calculator.getMatrixSize();
+        }
+
+        return retVal;
+    }
+}
@@ -0,0 +1,59 @@
+package analysis;
+
+import javafx.util.Pair;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link TFIDFCalculator}의 색인 구축, {@link TFIDFCalculator#rank(String, int)}, {@link TFIDFCalculator#calculate(String, String)} 벤치마크
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class TFIDFBenchmark
+{
+    private TFIDFCalculator tfIdfCalculator;
+    private int nextDocumentIndex = 0;
+
+    @Setup(Level.Trial)
+    public void buildCalculator(final CorpusState corpus)
+    {
+        tfIdfCalculator = new TFIDFCalculator(corpus.documentList);
+        tfIdfCalculator.buildCacheData();
+    }
+
+    @Benchmark
+    public TFIDFCalculator buildCacheData(final CorpusState corpus)
+    {
+        TFIDFCalculator retVal = new TFIDFCalculator(corpus.documentList);
+        retVal.buildCacheData();
+
+        return retVal;
+    }
+
+    @Benchmark
+    public List<Pair<String, Double>> rank(final CorpusState corpus)
+    {
+        nextDocumentIndex = ((nextDocumentIndex + 1) % corpus.numDocuments);
+
+        return tfIdfCalculator.rank(corpus.documentList.get(nextDocumentIndex).getID(), 10);
+    }
+
+    /**
+     * 색인된 content와 색인되지 않은 content를 번갈아 질의한다.
+     */
+    @Benchmark
+    public double calculate(final CorpusState corpus)
+    {
+        nextDocumentIndex = ((nextDocumentIndex + 1) % corpus.numDocuments);
+
+        final String CONTENT = (((nextDocumentIndex & 1) == 0) ? "t" : "unknown") + (nextDocumentIndex % 64);
+
+        return tfIdfCalculator.calculate(CONTENT, corpus.documentList.get(nextDocumentIndex).getID());
+    }
+}
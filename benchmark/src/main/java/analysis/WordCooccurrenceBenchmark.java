@@ -0,0 +1,52 @@
+package analysis;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link WordCooccurrenceCalculator#setDocumentList(java.util.List, int)}의 희소 행렬 구축 벤치마크
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class WordCooccurrenceBenchmark
+{
+    @Param({"2", "5"})
+    public int windowSize;
+
+    @Param({"1", "4"})
+    public int parallelism;
+
+    /**
+     * 희소 행렬 구축에 사용할 {@link ForkJoinPool} (parallelism이 1인 경우 null)
+     */
+    private ForkJoinPool pool;
+
+    @Setup(Level.Trial)
+    public void createPool()
+    {
+        pool = ((parallelism > 1) ? new ForkJoinPool(parallelism) : null);
+    }
+
+    @TearDown(Level.Trial)
+    public void shutdownPool()
+    {
+        if (pool != null)
+            pool.shutdown();
+    }
+
+    @Benchmark
+    public WordCooccurrenceCalculator setDocumentList(final CorpusState corpus)
+    {
+        WordCooccurrenceCalculator retVal = new WordCooccurrenceCalculator();
+        retVal.setPool(pool);
+        retVal.setDocumentList(corpus.documentList, windowSize);
+
+        return retVal;
+    }
+}
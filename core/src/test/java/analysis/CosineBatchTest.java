@@ -0,0 +1,76 @@
+package analysis;
+
+import javafx.util.Pair;
+import org.junit.AfterClass;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * {@link CosineSimilarityCalculator#calculateBatchTopK(List, DocumentVectorStore, int, ForkJoinPool)}의 결과가
+ * 풀 사용 여부와 관계없이 같고, 질의마다 계산한 {@link CosineSimilarityCalculator#calculateTopK(Document, DocumentVectorStore, int)}와 같은지 확인한다.
+ */
+public class CosineBatchTest
+{
+    private static final int K = 10;
+
+    private static ForkJoinPool pool;
+    private static List<Document> documentList;
+    private static DocumentVectorStore vectorStore;
+
+    @BeforeClass
+    public static void setUp()
+    {
+        pool = new ForkJoinPool(4);
+
+        // 질의가 여러 블록(32개)으로 나뉘도록 만든다.
+        documentList = TestCorpus.generate(500, 40, 800, 23L, "cosine");
+        vectorStore = new TFIDFCalculator(documentList).getVectorStore(20);
+    }
+
+    @AfterClass
+    public static void tearDown()
+    {
+        pool.shutdown();
+    }
+
+    @Test
+    public void parallelBatchMatchesSequentialBatch()
+    {
+        final List<List<Pair<Document, Double>>> SEQUENTIAL =
+                CosineSimilarityCalculator.calculateBatchTopK(documentList, vectorStore, K, null);
+        final List<List<Pair<Document, Double>>> PARALLEL =
+                CosineSimilarityCalculator.calculateBatchTopK(documentList, vectorStore, K, pool);
+
+        assertEquals(documentList.size(), PARALLEL.size());
+
+        for (int i = 0; i < documentList.size(); ++i)
+            assertResultEquals(SEQUENTIAL.get(i), PARALLEL.get(i), 0.0);
+    }
+
+    @Test
+    public void batchMatchesSingleQueries()
+    {
+        final List<List<Pair<Document, Double>>> BATCH =
+                CosineSimilarityCalculator.calculateBatchTopK(documentList, vectorStore, K, pool);
+
+        for (int i = 0; i < documentList.size(); ++i)
+            assertResultEquals(CosineSimilarityCalculator.calculateTopK(documentList.get(i), vectorStore, K), BATCH.get(i), 1e-12);
+    }
+
+    private static void assertResultEquals(
+            final List<Pair<Document, Double>> expected, final List<Pair<Document, Double>> actual, final double delta)
+    {
+        assertEquals(expected.size(), actual.size());
+
+        for (int rank = 0; rank < expected.size(); ++rank)
+        {
+            assertEquals(expected.get(rank).getKey().getID(), actual.get(rank).getKey().getID());
+            assertEquals(expected.get(rank).getValue(), actual.get(rank).getValue(), delta);
+        }
+    }
+}
@@ -0,0 +1,136 @@
+package analysis;
+
+import javafx.util.Pair;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * MaxScore로 가지치기 하는 {@link CosineSimilarityCalculator#calculateTopK(Document, DocumentVectorStore, int)}의 결과가
+ * 모든 문서의 유사도를 계산하는 {@link CosineSimilarityCalculator#calculate(Document, DocumentVectorStore)}의 앞 k개와 같은지 확인한다.<br><br>
+ *
+ * 참고:<br>
+ * 두 경로는 유사도를 다른 순서로 계산하므로 마지막 자리가 다를 수 있다. 따라서 가지치기는 k를 전체 문서 개수로 주어
+ * 가지치기가 일어나지 않는 같은 경로의 결과와 비트 단위로 비교하고(동점 순서 포함),
+ * 그 결과를 {@link CosineSimilarityCalculator#calculate(Document, DocumentVectorStore)}와 오차 범위 안에서 비교한다.
+ */
+public class CosineTopKTest
+{
+    private static final int NUM_DOCUMENTS = 400;
+    private static final int NUM_COPIES = 100;
+    private static final double DELTA = 1e-12;
+
+    private static List<Document> documentList;
+
+    @BeforeClass
+    public static void setUp()
+    {
+        documentList = new ArrayList<>(TestCorpus.generate(NUM_DOCUMENTS, 40, 1500, 41L, "topk"));
+
+        // 같은 내용의 문서를 섞어 같은 유사도(동점)를 만든다.
+        for (int i = 0; i < NUM_COPIES; ++i)
+            documentList.add(new Document(("topk-copy" + i), documentList.get((i * 7) % NUM_DOCUMENTS).getTermList()));
+    }
+
+    @Test
+    public void topKMatchesExhaustiveRanking()
+    {
+        checkTopK(new TFIDFCalculator(documentList).getVectorStore(5));
+    }
+
+    @Test
+    public void topKMatchesExhaustiveRankingWithMoreFeatures()
+    {
+        checkTopK(new TFIDFCalculator(documentList).getVectorStore(20));
+    }
+
+    @Test
+    public void keepsDocumentWithKthScoreAndLowerIndex()
+    {
+        // "tiex"와 "tiey"는 통계가 같아 유사도 상한이 같으며, Term ID 순서대로 "tiex"를 먼저 처리한다.
+        final Term X = new Term("tiex");
+        final Term Y = new Term("tiey");
+
+        // 두 문서는 서로 대칭이므로 유사도가 같다. "tiey"를 처리할 때의 남은 상한 합은 k번째 점수와 같다.
+        final Document LOWER = new Document("tie-lower", Arrays.asList(Y, new Term("tie-filler1")));
+        final Document HIGHER = new Document("tie-higher", Arrays.asList(X, new Term("tie-filler2")));
+        final DocumentVectorStore VECTOR_STORE = new TFIDFCalculator(Arrays.asList(LOWER, HIGHER)).getVectorStore(5);
+        final SparseVector QUERY = new SparseVector(new int[] { X.getID(), Y.getID() }, new double[] { 1.0, 1.0 });
+
+        final List<Pair<Document, Double>> ACTUAL = CosineSimilarityCalculator.calculateTopK(QUERY, VECTOR_STORE, 1);
+
+        assertEquals(1, ACTUAL.size());
+        assertEquals(LOWER.getID(), ACTUAL.get(0).getKey().getID());
+        assertEquals(CosineSimilarityCalculator.calculateTopK(QUERY, VECTOR_STORE, 2).get(1).getValue(), ACTUAL.get(0).getValue());
+    }
+
+    private static void checkTopK(final DocumentVectorStore vectorStore)
+    {
+        int numTies = 0;
+
+        for (final Document SRC : documentList)
+        {
+            final List<Pair<Document, Double>> ALL = CosineSimilarityCalculator.calculateTopK(SRC, vectorStore, vectorStore.size());
+
+            checkAgainstExhaustive(SRC, ALL, CosineSimilarityCalculator.calculate(SRC, vectorStore));
+
+            for (final int K : new int[] { 1, 3, 10, 50 })
+            {
+                final List<Pair<Document, Double>> ACTUAL = CosineSimilarityCalculator.calculateTopK(SRC, vectorStore, K);
+                final String MESSAGE = (SRC.getID() + " k=" + K);
+
+                assertEquals(MESSAGE, Math.min(K, ALL.size()), ACTUAL.size());
+
+                for (int rank = 0; rank < ACTUAL.size(); ++rank)
+                {
+                    // 동점인 문서는 문서 인덱스 순서를 따른다.
+                    assertEquals((MESSAGE + " rank " + rank), ALL.get(rank).getKey().getID(), ACTUAL.get(rank).getKey().getID());
+                    assertEquals((MESSAGE + " rank " + rank), ALL.get(rank).getValue(), ACTUAL.get(rank).getValue());
+
+                    if ((rank > 0) && ACTUAL.get(rank).getValue().equals(ACTUAL.get(rank - 1).getValue()))
+                        ++numTies;
+                }
+            }
+        }
+
+        assertTrue("corpus has no tied scores", (numTies > 0));
+    }
+
+    /**
+     * 가지치기 하지 않은 결과가 모든 문서의 유사도를 정렬한 결과와 같은지 확인한다.
+     * 유사도가 오차 범위 안에서 같은 문서끼리는 순서가 바뀔 수 있다.
+     */
+    private static void checkAgainstExhaustive(
+            final Document src, final List<Pair<Document, Double>> actual, final List<Pair<Document, Double>> expected)
+    {
+        HashMap<String, Double> expectedScoreMap = new HashMap<>();
+        int numPositive = 0;
+
+        for (final Pair<Document, Double> PAIR : expected)
+        {
+            expectedScoreMap.put(PAIR.getKey().getID(), PAIR.getValue());
+
+            if (PAIR.getValue() > DELTA)
+                ++numPositive;
+        }
+
+        // 질의와 공유하는 Term이 없는 문서(유사도 0)는 방문하지 않는다.
+        assertEquals(src.getID(), numPositive, actual.size());
+
+        for (int rank = 0; rank < actual.size(); ++rank)
+        {
+            final String MESSAGE = (src.getID() + " rank " + rank);
+            final double EXPECTED_SCORE = expected.get(rank).getValue();
+
+            assertEquals(MESSAGE, EXPECTED_SCORE, actual.get(rank).getValue(), DELTA);
+            assertEquals(MESSAGE, EXPECTED_SCORE, expectedScoreMap.get(actual.get(rank).getKey().getID()), DELTA);
+        }
+    }
+}
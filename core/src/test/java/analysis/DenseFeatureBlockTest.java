@@ -0,0 +1,79 @@
+package analysis;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+/**
+ * {@link DenseFeatureBlock}로 구한 유사도가 블록의 너비와 관계없이 {@link SparseVector#dot(SparseVector)}의 병합 조인으로 구한 유사도와 같은지 확인한다.
+ */
+public class DenseFeatureBlockTest
+{
+    private static final double DELTA = 1e-12;
+
+    @Test
+    public void scoresMatchMergeJoin()
+    {
+        List<Document> documentList = new ArrayList<>(TestCorpus.generate(300, 40, 1000, 67L, "dense"));
+
+        // 벡터가 비어있는 Document
+        documentList.add(new Document("dense-empty", new ArrayList<>()));
+
+        final DocumentVectorStore VECTOR_STORE = new TFIDFCalculator(documentList).getVectorStore(8);
+        final double[] SCORES = new double[VECTOR_STORE.size()];
+
+        // 0: 모든 Term을 포스팅으로, 너비가 Term 개수보다 큰 경우: 모든 Term을 블록으로 계산한다.
+        for (final int WIDTH : new int[] { 0, 1, DenseFeatureBlock.DEFAULT_WIDTH, 33, Integer.MAX_VALUE })
+        {
+            final DenseFeatureBlock BLOCK = new DenseFeatureBlock(VECTOR_STORE, WIDTH);
+
+            assertTrue((BLOCK.getWidth() <= WIDTH));
+
+            for (int query = 0; query < VECTOR_STORE.size(); ++query)
+            {
+                final SparseVector QUERY = VECTOR_STORE.getVector(query);
+
+                BLOCK.score(QUERY, VECTOR_STORE, SCORES);
+
+                for (int target = 0; target < VECTOR_STORE.size(); ++target)
+                {
+                    final SparseVector TARGET = VECTOR_STORE.getVector(target);
+                    final double NORMS = (QUERY.getNorm() * TARGET.getNorm());
+                    final double EXPECTED = ((NORMS == 0.0) ? 0.0 : (QUERY.dot(TARGET) / NORMS));
+
+                    assertEquals(("width " + WIDTH + " query " + query + " target " + target), EXPECTED, SCORES[target], DELTA);
+                }
+            }
+        }
+    }
+
+    @Test
+    public void choosesMostFrequentVectorTerms()
+    {
+        final DocumentVectorStore VECTOR_STORE =
+                new TFIDFCalculator(TestCorpus.generate(200, 40, 1000, 71L, "dense-column")).getVectorStore(5);
+        final DenseFeatureBlock BLOCK = VECTOR_STORE.getDenseBlock();
+        int minBlockPostings = Integer.MAX_VALUE;
+        int maxOtherPostings = 0;
+
+        assertEquals(DenseFeatureBlock.DEFAULT_WIDTH, BLOCK.getWidth());
+
+        for (int termID = 0; termID < VECTOR_STORE.getTermIDBound(); ++termID)
+        {
+            final int[] DOCUMENT_INDICES = VECTOR_STORE.getPostingDocumentIndices(termID);
+            final int NUM_POSTINGS = ((DOCUMENT_INDICES == null) ? 0 : DOCUMENT_INDICES.length);
+
+            if (BLOCK.getColumn(termID) >= 0)
+                minBlockPostings = Math.min(minBlockPostings, NUM_POSTINGS);
+            else
+                maxOtherPostings = Math.max(maxOtherPostings, NUM_POSTINGS);
+        }
+
+        assertTrue((minBlockPostings >= maxOtherPostings));
+        assertEquals(-1, BLOCK.getColumn(-1));
+        assertEquals(-1, BLOCK.getColumn(VECTOR_STORE.getTermIDBound()));
+    }
+}
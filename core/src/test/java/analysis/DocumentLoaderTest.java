@@ -0,0 +1,153 @@
+package analysis;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * {@link DocumentLoader}가 구분자, 줄바꿈, BOM, 멀티바이트 문자를 청크 경계와 상관 없이 같은 {@link Term}으로 잘라내는지 확인한다.
+ * 청크 크기를 최소값(4바이트)부터 파일 크기까지 바꾸어 가며 모든 위치에 청크 경계를 만든다.
+ */
+public class DocumentLoaderTest
+{
+    @Rule
+    public final TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void splitsMultiCharacterDelimiterAcrossChunks() throws IOException
+    {
+        assertTokens(bytes("alpha<=>beta<=>gamma"), "<=>", false,
+                documents(Arrays.asList("alpha", "beta", "gamma")));
+
+        // 구분자의 앞부분이 반복되는 경우
+        assertTokens(bytes("a|||b||c"), "||", false,
+                documents(Arrays.asList("a", "|b", "c")));
+    }
+
+    @Test
+    public void dropsOnlyCarriageReturnsOfCrlf() throws IOException
+    {
+        final byte[] CONTENT = bytes("a b\r\nc\rd e\r\n\rf\r");
+
+        assertTokens(CONTENT, " ", true,
+                documents(Arrays.asList("a", "b"), Arrays.asList("c\rd", "e"), Arrays.asList("\rf\r")));
+
+        assertTokens(CONTENT, " ", false,
+                documents(Arrays.asList("a", "b", "c\rd", "e", "\rf\r")));
+    }
+
+    @Test
+    public void skipsBomAndDecodesMultiByteCharactersAcrossChunks() throws IOException
+    {
+        final byte[] CONTENT = bytes("\uFEFF한글 テスト 😀x é\n가");
+
+        assertTokens(CONTENT, " ", false,
+                documents(Arrays.asList("한글", "テスト", "😀x", "é", "가")));
+
+        assertTokens(CONTENT, " ", true,
+                documents(Arrays.asList("한글", "テスト", "😀x", "é"), Arrays.asList("가")));
+    }
+
+    @Test
+    public void ignoresConsecutiveDelimitersAndEmptyLines() throws IOException
+    {
+        final byte[] CONTENT = bytes("a  b \n\n\r\n c\n");
+
+        assertTokens(CONTENT, " ", false,
+                documents(Arrays.asList("a", "b", "c")));
+
+        assertTokens(CONTENT, " ", true,
+                documents(Arrays.asList("a", "b"), Arrays.asList(), Arrays.asList(), Arrays.asList("c")));
+
+        // readDocumentPerLine은 Term이 없는 줄을 건너뛰지만 줄 번호는 센다.
+        final File FILE = write(CONTENT);
+        final List<Document> DOCUMENT_LIST = DocumentLoader.readDocumentPerLine(FILE.getPath(), " ");
+
+        assertEquals(2, DOCUMENT_LIST.size());
+        assertEquals((FILE.getName() + "#1"), DOCUMENT_LIST.get(0).getID());
+        assertEquals((FILE.getName() + "#4"), DOCUMENT_LIST.get(1).getID());
+    }
+
+    @Test
+    public void handlesEmptyFile() throws IOException
+    {
+        assertTokens(new byte[0], " ", false, documents(Arrays.asList()));
+        assertTokens(new byte[0], " ", true, documents());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void rejectsEmptyDelimiter() throws IOException
+    {
+        DocumentLoader.tokenize(write(bytes("a b")).getPath(), "", new Recorder());
+    }
+
+    /**
+     * 모든 청크 크기에 대해 잘라낸 {@link Term}이 예상과 같은지 확인한다.
+     */
+    private void assertTokens(
+            final byte[] content, final String delimiter, final boolean documentPerLine, final List<List<String>> expected)
+            throws IOException
+    {
+        final File FILE = write(content);
+
+        for (long chunkSize = 4L; chunkSize <= Math.max(4L, content.length); ++chunkSize)
+        {
+            final Recorder RECORDER = new Recorder();
+
+            DocumentLoader.tokenize(FILE.getPath(), delimiter, documentPerLine, chunkSize, RECORDER);
+            assertEquals(("chunk size " + chunkSize), expected, RECORDER.documentList);
+        }
+    }
+
+    private File write(final byte[] content) throws IOException
+    {
+        final File RETVAL = folder.newFile();
+
+        Files.write(RETVAL.toPath(), content);
+
+        return RETVAL;
+    }
+
+    private static byte[] bytes(final String content)
+    {
+        return content.getBytes(StandardCharsets.UTF_8);
+    }
+
+    @SafeVarargs
+    private static List<List<String>> documents(final List<String>... documents)
+    {
+        return Arrays.asList(documents);
+    }
+
+    /**
+     * 잘라낸 {@link Term} content를 {@link Document} 단위로 모으는 {@link DocumentLoader.TokenHandler}
+     */
+    private static class Recorder implements DocumentLoader.TokenHandler
+    {
+        final List<List<String>> documentList = new ArrayList<>();
+        private List<String> tokenList = new ArrayList<>();
+
+        @Override
+        public void onToken(final String content)
+        {
+            tokenList.add(content);
+        }
+
+        @Override
+        public void onDocumentEnd()
+        {
+            documentList.add(tokenList);
+            tokenList = new ArrayList<>();
+        }
+    }
+}
@@ -0,0 +1,173 @@
+package analysis;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+/**
+ * {@link IndexSegment}에 기록한 뒤 다시 연 계산기가 원래 계산기와 같은 결과를 내는지, 원본 파일의 변경을 감지하는지 확인한다.
+ */
+public class IndexSegmentTest
+{
+    private static final int WINDOW_SIZE = 3;
+    private static final int NUM_FEATURES = 5;
+
+    @Rule
+    public final TemporaryFolder folder = new TemporaryFolder();
+
+    private List<Document> documentList;
+    private List<SourceFile> sourceFileList;
+    private File dataDirectory;
+    private String segmentPath;
+
+    @Before
+    public void setUp() throws IOException
+    {
+        documentList = TestCorpus.generate(300, 50, 1500, 13L, "segment");
+        dataDirectory = folder.newFolder("data");
+        segmentPath = new File(folder.getRoot(), "index/data.segment").getPath();
+
+        for (int i = 0; i < 3; ++i)
+            Files.write(new File(dataDirectory, ("file" + i + ".txt")).toPath(), ("content " + i).getBytes("UTF-8"));
+
+        sourceFileList = SourceFile.list(dataDirectory.getPath());
+    }
+
+    @Test
+    public void roundTripRestoresCalculators() throws IOException
+    {
+        final TFIDFCalculator TF_IDF_CALCULATOR = new TFIDFCalculator(documentList);
+        final WordCooccurrenceCalculator WC_CALCULATOR = new WordCooccurrenceCalculator(documentList, WINDOW_SIZE);
+
+        IndexSegment.write(segmentPath, sourceFileList, TF_IDF_CALCULATOR, NUM_FEATURES, WC_CALCULATOR);
+
+        final IndexSegment SEGMENT = IndexSegment.open(segmentPath);
+
+        assertEquals(WINDOW_SIZE, SEGMENT.getWindowSize());
+        assertEquals(NUM_FEATURES, SEGMENT.getNumFeatures());
+        assertEquals(sourceFileList, SEGMENT.getSourceFileList());
+        assertEquals(documentList.size(), SEGMENT.getDocumentList().size());
+
+        for (int i = 0; i < documentList.size(); ++i)
+            assertEquals(documentList.get(i).getID(), SEGMENT.getDocumentList().get(i).getID());
+
+        final TFIDFCalculator RESTORED_TF_IDF = SEGMENT.createTFIDFCalculator();
+
+        for (final Document DOCUMENT : documentList.subList(0, 50))
+        {
+            assertEquals(TF_IDF_CALCULATOR.rank(DOCUMENT.getID(), 10), RESTORED_TF_IDF.rank(DOCUMENT.getID(), 10));
+
+            for (int rank = 0; rank < 20; ++rank)
+                assertEquals(TF_IDF_CALCULATOR.calculate(("w" + rank), DOCUMENT.getID()),
+                        RESTORED_TF_IDF.calculate(("w" + rank), DOCUMENT.getID()), 0.0);
+        }
+
+        final DocumentVectorStore EXPECTED_VECTORS = TF_IDF_CALCULATOR.getVectorStore(NUM_FEATURES);
+        final DocumentVectorStore RESTORED_VECTORS = RESTORED_TF_IDF.getVectorStore(NUM_FEATURES);
+
+        for (int documentIndex = 0; documentIndex < documentList.size(); ++documentIndex)
+            assertVectorEquals(EXPECTED_VECTORS.getVector(documentIndex), RESTORED_VECTORS.getVector(documentIndex));
+
+        final WordCooccurrenceCalculator RESTORED_WC = SEGMENT.createWordCooccurrenceCalculator();
+
+        assertNull(TestCorpus.diff(WC_CALCULATOR.cooccurrenceMatrix, RESTORED_WC.cooccurrenceMatrix));
+
+        for (int rank = 0; rank < 100; ++rank)
+            assertEquals(WC_CALCULATOR.getOrderedCooccurrenceList(("w" + rank), 10),
+                    RESTORED_WC.getOrderedCooccurrenceList(("w" + rank), 10));
+    }
+
+    @Test
+    public void detectsChangedRemovedAndAddedSourceFiles() throws IOException
+    {
+        IndexSegment.write(segmentPath, sourceFileList,
+                new TFIDFCalculator(documentList), NUM_FEATURES, new WordCooccurrenceCalculator(documentList, WINDOW_SIZE));
+
+        final IndexSegment SEGMENT = IndexSegment.open(segmentPath);
+
+        assertTrue(SEGMENT.isUpToDate(SourceFile.list(dataDirectory.getPath())));
+        assertTrue(SEGMENT.getNewSourceFiles(SourceFile.list(dataDirectory.getPath())).isEmpty());
+
+        // 새로 생긴 파일은 추가 대상이며, 기존 세그먼트는 그대로 사용할 수 있다.
+        final File ADDED = new File(dataDirectory, "file3.txt");
+        Files.write(ADDED.toPath(), "added".getBytes("UTF-8"));
+
+        assertTrue(SEGMENT.isUpToDate(SourceFile.list(dataDirectory.getPath())));
+        assertEquals(Collections.singletonList(new SourceFile(ADDED)), SEGMENT.getNewSourceFiles(SourceFile.list(dataDirectory.getPath())));
+
+        // 바뀐 파일 (크기와 수정 시각)
+        final File CHANGED = new File(dataDirectory, "file0.txt");
+        Files.write(CHANGED.toPath(), "changed content".getBytes("UTF-8"));
+        assertTrue(CHANGED.setLastModified(CHANGED.lastModified() + 10_000L));
+
+        assertFalse(SEGMENT.isUpToDate(SourceFile.list(dataDirectory.getPath())));
+
+        // 사라진 파일
+        final List<SourceFile> REMAINING = new ArrayList<>(sourceFileList);
+        REMAINING.remove(1);
+
+        assertFalse(SEGMENT.isUpToDate(REMAINING));
+    }
+
+    @Test
+    public void rejectsCorruptedSegments() throws IOException
+    {
+        IndexSegment.write(segmentPath, sourceFileList,
+                new TFIDFCalculator(documentList), NUM_FEATURES, new WordCooccurrenceCalculator(documentList, WINDOW_SIZE));
+
+        final byte[] BYTES = Files.readAllBytes(new File(segmentPath).toPath());
+
+        // 다른 파일 형식
+        final File NOT_SEGMENT = folder.newFile("not.segment");
+        Files.write(NOT_SEGMENT.toPath(), "not a segment".getBytes("UTF-8"));
+        assertOpenFails(NOT_SEGMENT.getPath());
+
+        // 다른 버전
+        final byte[] OTHER_VERSION = BYTES.clone();
+        OTHER_VERSION[7] ^= 0x7F;
+        final File VERSION_FILE = folder.newFile("version.segment");
+        Files.write(VERSION_FILE.toPath(), OTHER_VERSION);
+        assertOpenFails(VERSION_FILE.getPath());
+
+        // 잘린 파일
+        final File TRUNCATED = folder.newFile("truncated.segment");
+        Files.write(TRUNCATED.toPath(), Arrays.copyOf(BYTES, (BYTES.length / 2)));
+        assertOpenFails(TRUNCATED.getPath());
+    }
+
+    private static void assertOpenFails(final String path)
+    {
+        try
+        {
+            IndexSegment.open(path);
+            fail("opened " + path);
+        }
+        catch (IOException e)
+        {
+            // 예상한 예외
+        }
+    }
+
+    private static void assertVectorEquals(final SparseVector expected, final SparseVector actual)
+    {
+        assertEquals(expected.size(), actual.size());
+        assertEquals(expected.getNorm(), actual.getNorm(), 0.0);
+
+        for (int position = 0; position < expected.size(); ++position)
+        {
+            assertEquals(expected.getTermID(position), actual.getTermID(position));
+            assertEquals(expected.getWeight(position), actual.getWeight(position), 0.0);
+        }
+    }
+}
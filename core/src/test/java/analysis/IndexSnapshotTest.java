@@ -0,0 +1,145 @@
+package analysis;
+
+import javafx.util.Pair;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * {@link IndexSnapshot#withDocuments(List)}로 만든 세대가 모든 {@link Document}로 새로 구축한 스냅샷과 같고,
+ * 색인을 공유하는 이전 세대의 결과는 바뀌지 않는지 확인한다.
+ */
+public class IndexSnapshotTest
+{
+    private static final int NUM_FEATURES = 5;
+    private static final int BASE_SIZE = 400;
+    private static final int BATCH_SIZE = 100;
+    private static final int NUM_BATCHES = 4;
+
+    private static List<Document> documentList;
+
+    @BeforeClass
+    public static void setUp()
+    {
+        documentList = TestCorpus.generate((BASE_SIZE + (BATCH_SIZE * NUM_BATCHES)), 40, 1500, 17L, "snapshot");
+    }
+
+    @Test
+    public void generationsMatchFreshBuild()
+    {
+        checkGenerations(0L, 0);
+    }
+
+    @Test
+    public void generationsMatchFreshBuildOffHeap()
+    {
+        checkGenerations((64L << 20), 0);
+    }
+
+    @Test
+    public void generationsMatchFreshBuildWithDistanceBuckets()
+    {
+        checkGenerations(0L, 4);
+    }
+
+    /**
+     * @param offHeapBudget {@link WordCooccurrenceCalculator#setOffHeapBudget(long)}
+     * @param maxWindowSize 거리별로 셀 최대 거리 (0인 경우 단일 윈도우)
+     */
+    private static void checkGenerations(final long offHeapBudget, final int maxWindowSize)
+    {
+        List<IndexSnapshot> snapshotList = new ArrayList<>();
+        List<String> summaryList = new ArrayList<>();
+
+        IndexSnapshot snapshot = build(documentList.subList(0, BASE_SIZE), offHeapBudget, maxWindowSize);
+
+        snapshotList.add(snapshot);
+        summaryList.add(summarize(snapshot));
+
+        for (int batch = 0; batch < NUM_BATCHES; ++batch)
+        {
+            final int FROM = (BASE_SIZE + (batch * BATCH_SIZE));
+
+            snapshot = snapshot.withDocuments(documentList.subList(FROM, (FROM + BATCH_SIZE)));
+            snapshotList.add(snapshot);
+            summaryList.add(summarize(snapshot));
+        }
+
+        // 이후 세대를 만드는 동안 공유하던 색인이 바뀌지 않았어야 한다.
+        for (int generation = 0; generation < snapshotList.size(); ++generation)
+            assertEquals(("generation " + generation), summaryList.get(generation), summarize(snapshotList.get(generation)));
+
+        assertEquals(summarize(build(documentList, offHeapBudget, maxWindowSize)), summaryList.get(summaryList.size() - 1));
+    }
+
+    private static IndexSnapshot build(final List<Document> documentList, final long offHeapBudget, final int maxWindowSize)
+    {
+        final WordCooccurrenceCalculator WC_CALCULATOR = new WordCooccurrenceCalculator();
+
+        WC_CALCULATOR.setOffHeapBudget(offHeapBudget);
+
+        if (maxWindowSize == 0)
+            WC_CALCULATOR.setDocumentList(documentList, 3);
+        else
+            WC_CALCULATOR.setDocumentList(documentList, 3, maxWindowSize);
+
+        return new IndexSnapshot(new TFIDFCalculator(documentList), WC_CALCULATOR, NUM_FEATURES);
+    }
+
+    /**
+     * @return 스냅샷의 TF-IDF, 순위, 동시 출현, 코사인 유사도 조회 결과를 이어붙인 문자열
+     */
+    private static String summarize(final IndexSnapshot snapshot)
+    {
+        final StringBuilder RETVAL = new StringBuilder();
+        final List<Document> DOCUMENT_LIST = snapshot.getDocumentList();
+
+        RETVAL.append(DOCUMENT_LIST.size()).append('\n');
+
+        for (int documentIndex = 0; documentIndex < DOCUMENT_LIST.size(); documentIndex += 37)
+        {
+            final String DOCUMENT_ID = DOCUMENT_LIST.get(documentIndex).getID();
+
+            RETVAL.append(DOCUMENT_ID).append(' ').append(snapshot.getTFIDFCalculator().rank(DOCUMENT_ID, 10));
+
+            for (int rank = 0; rank < 10; ++rank)
+                RETVAL.append(' ').append(snapshot.calculateTfIdf(("w" + rank), DOCUMENT_ID));
+
+            for (final Pair<Document, Double> PAIR : snapshot.getCosineSimilarities(DOCUMENT_ID).subList(0, 5))
+                RETVAL.append(' ').append(PAIR.getKey().getID()).append('=').append(PAIR.getValue());
+
+            // 캐시된 상위 k개 리스트 (더 작은 k는 캐시에서 잘라낸다.)
+            for (final int K : new int[] { 5, 3 })
+                RETVAL.append(' ').append(toString(snapshot.getCosineSimilarities(DOCUMENT_ID, K)));
+
+            RETVAL.append('\n');
+        }
+
+        // 이웃 리스트는 인접 리스트에서, 빈도는 희소 행렬에서 읽으므로 둘 다 확인한다.
+        for (int rank = 0; rank < 300; rank += 7)
+        {
+            RETVAL.append(snapshot.getOrderedCooccurrenceList(("w" + rank), 10));
+
+            for (int other = 0; other < 20; ++other)
+                RETVAL.append(' ').append(snapshot.getWordCooccurrenceCalculator().getCooccurrenceCount(("w" + rank), ("w" + other), 3));
+
+            RETVAL.append('\n');
+        }
+
+        return RETVAL.toString();
+    }
+
+    private static String toString(final List<Pair<Document, Double>> similarityList)
+    {
+        final StringBuilder RETVAL = new StringBuilder();
+
+        for (final Pair<Document, Double> PAIR : similarityList)
+            RETVAL.append(PAIR.getKey().getID()).append('=').append(PAIR.getValue()).append(',');
+
+        return RETVAL.toString();
+    }
+}
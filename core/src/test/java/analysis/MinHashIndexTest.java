@@ -0,0 +1,153 @@
+package analysis;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+import static org.junit.Assert.*;
+
+/**
+ * {@link MinHashIndex}의 추정 유사도가 실제 Jaccard 유사도에 가깝고, 말뭉치에 심어둔 유사 중복 쌍을 찾아내는지 확인한다.
+ */
+public class MinHashIndexTest
+{
+    @Test
+    public void estimateIsCloseToExactJaccard()
+    {
+        final Random RANDOM = new Random(43L);
+        List<Document> documentList = new ArrayList<>();
+        List<Double> exactList = new ArrayList<>();
+
+        // 공유하는 Term의 비율을 바꾸어 가며 Jaccard 유사도가 0 ~ 1인 쌍을 만든다.
+        for (int pair = 0; pair < 100; ++pair)
+        {
+            final int NUM_SHARED = RANDOM.nextInt(101);
+            final int NUM_OWN = (100 - NUM_SHARED);
+            List<Term> termList1 = new ArrayList<>();
+            List<Term> termList2 = new ArrayList<>();
+
+            for (int i = 0; i < NUM_SHARED; ++i)
+            {
+                termList1.add(new Term("mh" + pair + "s" + i));
+                termList2.add(new Term("mh" + pair + "s" + i));
+            }
+
+            for (int i = 0; i < NUM_OWN; ++i)
+            {
+                termList1.add(new Term("mh" + pair + "a" + i));
+                termList2.add(new Term("mh" + pair + "b" + i));
+            }
+
+            documentList.add(new Document(("jaccard" + pair + "a"), termList1));
+            documentList.add(new Document(("jaccard" + pair + "b"), termList2));
+            exactList.add((double)NUM_SHARED / (double)(NUM_SHARED + (NUM_OWN << 1)));
+        }
+
+        final MinHashIndex INDEX = new MinHashIndex(documentList, 256, 32);
+        double errorSum = 0.0;
+
+        for (int pair = 0; pair < exactList.size(); ++pair)
+        {
+            final double EXACT = exactList.get(pair);
+            final double ERROR = Math.abs(INDEX.estimateSimilarity((pair << 1), ((pair << 1) + 1)) - EXACT);
+
+            // 서명 길이 256에서 표준 오차는 최대 0.031이다.
+            assertTrue(("pair " + pair + " exact " + EXACT), (ERROR < 0.13));
+            errorSum += ERROR;
+        }
+
+        assertTrue(((errorSum / exactList.size()) < 0.04));
+    }
+
+    @Test
+    public void recallsPlantedNearDuplicates()
+    {
+        final Random RANDOM = new Random(47L);
+        List<Document> documentList = new ArrayList<>(TestCorpus.generate(300, 60, 20000, 53L, "minhash"));
+        Set<String> plantedSet = new HashSet<>();
+
+        // 원본의 Term 중 약 10%를 새로운 Term으로 바꾼 유사 중복 Document
+        for (int i = 0; i < 30; ++i)
+        {
+            final Document ORIGINAL = documentList.get(i * 10);
+            List<Term> termList = new ArrayList<>(ORIGINAL.getTermList());
+
+            for (int position = 0; position < termList.size(); ++position)
+            {
+                if (RANDOM.nextInt(10) == 0)
+                    termList.set(position, new Term("planted" + i + "x" + position));
+            }
+
+            final Document DUPLICATE = new Document(("planted" + i), termList);
+
+            documentList.add(DUPLICATE);
+            plantedSet.add(ORIGINAL.getID() + " " + DUPLICATE.getID());
+        }
+
+        final MinHashIndex INDEX = new MinHashIndex(documentList, 128, 32);
+        final double THRESHOLD = 0.5;
+        Set<String> foundSet = new HashSet<>();
+
+        for (final NearDuplicate NEAR_DUPLICATE : INDEX.findNearDuplicates(THRESHOLD))
+        {
+            final Document DOCUMENT1 = NEAR_DUPLICATE.getDocument1();
+            final Document DOCUMENT2 = NEAR_DUPLICATE.getDocument2();
+
+            assertTrue((NEAR_DUPLICATE.getSimilarity() >= THRESHOLD));
+            assertEquals(NEAR_DUPLICATE.getSimilarity(), jaccard(DOCUMENT1, DOCUMENT2), 0.2);
+            foundSet.add(DOCUMENT1.getID() + " " + DOCUMENT2.getID());
+        }
+
+        for (final String PLANTED : plantedSet)
+            assertTrue(PLANTED, foundSet.contains(PLANTED));
+
+        // 색인되지 않은 Document로 찾아도 원본이 후보에 있어야 한다.
+        for (int i = 0; i < 30; ++i)
+        {
+            final int[] CANDIDATES = INDEX.findCandidates(documentList.get(300 + i));
+            boolean found = false;
+
+            for (final int candidate : CANDIDATES)
+                found |= (candidate == (i * 10));
+
+            assertTrue(("planted" + i), found);
+        }
+    }
+
+    @Test
+    public void skipsDocumentsWithoutTerms()
+    {
+        List<Document> documentList = new ArrayList<>(TestCorpus.generate(100, 30, 2000, 59L, "nonempty"));
+
+        for (int i = 0; i < 200; ++i)
+            documentList.add(new Document(("empty" + i), new ArrayList<>()));
+
+        final MinHashIndex INDEX = new MinHashIndex(documentList, 64, 16);
+
+        for (final NearDuplicate NEAR_DUPLICATE : INDEX.findNearDuplicates(0.0))
+        {
+            assertFalse(NEAR_DUPLICATE.getDocument1().getID().startsWith("empty"));
+            assertFalse(NEAR_DUPLICATE.getDocument2().getID().startsWith("empty"));
+        }
+
+        assertEquals(0, INDEX.findCandidates(100).length);
+        assertEquals(0, INDEX.findCandidates(new Document("query", new ArrayList<>())).length);
+        assertEquals(0.0, INDEX.estimateSimilarity(100, 101), 0.0);
+
+        for (final int candidate : INDEX.findCandidates(0))
+            assertTrue((candidate < 100));
+    }
+
+    private static double jaccard(final Document document1, final Document document2)
+    {
+        final int[] TERM_IDS1 = CosineSimilarityCalculator.getDistinctTermIDs(document1);
+        final int[] TERM_IDS2 = CosineSimilarityCalculator.getDistinctTermIDs(document2);
+        final int NUM_SHARED = CosineSimilarityCalculator.countIntersection(TERM_IDS1, TERM_IDS2);
+
+        return ((double)NUM_SHARED / (double)((TERM_IDS1.length + TERM_IDS2.length) - NUM_SHARED));
+    }
+}
@@ -0,0 +1,185 @@
+package analysis;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+/**
+ * {@link OffHeapLongIntHashMap}이 용량을 늘리거나 슬롯이 충돌하는 경우에도 {@link HashMap}과 같은 내용을 유지하는지 확인한다.
+ */
+public class OffHeapLongIntHashMapTest
+{
+    private OffHeapArena arena;
+
+    @Before
+    public void setUp()
+    {
+        arena = new OffHeapArena(256L << 20);
+    }
+
+    @After
+    public void tearDown()
+    {
+        arena.close();
+    }
+
+    @Test
+    public void matchesHashMapAcrossResizes()
+    {
+        final OffHeapLongIntHashMap MAP = new OffHeapLongIntHashMap(arena, 0);
+        final Map<Long, Integer> EXPECTED = new HashMap<>();
+        final Random RANDOM = new Random(31L);
+
+        for (int i = 0; i < 200_000; ++i)
+        {
+            // 키 0(빈 슬롯 표식과 같은 값)과 음수 키, 음수 증분도 섞는다.
+            final long KEY = ((i % 1000 == 0) ? 0L : (RANDOM.nextInt(50_000) - 1000L) * 0x9E3779B97F4A7C15L);
+            final int DELTA = (RANDOM.nextInt(7) - 2);
+
+            assertEquals(EXPECTED.merge(KEY, DELTA, Integer::sum).intValue(), MAP.addTo(KEY, DELTA));
+        }
+
+        assertMapEquals(EXPECTED, MAP);
+        assertEquals(0, MAP.get(12345L));
+        assertFalse(MAP.containsKey(12345L));
+    }
+
+    @Test
+    public void matchesHashMapWithCollidingSlots()
+    {
+        // 1024 슬롯 테이블에서 모두 같은 슬롯으로 가는 키들 (용량이 늘어도 하위 비트를 공유하여 긴 탐사 구간을 만든다.)
+        final long[] KEYS = new long[2000];
+        int numKeys = 0;
+
+        for (long key = 1L; numKeys < KEYS.length; ++key)
+        {
+            if ((hash(key) & 1023) == 0)
+                KEYS[numKeys++] = key;
+        }
+
+        final OffHeapLongIntHashMap MAP = new OffHeapLongIntHashMap(arena, 16);
+        final Map<Long, Integer> EXPECTED = new HashMap<>();
+
+        for (int round = 0; round < 3; ++round)
+        {
+            for (final long KEY : KEYS)
+            {
+                EXPECTED.merge(KEY, (round + 1), Integer::sum);
+                MAP.addTo(KEY, (round + 1));
+            }
+
+            assertMapEquals(EXPECTED, MAP);
+        }
+
+        // 충돌하는 키 사이에 없는 키도 찾지 못해야 한다.
+        for (long key = 1L; key < 20_000L; ++key)
+            assertEquals(EXPECTED.containsKey(key), MAP.containsKey(key));
+
+        final LongIntHashMap COPY = new LongIntHashMap();
+        COPY.addAll(MAP);
+
+        assertNull(TestCorpus.diff(COPY, MAP));
+    }
+
+    @Test
+    public void keepsContentsWhenBudgetIsExceeded()
+    {
+        final OffHeapArena SMALL_ARENA = new OffHeapArena(64L << 10);
+        final OffHeapLongIntHashMap MAP = new OffHeapLongIntHashMap(SMALL_ARENA, 16);
+        final Map<Long, Integer> EXPECTED = new HashMap<>();
+
+        try
+        {
+            for (long key = 1L; ; ++key)
+            {
+                try
+                {
+                    MAP.addTo(key, 1);
+                }
+                catch (IllegalStateException e)
+                {
+                    // 마지막으로 추가하려던 항목만 빠져 있어야 한다.
+                    assertFalse(MAP.containsKey(key));
+                    break;
+                }
+
+                EXPECTED.put(key, 1);
+            }
+
+            assertFalse(EXPECTED.isEmpty());
+            assertMapEquals(EXPECTED, MAP);
+
+            // 기존 키의 빈도는 계속 더할 수 있다.
+            assertEquals(2, MAP.addTo(1L, 1));
+
+            MAP.release();
+            assertEquals(0L, SMALL_ARENA.getUsedBytes());
+        }
+        finally
+        {
+            SMALL_ARENA.close();
+        }
+    }
+
+    @Test
+    public void copiesFromHeapMap()
+    {
+        final LongIntHashMap HEAP_MAP = new LongIntHashMap();
+
+        for (long key = 0L; key < 10_000L; ++key)
+            HEAP_MAP.addTo((key << 32) | (key * 7L), (int)(key % 13L) + 1);
+
+        final OffHeapLongIntHashMap MAP = new OffHeapLongIntHashMap(arena, HEAP_MAP);
+
+        assertNull(TestCorpus.diff(HEAP_MAP, MAP));
+        assertTrue(MAP.getNumBytes() <= arena.getUsedBytes());
+
+        MAP.clear();
+
+        assertEquals(0, MAP.size());
+        assertFalse(MAP.containsKey(0L));
+    }
+
+    private static void assertMapEquals(final Map<Long, Integer> expected, final OffHeapLongIntHashMap actual)
+    {
+        assertEquals(expected.size(), actual.size());
+
+        for (final Map.Entry<Long, Integer> ENTRY : expected.entrySet())
+        {
+            assertTrue(actual.containsKey(ENTRY.getKey()));
+            assertEquals(ENTRY.getValue().intValue(), actual.get(ENTRY.getKey()));
+        }
+
+        final int[] NUM_ENTRIES = { 0 };
+
+        actual.forEach((key, value) ->
+        {
+            assertEquals(expected.get(key).intValue(), value);
+            ++NUM_ENTRIES[0];
+        });
+
+        assertEquals(expected.size(), NUM_ENTRIES[0]);
+    }
+
+    /**
+     * {@link OffHeapLongIntHashMap}의 슬롯 해시 (MurmurHash3 fmix64)
+     */
+    private static int hash(final long key)
+    {
+        long h = key;
+
+        h ^= (h >>> 33);
+        h *= 0xff51afd7ed558ccdL;
+        h ^= (h >>> 33);
+        h *= 0xc4ceb9fe1a85ec53L;
+        h ^= (h >>> 33);
+
+        return (int)h;
+    }
+}
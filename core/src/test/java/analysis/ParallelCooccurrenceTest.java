@@ -0,0 +1,93 @@
+package analysis;
+
+import org.junit.AfterClass;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+/**
+ * {@link WordCooccurrenceCalculator#setPool(ForkJoinPool)}로 병렬 구축한 희소 행렬이 순차 구축과 같은지 확인한다.
+ */
+public class ParallelCooccurrenceTest
+{
+    private static ForkJoinPool pool;
+    private static List<Document> documentList;
+
+    @BeforeClass
+    public static void setUp()
+    {
+        pool = new ForkJoinPool(4);
+
+        // CooccurrenceCountTask가 여러 번 나누도록 분할 기준(64개)보다 충분히 많이 만든다.
+        documentList = TestCorpus.generate(1000, 60, 2000, 7L, "parallel");
+    }
+
+    @AfterClass
+    public static void tearDown()
+    {
+        pool.shutdown();
+    }
+
+    @Test
+    public void singleWindowMatchesSequential()
+    {
+        final WordCooccurrenceCalculator SEQUENTIAL = new WordCooccurrenceCalculator(documentList, 3);
+        final WordCooccurrenceCalculator PARALLEL = new WordCooccurrenceCalculator();
+
+        PARALLEL.setPool(pool);
+        PARALLEL.setDocumentList(documentList, 3);
+
+        assertNull(TestCorpus.diff(SEQUENTIAL.cooccurrenceMatrix, PARALLEL.cooccurrenceMatrix));
+        assertOrderedListsEqual(SEQUENTIAL, PARALLEL);
+    }
+
+    @Test
+    public void distanceBucketsMatchSequential()
+    {
+        final WordCooccurrenceCalculator SEQUENTIAL = new WordCooccurrenceCalculator();
+        final WordCooccurrenceCalculator PARALLEL = new WordCooccurrenceCalculator();
+
+        SEQUENTIAL.setDocumentList(documentList, 2, 5);
+        PARALLEL.setPool(pool);
+        PARALLEL.setDocumentList(documentList, 2, 5);
+
+        for (int windowSize = 1; windowSize <= 5; ++windowSize)
+        {
+            SEQUENTIAL.setWindowSize(windowSize);
+            PARALLEL.setWindowSize(windowSize);
+
+            assertNull(("windowSize " + windowSize), TestCorpus.diff(SEQUENTIAL.cooccurrenceMatrix, PARALLEL.cooccurrenceMatrix));
+        }
+    }
+
+    @Test
+    public void addDocumentsMatchesSequential()
+    {
+        final WordCooccurrenceCalculator SEQUENTIAL = new WordCooccurrenceCalculator(documentList.subList(0, 600), 3);
+        final WordCooccurrenceCalculator PARALLEL = new WordCooccurrenceCalculator();
+
+        PARALLEL.setPool(pool);
+        PARALLEL.setDocumentList(documentList.subList(0, 600), 3);
+
+        SEQUENTIAL.addDocuments(documentList.subList(600, 1000));
+        PARALLEL.addDocuments(documentList.subList(600, 1000));
+
+        assertNull(TestCorpus.diff(SEQUENTIAL.cooccurrenceMatrix, PARALLEL.cooccurrenceMatrix));
+        assertOrderedListsEqual(SEQUENTIAL, PARALLEL);
+    }
+
+    private static void assertOrderedListsEqual(final WordCooccurrenceCalculator expected, final WordCooccurrenceCalculator actual)
+    {
+        for (int rank = 0; rank < 200; ++rank)
+        {
+            final String CONTENT = ("w" + rank);
+
+            assertEquals(CONTENT, expected.getOrderedCooccurrenceList(CONTENT, 10), actual.getOrderedCooccurrenceList(CONTENT, 10));
+        }
+    }
+}
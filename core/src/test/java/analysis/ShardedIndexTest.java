@@ -0,0 +1,190 @@
+package analysis;
+
+import javafx.util.Pair;
+import org.junit.AfterClass;
+import org.junit.BeforeClass;
+import org.junit.ClassRule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.junit.rules.Timeout;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+/**
+ * 두 개의 {@link ShardWorker} 프로세스로 나눈 {@link ShardedIndex}가 같은 파일을 하나의 프로세스에서 색인한 결과와
+ * 같은 TF-IDF 값, 코사인 유사도 상위 k개, 동시 출현 이웃을 돌려주는지 확인한다.<br>
+ * 줄바꿈 문자('\r')와 공백이 들어간 {@link Term} content와 {@link Document} ID가 프로토콜을 어긋나게 하지 않는지도 확인한다.
+ */
+public class ShardedIndexTest
+{
+    private static final int NUM_SHARDS = 2;
+    private static final int WINDOW_SIZE = 2;
+    private static final int NUM_FEATURES = 5;
+    private static final int NUM_FILES = 60;
+    private static final double DELTA = 1e-12;
+
+    /**
+     * 토크나이저는 CRLF가 아닌 '\r'을 {@link Term} 안에 남긴다.
+     */
+    private static final String CR_TERM = "shard\rterm";
+
+    @ClassRule
+    public static final TemporaryFolder FOLDER = new TemporaryFolder();
+
+    /**
+     * 요청과 응답의 순서가 어긋나면 응답을 끝없이 기다리므로 시간 제한을 둔다.
+     */
+    @ClassRule
+    public static final Timeout TIMEOUT = Timeout.seconds(120);
+
+    private static List<String> pathList;
+    private static ShardedIndex shardedIndex;
+    private static TFIDFCalculator tfIdfCalculator;
+    private static DocumentVectorStore vectorStore;
+    private static WordCooccurrenceCalculator wcCalculator;
+
+    @BeforeClass
+    public static void setUp() throws IOException
+    {
+        final List<Document> DOCUMENT_LIST = TestCorpus.generate(NUM_FILES, 40, 800, 61L, "shard");
+        pathList = new ArrayList<>();
+
+        for (int i = 0; i < NUM_FILES; ++i)
+        {
+            final StringBuilder CONTENT = new StringBuilder();
+
+            for (final Term TERM : DOCUMENT_LIST.get(i).getTermList())
+                CONTENT.append(TERM.getContent()).append(' ');
+
+            if ((i % 3) == 0)
+                CONTENT.append(CR_TERM).append(" w0 ").append(CR_TERM);
+
+            // 공백과 '\r'이 들어간 파일 이름(Document ID)
+            final String NAME = ((i == 1) ? "shard 1.txt" : ((i == 2) ? "shard\r2.txt" : ("shard" + i + ".txt")));
+            final File FILE = new File(FOLDER.getRoot(), NAME);
+
+            Files.write(FILE.toPath(), CONTENT.toString().getBytes(StandardCharsets.UTF_8));
+            pathList.add(FILE.getPath());
+        }
+
+        // ShardedIndex와 같은 순서(샤드 순서)로 색인한다.
+        StreamingIndexBuilder builder = new StreamingIndexBuilder(WINDOW_SIZE);
+
+        for (int shard = 0; shard < NUM_SHARDS; ++shard)
+        {
+            for (int i = shard; i < NUM_FILES; i += NUM_SHARDS)
+                builder.addFile(pathList.get(i), " ");
+        }
+
+        tfIdfCalculator = builder.createTFIDFCalculator();
+        vectorStore = tfIdfCalculator.getVectorStore(NUM_FEATURES);
+        wcCalculator = builder.createWordCooccurrenceCalculator();
+        shardedIndex = ShardedIndex.launch(pathList, NUM_SHARDS, WINDOW_SIZE, NUM_FEATURES);
+    }
+
+    @AfterClass
+    public static void tearDown() throws IOException
+    {
+        if (shardedIndex != null)
+            shardedIndex.close();
+    }
+
+    @Test
+    public void documentListMatchesSingleIndex()
+    {
+        assertEquals(NUM_SHARDS, shardedIndex.getNumShards());
+        assertEquals(tfIdfCalculator.getDocumentList().size(), shardedIndex.getDocumentList().size());
+
+        for (int i = 0; i < NUM_FILES; ++i)
+            assertEquals(tfIdfCalculator.getDocumentList().get(i).getID(), shardedIndex.getDocumentList().get(i).getID());
+    }
+
+    @Test
+    public void tfIdfMatchesSingleIndex() throws IOException
+    {
+        for (final Document DOCUMENT : tfIdfCalculator.getDocumentList())
+        {
+            for (final String CONTENT : new String[] { "w0", "w1", "w5", "w40", CR_TERM, "missing" })
+            {
+                assertEquals((DOCUMENT.getID() + " " + CONTENT),
+                        tfIdfCalculator.calculate(CONTENT, DOCUMENT.getID()), shardedIndex.calculateTfIdf(CONTENT, DOCUMENT.getID()), DELTA);
+            }
+        }
+
+        assertEquals(0.0, shardedIndex.calculateTfIdf("w0", "missing.txt"), 0.0);
+    }
+
+    @Test
+    public void cosineTopKMatchesSingleIndex() throws IOException
+    {
+        for (final Document DOCUMENT : tfIdfCalculator.getDocumentList())
+        {
+            final List<Pair<Document, Double>> ALL = CosineSimilarityCalculator.calculateTopK(DOCUMENT, vectorStore, vectorStore.size());
+            final HashMap<String, Double> SCORE_MAP = new HashMap<>();
+
+            ALL.forEach(pair -> SCORE_MAP.put(pair.getKey().getID(), pair.getValue()));
+
+            for (final int K : new int[] { 1, 5, NUM_FILES })
+            {
+                final List<Pair<Document, Double>> ACTUAL = shardedIndex.getCosineSimilarities(DOCUMENT.getID(), K);
+                final String MESSAGE = (DOCUMENT.getID() + " k=" + K);
+
+                assertEquals(MESSAGE, Math.min(K, ALL.size()), ACTUAL.size());
+
+                // 샤드마다 Term ID가 달라 더하는 순서가 다를 수 있으므로, 동점에 가까운 문서는 순서가 바뀔 수 있다.
+                for (int rank = 0; rank < ACTUAL.size(); ++rank)
+                {
+                    final String ID = ACTUAL.get(rank).getKey().getID();
+
+                    assertEquals((MESSAGE + " rank " + rank), ALL.get(rank).getValue(), ACTUAL.get(rank).getValue(), DELTA);
+                    assertTrue((MESSAGE + " " + ID), SCORE_MAP.containsKey(ID));
+                    assertEquals((MESSAGE + " " + ID), SCORE_MAP.get(ID), ACTUAL.get(rank).getValue(), DELTA);
+                }
+            }
+        }
+
+        assertNull(shardedIndex.getCosineSimilarities("missing.txt", 5));
+    }
+
+    @Test
+    public void neighborsMatchSingleIndex() throws IOException
+    {
+        for (final String CONTENT : new String[] { "w0", "w1", "w3", "w10", "w100", CR_TERM })
+        {
+            final List<Pair<Term, Integer>> EXPECTED = wcCalculator.getOrderedCooccurrenceList(CONTENT, Integer.MAX_VALUE);
+            final List<Pair<Term, Integer>> ACTUAL = shardedIndex.getOrderedCooccurrenceList(CONTENT, Integer.MAX_VALUE);
+
+            if (EXPECTED == null)
+            {
+                assertNull(CONTENT, ACTUAL);
+                continue;
+            }
+
+            assertEquals(CONTENT, EXPECTED.size(), ACTUAL.size());
+
+            final HashMap<String, Integer> COUNT_MAP = new HashMap<>();
+
+            EXPECTED.forEach(pair -> COUNT_MAP.put(pair.getKey().getContent(), pair.getValue()));
+
+            // 같은 빈도의 이웃은 순서가 다를 수 있다.
+            for (int rank = 0; rank < ACTUAL.size(); ++rank)
+            {
+                final String NEIGHBOR = ACTUAL.get(rank).getKey().getContent();
+
+                assertEquals((CONTENT + " rank " + rank), EXPECTED.get(rank).getValue(), ACTUAL.get(rank).getValue());
+                assertEquals((CONTENT + " " + NEIGHBOR), COUNT_MAP.get(NEIGHBOR), ACTUAL.get(rank).getValue());
+            }
+        }
+
+        assertTrue(shardedIndex.getOrderedCooccurrenceList(CR_TERM, 3).size() <= 3);
+        assertNull(shardedIndex.getOrderedCooccurrenceList("missing", 3));
+    }
+}
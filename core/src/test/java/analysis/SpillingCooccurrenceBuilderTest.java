@@ -0,0 +1,290 @@
+package analysis;
+
+import org.junit.BeforeClass;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+/**
+ * 런 파일로 내보낸 뒤 병합한 동시 출현 빈도가 메모리에서 센 빈도와 같은지 확인한다.
+ * 예산을 작게 주어 런이 {@link SpillingCooccurrenceBuilder#MAX_MERGE_FAN_IN}개를 넘도록(여러 단계로 병합하도록) 만든다.
+ */
+public class SpillingCooccurrenceBuilderTest
+{
+    private static final int WINDOW_SIZE = 3;
+
+    /**
+     * 런 하나에 500개 항목
+     */
+    private static final long SMALL_BUDGET = (SpillingCooccurrenceBuilder.BYTES_PER_ENTRY * 500L);
+
+    @Rule
+    public final TemporaryFolder folder = new TemporaryFolder();
+
+    private static List<Document> documentList;
+    private static LongIntHashMap expected;
+
+    @BeforeClass
+    public static void setUp()
+    {
+        documentList = TestCorpus.generate(500, 80, 3000, 29L, "spill");
+        expected = new LongIntHashMap();
+        WordCooccurrenceCalculator.countCooccurrences(documentList, WINDOW_SIZE, expected);
+    }
+
+    @Test
+    public void mergeIntoMatchesInMemoryCounts() throws IOException
+    {
+        final LongIntHashMap MATRIX = new LongIntHashMap();
+
+        try (SpillingCooccurrenceBuilder builder = newBuilder())
+        {
+            builder.addDocuments(documentList);
+            assertTrue(builder.getNumRuns() > SpillingCooccurrenceBuilder.MAX_MERGE_FAN_IN);
+
+            builder.mergeInto(MATRIX);
+            assertTrue(builder.getNumRuns() <= SpillingCooccurrenceBuilder.MAX_MERGE_FAN_IN);
+        }
+
+        assertNull(TestCorpus.diff(expected, MATRIX));
+        assertSpillDirectoryEmpty();
+    }
+
+    @Test
+    public void mergeToMatrixMatchesInMemoryCounts() throws IOException
+    {
+        try (SpillingCooccurrenceBuilder builder = newBuilder();
+             OffHeapArena arena = new OffHeapArena(64L << 20))
+        {
+            builder.addDocuments(documentList);
+
+            final LongIntMap HEAP_MATRIX = builder.mergeToMatrix(null);
+            final LongIntMap OFF_HEAP_MATRIX = builder.mergeToMatrix(arena);
+
+            assertNull(TestCorpus.diff(expected, HEAP_MATRIX));
+            assertNull(TestCorpus.diff(expected, OFF_HEAP_MATRIX));
+            assertEquals((12L * expected.size()), arena.getUsedBytes());
+
+            // 키의 오름차순으로 순회한다.
+            final long[] PREVIOUS = { -1L };
+
+            HEAP_MATRIX.forEach((key, value) ->
+            {
+                assertTrue(key > PREVIOUS[0]);
+                PREVIOUS[0] = key;
+            });
+
+            assertFalse(HEAP_MATRIX.containsKey(WordCooccurrenceCalculator.toMatrixKey(0, Integer.MAX_VALUE)));
+
+            try
+            {
+                HEAP_MATRIX.addTo(PREVIOUS[0], 1);
+                fail("sorted matrix must be read-only");
+            }
+            catch (UnsupportedOperationException e)
+            {
+                // 예상한 예외
+            }
+        }
+
+        assertSpillDirectoryEmpty();
+    }
+
+    @Test
+    public void adjacencyFileMatchesInMemoryAdjacency() throws IOException
+    {
+        final String PATH = new File(folder.getRoot(), "out/adjacency.bin").getPath();
+
+        try (SpillingCooccurrenceBuilder builder = newBuilder())
+        {
+            builder.addDocuments(documentList);
+            builder.writeAdjacency(PATH);
+        }
+
+        assertSameAdjacency(new CooccurrenceAdjacency(expected), CooccurrenceAdjacency.open(PATH));
+        assertSpillDirectoryEmpty();
+    }
+
+    @Test
+    public void adjacencyFileIsMappedInChunks() throws IOException
+    {
+        final String PATH = new File(folder.getRoot(), "chunked.bin").getPath();
+
+        // 조각 경계가 행 중간에 오도록 작은 조각(2^4개, 2^3개의 int)으로 기록하고 읽는다.
+        try (SpillingCooccurrenceBuilder builder = newBuilder())
+        {
+            builder.addDocuments(documentList);
+            builder.writeAdjacency(PATH, 4);
+        }
+
+        final CooccurrenceAdjacency MEMORY_ADJACENCY = new CooccurrenceAdjacency(expected);
+
+        assertSameAdjacency(MEMORY_ADJACENCY, CooccurrenceAdjacency.open(PATH, 3));
+        assertSameAdjacency(MEMORY_ADJACENCY, CooccurrenceAdjacency.open(PATH));
+    }
+
+    @Test
+    public void adjacencyFileIsRemappedToCurrentTermIDs() throws IOException
+    {
+        // 이 실행에서는 C, A, B 순서로 등록되어 있고, 파일에는 A, B, C 순서로 기록되어 있다.
+        final TermDictionary DICTIONARY = TermDictionary.getInstance();
+        final int ID_C = DICTIONARY.intern("remapC");
+        final int ID_A = DICTIONARY.intern("remapA");
+        final int ID_B = DICTIONARY.intern("remapB");
+        final File FILE = folder.newFile("remap.bin");
+
+        // A-B: 5, B-C: 2 (offsets: A [0, 1), B [1, 3), C [3, 4))
+        try (DataOutputStream out = new DataOutputStream(new FileOutputStream(FILE)))
+        {
+            for (final int VALUE : new int[] {
+                    CooccurrenceAdjacency.FILE_MAGIC, CooccurrenceAdjacency.FILE_VERSION, 3, 4,
+                    0, 1, 3, 4,
+                    1, 0, 2, 1,
+                    5, 5, 2, 2 })
+                out.writeInt(VALUE);
+
+            for (final String CONTENT : new String[] { "remapA", "remapB", "remapC" })
+            {
+                final byte[] BYTES = CONTENT.getBytes(StandardCharsets.UTF_8);
+
+                out.writeInt(BYTES.length);
+                out.write(BYTES);
+            }
+        }
+
+        final CooccurrenceAdjacency ADJACENCY = CooccurrenceAdjacency.open(FILE.getPath());
+
+        assertEquals(1, ADJACENCY.degree(ID_A));
+        assertEquals(ID_B, ADJACENCY.getNeighbor(ID_A, 0));
+        assertEquals(5, ADJACENCY.getCount(ID_A, 0));
+
+        final int[] TOP = ADJACENCY.selectTopK(ID_B, 2);
+
+        assertEquals(ID_A, ADJACENCY.getNeighbor(ID_B, TOP[0]));
+        assertEquals(ID_C, ADJACENCY.getNeighbor(ID_B, TOP[1]));
+        assertEquals(2, ADJACENCY.getCount(ID_B, TOP[1]));
+
+        // 파일에 없는 Term
+        assertEquals(0, ADJACENCY.degree(DICTIONARY.intern("remapD")));
+    }
+
+    @Test
+    public void rejectsOtherAdjacencyFileVersions() throws IOException
+    {
+        final File FILE = folder.newFile("old.bin");
+
+        try (DataOutputStream out = new DataOutputStream(new FileOutputStream(FILE)))
+        {
+            out.writeInt(CooccurrenceAdjacency.FILE_MAGIC);
+            out.writeInt(CooccurrenceAdjacency.FILE_VERSION - 1);
+            out.writeInt(0);
+            out.writeInt(0);
+            out.writeInt(0);
+        }
+
+        try
+        {
+            CooccurrenceAdjacency.open(FILE.getPath());
+            fail("opened an adjacency file of another version");
+        }
+        catch (IOException e)
+        {
+            // 예상한 예외
+        }
+    }
+
+    @Test
+    public void spillingCalculatorMatchesInMemoryCalculator()
+    {
+        final WordCooccurrenceCalculator IN_MEMORY = new WordCooccurrenceCalculator(documentList.subList(0, 300), WINDOW_SIZE);
+
+        IN_MEMORY.addDocuments(documentList.subList(300, 500));
+
+        for (final long OFF_HEAP_BUDGET : new long[] { 0L, (64L << 20) })
+        {
+            final WordCooccurrenceCalculator SPILLING = new WordCooccurrenceCalculator();
+
+            SPILLING.setOffHeapBudget(OFF_HEAP_BUDGET);
+            SPILLING.setSpillBudget(SMALL_BUDGET, folder.getRoot());
+            SPILLING.setDocumentList(documentList.subList(0, 300), WINDOW_SIZE);
+            SPILLING.addDocuments(documentList.subList(300, 500));
+
+            assertNull(TestCorpus.diff(IN_MEMORY.cooccurrenceMatrix, SPILLING.cooccurrenceMatrix));
+
+            for (int rank = 0; rank < 200; ++rank)
+                assertEquals(IN_MEMORY.getOrderedCooccurrenceList(("w" + rank), 10), SPILLING.getOrderedCooccurrenceList(("w" + rank), 10));
+
+            SPILLING.release();
+            assertSpillDirectoryEmpty();
+        }
+    }
+
+    @Test
+    public void spillingCalculatorServesNeighborsFromAdjacencyFile()
+    {
+        final WordCooccurrenceCalculator IN_MEMORY = new WordCooccurrenceCalculator(documentList, WINDOW_SIZE);
+        final WordCooccurrenceCalculator SPILLING = new WordCooccurrenceCalculator();
+
+        SPILLING.setOffHeapBudget(64L << 20);
+        SPILLING.setSpillBudget(SMALL_BUDGET, folder.getRoot());
+        SPILLING.setDocumentList(documentList, WINDOW_SIZE);
+
+        // 매핑한 인접 리스트 파일은 연 뒤 바로 지운다.
+        assertSpillDirectoryEmpty();
+
+        // 인접 리스트를 메모리에 구축했다면 off-heap 사용량이 늘어난다.
+        final long OFF_HEAP_USED_BYTES = SPILLING.getOffHeapUsedBytes();
+
+        for (int rank = 0; rank < 200; ++rank)
+            assertEquals(IN_MEMORY.getOrderedCooccurrenceList(("w" + rank), 10), SPILLING.getOrderedCooccurrenceList(("w" + rank), 10));
+
+        assertEquals(OFF_HEAP_USED_BYTES, SPILLING.getOffHeapUsedBytes());
+
+        SPILLING.release();
+    }
+
+    private SpillingCooccurrenceBuilder newBuilder() throws IOException
+    {
+        return new SpillingCooccurrenceBuilder(WINDOW_SIZE, SMALL_BUDGET, folder.getRoot());
+    }
+
+    /**
+     * 런 파일과 임시 디렉토리, 계산기가 매핑한 인접 리스트 파일이 모두 지워졌는지 확인한다. (테스트가 기록한 인접 리스트 파일은 제외)
+     */
+    private void assertSpillDirectoryEmpty()
+    {
+        for (final File FILE : folder.getRoot().listFiles())
+            assertFalse(FILE.getName(), FILE.getName().startsWith("cooccurrence"));
+    }
+
+    /**
+     * 두 인접 리스트의 {@link Term} ID 별 이웃 개수와 상위 이웃이 같은지 확인한다.
+     */
+    private static void assertSameAdjacency(final CooccurrenceAdjacency expected, final CooccurrenceAdjacency actual)
+    {
+        for (int termID = 0; termID < (TermDictionary.getInstance().size() + 2); ++termID)
+        {
+            assertEquals(expected.degree(termID), actual.degree(termID));
+
+            final int[] EXPECTED_INDICES = expected.selectTopK(termID, 10);
+            final int[] ACTUAL_INDICES = actual.selectTopK(termID, 10);
+
+            assertEquals(EXPECTED_INDICES.length, ACTUAL_INDICES.length);
+
+            for (int i = 0; i < EXPECTED_INDICES.length; ++i)
+            {
+                assertEquals(expected.getNeighbor(termID, EXPECTED_INDICES[i]), actual.getNeighbor(termID, ACTUAL_INDICES[i]));
+                assertEquals(expected.getCount(termID, EXPECTED_INDICES[i]), actual.getCount(termID, ACTUAL_INDICES[i]));
+            }
+        }
+    }
+}
@@ -0,0 +1,187 @@
+package analysis;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Map;
+
+import static org.junit.Assert.*;
+
+/**
+ * 토큰화에 실패한 {@link Document}가 {@link StreamingIndexBuilder}의 역색인과 동시 출현 빈도에 남지 않는지,
+ * 디렉토리를 색인할 때 일반 파일이 아닌 항목을 건너뛰고 읽지 못한 파일을 모아 돌려주는지 확인한다.
+ */
+public class StreamingIndexBuilderTest
+{
+    private static final int WINDOW_SIZE = 2;
+
+    @Rule
+    public final TemporaryFolder folder = new TemporaryFolder();
+
+    private File dataDirectory;
+
+    @Before
+    public void setUp() throws IOException
+    {
+        dataDirectory = folder.newFolder("data");
+        write("a.txt", "stream-a stream-b stream-c stream-a\nstream-d");
+        write("b.txt", "stream-b stream-c stream-e");
+    }
+
+    @Test
+    public void abortDocumentRestoresInvertedIndex()
+    {
+        final TermDictionary DICTIONARY = TermDictionary.getInstance();
+        final InvertedIndex EXPECTED = new InvertedIndex(Collections.emptyList());
+        final InvertedIndex ACTUAL = new InvertedIndex(Collections.emptyList());
+
+        for (final InvertedIndex INDEX : Arrays.asList(EXPECTED, ACTUAL))
+        {
+            INDEX.beginDocument("abort-1");
+            INDEX.addTerm(DICTIONARY.intern("abort-x"));
+            INDEX.addTerm(DICTIONARY.intern("abort-y"));
+            INDEX.endDocument();
+        }
+
+        // 새 Document와 같은 ID의 Document를 다시 추가하다가 버린다.
+        for (final String DOCUMENT_ID : new String[] { "abort-2", "abort-1" })
+        {
+            ACTUAL.beginDocument(DOCUMENT_ID);
+            ACTUAL.addTerm(DICTIONARY.intern("abort-x"));
+            ACTUAL.addTerm(DICTIONARY.intern("abort-z"));
+            ACTUAL.abortDocument();
+        }
+
+        // 시작한 Document가 없는 경우
+        ACTUAL.abortDocument();
+
+        for (final InvertedIndex INDEX : Arrays.asList(EXPECTED, ACTUAL))
+        {
+            INDEX.beginDocument("abort-3");
+            INDEX.addTerm(DICTIONARY.intern("abort-y"));
+            INDEX.endDocument();
+        }
+
+        assertEquals(EXPECTED.getNumDocuments(), ACTUAL.getNumDocuments());
+        assertEquals(0, ACTUAL.getDocumentIndex("abort-1"));
+        assertEquals(1, ACTUAL.getDocumentIndex("abort-3"));
+        assertEquals(-1, ACTUAL.getDocumentIndex("abort-2"));
+
+        for (int documentIndex = 0; documentIndex < EXPECTED.getNumDocuments(); ++documentIndex)
+            assertEquals(EXPECTED.getDocumentLength(documentIndex), ACTUAL.getDocumentLength(documentIndex));
+
+        for (final String CONTENT : new String[] { "abort-x", "abort-y", "abort-z" })
+        {
+            final int TERM_ID = DICTIONARY.intern(CONTENT);
+
+            assertEquals(CONTENT, EXPECTED.getDocumentFrequency(TERM_ID), ACTUAL.getDocumentFrequency(TERM_ID));
+
+            for (int documentIndex = 0; documentIndex < EXPECTED.getNumDocuments(); ++documentIndex)
+                assertEquals(CONTENT, EXPECTED.calculateTfIdf(TERM_ID, documentIndex), ACTUAL.calculateTfIdf(TERM_ID, documentIndex), 0.0);
+        }
+    }
+
+    @Test
+    public void failedFilesLeaveNoTrace() throws IOException
+    {
+        final StreamingIndexBuilder EXPECTED = new StreamingIndexBuilder(WINDOW_SIZE);
+        final StreamingIndexBuilder ACTUAL = new StreamingIndexBuilder(WINDOW_SIZE);
+
+        EXPECTED.addFile(path("a.txt"), " ");
+        EXPECTED.addFile(path("b.txt"), " ");
+
+        ACTUAL.addFile(path("a.txt"), " ");
+
+        // 구분자가 잘못된 경우와 디렉토리를 파일로 읽는 경우 모두 Document를 시작한 뒤 실패한다.
+        try
+        {
+            ACTUAL.addFile(path("b.txt"), "");
+            fail("accepted an empty delimiter");
+        }
+        catch (IllegalArgumentException e)
+        {
+            // 예상한 예외
+        }
+
+        try
+        {
+            ACTUAL.addFile(folder.newFolder("a.txt").getPath(), " ");
+            fail("read a directory as a file");
+        }
+        catch (IOException e)
+        {
+            // 예상한 예외
+        }
+
+        ACTUAL.addFile(path("b.txt"), " ");
+
+        assertBuildersEqual(EXPECTED, ACTUAL);
+    }
+
+    @Test
+    public void addDirectorySkipsNonRegularFilesAndReportsFailures() throws IOException
+    {
+        final StreamingIndexBuilder EXPECTED = new StreamingIndexBuilder(WINDOW_SIZE);
+        final StreamingIndexBuilder ACTUAL = new StreamingIndexBuilder(WINDOW_SIZE);
+
+        assertTrue(new File(dataDirectory, "nested").mkdir());
+        write("nested/c.txt", "stream-nested");
+
+        // 디렉토리 내 파일 순서대로 색인한다.
+        for (final File FILE : dataDirectory.listFiles())
+        {
+            if (FILE.isFile())
+                EXPECTED.addFile(FILE.getPath(), " ");
+        }
+
+        final Map<String, IOException> FAILURES = ACTUAL.addDirectory(dataDirectory.getPath(), " ");
+
+        assertTrue(FAILURES.toString(), FAILURES.isEmpty());
+        assertBuildersEqual(EXPECTED, ACTUAL);
+
+        // 존재하지 않는 경로는 파일 하나로 보고 읽지 못한 파일로 돌려준다.
+        final StreamingIndexBuilder MISSING = new StreamingIndexBuilder(WINDOW_SIZE);
+        final String MISSING_PATH = new File(folder.getRoot(), "missing").getPath();
+        final Map<String, IOException> MISSING_FAILURES = MISSING.addDirectory(MISSING_PATH, " ");
+
+        assertEquals(Collections.singleton(MISSING_PATH), MISSING_FAILURES.keySet());
+        assertEquals(0, MISSING.getNumDocuments());
+        assertEquals(0L, MISSING.getNumTokens());
+    }
+
+    private static void assertBuildersEqual(final StreamingIndexBuilder expected, final StreamingIndexBuilder actual)
+    {
+        assertEquals(expected.getNumDocuments(), actual.getNumDocuments());
+        assertEquals(expected.getNumTokens(), actual.getNumTokens());
+
+        for (int i = 0; i < expected.getNumDocuments(); ++i)
+            assertEquals(expected.getDocumentList().get(i).getID(), actual.getDocumentList().get(i).getID());
+
+        final TFIDFCalculator EXPECTED_TF_IDF = expected.createTFIDFCalculator();
+        final TFIDFCalculator ACTUAL_TF_IDF = actual.createTFIDFCalculator();
+
+        for (final Document DOCUMENT : EXPECTED_TF_IDF.getDocumentList())
+            assertEquals(EXPECTED_TF_IDF.rank(DOCUMENT.getID(), 10), ACTUAL_TF_IDF.rank(DOCUMENT.getID(), 10));
+
+        assertNull(TestCorpus.diff(expected.createWordCooccurrenceCalculator().cooccurrenceMatrix,
+                actual.createWordCooccurrenceCalculator().cooccurrenceMatrix));
+    }
+
+    private String path(final String name)
+    {
+        return new File(dataDirectory, name).getPath();
+    }
+
+    private void write(final String name, final String content) throws IOException
+    {
+        Files.write(new File(dataDirectory, name).toPath(), content.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,62 @@
+package analysis;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * 테스트용 합성 말뭉치<br>
+ * 순위가 낮은 {@link Term}일수록 자주 출현하도록(로그 균등 분포) content "w0", "w1", ...을 뽑아 {@link Document}를 만든다.
+ * 같은 시드는 같은 말뭉치를 만든다.
+ */
+final class TestCorpus
+{
+    private TestCorpus() {}
+
+    /**
+     * @param numDocuments {@link Document} 개수
+     * @param documentLength {@link Document} 별 {@link Term} 개수
+     * @param vocabularySize 서로 다른 {@link Term}의 최대 개수
+     * @param seed 난수 시드
+     * @param idPrefix {@link Document} ID 접두어
+     * @return {@link Document} 리스트
+     */
+    static List<Document> generate(
+            final int numDocuments, final int documentLength, final int vocabularySize, final long seed, final String idPrefix)
+    {
+        final Random RANDOM = new Random(seed);
+        List<Document> retVal = new ArrayList<>(numDocuments);
+
+        for (int documentIndex = 0; documentIndex < numDocuments; ++documentIndex)
+        {
+            List<Term> termList = new ArrayList<>(documentLength);
+
+            for (int i = 0; i < documentLength; ++i)
+                termList.add(new Term("w" + ((int)Math.pow(vocabularySize, RANDOM.nextDouble()) - 1)));
+
+            retVal.add(new Document((idPrefix + documentIndex), termList));
+        }
+
+        return retVal;
+    }
+
+    /**
+     * 두 희소 행렬의 항목이 모두 같은지 확인한다.
+     * @return 다른 항목의 설명 (같은 경우 null)
+     */
+    static String diff(final LongIntMap expected, final LongIntMap actual)
+    {
+        if (expected.size() != actual.size())
+            return ("size " + expected.size() + " != " + actual.size());
+
+        final StringBuilder RETVAL = new StringBuilder();
+
+        expected.forEach((key, value) ->
+        {
+            if ((RETVAL.length() == 0) && (actual.get(key) != value))
+                RETVAL.append("key ").append(Long.toHexString(key)).append(": ").append(value).append(" != ").append(actual.get(key));
+        });
+
+        return ((RETVAL.length() == 0) ? null : RETVAL.toString());
+    }
+}
@@ -0,0 +1,42 @@
+package analysis;
+
+import jdk.incubator.vector.DoubleVector;
+import jdk.incubator.vector.VectorOperators;
+import jdk.incubator.vector.VectorSpecies;
+
+/**
+ * jdk.incubator.vector로 구현한 {@link DotProductKernel}의 SIMD 커널<br>
+ * 하드웨어가 지원하는 가장 넓은 레인 수(AVX2: 4, AVX-512: 8)로 곱하고, 누적 벡터 2개로 덧셈 사이의 의존성을 끊는다.<br><br>
+ *
+ * 참고: JDK 16 이상에서만 컴파일되며, {@link DotProductKernel}이 리플렉션으로 로드한다.
+ * 실행 시 --add-modules jdk.incubator.vector가 필요하다.
+ */
+final class VectorDotProductKernel implements DotProductKernel.VectorKernel
+{
+    private static final VectorSpecies<Double> SPECIES = DoubleVector.SPECIES_PREFERRED;
+
+    @Override
+    public double dot(final double[] vector1, final double[] vector2, final int length)
+    {
+        final int STEP = SPECIES.length();
+        DoubleVector sum0 = DoubleVector.zero(SPECIES);
+        DoubleVector sum1 = DoubleVector.zero(SPECIES);
+        int i = 0;
+
+        for (final int BOUND = (length - (STEP << 1)); i <= BOUND; i += (STEP << 1))
+        {
+            sum0 = sum0.add(DoubleVector.fromArray(SPECIES, vector1, i).mul(DoubleVector.fromArray(SPECIES, vector2, i)));
+            sum1 = sum1.add(DoubleVector.fromArray(SPECIES, vector1, (i + STEP)).mul(DoubleVector.fromArray(SPECIES, vector2, (i + STEP))));
+        }
+
+        for (final int BOUND = SPECIES.loopBound(length); i < BOUND; i += STEP)
+            sum0 = sum0.add(DoubleVector.fromArray(SPECIES, vector1, i).mul(DoubleVector.fromArray(SPECIES, vector2, i)));
+
+        double retVal = sum0.add(sum1).reduceLanes(VectorOperators.ADD);
+
+        for (; i < length; ++i)
+            retVal += (vector1[i] * vector2[i]);
+
+        return retVal;
+    }
+}
@@ -0,0 +1,45 @@
+package analysis;
+
+import java.io.IOException;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * {@link Document#batchRead(String, int, Document.ProgressListener)}의 결과<br>
+ * 읽어들인 {@link Document} 리스트와, 읽지 못한 파일 별 예외를 함께 담는다.
+ */
+public class BatchReadResult
+{
+    /**
+     * 읽어들인 {@link Document} 리스트 (디렉토리 내 파일 순서)
+     */
+    private final List<Document> documentList;
+
+    /**
+     * key: 파일 경로<br>
+     * value: 파일을 읽는 도중 발생한 예외
+     */
+    private final LinkedHashMap<String, IOException> failureMap;
+
+    public BatchReadResult(final List<Document> documentList, final LinkedHashMap<String, IOException> failureMap)
+    {
+        this.documentList = documentList;
+        this.failureMap = failureMap;
+    }
+
+    public List<Document> getDocumentList()
+    {
+        return documentList;
+    }
+
+    public Map<String, IOException> getFailureMap()
+    {
+        return failureMap;
+    }
+
+    public boolean hasFailures()
+    {
+        return !failureMap.isEmpty();
+    }
+}
@@ -0,0 +1,167 @@
+package analysis;
+
+import java.io.IOException;
+import java.nio.IntBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+
+/**
+ * 길이가 2^shift인 {@link IntBuffer} 조각들로 나누어 저장한 int 배열<br>
+ * 메모리 맵 버퍼와 direct 버퍼 하나는 2GB를 넘을 수 없으므로, 희소 행렬 크기에 비례하는 배열은 조각 단위로 할당하거나 매핑한다.
+ *
+ * @see CooccurrenceAdjacency
+ */
+final class ChunkedIntBuffer
+{
+    /**
+     * 기본 조각 크기의 log2 (2^28개의 int, 1GB)
+     */
+    static final int DEFAULT_CHUNK_SHIFT = 28;
+
+    private final IntBuffer[] chunks;
+
+    /**
+     * 매핑한 조각 (파일을 매핑하지 않은 경우 null, 참고: {@link #force()})
+     */
+    private final MappedByteBuffer[] mappedChunks;
+
+    private final int shift;
+    private final int mask;
+    private final int capacity;
+
+    private ChunkedIntBuffer(final IntBuffer[] chunks, final MappedByteBuffer[] mappedChunks, final int shift, final int capacity)
+    {
+        this.chunks = chunks;
+        this.mappedChunks = mappedChunks;
+        this.shift = shift;
+        this.mask = (int)((1L << shift) - 1L);
+        this.capacity = capacity;
+    }
+
+    /**
+     * 배열 하나를 조각 하나로 감싼다.
+     * @param array 감쌀 배열
+     * @return {@link ChunkedIntBuffer}
+     */
+    static ChunkedIntBuffer wrap(final int[] array)
+    {
+        // 조각 번호(index >>> 31)는 항상 0이다.
+        return new ChunkedIntBuffer(new IntBuffer[] { IntBuffer.wrap(array) }, null, 31, array.length);
+    }
+
+    /**
+     * @param capacity int 개수
+     * @param shift 조각 크기의 log2
+     * @param arena 조각을 할당할 {@link OffHeapArena} (null인 경우 힙에 할당한다.)
+     * @return 0으로 채워진 {@link ChunkedIntBuffer}
+     * @throws IllegalStateException arena의 예산이 부족한 경우 (이미 할당한 조각은 돌려준다.)
+     */
+    static ChunkedIntBuffer allocate(final int capacity, final int shift, final OffHeapArena arena)
+    {
+        final IntBuffer[] CHUNKS = new IntBuffer[numChunks(capacity, shift)];
+
+        for (int chunk = 0; chunk < CHUNKS.length; ++chunk)
+        {
+            final int LENGTH = chunkLength(capacity, shift, chunk);
+
+            if (arena == null)
+            {
+                CHUNKS[chunk] = IntBuffer.allocate(LENGTH);
+                continue;
+            }
+
+            try
+            {
+                CHUNKS[chunk] = arena.allocateInts(LENGTH);
+            }
+            catch (IllegalStateException e)
+            {
+                for (int allocated = 0; allocated < chunk; ++allocated)
+                    arena.release(CHUNKS[allocated]);
+
+                throw e;
+            }
+        }
+
+        return new ChunkedIntBuffer(CHUNKS, null, shift, capacity);
+    }
+
+    /**
+     * 파일의 [position, position + capacity * 4) 구간을 조각 단위로 매핑한다. (big-endian)<br>
+     * 채널을 닫아도 매핑은 유효하다.
+     * @param channel 파일 채널
+     * @param mode 매핑 모드 ({@link FileChannel.MapMode#READ_WRITE}인 경우 필요하면 파일을 늘린다.)
+     * @param position 시작 바이트 위치
+     * @param capacity int 개수
+     * @param shift 조각 크기의 log2
+     * @return {@link ChunkedIntBuffer}
+     * @throws IOException
+     */
+    static ChunkedIntBuffer map(
+            final FileChannel channel, final FileChannel.MapMode mode, final long position, final int capacity, final int shift)
+            throws IOException
+    {
+        final IntBuffer[] CHUNKS = new IntBuffer[numChunks(capacity, shift)];
+        final MappedByteBuffer[] MAPPED_CHUNKS = new MappedByteBuffer[CHUNKS.length];
+
+        for (int chunk = 0; chunk < CHUNKS.length; ++chunk)
+        {
+            final long CHUNK_POSITION = (position + (((long)chunk << shift) * Integer.BYTES));
+
+            MAPPED_CHUNKS[chunk] = channel.map(mode, CHUNK_POSITION, ((long)chunkLength(capacity, shift, chunk) * Integer.BYTES));
+            CHUNKS[chunk] = MAPPED_CHUNKS[chunk].asIntBuffer();
+        }
+
+        return new ChunkedIntBuffer(CHUNKS, MAPPED_CHUNKS, shift, capacity);
+    }
+
+    int get(final int index)
+    {
+        return chunks[index >>> shift].get(index & mask);
+    }
+
+    void put(final int index, final int value)
+    {
+        chunks[index >>> shift].put((index & mask), value);
+    }
+
+    int capacity()
+    {
+        return capacity;
+    }
+
+    /**
+     * 매핑한 조각의 변경 사항을 파일에 기록한다. (매핑하지 않은 경우 아무것도 하지 않는다.)
+     */
+    void force()
+    {
+        if (mappedChunks == null)
+            return;
+
+        for (final MappedByteBuffer CHUNK : mappedChunks)
+            CHUNK.force();
+    }
+
+    /**
+     * 조각들을 {@link OffHeapArena}에 돌려준다.
+     * @param arena 조각을 할당한 {@link OffHeapArena}
+     */
+    void release(final OffHeapArena arena)
+    {
+        for (final IntBuffer CHUNK : chunks)
+            arena.release(CHUNK);
+    }
+
+    private static int numChunks(final int capacity, final int shift)
+    {
+        if (capacity < 0)
+            throw new IllegalArgumentException("capacity must not be negative: " + capacity);
+
+        return (int)((capacity + ((1L << shift) - 1L)) >>> shift);
+    }
+
+    private static int chunkLength(final int capacity, final int shift, final int chunk)
+    {
+        return (int)Math.min((1L << shift), (capacity - ((long)chunk << shift)));
+    }
+}
@@ -0,0 +1,633 @@
+package analysis;
+
+import java.io.BufferedInputStream;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+
+/**
+ * 동시 출현 희소 행렬을 {@link Term} ID 별 이웃 목록으로 펼친 CSR(Compressed Sparse Row) 형태의 인접 리스트<br>
+ * {@link Term} ID termID의 이웃은 [offsets[termID], offsets[termID + 1]) 구간의 neighbors, counts 배열에 저장된다.<br><br>
+ *
+ * 참고: 이웃 목록은 정렬하지 않은 채로 두고, 질의 시 필요한 상위 k개만 고른다.
+ * {@link #update(LongIntMap, LongIntMap, OffHeapArena)}는 빈도가 바뀐 {@link Term}의 행만 힙 배열로 다시 만들고,
+ * 나머지 행은 이전 인접 리스트의 CSR 배열을 그대로 공유한다.
+ * {@link OffHeapArena}를 지정한 경우 희소 행렬 크기에 비례하는 neighbors, counts를 direct 버퍼에 저장하며,
+ * 사용이 끝나면 {@link #release()}로 해제한다. ({@link Term} ID 상한에 비례하는 offsets는 힙에 둔다.)
+ * {@link SpillingCooccurrenceBuilder#writeAdjacency(String)}가 기록한 파일을 {@link #open(String)}으로 열면
+ * neighbors, counts를 1GB 단위로 매핑한 버퍼에서 바로 읽는다. 파일의 {@link Term} ID는 기록한 프로세스의 ID이므로,
+ * 파일에 함께 기록된 content로 이 프로세스의 ID에 대응시켜 조회 시 변환한다.
+ *
+ * @see WordCooccurrenceCalculator
+ */
+public class CooccurrenceAdjacency
+{
+    /**
+     * 인접 리스트 파일 식별자 ("DIAA")
+     */
+    static final int FILE_MAGIC = 0x44494141;
+
+    /**
+     * 인접 리스트 파일 형식 버전 (형식이 바뀌면 올린다.)
+     */
+    static final int FILE_VERSION = 2;
+
+    private static final Timer BUILD_TIMER = MetricsRegistry.getInstance().timer("cooccurrence.adjacency");
+
+    /**
+     * {@link Term} ID 별 이웃 목록의 시작 위치 (길이: {@link Term} ID 상한 + 1)
+     */
+    private final int[] offsets;
+
+    /**
+     * 이웃 {@link Term} ID 배열
+     */
+    private final ChunkedIntBuffer neighbors;
+
+    /**
+     * 이웃 별 동시 출현 빈도 배열
+     */
+    private final ChunkedIntBuffer counts;
+
+    /**
+     * neighbors, counts를 할당한 {@link OffHeapArena} (힙에 저장한 경우 null)
+     */
+    private final OffHeapArena arena;
+
+    /**
+     * {@link Term} ID 별로 다시 만든 행의 이웃 {@link Term} ID 배열 (CSR 배열의 행을 사용하는 경우 null)<br>
+     * 다시 만든 행이 없는 경우 배열 자체가 null이다. (참고: {@link #update(LongIntMap, LongIntMap, OffHeapArena)})
+     */
+    private final int[][] rowNeighbors;
+
+    /**
+     * {@link Term} ID 별로 다시 만든 행의 동시 출현 빈도 배열
+     */
+    private final int[][] rowCounts;
+
+    /**
+     * 다시 만든 행들의 항목 개수 합
+     */
+    private final long numRowEntries;
+
+    /**
+     * CSR 배열의 {@link Term} ID(행, 이웃) 별 이 프로세스의 {@link Term} ID (파일에서 열지 않은 경우 null)
+     */
+    private final int[] termIDs;
+
+    /**
+     * 이 프로세스의 {@link Term} ID 별 CSR 배열의 행 (파일에 없는 경우 -1, 파일에서 열지 않은 경우 null)
+     */
+    private final int[] rows;
+
+    /**
+     * @param matrix 희소 행렬 (참고: {@link WordCooccurrenceCalculator#toMatrixKey(int, int)})
+     */
+    public CooccurrenceAdjacency(final LongIntMap matrix)
+    {
+        this(matrix, null);
+    }
+
+    /**
+     * @param matrix 희소 행렬 (참고: {@link WordCooccurrenceCalculator#toMatrixKey(int, int)})
+     * @param arena neighbors, counts를 할당할 {@link OffHeapArena} (null인 경우 힙에 저장한다.)
+     * @throws IllegalStateException arena의 예산이 부족한 경우
+     */
+    public CooccurrenceAdjacency(final LongIntMap matrix, final OffHeapArena arena)
+    {
+        this.arena = arena;
+        rowNeighbors = null;
+        rowCounts = null;
+        numRowEntries = 0L;
+        termIDs = null;
+        rows = null;
+
+        final long START = BUILD_TIMER.start();
+        final int[] TERM_ID_BOUND = { 0 };
+
+        matrix.forEach((matrixKey, frequency) ->
+                TERM_ID_BOUND[0] = Math.max(TERM_ID_BOUND[0], (WordCooccurrenceCalculator.getTermID2(matrixKey) + 1)));
+
+        offsets = new int[TERM_ID_BOUND[0] + 1];
+
+        matrix.forEach((matrixKey, frequency) ->
+        {
+            ++offsets[WordCooccurrenceCalculator.getTermID1(matrixKey) + 1];
+            ++offsets[WordCooccurrenceCalculator.getTermID2(matrixKey) + 1];
+        });
+
+        for (int termID = 0; termID < TERM_ID_BOUND[0]; ++termID)
+            offsets[termID + 1] += offsets[termID];
+
+        final int NUM_ENTRIES = offsets[TERM_ID_BOUND[0]];
+
+        neighbors = ChunkedIntBuffer.allocate(NUM_ENTRIES, ChunkedIntBuffer.DEFAULT_CHUNK_SHIFT, arena);
+
+        try
+        {
+            counts = ChunkedIntBuffer.allocate(NUM_ENTRIES, ChunkedIntBuffer.DEFAULT_CHUNK_SHIFT, arena);
+        }
+        catch (IllegalStateException e)
+        {
+            neighbors.release(arena);
+            throw e;
+        }
+
+        final int[] NEXT = Arrays.copyOf(offsets, TERM_ID_BOUND[0]);
+
+        matrix.forEach((matrixKey, frequency) ->
+        {
+            final int TERM_ID1 = WordCooccurrenceCalculator.getTermID1(matrixKey);
+            final int TERM_ID2 = WordCooccurrenceCalculator.getTermID2(matrixKey);
+
+            neighbors.put(NEXT[TERM_ID1], TERM_ID2);
+            counts.put(NEXT[TERM_ID1]++, frequency);
+
+            neighbors.put(NEXT[TERM_ID2], TERM_ID1);
+            counts.put(NEXT[TERM_ID2]++, frequency);
+        });
+
+        BUILD_TIMER.stop(START, matrix.size());
+    }
+
+    private CooccurrenceAdjacency(
+            final int[] offsets, final ChunkedIntBuffer neighbors, final ChunkedIntBuffer counts, final int[] termIDs, final int[] rows)
+    {
+        this(offsets, neighbors, counts, null, null, null, 0L, termIDs, rows);
+    }
+
+    private CooccurrenceAdjacency(
+            final int[] offsets, final ChunkedIntBuffer neighbors, final ChunkedIntBuffer counts, final OffHeapArena arena,
+            final int[][] rowNeighbors, final int[][] rowCounts, final long numRowEntries,
+            final int[] termIDs, final int[] rows)
+    {
+        this.offsets = offsets;
+        this.neighbors = neighbors;
+        this.counts = counts;
+        this.arena = arena;
+        this.rowNeighbors = rowNeighbors;
+        this.rowCounts = rowCounts;
+        this.numRowEntries = numRowEntries;
+        this.termIDs = termIDs;
+        this.rows = rows;
+    }
+
+    /**
+     * 희소 행렬에 빈도가 더해진 뒤의 인접 리스트를 만든다. 이 인접 리스트는 바뀌지 않는다.<br>
+     * 더해진 빈도에 포함된 {@link Term}의 행만 기존 행과 병합하여 다시 만들고, 나머지 행은 CSR 배열을 공유한다.
+     * 다시 만든 행의 항목 개수 합이 CSR 배열의 항목 개수를 넘으면 희소 행렬 전체로 다시 구축한다.
+     * @param matrix 빈도가 더해진 희소 행렬 (전체를 다시 구축하는 경우에만 읽는다.)
+     * @param delta 더해진 빈도 (참고: {@link WordCooccurrenceCalculator#toMatrixKey(int, int)})
+     * @param arena 다시 구축하는 경우 neighbors, counts를 할당할 {@link OffHeapArena} (null인 경우 힙에 저장한다.)
+     * @return 갱신된 인접 리스트 (CSR 배열을 공유하는지는 {@link #sharesStorageWith(CooccurrenceAdjacency)}로 확인한다.)
+     */
+    public CooccurrenceAdjacency update(final LongIntMap matrix, final LongIntMap delta, final OffHeapArena arena)
+    {
+        final long START = BUILD_TIMER.start();
+        final int[] TERM_ID_BOUND = { getTermIDBound() };
+
+        delta.forEach((matrixKey, frequency) ->
+                TERM_ID_BOUND[0] = Math.max(TERM_ID_BOUND[0], (WordCooccurrenceCalculator.getTermID2(matrixKey) + 1)));
+
+        // 더해진 빈도를 행 별로 모은다. (CSR 형태, 행 termID: [DELTA_OFFSETS[termID], DELTA_OFFSETS[termID + 1]))
+        final int[] DELTA_OFFSETS = new int[TERM_ID_BOUND[0] + 1];
+
+        delta.forEach((matrixKey, frequency) ->
+        {
+            ++DELTA_OFFSETS[WordCooccurrenceCalculator.getTermID1(matrixKey) + 1];
+            ++DELTA_OFFSETS[WordCooccurrenceCalculator.getTermID2(matrixKey) + 1];
+        });
+
+        for (int termID = 0; termID < TERM_ID_BOUND[0]; ++termID)
+            DELTA_OFFSETS[termID + 1] += DELTA_OFFSETS[termID];
+
+        // 다시 만들 행의 항목 개수 상한 (새로운 이웃이 모두 처음 출현한 경우)
+        long numEntries = numRowEntries;
+
+        for (int termID = 0; termID < TERM_ID_BOUND[0]; ++termID)
+        {
+            if (DELTA_OFFSETS[termID] == DELTA_OFFSETS[termID + 1])
+                continue;
+
+            if (isRebuiltRow(termID))
+                numEntries -= rowNeighbors[termID].length;
+
+            numEntries += (degree(termID) + (DELTA_OFFSETS[termID + 1] - DELTA_OFFSETS[termID]));
+        }
+
+        // 다시 만든 행이 CSR 배열보다 커지면 행 단위 갱신이 더 비싸므로 전체를 다시 구축한다. (구축 시간은 생성자가 측정한다.)
+        if (numEntries > neighbors.capacity())
+            return new CooccurrenceAdjacency(matrix, arena);
+
+        final int[] DELTA_NEIGHBORS = new int[DELTA_OFFSETS[TERM_ID_BOUND[0]]];
+        final int[] DELTA_COUNTS = new int[DELTA_NEIGHBORS.length];
+        final int[] NEXT = Arrays.copyOf(DELTA_OFFSETS, TERM_ID_BOUND[0]);
+
+        delta.forEach((matrixKey, frequency) ->
+        {
+            final int TERM_ID1 = WordCooccurrenceCalculator.getTermID1(matrixKey);
+            final int TERM_ID2 = WordCooccurrenceCalculator.getTermID2(matrixKey);
+
+            DELTA_NEIGHBORS[NEXT[TERM_ID1]] = TERM_ID2;
+            DELTA_COUNTS[NEXT[TERM_ID1]++] = frequency;
+
+            DELTA_NEIGHBORS[NEXT[TERM_ID2]] = TERM_ID1;
+            DELTA_COUNTS[NEXT[TERM_ID2]++] = frequency;
+        });
+
+        final int[][] ROW_NEIGHBORS = ((rowNeighbors == null) ?
+                new int[TERM_ID_BOUND[0]][] : Arrays.copyOf(rowNeighbors, TERM_ID_BOUND[0]));
+        final int[][] ROW_COUNTS = ((rowCounts == null) ?
+                new int[TERM_ID_BOUND[0]][] : Arrays.copyOf(rowCounts, TERM_ID_BOUND[0]));
+
+        // 이웃 Term ID 별로 더해진 빈도 (행마다 채웠다가 0으로 되돌린다.)
+        final int[] PENDING = new int[TERM_ID_BOUND[0]];
+        numEntries = numRowEntries;
+
+        for (int termID = 0; termID < TERM_ID_BOUND[0]; ++termID)
+        {
+            final int FROM = DELTA_OFFSETS[termID];
+            final int TO = DELTA_OFFSETS[termID + 1];
+
+            if (FROM == TO)
+                continue;
+
+            for (int i = FROM; i < TO; ++i)
+                PENDING[DELTA_NEIGHBORS[i]] = DELTA_COUNTS[i];
+
+            // 기존 이웃은 빈도를 더해 옮기고, 기존 행에 없던 이웃은 뒤에 덧붙인다.
+            final int DEGREE = degree(termID);
+            int[] neighborArray = new int[DEGREE + (TO - FROM)];
+            int[] countArray = new int[neighborArray.length];
+
+            for (int index = 0; index < DEGREE; ++index)
+            {
+                final int NEIGHBOR = getNeighbor(termID, index);
+
+                neighborArray[index] = NEIGHBOR;
+                countArray[index] = (getCount(termID, index) + PENDING[NEIGHBOR]);
+                PENDING[NEIGHBOR] = 0;
+            }
+
+            int size = DEGREE;
+
+            for (int i = FROM; i < TO; ++i)
+            {
+                final int NEIGHBOR = DELTA_NEIGHBORS[i];
+
+                if (PENDING[NEIGHBOR] == 0)
+                    continue;
+
+                neighborArray[size] = NEIGHBOR;
+                countArray[size++] = PENDING[NEIGHBOR];
+                PENDING[NEIGHBOR] = 0;
+            }
+
+            if (size < neighborArray.length)
+            {
+                neighborArray = Arrays.copyOf(neighborArray, size);
+                countArray = Arrays.copyOf(countArray, size);
+            }
+
+            if (isRebuiltRow(termID))
+                numEntries -= rowNeighbors[termID].length;
+
+            numEntries += size;
+            ROW_NEIGHBORS[termID] = neighborArray;
+            ROW_COUNTS[termID] = countArray;
+        }
+
+        BUILD_TIMER.stop(START, delta.size());
+
+        return new CooccurrenceAdjacency(
+                offsets, neighbors, counts, this.arena, ROW_NEIGHBORS, ROW_COUNTS, numEntries, termIDs, rows);
+    }
+
+    /**
+     * @return other와 CSR 배열을 공유하는지 여부 (공유하는 경우 한 쪽을 {@link #release()}하면 다른 쪽도 사용할 수 없다.)
+     */
+    boolean sharesStorageWith(final CooccurrenceAdjacency other)
+    {
+        return (neighbors == other.neighbors);
+    }
+
+    /**
+     * 인접 리스트 파일을 메모리 맵으로 연다. neighbors, counts는 힙에 복사하지 않고 1GB 단위의 조각으로 매핑하므로,
+     * 파일 크기는 2GB로 제한되지 않는다. (항목 개수는 int 범위로 제한된다.)<br>
+     * 파일에 기록된 {@link Term} content를 {@link TermDictionary}에 등록하여, 다른 프로세스가 기록한 파일도
+     * 이 프로세스의 {@link Term} ID로 조회할 수 있게 한다. (ID가 모두 같은 경우 변환하지 않는다.)
+     * @param path {@link SpillingCooccurrenceBuilder#writeAdjacency(String)}가 기록한 파일 경로
+     * @return {@link CooccurrenceAdjacency}
+     * @throws IOException 파일이 없거나, 인접 리스트 파일이 아니거나, 버전이 다른 경우
+     */
+    public static CooccurrenceAdjacency open(final String path) throws IOException
+    {
+        return open(path, ChunkedIntBuffer.DEFAULT_CHUNK_SHIFT);
+    }
+
+    /**
+     * @param path 인접 리스트 파일 경로
+     * @param chunkShift neighbors, counts를 매핑할 조각 크기(int 개수)의 log2
+     * @return {@link CooccurrenceAdjacency}
+     * @throws IOException 파일이 없거나, 인접 리스트 파일이 아니거나, 버전이 다른 경우
+     */
+    static CooccurrenceAdjacency open(final String path, final int chunkShift) throws IOException
+    {
+        try (FileChannel channel = FileChannel.open(Paths.get(path), StandardOpenOption.READ))
+        {
+            final long SIZE = channel.size();
+
+            // 채널을 닫지 않도록 스트림은 닫지 않는다. (채널은 try에서 닫는다.)
+            final DataInputStream HEADER = new DataInputStream(new BufferedInputStream(Channels.newInputStream(channel)));
+
+            if (HEADER.readInt() != FILE_MAGIC)
+                throw new IOException("not an adjacency file: " + path);
+
+            final int VERSION = HEADER.readInt();
+
+            if (VERSION != FILE_VERSION)
+                throw new IOException("unsupported adjacency file version: " + VERSION);
+
+            final int TERM_ID_BOUND = HEADER.readInt();
+            final int NUM_ENTRIES = HEADER.readInt();
+            final long NEIGHBORS_POSITION = ((4L + TERM_ID_BOUND + 1L) * Integer.BYTES);
+            final long COUNTS_POSITION = (NEIGHBORS_POSITION + ((long)NUM_ENTRIES * Integer.BYTES));
+            final long CONTENTS_POSITION = (COUNTS_POSITION + ((long)NUM_ENTRIES * Integer.BYTES));
+
+            // 배열을 할당하거나 파일 밖을 매핑하기 전에 크기를 확인한다.
+            if ((TERM_ID_BOUND < 0) || (NUM_ENTRIES < 0) || (CONTENTS_POSITION > SIZE))
+                throw new IOException("corrupted adjacency file: " + path);
+
+            try
+            {
+                final int[] OFFSETS = new int[TERM_ID_BOUND + 1];
+
+                for (int i = 0; i < OFFSETS.length; ++i)
+                    OFFSETS[i] = HEADER.readInt();
+
+                if (OFFSETS[TERM_ID_BOUND] != NUM_ENTRIES)
+                    throw new IOException("corrupted adjacency file: " + path);
+
+                final ChunkedIntBuffer NEIGHBORS =
+                        ChunkedIntBuffer.map(channel, FileChannel.MapMode.READ_ONLY, NEIGHBORS_POSITION, NUM_ENTRIES, chunkShift);
+                final ChunkedIntBuffer COUNTS =
+                        ChunkedIntBuffer.map(channel, FileChannel.MapMode.READ_ONLY, COUNTS_POSITION, NUM_ENTRIES, chunkShift);
+
+                // 파일의 Term ID 별 content를 이 프로세스의 Term ID로 바꾼다.
+                channel.position(CONTENTS_POSITION);
+
+                final DataInputStream CONTENTS = new DataInputStream(new BufferedInputStream(Channels.newInputStream(channel)));
+                final TermDictionary DICTIONARY = TermDictionary.getInstance();
+                final int[] TERM_IDS = new int[TERM_ID_BOUND];
+                int rowBound = 0;
+                boolean identity = true;
+
+                for (int fileTermID = 0; fileTermID < TERM_ID_BOUND; ++fileTermID)
+                {
+                    final byte[] CONTENT = new byte[CONTENTS.readInt()];
+
+                    CONTENTS.readFully(CONTENT);
+                    TERM_IDS[fileTermID] = DICTIONARY.intern(new String(CONTENT, StandardCharsets.UTF_8));
+                    rowBound = Math.max(rowBound, (TERM_IDS[fileTermID] + 1));
+                    identity &= (TERM_IDS[fileTermID] == fileTermID);
+                }
+
+                if (identity)
+                    return new CooccurrenceAdjacency(OFFSETS, NEIGHBORS, COUNTS, null, null);
+
+                final int[] ROWS = new int[rowBound];
+                Arrays.fill(ROWS, -1);
+
+                for (int fileTermID = 0; fileTermID < TERM_ID_BOUND; ++fileTermID)
+                    ROWS[TERM_IDS[fileTermID]] = fileTermID;
+
+                return new CooccurrenceAdjacency(OFFSETS, NEIGHBORS, COUNTS, TERM_IDS, ROWS);
+            }
+            catch (EOFException | IndexOutOfBoundsException | IllegalArgumentException | NegativeArraySizeException e)
+            {
+                throw new IOException("corrupted adjacency file: " + path, e);
+            }
+        }
+    }
+
+    /**
+     * @param termID {@link Term} ID
+     * @return 함께 출현한 서로 다른 {@link Term} 개수
+     */
+    public int degree(final int termID)
+    {
+        if (isRebuiltRow(termID))
+            return rowNeighbors[termID].length;
+
+        final int ROW = toRow(termID);
+
+        return ((ROW < 0) ? 0 : (offsets[ROW + 1] - offsets[ROW]));
+    }
+
+    /**
+     * @param termID {@link Term} ID
+     * @param index 행 내 위치 (0 이상 {@link #degree(int)} 미만)
+     * @return 이웃 {@link Term} ID
+     */
+    public int getNeighbor(final int termID, final int index)
+    {
+        if (isRebuiltRow(termID))
+            return rowNeighbors[termID][index];
+
+        return toTermID(neighbors.get(offsets[toRow(termID)] + index));
+    }
+
+    /**
+     * @param termID {@link Term} ID
+     * @param index 행 내 위치 (0 이상 {@link #degree(int)} 미만)
+     * @return 이웃과의 동시 출현 빈도
+     */
+    public int getCount(final int termID, final int index)
+    {
+        if (isRebuiltRow(termID))
+            return rowCounts[termID][index];
+
+        return counts.get(offsets[toRow(termID)] + index);
+    }
+
+    /**
+     * @return 희소 행렬 크기에 비례하는 neighbors, counts와 다시 만든 행이 차지하는 바이트 수
+     */
+    public long getNumBytes()
+    {
+        return (2L * (neighbors.capacity() + numRowEntries) * Integer.BYTES);
+    }
+
+    public boolean isOffHeap()
+    {
+        return (arena != null);
+    }
+
+    /**
+     * direct 버퍼에 저장한 경우 {@link OffHeapArena}에 돌려준다. 이후에는 조회할 수 없다.
+     * (CSR 배열을 공유하는 인접 리스트도 조회할 수 없게 된다.)
+     */
+    public void release()
+    {
+        if (arena == null)
+            return;
+
+        neighbors.release(arena);
+        counts.release(arena);
+    }
+
+    /**
+     * 이웃 중 동시 출현 빈도가 높은 k개를 고른다. (크기 k의 최소 힙 사용)
+     * @param termID {@link Term} ID
+     * @param k 고를 개수
+     * @return 이웃의 행 내 위치 배열 (참고: {@link #getNeighbor(int, int)}, {@link #getCount(int, int)})
+     * (빈도의 내림차순, 같은 빈도의 경우 content 오름차순)
+     */
+    public int[] selectTopK(final int termID, final int k)
+    {
+        final int DEGREE = degree(termID);
+        final int SIZE = Math.min(k, DEGREE);
+        final int[] HEAP = new int[Math.max(SIZE, 0)];
+        int heapSize = 0;
+
+        if (SIZE <= 0)
+            return HEAP;
+
+        final TermDictionary DICTIONARY = TermDictionary.getInstance();
+        final boolean REBUILT = isRebuiltRow(termID);
+        final ChunkedIntBuffer NEIGHBORS = (REBUILT ? ChunkedIntBuffer.wrap(rowNeighbors[termID]) : neighbors);
+        final ChunkedIntBuffer COUNTS = (REBUILT ? ChunkedIntBuffer.wrap(rowCounts[termID]) : counts);
+        final int FROM = (REBUILT ? 0 : offsets[toRow(termID)]);
+        final int[] TERM_IDS = (REBUILT ? null : termIDs);
+
+        for (int position = FROM; position < (FROM + DEGREE); ++position)
+        {
+            if (heapSize < SIZE)
+            {
+                HEAP[heapSize] = position;
+                siftUp(HEAP, heapSize++, NEIGHBORS, COUNTS, TERM_IDS, DICTIONARY);
+            }
+            else if (isBetter(position, HEAP[0], NEIGHBORS, COUNTS, TERM_IDS, DICTIONARY))
+            {
+                HEAP[0] = position;
+                siftDown(HEAP, 0, heapSize, NEIGHBORS, COUNTS, TERM_IDS, DICTIONARY);
+            }
+        }
+
+        // 힙 정렬로 최소 원소를 뒤에서부터 채운다.
+        for (int last = (heapSize - 1); last > 0; --last)
+        {
+            final int TEMP = HEAP[0];
+            HEAP[0] = HEAP[last];
+            HEAP[last] = TEMP;
+            siftDown(HEAP, 0, last, NEIGHBORS, COUNTS, TERM_IDS, DICTIONARY);
+        }
+
+        for (int i = 0; i < heapSize; ++i)
+            HEAP[i] -= FROM;
+
+        return HEAP;
+    }
+
+    /**
+     * @return {@link Term} ID 상한 (exclusive)
+     */
+    private int getTermIDBound()
+    {
+        return Math.max(((rows == null) ? (offsets.length - 1) : rows.length), ((rowNeighbors == null) ? 0 : rowNeighbors.length));
+    }
+
+    /**
+     * @return termID의 CSR 배열 행 (없는 경우 -1)
+     */
+    private int toRow(final int termID)
+    {
+        if (rows == null)
+            return (((termID < 0) || (termID >= (offsets.length - 1))) ? -1 : termID);
+
+        return (((termID < 0) || (termID >= rows.length)) ? -1 : rows[termID]);
+    }
+
+    /**
+     * @return CSR 배열에 저장된 이웃의 {@link Term} ID
+     */
+    private int toTermID(final int neighbor)
+    {
+        return ((termIDs == null) ? neighbor : termIDs[neighbor]);
+    }
+
+    /**
+     * @return termID의 행을 {@link #update(LongIntMap, LongIntMap, OffHeapArena)}에서 다시 만들었는지 여부
+     */
+    private boolean isRebuiltRow(final int termID)
+    {
+        return ((rowNeighbors != null) && (termID >= 0) && (termID < rowNeighbors.length) && (rowNeighbors[termID] != null));
+    }
+
+    private static boolean isBetter(
+            final int position1, final int position2,
+            final ChunkedIntBuffer neighbors, final ChunkedIntBuffer counts, final int[] termIDs, final TermDictionary dictionary)
+    {
+        final int COUNT1 = counts.get(position1);
+        final int COUNT2 = counts.get(position2);
+
+        if (COUNT1 != COUNT2)
+            return (COUNT1 > COUNT2);
+
+        final int NEIGHBOR1 = neighbors.get(position1);
+        final int NEIGHBOR2 = neighbors.get(position2);
+
+        return (dictionary.getContent((termIDs == null) ? NEIGHBOR1 : termIDs[NEIGHBOR1])
+                .compareTo(dictionary.getContent((termIDs == null) ? NEIGHBOR2 : termIDs[NEIGHBOR2])) < 0);
+    }
+
+    private static void siftUp(
+            final int[] heap, int position,
+            final ChunkedIntBuffer neighbors, final ChunkedIntBuffer counts, final int[] termIDs, final TermDictionary dictionary)
+    {
+        while (position > 0)
+        {
+            final int PARENT = ((position - 1) >>> 1);
+
+            if (!isBetter(heap[PARENT], heap[position], neighbors, counts, termIDs, dictionary))
+                break;
+
+            final int TEMP = heap[PARENT];
+            heap[PARENT] = heap[position];
+            heap[position] = TEMP;
+            position = PARENT;
+        }
+    }
+
+    private static void siftDown(
+            final int[] heap, int position, final int size,
+            final ChunkedIntBuffer neighbors, final ChunkedIntBuffer counts, final int[] termIDs, final TermDictionary dictionary)
+    {
+        while (true)
+        {
+            final int LEFT = ((position << 1) + 1);
+            final int RIGHT = (LEFT + 1);
+            int worst = position;
+
+            if ((LEFT < size) && isBetter(heap[worst], heap[LEFT], neighbors, counts, termIDs, dictionary))
+                worst = LEFT;
+
+            if ((RIGHT < size) && isBetter(heap[worst], heap[RIGHT], neighbors, counts, termIDs, dictionary))
+                worst = RIGHT;
+
+            if (worst == position)
+                break;
+
+            final int TEMP = heap[worst];
+            heap[worst] = heap[position];
+            heap[position] = TEMP;
+            position = worst;
+        }
+    }
+}
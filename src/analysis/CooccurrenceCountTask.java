@@ -0,0 +1,96 @@
+package analysis;
+
+import java.util.List;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * {@link Document} 리스트를 나누어 동시 출현 빈도를 병렬로 세는 {@link RecursiveTask}<br>
+ * 각 작업은 자신만의 부분 희소 행렬에 빈도를 세고, 부분 행렬들은 트리 형태로 합쳐진다.
+ * 거리별로 세는 경우 거리 1..windowSize마다 부분 행렬을 하나씩 만든다. (참고: {@link CooccurrenceWindow#addByDistance(int, LongIntMap[])})
+ *
+ * @see WordCooccurrenceCalculator
+ */
+public class CooccurrenceCountTask extends RecursiveTask<LongIntHashMap[]>
+{
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * 더 이상 나누지 않고 직접 빈도를 세는 {@link Document} 개수의 상한
+     */
+    private static final int THRESHOLD = 64;
+
+    private final List<Document> documentList;
+    private final int windowSize;
+
+    /**
+     * 거리별로 빈도를 세는지 여부
+     */
+    private final boolean byDistance;
+
+    /**
+     * @param documentList 빈도를 셀 {@link Document} 리스트
+     * @param windowSize 동시 출현으로 인정하는 최대 거리
+     */
+    public CooccurrenceCountTask(final List<Document> documentList, final int windowSize)
+    {
+        this(documentList, windowSize, false);
+    }
+
+    /**
+     * @param documentList 빈도를 셀 {@link Document} 리스트
+     * @param windowSize 동시 출현으로 인정하는 최대 거리
+     * @param byDistance 거리별로 빈도를 세는지 여부
+     */
+    public CooccurrenceCountTask(final List<Document> documentList, final int windowSize, final boolean byDistance)
+    {
+        this.documentList = documentList;
+        this.windowSize = windowSize;
+        this.byDistance = byDistance;
+    }
+
+    /**
+     * @return 희소 행렬 배열 (거리별로 세는 경우 길이 windowSize, 그렇지 않으면 길이 1)
+     */
+    @Override
+    protected LongIntHashMap[] compute()
+    {
+        final int SIZE = documentList.size();
+
+        if (SIZE <= THRESHOLD)
+        {
+            LongIntHashMap[] retVal = new LongIntHashMap[byDistance ? windowSize : 1];
+
+            for (int i = 0; i < retVal.length; ++i)
+                retVal[i] = new LongIntHashMap();
+
+            if (byDistance)
+                WordCooccurrenceCalculator.countCooccurrencesByDistance(documentList, retVal);
+            else
+                WordCooccurrenceCalculator.countCooccurrences(documentList, windowSize, retVal[0]);
+
+            return retVal;
+        }
+
+        final int MIDDLE = (SIZE >>> 1);
+        CooccurrenceCountTask left = new CooccurrenceCountTask(documentList.subList(0, MIDDLE), windowSize, byDistance);
+        CooccurrenceCountTask right = new CooccurrenceCountTask(documentList.subList(MIDDLE, SIZE), windowSize, byDistance);
+
+        left.fork();
+        LongIntHashMap[] rightMatrices = right.compute();
+        LongIntHashMap[] leftMatrices = left.join();
+
+        // 작은 행렬을 큰 행렬에 합친다.
+        for (int i = 0; i < leftMatrices.length; ++i)
+        {
+            if (leftMatrices[i].size() < rightMatrices[i].size())
+            {
+                rightMatrices[i].addAll(leftMatrices[i]);
+                leftMatrices[i] = rightMatrices[i];
+            }
+            else
+                leftMatrices[i].addAll(rightMatrices[i]);
+        }
+
+        return leftMatrices;
+    }
+}
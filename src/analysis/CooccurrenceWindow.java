@@ -0,0 +1,83 @@
+package analysis;
+
+/**
+ * 직전 windowSize개 {@link Term} ID를 보관하는 원형 큐<br>
+ * {@link Term}이 들어올 때마다 큐에 남아 있는 {@link Term}들과의 동시 출현 빈도를 희소 행렬에 더한다.
+ * {@link Document}가 바뀌면 {@link #reset()}으로 비운다.
+ *
+ * @see WordCooccurrenceCalculator
+ */
+class CooccurrenceWindow
+{
+    /**
+     * 동시 출현으로 인정하는 최대 거리
+     */
+    private final int windowSize;
+
+    private final int[] window;
+    private int head = 0;
+    private int count = 0;
+
+    CooccurrenceWindow(final int windowSize)
+    {
+        this.windowSize = windowSize;
+        window = new int[Math.max(windowSize, 1)];
+    }
+
+    /**
+     * @param termID 새로 출현한 {@link Term} ID
+     * @param matrix 빈도를 더할 희소 행렬 (참고: {@link WordCooccurrenceCalculator#toMatrixKey(int, int)})
+     */
+    void add(final int termID, final LongIntMap matrix)
+    {
+        for (int i = 0; i < count; ++i)
+        {
+            final int TERM_ID2 = window[i];
+
+            if (termID == TERM_ID2)
+                continue;
+
+            matrix.addTo(WordCooccurrenceCalculator.toMatrixKey(termID, TERM_ID2), 1);
+        }
+
+        if (windowSize <= 0)
+            return;
+
+        window[head] = termID;
+        head = ((head + 1) % windowSize);
+        count = Math.min((count + 1), windowSize);
+    }
+
+    /**
+     * 큐에 남아 있는 {@link Term}들과의 동시 출현 빈도를 거리별 희소 행렬에 나누어 더한다.
+     * @param termID 새로 출현한 {@link Term} ID
+     * @param matrices 거리별 희소 행렬 (matrices[d - 1]: 거리가 d인 빈도, 길이는 windowSize 이상)
+     */
+    void addByDistance(final int termID, final LongIntMap[] matrices)
+    {
+        for (int i = 0; i < count; ++i)
+        {
+            final int TERM_ID2 = window[i];
+
+            if (termID == TERM_ID2)
+                continue;
+
+            // head 바로 앞 칸이 가장 최근에 들어온 Term(거리 1)이다.
+            final int DISTANCE = (((head - i - 1 + windowSize) % windowSize) + 1);
+            matrices[DISTANCE - 1].addTo(WordCooccurrenceCalculator.toMatrixKey(termID, TERM_ID2), 1);
+        }
+
+        if (windowSize <= 0)
+            return;
+
+        window[head] = termID;
+        head = ((head + 1) % windowSize);
+        count = Math.min((count + 1), windowSize);
+    }
+
+    void reset()
+    {
+        head = 0;
+        count = 0;
+    }
+}
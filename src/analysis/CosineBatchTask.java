@@ -0,0 +1,69 @@
+package analysis;
+
+import javafx.util.Pair;
+
+import java.util.List;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * 질의 벡터 배열을 블록으로 나누어 유사도 상위 k개를 병렬로 구하는 {@link RecursiveAction}<br>
+ * 각 블록은 서로 다른 결과 위치만 채우므로 합치는 과정이 필요 없다.
+ *
+ * @see CosineSimilarityCalculator#calculateBatchTopK(SparseVector[], DocumentVectorStore, int, java.util.concurrent.ForkJoinPool)
+ */
+public class CosineBatchTask extends RecursiveAction
+{
+    private static final long serialVersionUID = 1L;
+
+    private final SparseVector[] queries;
+    private final int from;
+    private final int to;
+
+    /**
+     * 더 이상 나누지 않고 함께 계산하는 질의 개수의 상한
+     */
+    private final int blockSize;
+
+    private final DocumentVectorStore vectorStore;
+    private final int k;
+    private final List<List<Pair<Document, Double>>> results;
+
+    /**
+     * @param queries 질의 벡터 배열
+     * @param from 계산할 질의 구간의 시작 (inclusive)
+     * @param to 계산할 질의 구간의 끝 (exclusive)
+     * @param blockSize 함께 계산하는 질의 개수의 상한
+     * @param vectorStore 목표 문서들의 벡터 저장소
+     * @param k 질의마다 반환할 목표 문서 개수
+     * @param results 질의 별 결과를 채울 리스트
+     */
+    public CosineBatchTask(
+            final SparseVector[] queries, final int from, final int to, final int blockSize,
+            final DocumentVectorStore vectorStore, final int k, final List<List<Pair<Document, Double>>> results)
+    {
+        this.queries = queries;
+        this.from = from;
+        this.to = to;
+        this.blockSize = blockSize;
+        this.vectorStore = vectorStore;
+        this.k = k;
+        this.results = results;
+    }
+
+    @Override
+    protected void compute()
+    {
+        final int SIZE = (to - from);
+
+        if (SIZE <= blockSize)
+        {
+            CosineSimilarityCalculator.calculateBlockTopK(queries, from, to, vectorStore, k, results);
+            return;
+        }
+
+        final int MIDDLE = (from + (SIZE >>> 1));
+
+        invokeAll(new CosineBatchTask(queries, from, MIDDLE, blockSize, vectorStore, k, results),
+                new CosineBatchTask(queries, MIDDLE, to, blockSize, vectorStore, k, results));
+    }
+}
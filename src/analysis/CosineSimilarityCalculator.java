@@ -0,0 +1,464 @@
+package analysis;
+
+import javafx.util.Pair;
+
+import java.util.*;
+import java.util.concurrent.ForkJoinPool;
+
+public class CosineSimilarityCalculator
+{
+    /**
+     * 상위 K개 유사도 질의에서 스레드마다 재사용하는 {@link ScoreAccumulator}
+     */
+    private static final ThreadLocal<ScoreAccumulator> ACCUMULATOR = ThreadLocal.withInitial(ScoreAccumulator::new);
+
+    /**
+     * 일괄 질의에서 함께 계산하는 질의 블록의 최대 크기
+     */
+    private static final int BATCH_BLOCK_SIZE = 32;
+
+    /**
+     * 상위 K개 질의의 가지치기에서 허용하는 오차<br>
+     * 상한 합과 문서의 누적 점수는 덧셈 순서가 달라 마지막 자리가 다를 수 있으므로,
+     * k번째 점수와 같아질 수 있는 문서(동점)를 놓치지 않도록 상한 합에 여유를 둔다.
+     */
+    private static final double PRUNING_TOLERANCE = 1e-12;
+
+    /**
+     * 일괄 질의에서 스레드 하나의 {@link ScoreAccumulator}들이 사용할 메모리의 상한 (bytes)<br>
+     * {@link ScoreAccumulator} 하나는 {@link Document}마다 점수(8 bytes)와 질의 번호(4 bytes)를 갖는다.
+     */
+    private static final long BATCH_ACCUMULATOR_BUDGET = (64L << 20);
+
+    /**
+     * 일괄 질의에서 스레드마다 재사용하는 질의 블록 크기만큼의 {@link ScoreAccumulator} 배열
+     */
+    private static final ThreadLocal<ScoreAccumulator[]> BLOCK_ACCUMULATORS =
+            ThreadLocal.withInitial(() -> new ScoreAccumulator[0]);
+
+    /**
+     * 유사도 리스트 정렬을 위한 sorter
+     */
+    private static Comparator<Pair<Document, Double>> pairSorter = (pair1, pair2) ->
+    {
+        final double VAL1 = pair1.getValue();
+        final double VAL2 = pair2.getValue();
+
+        if (VAL1 < VAL2)
+            return 1;
+        else if (VAL1 > VAL2)
+            return -1;
+
+        return 0;
+    };
+
+    /**
+     * 사용자 임의 가중치를 사용한 유사도 계산
+     * @param src 유사도를 계산할 원본 문서
+     * @param targets 유사도를 계산할 목표 문서 리스트
+     * @param manualWeight 유사도 계산 시 사용되는 사용자 정의 가중치 값
+     * @return 목표 문서 리스트와 유사도 값의 오름차순 정렬 리스트
+     */
+    static List<Pair<Document, Double>> calculateWithManualWeight(
+            final Document src, final List<Document> targets, final double manualWeight)
+    {
+        final double WEIGHT_SQ = (manualWeight * manualWeight);
+        List<Pair<Document, Double>> retVal = new ArrayList<>();
+
+        final int[] SRC_TERM_IDS = getDistinctTermIDs(src);
+        final double SRC_FEATURE_SUM = (Math.sqrt(SRC_TERM_IDS.length) * manualWeight); // 분모 좌항
+
+        targets.forEach(document ->
+        {
+            final int[] TARGET_TERM_IDS = getDistinctTermIDs(document);
+            final double TARGET_FEATURE_SUM = (Math.sqrt(TARGET_TERM_IDS.length) * manualWeight); // 분모 우항
+
+            final int NUM_OVERLAPPED_TERMS = countIntersection(SRC_TERM_IDS, TARGET_TERM_IDS);
+            final double OVERLAPPED_FEATURE_SUM = (NUM_OVERLAPPED_TERMS * WEIGHT_SQ); // 분자
+
+            // 유사도 값
+            final double cosSimilarity = (OVERLAPPED_FEATURE_SUM / (SRC_FEATURE_SUM * TARGET_FEATURE_SUM));
+            retVal.add(new Pair<>(document, cosSimilarity));
+        });
+
+        // 오름차순 정렬
+        retVal.sort(pairSorter);
+
+        return retVal;
+    }
+
+    /**
+     * 사용자 임의 가중치를 사용한 유사도 계산을 {@link MinHashIndex}가 고른 후보 문서에 대해서만 수행한다.<br>
+     * 후보가 되지 못한 문서(Jaccard 유사도가 낮을 가능성이 큰 문서)는 결과에서 빠지며, 후보의 유사도 값은 정확하다.
+     * @param src 유사도를 계산할 원본 문서
+     * @param minHashIndex 목표 문서들의 {@link MinHashIndex}
+     * @param manualWeight 유사도 계산 시 사용되는 사용자 정의 가중치 값
+     * @return 후보 문서 리스트와 유사도 값의 오름차순 정렬 리스트
+     */
+    static List<Pair<Document, Double>> calculateWithManualWeight(
+            final Document src, final MinHashIndex minHashIndex, final double manualWeight)
+    {
+        final double WEIGHT_SQ = (manualWeight * manualWeight);
+        List<Pair<Document, Double>> retVal = new ArrayList<>();
+
+        final int[] SRC_TERM_IDS = getDistinctTermIDs(src);
+        final double SRC_FEATURE_SUM = (Math.sqrt(SRC_TERM_IDS.length) * manualWeight); // 분모 좌항
+
+        for (final int documentIndex : minHashIndex.findCandidates(src))
+        {
+            final int[] TARGET_TERM_IDS = minHashIndex.getTermIDSet(documentIndex);
+            final double TARGET_FEATURE_SUM = (Math.sqrt(TARGET_TERM_IDS.length) * manualWeight); // 분모 우항
+            final double OVERLAPPED_FEATURE_SUM = (countIntersection(SRC_TERM_IDS, TARGET_TERM_IDS) * WEIGHT_SQ); // 분자
+
+            // 유사도 값
+            final double cosSimilarity = (OVERLAPPED_FEATURE_SUM / (SRC_FEATURE_SUM * TARGET_FEATURE_SUM));
+            retVal.add(new Pair<>(minHashIndex.getDocumentList().get(documentIndex), cosSimilarity));
+        }
+
+        // 오름차순 정렬
+        retVal.sort(pairSorter);
+
+        return retVal;
+    }
+
+    /**
+     * TF-IDF 가중치를 이용한 유사도 계산
+     * @param src 유사도를 계산할 원본 문서
+     * @param targets 유사도를 계산할 목표 문서 리스트
+     * @param numFeaturesForCalculating 유사도 계산에 사용할 상위 TF-IDF 가중치 개수
+     * @return 목표 문서 리스트와 유사도 값의 오름차순 정렬 리스트
+     */
+    static List<Pair<Document, Double>> calculate(
+            final Document src, final List<Document> targets, final int numFeaturesForCalculating)
+    {
+        return calculate(src, new DocumentVectorStore(new TFIDFCalculator(targets), numFeaturesForCalculating));
+    }
+
+    /**
+     * 미리 구축된 {@link DocumentVectorStore}를 이용한 TF-IDF 가중치 기반 유사도 계산 (참고: {@link DenseFeatureBlock})
+     * @param src 유사도를 계산할 원본 문서
+     * @param vectorStore 목표 문서들의 벡터 저장소
+     * @return 목표 문서 리스트와 유사도 값의 오름차순 정렬 리스트 (비어있는 벡터와의 유사도는 0)
+     */
+    static List<Pair<Document, Double>> calculate(final Document src, final DocumentVectorStore vectorStore)
+    {
+        List<Pair<Document, Double>> retVal = new ArrayList<>();
+
+        final double[] SCORES = new double[vectorStore.size()];
+
+        // 자주 등장하는 Term은 밀집 블록의 행과 SIMD 커널로, 나머지 Term은 포스팅으로 내적을 구한다. (정규화된 가중치의 내적 = 유사도)
+        vectorStore.getDenseBlock().score(vectorStore.getVector(src.getID()), vectorStore, SCORES);
+
+        for (int documentIndex = 0; documentIndex < SCORES.length; ++documentIndex)
+            retVal.add(new Pair<>(vectorStore.getDocumentList().get(documentIndex), SCORES[documentIndex]));
+
+        // 오름차순 정렬
+        retVal.sort(pairSorter);
+
+        return retVal;
+    }
+
+    /**
+     * 유사도가 가장 높은 k개의 목표 문서만 계산한다.
+     * @param src 유사도를 계산할 원본 문서
+     * @param vectorStore 목표 문서들의 벡터 저장소
+     * @param k 반환할 목표 문서 개수
+     * @return 목표 문서와 유사도 값의 쌍 리스트 (유사도의 내림차순, 최대 k개)
+     * @see #calculateTopK(SparseVector, DocumentVectorStore, int)
+     */
+    static List<Pair<Document, Double>> calculateTopK(final Document src, final DocumentVectorStore vectorStore, final int k)
+    {
+        return calculateTopK(vectorStore.getVector(src.getID()), vectorStore, k);
+    }
+
+    /**
+     * 질의 벡터의 {@link Term}별 포스팅만 순회하며 부분 내적을 누적하여, 유사도가 가장 높은 k개의 목표 문서를 구한다.<br>
+     * 질의와 공유하는 {@link Term}이 없는 문서는 전혀 방문하지 않는다.<br><br>
+     *
+     * 참고:<br>
+     * MaxScore 방식으로 가지치기 한다. {@link Term}을 유사도 상한(질의 가중치 * 포스팅 최대 가중치)의 내림차순으로 처리하며,
+     * 남은 {@link Term}들의 상한 합이 현재 k번째 점수보다 작아지면 새로운 후보 문서를 더 이상 만들지 않는다.
+     * k번째 점수와 동점이 될 수 있는 문서는 후보로 남기므로, 동점인 문서의 순서(인덱스 오름차순)는 {@link #calculate(Document, DocumentVectorStore)}와 같다.
+     * @param query 질의 벡터
+     * @param vectorStore 목표 문서들의 벡터 저장소
+     * @param k 반환할 목표 문서 개수
+     * @return 목표 문서와 유사도 값의 쌍 리스트 (유사도의 내림차순, 최대 k개)
+     */
+    static List<Pair<Document, Double>> calculateTopK(final SparseVector query, final DocumentVectorStore vectorStore, final int k)
+    {
+        List<Pair<Document, Double>> retVal = new ArrayList<>();
+        final double QUERY_NORM = query.getNorm();
+
+        if ((k <= 0) || (QUERY_NORM == 0.0))
+            return retVal;
+
+        // 유사도 상한의 내림차순으로 Term 처리 순서를 정한다.
+        final int SIZE = query.size();
+        final Integer[] ORDER = new Integer[SIZE];
+        final double[] UPPER_BOUNDS = new double[SIZE];
+
+        for (int position = 0; position < SIZE; ++position)
+        {
+            ORDER[position] = position;
+            UPPER_BOUNDS[position] =
+                    ((query.getWeight(position) / QUERY_NORM) * vectorStore.getMaxWeight(query.getTermID(position)));
+        }
+
+        Arrays.sort(ORDER, (position1, position2) -> Double.compare(UPPER_BOUNDS[position2], UPPER_BOUNDS[position1]));
+
+        // i번째 이후 Term들의 상한 합 (아직 방문하지 않은 문서가 얻을 수 있는 최대 유사도)
+        final double[] REMAINING_BOUNDS = new double[SIZE + 1];
+
+        for (int i = (SIZE - 1); i >= 0; --i)
+            REMAINING_BOUNDS[i] = (REMAINING_BOUNDS[i + 1] + UPPER_BOUNDS[ORDER[i]]);
+
+        // 누적하는 동안 상위 k개를 힙으로 유지하므로, k번째 점수는 Term마다 O(1)에 읽는다.
+        ScoreAccumulator accumulator = ACCUMULATOR.get();
+        accumulator.reset(vectorStore.size(), k);
+        double threshold = 0.0;
+
+        for (int i = 0; i < SIZE; ++i)
+        {
+            final int POSITION = ORDER[i];
+            final int[] DOCUMENT_INDICES = vectorStore.getPostingDocumentIndices(query.getTermID(POSITION));
+
+            if (DOCUMENT_INDICES == null)
+                continue;
+
+            final double[] WEIGHTS = vectorStore.getPostingWeights(query.getTermID(POSITION));
+            final double QUERY_WEIGHT = (query.getWeight(POSITION) / QUERY_NORM);
+            final boolean ALLOW_NEW_CANDIDATES =
+                    ((accumulator.getNumTouched() < k) || ((REMAINING_BOUNDS[i] + PRUNING_TOLERANCE) >= threshold));
+
+            for (int posting = 0; posting < DOCUMENT_INDICES.length; ++posting)
+            {
+                final int DOCUMENT_INDEX = DOCUMENT_INDICES[posting];
+
+                if (!ALLOW_NEW_CANDIDATES && !accumulator.isTouched(DOCUMENT_INDEX))
+                    continue;
+
+                accumulator.add(DOCUMENT_INDEX, (QUERY_WEIGHT * WEIGHTS[posting]));
+            }
+
+            threshold = accumulator.getKthScore();
+        }
+
+        final List<Document> DOCUMENT_LIST = vectorStore.getDocumentList();
+
+        for (final int documentIndex : accumulator.selectTopK(k))
+            retVal.add(new Pair<>(DOCUMENT_LIST.get(documentIndex), accumulator.getScore(documentIndex)));
+
+        return retVal;
+    }
+
+    /**
+     * 여러 원본 문서의 유사도 상위 k개를 한 번에 계산한다.
+     * @param srcs 유사도를 계산할 원본 문서 리스트
+     * @param vectorStore 목표 문서들의 벡터 저장소
+     * @param k 원본 문서마다 반환할 목표 문서 개수
+     * @param pool 사용할 {@link ForkJoinPool} (null인 경우 호출한 스레드에서 순차적으로 계산한다.)
+     * @return 원본 문서 순서대로, 목표 문서와 유사도 값의 쌍 리스트 (유사도의 내림차순, 최대 k개)
+     * @see #calculateBatchTopK(SparseVector[], DocumentVectorStore, int, ForkJoinPool)
+     */
+    static List<List<Pair<Document, Double>>> calculateBatchTopK(
+            final List<Document> srcs, final DocumentVectorStore vectorStore, final int k, final ForkJoinPool pool)
+    {
+        final SparseVector[] QUERIES = new SparseVector[srcs.size()];
+
+        for (int i = 0; i < QUERIES.length; ++i)
+            QUERIES[i] = vectorStore.getVector(srcs.get(i).getID());
+
+        return calculateBatchTopK(QUERIES, vectorStore, k, pool);
+    }
+
+    /**
+     * 질의 벡터들을 행으로 하는 희소 행렬과 목표 문서 벡터들의 희소 행렬을 곱하여, 질의마다 유사도 상위 k개를 구한다.<br>
+     * 질의는 {@link CosineBatchTask}가 블록 단위로 나누어 병렬로 처리하며(블록 크기는 목표 문서 개수에 따라 줄어든다.), 결과는 {@link #calculateTopK(SparseVector, DocumentVectorStore, int)}와 같다.
+     * @param queries 질의 벡터 배열
+     * @param vectorStore 목표 문서들의 벡터 저장소
+     * @param k 질의마다 반환할 목표 문서 개수
+     * @param pool 사용할 {@link ForkJoinPool} (null인 경우 호출한 스레드에서 순차적으로 계산한다. 호출한 쪽이 소유하며 종료하지 않는다.)
+     * @return 질의 순서대로, 목표 문서와 유사도 값의 쌍 리스트 (유사도의 내림차순, 최대 k개)
+     */
+    static List<List<Pair<Document, Double>>> calculateBatchTopK(
+            final SparseVector[] queries, final DocumentVectorStore vectorStore, final int k, final ForkJoinPool pool)
+    {
+        final int BLOCK_SIZE = (int)Math.max(1L, Math.min(BATCH_BLOCK_SIZE,
+                (BATCH_ACCUMULATOR_BUDGET / (12L * Math.max(1, vectorStore.size())))));
+
+        List<List<Pair<Document, Double>>> retVal = new ArrayList<>(Collections.nCopies(queries.length, null));
+
+        if (pool == null)
+        {
+            for (int from = 0; from < queries.length; from += BLOCK_SIZE)
+                calculateBlockTopK(queries, from, Math.min((from + BLOCK_SIZE), queries.length), vectorStore, k, retVal);
+        }
+        else
+            pool.invoke(new CosineBatchTask(queries, 0, queries.length, BLOCK_SIZE, vectorStore, k, retVal));
+
+        return retVal;
+    }
+
+    /**
+     * [from, to) 구간의 질의 블록을 계산한다.<br><br>
+     *
+     * 참고:<br>
+     * 블록의 질의 벡터들을 {@link Term} ID 별로 뒤집은 뒤, {@link Term}마다 목표 문서 포스팅을 한 번만 읽으며
+     * 그 {@link Term}을 가진 모든 질의의 {@link ScoreAccumulator}에 부분 내적을 더한다.
+     * 질의 사이에 공유되는 {@link Term}의 포스팅은 블록당 한 번만 순회된다.
+     * @param results 질의 별 결과를 채울 리스트
+     */
+    static void calculateBlockTopK(
+            final SparseVector[] queries, final int from, final int to,
+            final DocumentVectorStore vectorStore, final int k, final List<List<Pair<Document, Double>>> results)
+    {
+        final int BLOCK_SIZE = (to - from);
+        int numEntries = 0;
+
+        for (int query = from; query < to; ++query)
+            numEntries += queries[query].size();
+
+        // 상위 32비트에 Term ID, 하위 32비트에 블록 내 항목 번호를 담아 정렬하여 Term ID 별로 모은다.
+        final long[] ENTRY_KEYS = new long[numEntries];
+        final int[] ENTRY_QUERIES = new int[numEntries];
+        final double[] ENTRY_WEIGHTS = new double[numEntries];
+        int entry = 0;
+
+        for (int query = from; query < to; ++query)
+        {
+            final SparseVector QUERY = queries[query];
+            final double QUERY_NORM = QUERY.getNorm();
+
+            if (QUERY_NORM == 0.0)
+                continue;
+
+            for (int position = 0; position < QUERY.size(); ++position)
+            {
+                ENTRY_KEYS[entry] = ((((long)QUERY.getTermID(position)) << 32) | entry);
+                ENTRY_QUERIES[entry] = (query - from);
+                ENTRY_WEIGHTS[entry++] = (QUERY.getWeight(position) / QUERY_NORM);
+            }
+        }
+
+        final int NUM_ENTRIES = entry;
+        Arrays.sort(ENTRY_KEYS, 0, NUM_ENTRIES);
+
+        ScoreAccumulator[] accumulators = BLOCK_ACCUMULATORS.get();
+
+        if (accumulators.length < BLOCK_SIZE)
+        {
+            final int LENGTH = accumulators.length;
+            accumulators = Arrays.copyOf(accumulators, BLOCK_SIZE);
+
+            for (int i = LENGTH; i < BLOCK_SIZE; ++i)
+                accumulators[i] = new ScoreAccumulator();
+
+            BLOCK_ACCUMULATORS.set(accumulators);
+        }
+
+        for (int i = 0; i < BLOCK_SIZE; ++i)
+            accumulators[i].reset(vectorStore.size());
+
+        final int[] QUERY_INDICES = new int[BLOCK_SIZE];
+        final double[] QUERY_WEIGHTS = new double[BLOCK_SIZE];
+
+        for (int begin = 0; begin < NUM_ENTRIES; )
+        {
+            final int TERM_ID = (int)(ENTRY_KEYS[begin] >>> 32);
+            int numQueries = 0;
+            int end = begin;
+
+            // 같은 Term을 가진 질의들
+            while ((end < NUM_ENTRIES) && ((int)(ENTRY_KEYS[end] >>> 32) == TERM_ID))
+            {
+                final int ENTRY = (int)ENTRY_KEYS[end++];
+
+                QUERY_INDICES[numQueries] = ENTRY_QUERIES[ENTRY];
+                QUERY_WEIGHTS[numQueries++] = ENTRY_WEIGHTS[ENTRY];
+            }
+
+            begin = end;
+
+            final int[] DOCUMENT_INDICES = vectorStore.getPostingDocumentIndices(TERM_ID);
+
+            if (DOCUMENT_INDICES == null)
+                continue;
+
+            final double[] WEIGHTS = vectorStore.getPostingWeights(TERM_ID);
+
+            for (int posting = 0; posting < DOCUMENT_INDICES.length; ++posting)
+            {
+                final int DOCUMENT_INDEX = DOCUMENT_INDICES[posting];
+                final double WEIGHT = WEIGHTS[posting];
+
+                for (int i = 0; i < numQueries; ++i)
+                    accumulators[QUERY_INDICES[i]].add(DOCUMENT_INDEX, (QUERY_WEIGHTS[i] * WEIGHT));
+            }
+        }
+
+        final List<Document> DOCUMENT_LIST = vectorStore.getDocumentList();
+
+        for (int i = 0; i < BLOCK_SIZE; ++i)
+        {
+            final ScoreAccumulator ACCUMULATOR = accumulators[i];
+            List<Pair<Document, Double>> resultList = new ArrayList<>();
+
+            if (k > 0)
+            {
+                for (final int documentIndex : ACCUMULATOR.selectTopK(k))
+                    resultList.add(new Pair<>(DOCUMENT_LIST.get(documentIndex), ACCUMULATOR.getScore(documentIndex)));
+            }
+
+            results.set((from + i), resultList);
+        }
+    }
+
+    /**
+     * {@link Document}에 등장하는 {@link Term} ID를 중복 없이 오름차순으로 반환한다.
+     * @param document {@link Document}
+     * @return 정렬된 {@link Term} ID 배열
+     */
+    static int[] getDistinctTermIDs(final Document document)
+    {
+        int[] retVal = document.getTermIDs().clone();
+
+        Arrays.sort(retVal);
+
+        int numDistinct = 0;
+
+        for (int i = 0; i < retVal.length; ++i)
+        {
+            if ((numDistinct == 0) || (retVal[numDistinct - 1] != retVal[i]))
+                retVal[numDistinct++] = retVal[i];
+        }
+
+        return Arrays.copyOf(retVal, numDistinct);
+    }
+
+    /**
+     * 정렬된 두 {@link Term} ID 배열의 교집합 크기를 구한다.
+     * @return 교집합 크기
+     */
+    static int countIntersection(final int[] termIDs1, final int[] termIDs2)
+    {
+        int retVal = 0;
+        int i = 0;
+        int j = 0;
+
+        while ((i < termIDs1.length) && (j < termIDs2.length))
+        {
+            if (termIDs1[i] < termIDs2[j])
+                ++i;
+            else if (termIDs1[i] > termIDs2[j])
+                ++j;
+            else
+            {
+                ++retVal;
+                ++i;
+                ++j;
+            }
+        }
+
+        return retVal;
+    }
+}
@@ -0,0 +1,48 @@
+package analysis;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * {@link MetricsRegistry}에 등록되는 누적 카운터<br>
+ * {@link MetricsRegistry}가 꺼져 있는 경우 값을 더하지 않는다.
+ *
+ * @see MetricsRegistry
+ */
+public class Counter
+{
+    private final MetricsRegistry registry;
+    private final String name;
+    private final LongAdder value = new LongAdder();
+
+    Counter(final MetricsRegistry registry, final String name)
+    {
+        this.registry = registry;
+        this.name = name;
+    }
+
+    public String getName()
+    {
+        return name;
+    }
+
+    public void add(final long delta)
+    {
+        if (registry.isEnabled())
+            value.add(delta);
+    }
+
+    public void increment()
+    {
+        add(1L);
+    }
+
+    public long getValue()
+    {
+        return value.sum();
+    }
+
+    void reset()
+    {
+        value.reset();
+    }
+}
@@ -0,0 +1,151 @@
+package analysis;
+
+import java.util.Arrays;
+
+/**
+ * {@link DocumentVectorStore}의 벡터에 가장 많이 등장하는 {@link Term}들(어휘의 일부)을 열로 하는 밀집 행렬 블록<br>
+ * {@link Document}마다 그 {@link Term}들의 정규화된 가중치(가중치 / 벡터의 L2 norm)를 길이가 같은 행으로 저장하여,
+ * 질의 벡터와의 내적을 {@link DotProductKernel#dot(double[], double[], int)}로 구한다.
+ * 블록에 없는 질의 {@link Term}의 부분 내적은 {@link DocumentVectorStore}의 포스팅으로 더한다.<br><br>
+ *
+ * 참고:<br>
+ * 블록의 열과 블록 밖의 {@link Term}은 겹치지 않으므로, 두 부분 내적의 합은 두 벡터의 내적(코사인 유사도)과 같다.
+ * 덧셈 순서가 {@link SparseVector#dot(SparseVector)}와 다르므로 결과가 마지막 자리에서 다를 수 있다.
+ *
+ * @see CosineSimilarityCalculator#calculate(Document, DocumentVectorStore)
+ */
+public final class DenseFeatureBlock
+{
+    /**
+     * 블록의 최대 열 개수<br>
+     * DenseBlockBenchmark(JDK 17, AVX-512, 10000개 문서, 벡터 Term 5개) 결과, 열이 많을수록 0을 곱하는 시간이 늘어
+     * 8개일 때 가장 빨랐다. (질의당 8: 61us, 16: 99us, 32: 134us, 병합 조인: 360us)
+     */
+    static final int DEFAULT_WIDTH = 8;
+
+    /**
+     * 열 개수 (행의 길이)
+     */
+    private final int width;
+
+    /**
+     * {@link Term} ID 별 열 번호 (블록에 없는 경우 -1)
+     */
+    private final int[] columns;
+
+    /**
+     * {@link Document} 인덱스 별 행 (열 순서대로의 정규화된 가중치)
+     */
+    private final double[][] rows;
+
+    /**
+     * 벡터에 등장하는 {@link Document}가 많은 순으로 최대 maxWidth개의 {@link Term}을 골라 블록을 만든다.
+     * (등장 횟수가 같은 경우 {@link Term} ID 오름차순)
+     * @param vectorStore 포스팅이 구축된 {@link DocumentVectorStore}
+     * @param maxWidth 최대 열 개수
+     */
+    DenseFeatureBlock(final DocumentVectorStore vectorStore, final int maxWidth)
+    {
+        final int TERM_ID_BOUND = vectorStore.getTermIDBound();
+
+        // 상위 32비트에 (Integer.MAX_VALUE - 포스팅 크기), 하위 32비트에 Term ID를 담아 정렬한다.
+        final long[] KEYS = new long[TERM_ID_BOUND];
+        int numTerms = 0;
+
+        for (int termID = 0; termID < TERM_ID_BOUND; ++termID)
+        {
+            final int[] DOCUMENT_INDICES = vectorStore.getPostingDocumentIndices(termID);
+
+            if (DOCUMENT_INDICES != null)
+                KEYS[numTerms++] = ((((long)(Integer.MAX_VALUE - DOCUMENT_INDICES.length)) << 32) | termID);
+        }
+
+        Arrays.sort(KEYS, 0, numTerms);
+
+        width = Math.min(maxWidth, numTerms);
+        columns = new int[TERM_ID_BOUND];
+        rows = new double[vectorStore.size()][width];
+        Arrays.fill(columns, -1);
+
+        for (int column = 0; column < width; ++column)
+        {
+            final int TERM_ID = (int)KEYS[column];
+            final int[] DOCUMENT_INDICES = vectorStore.getPostingDocumentIndices(TERM_ID);
+            final double[] WEIGHTS = vectorStore.getPostingWeights(TERM_ID);
+
+            columns[TERM_ID] = column;
+
+            for (int posting = 0; posting < DOCUMENT_INDICES.length; ++posting)
+                rows[DOCUMENT_INDICES[posting]][column] = WEIGHTS[posting];
+        }
+    }
+
+    public int getWidth()
+    {
+        return width;
+    }
+
+    /**
+     * @param termID {@link Term} ID
+     * @return 블록의 열 번호 (블록에 없는 경우 -1)
+     */
+    public int getColumn(final int termID)
+    {
+        if ((termID < 0) || (termID >= columns.length))
+            return -1;
+
+        return columns[termID];
+    }
+
+    /**
+     * 질의 벡터와 모든 목표 문서의 코사인 유사도를 구한다.
+     * @param query 질의 벡터
+     * @param vectorStore 블록을 만든 {@link DocumentVectorStore}
+     * @param scores {@link Document} 인덱스 별 유사도를 채울 배열 (길이는 목표 문서 개수 이상, 비어있는 벡터와의 유사도는 0)
+     */
+    public void score(final SparseVector query, final DocumentVectorStore vectorStore, final double[] scores)
+    {
+        final int NUM_DOCUMENTS = rows.length;
+        final double QUERY_NORM = query.getNorm();
+
+        Arrays.fill(scores, 0, NUM_DOCUMENTS, 0.0);
+
+        if (QUERY_NORM == 0.0)
+            return;
+
+        final double[] QUERY_ROW = new double[width];
+        boolean dense = false;
+
+        for (int position = 0; position < query.size(); ++position)
+        {
+            final int TERM_ID = query.getTermID(position);
+            final int COLUMN = getColumn(TERM_ID);
+            final double WEIGHT = (query.getWeight(position) / QUERY_NORM);
+
+            if (COLUMN >= 0)
+            {
+                QUERY_ROW[COLUMN] = WEIGHT;
+                dense = true;
+                continue;
+            }
+
+            // 블록에 없는 Term은 포스팅을 따라 더한다.
+            final int[] DOCUMENT_INDICES = vectorStore.getPostingDocumentIndices(TERM_ID);
+
+            if (DOCUMENT_INDICES == null)
+                continue;
+
+            final double[] WEIGHTS = vectorStore.getPostingWeights(TERM_ID);
+
+            for (int posting = 0; posting < DOCUMENT_INDICES.length; ++posting)
+                scores[DOCUMENT_INDICES[posting]] += (WEIGHT * WEIGHTS[posting]);
+        }
+
+        // 블록의 Term을 하나도 갖지 않은 질의는 행을 읽지 않는다.
+        if (!dense)
+            return;
+
+        for (int documentIndex = 0; documentIndex < NUM_DOCUMENTS; ++documentIndex)
+            scores[documentIndex] += DotProductKernel.dot(QUERY_ROW, rows[documentIndex], width);
+    }
+}
@@ -0,0 +1,285 @@
+package analysis;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class Document
+{
+    /**
+     * {@link #batchRead(String, int, ProgressListener)}의 진행 상황을 전달받는 인터페이스
+     */
+    public interface ProgressListener
+    {
+        /**
+         * 파일 하나를 읽을 때마다 (성공, 실패와 상관 없이) 파일을 읽은 스레드에서 호출된다.
+         * @param numCompleted 처리가 끝난 파일 개수
+         * @param numFiles 전체 파일 개수
+         */
+        void onProgress(int numCompleted, int numFiles);
+    }
+
+    private static final Timer BATCH_READ_TIMER = MetricsRegistry.getInstance().timer("document.batchRead");
+    private static final Timer TOKENIZE_TIMER = MetricsRegistry.getInstance().timer("document.tokenize");
+
+    /**
+     * 문서 ID
+     */
+    final private String ID;
+
+    private static final int[] EMPTY_TERM_IDS = new int[0];
+
+    /**
+     * {@link TermDictionary}로 부호화한 {@link Term} ID 배열 (출현 순서)<br>
+     * 배열은 만든 뒤 변경하지 않으므로 복사된 {@link Document}끼리 공유한다.
+     * {@link Term} 객체는 {@link #getTermList()}에서 조회할 때에만 만든다.
+     */
+    private int[] termIDs = EMPTY_TERM_IDS;
+
+    /**
+     * 디렉토리 내에 존재하는 모든 파일들을 읽어 {@link Document} 객체의 리스트로 반환한다.
+     * @param directory 디렉토리 경로
+     * @return {@link Document} 리스트
+     * @throws IOException
+     */
+    public static List<Document> batchRead(final String directory) throws IOException
+    {
+        final long START = BATCH_READ_TIMER.start();
+        final File dir = new File(directory);
+
+        ArrayList<Document> documentList = new ArrayList<>();
+
+        if (!dir.isDirectory())
+            documentList.add(new Document(directory, " "));
+        else
+        {
+            for (final File file : dir.listFiles())
+                documentList.add(new Document(file.getPath(), " "));
+        }
+
+        BATCH_READ_TIMER.stop(START, documentList.size());
+
+        return documentList;
+    }
+
+    /**
+     * 디렉토리 내에 존재하는 모든 파일들을 여러 스레드에서 동시에 읽는다.<br>
+     * 결과 리스트는 완료 순서와 상관 없이 {@link #batchRead(String)}와 같은 파일 순서를 유지하며,
+     * 읽지 못한 파일은 전체 작업을 중단하지 않고 {@link BatchReadResult}에 모은다.
+     * @param directory 디렉토리 경로
+     * @param numThreads 파일을 읽을 스레드 개수
+     * @param listener 진행 상황을 전달받을 {@link ProgressListener} (필요 없는 경우 null)
+     * @return {@link BatchReadResult}
+     * @throws InterruptedException
+     */
+    public static BatchReadResult batchRead(
+            final String directory, final int numThreads, final ProgressListener listener) throws InterruptedException
+    {
+        final long START = BATCH_READ_TIMER.start();
+        final File dir = new File(directory);
+        final File[] FILES = (dir.isDirectory() ? dir.listFiles() : new File[] { dir });
+
+        final AtomicInteger NUM_COMPLETED = new AtomicInteger();
+        final ExecutorService EXECUTOR = Executors.newFixedThreadPool(Math.max(1, Math.min(numThreads, FILES.length)));
+        ArrayList<Future<Document>> futureList = new ArrayList<>();
+
+        try
+        {
+            for (final File file : FILES)
+            {
+                futureList.add(EXECUTOR.submit(() ->
+                {
+                    try
+                    {
+                        return new Document(file.getPath(), " ");
+                    }
+                    finally
+                    {
+                        final int NUM_COMPLETED_FILES = NUM_COMPLETED.incrementAndGet();
+
+                        if (listener != null)
+                            listener.onProgress(NUM_COMPLETED_FILES, FILES.length);
+                    }
+                }));
+            }
+
+            ArrayList<Document> documentList = new ArrayList<>();
+            LinkedHashMap<String, IOException> failureMap = new LinkedHashMap<>();
+
+            for (int i = 0; i < FILES.length; ++i)
+            {
+                try
+                {
+                    documentList.add(futureList.get(i).get());
+                }
+                catch (ExecutionException e)
+                {
+                    final Throwable CAUSE = e.getCause();
+
+                    if (CAUSE instanceof IOException)
+                        failureMap.put(FILES[i].getPath(), (IOException)CAUSE);
+                    else if (CAUSE instanceof RuntimeException)
+                        throw (RuntimeException)CAUSE;
+                    else
+                        throw new IllegalStateException(CAUSE);
+                }
+            }
+
+            BATCH_READ_TIMER.stop(START, documentList.size());
+
+            return new BatchReadResult(documentList, failureMap);
+        }
+        finally
+        {
+            EXECUTOR.shutdownNow();
+        }
+    }
+
+    public Document(final Document document)
+    {
+        ID = document.ID;
+        termIDs = document.termIDs;
+    }
+
+    /**
+     * 이미 잘라낸 {@link Term} 리스트로 {@link Document}를 만든다.
+     * @param ID 문서 ID
+     * @param termList {@link Term} 리스트
+     */
+    public Document(final String ID, final List<Term> termList)
+    {
+        this.ID = ID;
+
+        if (!termList.isEmpty())
+        {
+            termIDs = new int[termList.size()];
+
+            for (int i = 0; i < termIDs.length; ++i)
+                termIDs[i] = termList.get(i).getID();
+        }
+    }
+
+    /**
+     * 부호화된 {@link Term} ID 배열로 {@link Document}를 만든다. 배열은 복사하지 않으므로 이후 변경해서는 안 된다.
+     * @param ID 문서 ID
+     * @param termIDs {@link Term} ID 배열
+     */
+    Document(final String ID, final int[] termIDs)
+    {
+        this.ID = ID;
+        this.termIDs = termIDs;
+    }
+
+    public Document(final String path) throws IOException
+    {
+        this(path, " ");
+    }
+
+    public Document(final String path, final String delimiter) throws IOException
+    {
+        ID = parseID(path);
+        load(path, delimiter);
+    }
+
+    public String getID()
+    {
+        return ID;
+    }
+
+    /**
+     * @return {@link Term} 리스트 (변경할 수 없으며, 원소를 조회할 때마다 {@link Term}을 만든다.)
+     */
+    public List<Term> getTermList()
+    {
+        final int[] TERM_IDS = termIDs;
+
+        return new AbstractList<Term>()
+        {
+            @Override
+            public Term get(final int index)
+            {
+                return Term.fromID(TERM_IDS[index]);
+            }
+
+            @Override
+            public int size()
+            {
+                return TERM_IDS.length;
+            }
+        };
+    }
+
+    /**
+     * @return {@link Term} 개수
+     */
+    public int getNumTerms()
+    {
+        return termIDs.length;
+    }
+
+    /**
+     * @param position {@link Document} 내 위치
+     * @return 해당 위치의 {@link Term} ID
+     */
+    public int getTermID(final int position)
+    {
+        return termIDs[position];
+    }
+
+    /**
+     * @return {@link Term} ID 배열 (복사하지 않은 내부 배열이므로 변경해서는 안 된다.)
+     */
+    int[] getTermIDs()
+    {
+        return termIDs;
+    }
+
+    private String parseID(final String path)
+    {
+        return path.substring((path.lastIndexOf(File.separator) + 1), path.length());
+    }
+
+    /**
+     * 파일의 {@link Term}들을 기존 {@link Term} 뒤에 덧붙인다. 기존 배열은 그대로 두고 새 배열로 교체하므로,
+     * 이 {@link Document}를 복사한 다른 {@link Document}에는 영향을 주지 않는다.
+     * @param path 파일 경로
+     * @param delimiter {@link Term} 구분자
+     * @throws IOException
+     */
+    public void load(final String path, final String delimiter) throws IOException
+    {
+        loadTermIDs(path, delimiter);
+    }
+
+    private void loadTermIDs(final String path, final String delimiter) throws IOException
+    {
+        final long START = TOKENIZE_TIMER.start();
+        final int[] NUM_TERMS = { termIDs.length };
+        final int[][] BUFFER = { Arrays.copyOf(termIDs, Math.max(16, termIDs.length)) };
+
+        DocumentLoader.tokenize(path, delimiter, new DocumentLoader.TokenHandler()
+        {
+            @Override
+            public void onToken(final String content)
+            {
+                if (NUM_TERMS[0] == BUFFER[0].length)
+                    BUFFER[0] = Arrays.copyOf(BUFFER[0], (NUM_TERMS[0] << 1));
+
+                BUFFER[0][NUM_TERMS[0]++] = TermDictionary.getInstance().intern(content);
+            }
+
+            @Override
+            public void onDocumentEnd() {}
+        });
+
+        TOKENIZE_TIMER.stop(START, (NUM_TERMS[0] - termIDs.length));
+
+        termIDs = Arrays.copyOf(BUFFER[0], NUM_TERMS[0]);
+    }
+}
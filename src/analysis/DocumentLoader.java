@@ -0,0 +1,311 @@
+package analysis;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.CharBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.CharsetDecoder;
+import java.nio.charset.CoderResult;
+import java.nio.charset.CodingErrorAction;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * 파일을 메모리 매핑({@link FileChannel#map})하여 UTF-8로 디코딩하고, 매핑된 버퍼에서 바로 {@link Term}을 잘라내는 로더<br>
+ * 파일을 {@link #CHUNK_SIZE} 단위로 나누어 매핑하므로 수 GB 크기의 파일도 읽을 수 있다.<br><br>
+ *
+ * 참고:<br>
+ * 구분자는 정규식이 아닌 문자열 그대로 비교하며, 줄바꿈 역시 {@link Term}을 구분한다.<br>
+ * 줄바꿈은 '\n'이며, '\n' 바로 앞의 '\r'(CRLF)만 버린다. 그 밖의 '\r'은 {@link Term}의 일부로 남는다.<br>
+ * 빈 문자열 {@link Term}(연속된 구분자, 빈 줄)은 만들지 않는다.
+ *
+ * @see Document
+ */
+public class DocumentLoader
+{
+    /**
+     * 로더가 잘라낸 {@link Term}을 전달받는 인터페이스
+     */
+    public interface TokenHandler
+    {
+        /**
+         * @param content 잘라낸 {@link Term} content
+         */
+        void onToken(String content);
+
+        /**
+         * 하나의 {@link Document}가 끝났음을 알린다.
+         */
+        void onDocumentEnd();
+    }
+
+    /**
+     * 한 번에 매핑하는 파일 영역의 최대 크기 (64MB)
+     */
+    private static final long CHUNK_SIZE = (64L << 20);
+
+    /**
+     * 디코딩 버퍼의 크기 (문자 수)
+     */
+    private static final int DECODE_BUFFER_SIZE = (64 << 10);
+
+    /**
+     * 파일 전체를 하나의 {@link Document}로 보고 {@link Term}을 잘라낸다.
+     * @param path 파일 경로
+     * @param delimiter {@link Term} 구분자
+     * @param handler {@link Term}을 전달받을 {@link TokenHandler}
+     * @throws IOException
+     * @throws IllegalArgumentException 구분자가 빈 문자열인 경우
+     */
+    public static void tokenize(final String path, final String delimiter, final TokenHandler handler) throws IOException
+    {
+        tokenize(path, delimiter, false, CHUNK_SIZE, handler);
+    }
+
+    /**
+     * 파일의 각 줄을 하나의 {@link Document}로 보고 {@link Term}을 잘라낸다.
+     * @param path 파일 경로
+     * @param delimiter {@link Term} 구분자
+     * @param handler {@link Term}을 전달받을 {@link TokenHandler} (줄마다 {@link TokenHandler#onDocumentEnd()}가 호출된다.)
+     * @throws IOException
+     * @throws IllegalArgumentException 구분자가 빈 문자열인 경우
+     */
+    public static void tokenizeLines(final String path, final String delimiter, final TokenHandler handler) throws IOException
+    {
+        tokenize(path, delimiter, true, CHUNK_SIZE, handler);
+    }
+
+    /**
+     * 파일의 각 줄을 하나의 {@link Document}로 읽는다. {@link Document} ID는 "파일 이름#줄 번호" 형식이며,
+     * {@link Term}이 없는 줄은 건너뛴다.
+     * @param path 파일 경로
+     * @param delimiter {@link Term} 구분자
+     * @return {@link Document} 리스트
+     * @throws IOException
+     * @throws IllegalArgumentException 구분자가 빈 문자열인 경우
+     */
+    public static List<Document> readDocumentPerLine(final String path, final String delimiter) throws IOException
+    {
+        final String FILE_NAME = new File(path).getName();
+        List<Document> retVal = new ArrayList<>();
+
+        tokenizeLines(path, delimiter, new TokenHandler()
+        {
+            private int[] termIDs = new int[16];
+            private int numTerms = 0;
+            private int lineNumber = 0;
+
+            @Override
+            public void onToken(final String content)
+            {
+                if (numTerms == termIDs.length)
+                    termIDs = Arrays.copyOf(termIDs, (numTerms << 1));
+
+                termIDs[numTerms++] = TermDictionary.getInstance().intern(content);
+            }
+
+            @Override
+            public void onDocumentEnd()
+            {
+                ++lineNumber;
+
+                if (numTerms == 0)
+                    return;
+
+                retVal.add(new Document((FILE_NAME + "#" + lineNumber), Arrays.copyOf(termIDs, numTerms)));
+                numTerms = 0;
+            }
+        });
+
+        return retVal;
+    }
+
+    /**
+     * @param path 파일 경로
+     * @param delimiter {@link Term} 구분자
+     * @param documentPerLine 각 줄을 하나의 {@link Document}로 볼지에 대한 여부
+     * @param chunkSize 한 번에 매핑하는 파일 영역의 최대 크기 (UTF-8 문자 하나의 최대 길이인 4 이상, 테스트에서 청크 경계를 만들 때에만 줄인다.)
+     * @param handler {@link Term}을 전달받을 {@link TokenHandler}
+     * @throws IOException
+     * @throws IllegalArgumentException 구분자가 빈 문자열이거나 청크 크기가 4보다 작은 경우
+     */
+    static void tokenize(
+            final String path, final String delimiter, final boolean documentPerLine,
+            final long chunkSize, final TokenHandler handler) throws IOException
+    {
+        if (delimiter.isEmpty())
+            throw new IllegalArgumentException("delimiter must not be empty");
+
+        if (chunkSize < 4L)
+            throw new IllegalArgumentException("chunk size must be at least 4 bytes");
+
+        final CharsetDecoder DECODER = StandardCharsets.UTF_8.newDecoder()
+                .onMalformedInput(CodingErrorAction.REPLACE)
+                .onUnmappableCharacter(CodingErrorAction.REPLACE);
+
+        final Tokenizer TOKENIZER = new Tokenizer(delimiter, documentPerLine, handler);
+        final CharBuffer CHARS = CharBuffer.allocate(DECODE_BUFFER_SIZE);
+
+        try (FileChannel channel = FileChannel.open(Paths.get(path), StandardOpenOption.READ))
+        {
+            final long SIZE = channel.size();
+            long position = 0L;
+
+            while (position < SIZE)
+            {
+                final long LENGTH = Math.min(chunkSize, (SIZE - position));
+                final boolean LAST = ((position + LENGTH) == SIZE);
+                final MappedByteBuffer BYTES = channel.map(FileChannel.MapMode.READ_ONLY, position, LENGTH);
+
+                // UTF-8 포맷의 경우 파일의 시작에서 BOM(Byte Order Mark)가 등장한다.
+                if ((position == 0L) && (LENGTH >= 3) &&
+                        (BYTES.get(0) == (byte)0xEF) && (BYTES.get(1) == (byte)0xBB) && (BYTES.get(2) == (byte)0xBF))
+                    BYTES.position(3);
+
+                CoderResult result;
+
+                do
+                {
+                    result = DECODER.decode(BYTES, CHARS, LAST);
+                    CHARS.flip();
+                    TOKENIZER.feed(CHARS);
+                    CHARS.clear();
+                }
+                while (result.isOverflow());
+
+                // 청크 경계에 걸친 멀티바이트 문자는 다음 청크에서 다시 디코딩한다.
+                position += BYTES.position();
+
+                if (LAST)
+                    break;
+            }
+
+            if (SIZE > 0L)
+            {
+                DECODER.flush(CHARS);
+                CHARS.flip();
+                TOKENIZER.feed(CHARS);
+            }
+        }
+
+        TOKENIZER.finish();
+    }
+
+    /**
+     * 디코딩된 문자를 받아 {@link Term} 단위로 잘라내는 보조 클래스 (청크 경계에 걸친 {@link Term}을 이어 붙인다.)
+     */
+    private static class Tokenizer
+    {
+        private final String delimiter;
+        private final boolean documentPerLine;
+        private final TokenHandler handler;
+        private final StringBuilder token = new StringBuilder();
+
+        /**
+         * 마지막 줄바꿈 이후 문자가 등장했는지에 대한 여부
+         */
+        private boolean lineStarted = false;
+
+        /**
+         * 마지막으로 받은 문자가 '\r'이어서, 다음 문자가 '\n'인지 확인할 때까지 보류 중인지에 대한 여부
+         */
+        private boolean pendingCarriageReturn = false;
+
+        Tokenizer(final String delimiter, final boolean documentPerLine, final TokenHandler handler)
+        {
+            this.delimiter = delimiter;
+            this.documentPerLine = documentPerLine;
+            this.handler = handler;
+        }
+
+        void feed(final CharBuffer chars)
+        {
+            while (chars.hasRemaining())
+            {
+                final char CH = chars.get();
+
+                if (CH == '\n')
+                {
+                    // CRLF의 '\r'은 버린다.
+                    pendingCarriageReturn = false;
+                    emitToken();
+
+                    if (documentPerLine)
+                        handler.onDocumentEnd();
+
+                    lineStarted = false;
+                    continue;
+                }
+
+                lineStarted = true;
+
+                if (pendingCarriageReturn)
+                {
+                    pendingCarriageReturn = false;
+                    append('\r');
+                }
+
+                if (CH == '\r')
+                    pendingCarriageReturn = true;
+                else
+                    append(CH);
+            }
+        }
+
+        void finish()
+        {
+            if (pendingCarriageReturn)
+            {
+                pendingCarriageReturn = false;
+                append('\r');
+            }
+
+            emitToken();
+
+            if (!documentPerLine || lineStarted)
+                handler.onDocumentEnd();
+        }
+
+        private void append(final char ch)
+        {
+            token.append(ch);
+
+            // 구분자의 마지막 문자가 등장한 경우에만 구분자 전체를 비교한다.
+            if ((ch == delimiter.charAt(delimiter.length() - 1)) && endsWithDelimiter())
+            {
+                token.setLength(token.length() - delimiter.length());
+                emitToken();
+            }
+        }
+
+        private boolean endsWithDelimiter()
+        {
+            final int OFFSET = (token.length() - delimiter.length());
+
+            if (OFFSET < 0)
+                return false;
+
+            for (int i = 0; i < delimiter.length(); ++i)
+            {
+                if (token.charAt(OFFSET + i) != delimiter.charAt(i))
+                    return false;
+            }
+
+            return true;
+        }
+
+        private void emitToken()
+        {
+            if (token.length() == 0)
+                return;
+
+            handler.onToken(token.toString());
+            token.setLength(0);
+        }
+    }
+}
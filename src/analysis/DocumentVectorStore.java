@@ -0,0 +1,263 @@
+package analysis;
+
+import javafx.util.Pair;
+
+import java.util.*;
+
+/**
+ * {@link Document} 별 TF-IDF {@link SparseVector} 저장소<br>
+ * 각 {@link Document}의 상위 TF-IDF 가중치만 남긴 벡터를 한 번만 구축하고, 모든 유사도 질의에서 공유한다.
+ *
+ * @see TFIDFCalculator
+ * @see CosineSimilarityCalculator
+ */
+public class DocumentVectorStore
+{
+    private static final Timer BUILD_TIMER = MetricsRegistry.getInstance().timer("tfidf.vectorStore");
+
+    /**
+     * {@link Document} 리스트
+     */
+    private final List<Document> documentList;
+
+    /**
+     * {@link Document} 인덱스 별 {@link SparseVector}
+     */
+    private final SparseVector[] vectors;
+
+    /**
+     * key: {@link Document} ID<br>
+     * value: {@link Document} 인덱스
+     */
+    private final HashMap<String, Integer> documentIndexMap = new HashMap<>();
+
+    /**
+     * 벡터 구축에 사용한 상위 TF-IDF 가중치 개수
+     */
+    private final int numFeatures;
+
+    /**
+     * {@link Term} ID 별 포스팅의 {@link Document} 인덱스 배열 (오름차순, 포스팅이 없는 경우 null)
+     */
+    private final int[][] postingDocumentIndices;
+
+    /**
+     * {@link Term} ID 별 포스팅의 정규화된 가중치 배열 (가중치 / 벡터의 L2 norm)
+     */
+    private final double[][] postingWeights;
+
+    /**
+     * {@link Term} ID 별 정규화된 가중치의 최댓값 (유사도 상한 계산에 사용한다.)
+     */
+    private final double[] maxWeights;
+
+    /**
+     * 자주 등장하는 {@link Term}의 가중치를 밀집 행으로 저장한 블록 (전체 유사도 계산에 사용한다.)
+     */
+    private final DenseFeatureBlock denseBlock;
+
+    /**
+     * @param tfIdfCalculator 가중치 계산에 사용할 {@link TFIDFCalculator}
+     * @param numFeatures 벡터에 남길 상위 TF-IDF 가중치 개수
+     */
+    public DocumentVectorStore(final TFIDFCalculator tfIdfCalculator, final int numFeatures)
+    {
+        this(tfIdfCalculator.getDocumentList(), numFeatures, buildVectors(tfIdfCalculator, numFeatures));
+    }
+
+    /**
+     * 이미 구축된 벡터로 저장소를 만든다. ({@link IndexSegment}에서 복원할 때 사용한다.)
+     * @param documentList {@link Document} 리스트
+     * @param numFeatures 벡터 구축에 사용한 상위 TF-IDF 가중치 개수
+     * @param vectors {@link Document} 인덱스 별 {@link SparseVector}
+     */
+    DocumentVectorStore(final List<Document> documentList, final int numFeatures, final SparseVector[] vectors)
+    {
+        this.documentList = new ArrayList<>(documentList);
+        this.numFeatures = numFeatures;
+        this.vectors = vectors;
+
+        for (int documentIndex = 0; documentIndex < vectors.length; ++documentIndex)
+            documentIndexMap.put(this.documentList.get(documentIndex).getID(), documentIndex);
+
+        // 벡터들을 Term ID 별 포스팅으로 뒤집는다.
+        int termIDBound = 0;
+        for (final SparseVector vector : vectors)
+        {
+            if (vector.size() > 0)
+                termIDBound = Math.max(termIDBound, (vector.getTermID(vector.size() - 1) + 1));
+        }
+
+        final int[] POSTING_SIZES = new int[termIDBound];
+        for (final SparseVector vector : vectors)
+        {
+            for (int position = 0; position < vector.size(); ++position)
+                ++POSTING_SIZES[vector.getTermID(position)];
+        }
+
+        postingDocumentIndices = new int[termIDBound][];
+        postingWeights = new double[termIDBound][];
+        maxWeights = new double[termIDBound];
+
+        for (int termID = 0; termID < termIDBound; ++termID)
+        {
+            if (POSTING_SIZES[termID] == 0)
+                continue;
+
+            postingDocumentIndices[termID] = new int[POSTING_SIZES[termID]];
+            postingWeights[termID] = new double[POSTING_SIZES[termID]];
+            POSTING_SIZES[termID] = 0;
+        }
+
+        for (int documentIndex = 0; documentIndex < vectors.length; ++documentIndex)
+        {
+            final SparseVector VECTOR = vectors[documentIndex];
+            final double NORM = VECTOR.getNorm();
+
+            if (NORM == 0.0)
+                continue;
+
+            for (int position = 0; position < VECTOR.size(); ++position)
+            {
+                final int TERM_ID = VECTOR.getTermID(position);
+                final int OFFSET = POSTING_SIZES[TERM_ID]++;
+                final double WEIGHT = (VECTOR.getWeight(position) / NORM);
+
+                postingDocumentIndices[TERM_ID][OFFSET] = documentIndex;
+                postingWeights[TERM_ID][OFFSET] = WEIGHT;
+                maxWeights[TERM_ID] = Math.max(maxWeights[TERM_ID], WEIGHT);
+            }
+        }
+
+        denseBlock = new DenseFeatureBlock(this, DenseFeatureBlock.DEFAULT_WIDTH);
+    }
+
+    public List<Document> getDocumentList()
+    {
+        return documentList;
+    }
+
+    public int getNumFeatures()
+    {
+        return numFeatures;
+    }
+
+    public int size()
+    {
+        return vectors.length;
+    }
+
+    /**
+     * @param documentID {@link Document} ID
+     * @return {@link Document} (존재하지 않는 경우 null)
+     */
+    public Document getDocument(final String documentID)
+    {
+        final Integer DOCUMENT_INDEX = documentIndexMap.get(documentID);
+
+        if (DOCUMENT_INDEX == null)
+            return null;
+
+        return documentList.get(DOCUMENT_INDEX);
+    }
+
+    public SparseVector getVector(final int documentIndex)
+    {
+        return vectors[documentIndex];
+    }
+
+    /**
+     * @param documentID {@link Document} ID
+     * @return {@link SparseVector} (존재하지 않는 경우 비어있는 벡터)
+     */
+    public SparseVector getVector(final String documentID)
+    {
+        final Integer DOCUMENT_INDEX = documentIndexMap.get(documentID);
+
+        if (DOCUMENT_INDEX == null)
+            return new SparseVector(new int[0], new double[0]);
+
+        return vectors[DOCUMENT_INDEX];
+    }
+
+    /**
+     * @return 포스팅이 있는 {@link Term} ID의 상한 (최댓값 + 1)
+     */
+    public int getTermIDBound()
+    {
+        return postingDocumentIndices.length;
+    }
+
+    public DenseFeatureBlock getDenseBlock()
+    {
+        return denseBlock;
+    }
+
+    /**
+     * @param termID {@link Term} ID
+     * @return 해당 {@link Term}을 벡터에 가진 {@link Document} 인덱스 배열 (없는 경우 null)
+     */
+    public int[] getPostingDocumentIndices(final int termID)
+    {
+        if ((termID < 0) || (termID >= postingDocumentIndices.length))
+            return null;
+
+        return postingDocumentIndices[termID];
+    }
+
+    /**
+     * @param termID {@link Term} ID
+     * @return {@link #getPostingDocumentIndices(int)}의 {@link Document} 별 정규화된 가중치 배열 (없는 경우 null)
+     */
+    public double[] getPostingWeights(final int termID)
+    {
+        if ((termID < 0) || (termID >= postingWeights.length))
+            return null;
+
+        return postingWeights[termID];
+    }
+
+    /**
+     * @param termID {@link Term} ID
+     * @return 해당 {@link Term}의 정규화된 가중치 최댓값 (없는 경우 0)
+     */
+    public double getMaxWeight(final int termID)
+    {
+        if ((termID < 0) || (termID >= maxWeights.length))
+            return 0.0;
+
+        return maxWeights[termID];
+    }
+
+    /**
+     * {@link Document} 별로 상위 numFeatures개의 TF-IDF 가중치를 {@link Term} ID 순으로 재정렬하여 벡터를 만든다.
+     */
+    private static SparseVector[] buildVectors(final TFIDFCalculator tfIdfCalculator, final int numFeatures)
+    {
+        final long START = BUILD_TIMER.start();
+        final List<Document> DOCUMENT_LIST = tfIdfCalculator.getDocumentList();
+        final SparseVector[] RETVAL = new SparseVector[DOCUMENT_LIST.size()];
+
+        for (int documentIndex = 0; documentIndex < RETVAL.length; ++documentIndex)
+        {
+            List<Pair<Integer, Double>> weightList =
+                    new ArrayList<>(tfIdfCalculator.rankByTermID(DOCUMENT_LIST.get(documentIndex).getID(), numFeatures));
+            weightList.sort(Comparator.comparingInt(Pair::getKey));
+
+            final int[] TERM_IDS = new int[weightList.size()];
+            final double[] WEIGHTS = new double[weightList.size()];
+
+            for (int i = 0; i < TERM_IDS.length; ++i)
+            {
+                TERM_IDS[i] = weightList.get(i).getKey();
+                WEIGHTS[i] = weightList.get(i).getValue();
+            }
+
+            RETVAL[documentIndex] = new SparseVector(TERM_IDS, WEIGHTS);
+        }
+
+        BUILD_TIMER.stop(START, RETVAL.length);
+
+        return RETVAL;
+    }
+}
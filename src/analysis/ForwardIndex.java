@@ -0,0 +1,243 @@
+package analysis;
+
+import java.util.Arrays;
+
+/**
+ * {@link Document} 별 {@link Term} 목록을 담은 정방향 색인(Forward Index)<br>
+ * 각 {@link Document}의 행은 ({@link Term} ID, 출현 빈도) 쌍을 {@link Term} ID 순으로 저장하며,
+ * TF-IDF 값은 조회 시 {@link Term} ID 별 IDF로 계산한다. 상위 K개의 {@link Term}은 행을 정렬하지 않고 고른다.<br><br>
+ *
+ * 참고: 행은 {@link Document}가 추가되어도 바뀌지 않으므로 이전 세대의 정방향 색인과 공유한다.
+ * ({@link #ForwardIndex(ForwardIndex, InvertedIndex)}) IDF는 {@link Document} 개수에 의존하므로 세대마다 다시 계산한다.
+ *
+ * @see InvertedIndex
+ * @see TFIDFCalculator
+ */
+public class ForwardIndex
+{
+    private static final Timer BUILD_TIMER = MetricsRegistry.getInstance().timer("tfidf.forwardIndex");
+
+    private final InvertedIndex invertedIndex;
+
+    /**
+     * {@link Document} 인덱스 별 {@link Term} ID 배열 (오름차순, 이전 세대와 공유하므로 변경하지 않는다.)
+     */
+    private final int[][] termIDs;
+
+    /**
+     * {@link Document} 인덱스 별 출현 빈도 배열 (이전 세대와 공유하므로 변경하지 않는다.)
+     */
+    private final int[][] frequencies;
+
+    /**
+     * {@link Term} ID 별 IDF (색인되지 않은 ID의 경우 0)
+     */
+    private final double[] idfs;
+
+    /**
+     * 역색인의 포스팅을 {@link Document} 별로 모아 정방향 색인을 구축한다.
+     * @param invertedIndex 역색인
+     */
+    public ForwardIndex(final InvertedIndex invertedIndex)
+    {
+        this(null, invertedIndex);
+    }
+
+    /**
+     * 이전 세대의 행을 공유하고, 그 뒤에 추가된 {@link Document}의 행만 역색인의 포스팅에서 모은다.
+     * 비용은 추가된 포스팅 수와 {@link Term} ID 상한에 비례한다.
+     * @param previous 이전 세대의 정방향 색인 (null인 경우 모든 행을 구축한다.)
+     * @param invertedIndex 역색인 (앞의 {@link Document}들은 이전 세대와 같아야 한다.)
+     */
+    public ForwardIndex(final ForwardIndex previous, final InvertedIndex invertedIndex)
+    {
+        final long START = BUILD_TIMER.start();
+        final int NUM_DOCUMENTS = invertedIndex.getNumDocuments();
+        final int TERM_ID_BOUND = invertedIndex.getTermIDBound();
+        final int FIRST_NEW_DOCUMENT = ((previous == null) ? 0 : Math.min(previous.termIDs.length, NUM_DOCUMENTS));
+
+        this.invertedIndex = invertedIndex;
+        termIDs = ((previous == null) ? new int[NUM_DOCUMENTS][] : Arrays.copyOf(previous.termIDs, NUM_DOCUMENTS));
+        frequencies = ((previous == null) ? new int[NUM_DOCUMENTS][] : Arrays.copyOf(previous.frequencies, NUM_DOCUMENTS));
+        idfs = new double[TERM_ID_BOUND];
+
+        // 새로운 문서 별 서로 다른 Term 개수 (포스팅은 문서 인덱스 순이므로 뒤에서부터 새로운 문서의 포스팅만 센다.)
+        final int[] SIZES = new int[NUM_DOCUMENTS - FIRST_NEW_DOCUMENT];
+
+        for (int termID = 0; termID < TERM_ID_BOUND; ++termID)
+        {
+            final PostingList POSTING_LIST = invertedIndex.getPostingList(termID);
+
+            if (POSTING_LIST == null)
+                continue;
+
+            idfs[termID] = invertedIndex.calculateIdf(invertedIndex.getDocumentFrequency(termID));
+
+            for (int position = (POSTING_LIST.size() - 1);
+                 (position >= 0) && (POSTING_LIST.getDocumentIndex(position) >= FIRST_NEW_DOCUMENT); --position)
+                ++SIZES[POSTING_LIST.getDocumentIndex(position) - FIRST_NEW_DOCUMENT];
+        }
+
+        for (int documentIndex = FIRST_NEW_DOCUMENT; documentIndex < NUM_DOCUMENTS; ++documentIndex)
+        {
+            termIDs[documentIndex] = new int[SIZES[documentIndex - FIRST_NEW_DOCUMENT]];
+            frequencies[documentIndex] = new int[SIZES[documentIndex - FIRST_NEW_DOCUMENT]];
+            SIZES[documentIndex - FIRST_NEW_DOCUMENT] = 0;
+        }
+
+        for (int termID = 0; termID < TERM_ID_BOUND; ++termID)
+        {
+            final PostingList POSTING_LIST = invertedIndex.getPostingList(termID);
+
+            if (POSTING_LIST == null)
+                continue;
+
+            for (int position = (POSTING_LIST.size() - 1);
+                 (position >= 0) && (POSTING_LIST.getDocumentIndex(position) >= FIRST_NEW_DOCUMENT); --position)
+            {
+                final int DOCUMENT_INDEX = POSTING_LIST.getDocumentIndex(position);
+                final int OFFSET = SIZES[DOCUMENT_INDEX - FIRST_NEW_DOCUMENT]++;
+
+                termIDs[DOCUMENT_INDEX][OFFSET] = termID;
+                frequencies[DOCUMENT_INDEX][OFFSET] = POSTING_LIST.getFrequencyAt(position);
+            }
+        }
+
+        BUILD_TIMER.stop(START, (NUM_DOCUMENTS - FIRST_NEW_DOCUMENT));
+    }
+
+    /**
+     * @param documentIndex {@link Document} 인덱스
+     * @return {@link Document} 내 서로 다른 {@link Term} 개수
+     */
+    public int size(final int documentIndex)
+    {
+        return termIDs[documentIndex].length;
+    }
+
+    /**
+     * @param documentIndex {@link Document} 인덱스
+     * @param position 행 내 위치 (참고: {@link #selectTopK(int, int)})
+     * @return 해당 위치의 {@link Term} ID
+     */
+    public int getTermID(final int documentIndex, final int position)
+    {
+        return termIDs[documentIndex][position];
+    }
+
+    /**
+     * @param documentIndex {@link Document} 인덱스
+     * @param position 행 내 위치 (참고: {@link #selectTopK(int, int)})
+     * @return 해당 위치의 TF-IDF 값
+     */
+    public double getWeight(final int documentIndex, final int position)
+    {
+        return (invertedIndex.calculateTf(frequencies[documentIndex][position], documentIndex) *
+                idfs[termIDs[documentIndex][position]]);
+    }
+
+    /**
+     * TF-IDF 값이 높은 k개의 {@link Term}을 고른다. (크기 k의 최소 힙 사용)
+     * @param documentIndex {@link Document} 인덱스
+     * @param k 고를 개수
+     * @return 행 내 위치 배열 (TF-IDF 값의 내림차순, 같은 값의 경우 content 오름차순)
+     */
+    public int[] selectTopK(final int documentIndex, final int k)
+    {
+        final int SIZE = Math.max(0, Math.min(k, size(documentIndex)));
+        final int[] HEAP = new int[SIZE];
+        final double[] WEIGHTS = new double[size(documentIndex)];
+        int heapSize = 0;
+
+        if (SIZE == 0)
+            return HEAP;
+
+        for (int position = 0; position < WEIGHTS.length; ++position)
+            WEIGHTS[position] = getWeight(documentIndex, position);
+
+        final int[] TERM_IDS = termIDs[documentIndex];
+        final TermDictionary DICTIONARY = TermDictionary.getInstance();
+
+        for (int position = 0; position < WEIGHTS.length; ++position)
+        {
+            if (heapSize < SIZE)
+            {
+                HEAP[heapSize] = position;
+                siftUp(HEAP, heapSize++, TERM_IDS, WEIGHTS, DICTIONARY);
+            }
+            else if (isBetter(position, HEAP[0], TERM_IDS, WEIGHTS, DICTIONARY))
+            {
+                HEAP[0] = position;
+                siftDown(HEAP, 0, heapSize, TERM_IDS, WEIGHTS, DICTIONARY);
+            }
+        }
+
+        // 힙 정렬로 최소 원소를 뒤에서부터 채운다.
+        for (int last = (heapSize - 1); last > 0; --last)
+        {
+            final int TEMP = HEAP[0];
+            HEAP[0] = HEAP[last];
+            HEAP[last] = TEMP;
+            siftDown(HEAP, 0, last, TERM_IDS, WEIGHTS, DICTIONARY);
+        }
+
+        return HEAP;
+    }
+
+    private static boolean isBetter(
+            final int position1, final int position2,
+            final int[] termIDs, final double[] weights, final TermDictionary dictionary)
+    {
+        final double VAL1 = weights[position1];
+        final double VAL2 = weights[position2];
+
+        if (VAL1 != VAL2)
+            return (VAL1 > VAL2);
+
+        return (dictionary.getContent(termIDs[position1]).compareTo(dictionary.getContent(termIDs[position2])) < 0);
+    }
+
+    private static void siftUp(
+            final int[] heap, int position,
+            final int[] termIDs, final double[] weights, final TermDictionary dictionary)
+    {
+        while (position > 0)
+        {
+            final int PARENT = ((position - 1) >>> 1);
+
+            if (!isBetter(heap[PARENT], heap[position], termIDs, weights, dictionary))
+                break;
+
+            final int TEMP = heap[PARENT];
+            heap[PARENT] = heap[position];
+            heap[position] = TEMP;
+            position = PARENT;
+        }
+    }
+
+    private static void siftDown(
+            final int[] heap, int position, final int size,
+            final int[] termIDs, final double[] weights, final TermDictionary dictionary)
+    {
+        while (true)
+        {
+            final int LEFT = ((position << 1) + 1);
+            final int RIGHT = (LEFT + 1);
+            int worst = position;
+
+            if ((LEFT < size) && isBetter(heap[worst], heap[LEFT], termIDs, weights, dictionary))
+                worst = LEFT;
+
+            if ((RIGHT < size) && isBetter(heap[worst], heap[RIGHT], termIDs, weights, dictionary))
+                worst = RIGHT;
+
+            if (worst == position)
+                break;
+
+            final int TEMP = heap[worst];
+            heap[worst] = heap[position];
+            heap[position] = TEMP;
+            position = worst;
+        }
+    }
+}
@@ -0,0 +1,106 @@
+package analysis;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 음이 아닌 long 값의 분포를 2의 거듭제곱 구간으로 세는 히스토그램<br>
+ * 구간 i에는 [2^(i-1), 2^i) 범위의 값이 들어가며(구간 0은 0), 백분위 값은 해당 구간의 상한으로 근사한다.
+ * 잠금 없이 여러 스레드에서 동시에 기록할 수 있다.
+ *
+ * @see Timer
+ */
+public class Histogram
+{
+    private static final int NUM_BUCKETS = 64;
+
+    private final AtomicLongArray buckets = new AtomicLongArray(NUM_BUCKETS);
+    private final LongAdder count = new LongAdder();
+    private final LongAdder sum = new LongAdder();
+    private final AtomicLong max = new AtomicLong();
+
+    /**
+     * @param value 기록할 값 (음수의 경우 0으로 기록한다.)
+     */
+    public void record(final long value)
+    {
+        final long VALUE = Math.max(value, 0L);
+
+        buckets.incrementAndGet(NUM_BUCKETS - Long.numberOfLeadingZeros(VALUE));
+        count.increment();
+        sum.add(VALUE);
+        max.accumulateAndGet(VALUE, Math::max);
+    }
+
+    public long getCount()
+    {
+        return count.sum();
+    }
+
+    public long getSum()
+    {
+        return sum.sum();
+    }
+
+    public long getMax()
+    {
+        return max.get();
+    }
+
+    public double getMean()
+    {
+        final long COUNT = getCount();
+
+        return ((COUNT == 0L) ? 0.0 : ((double)getSum() / (double)COUNT));
+    }
+
+    /**
+     * @param percentile 백분위 (0 ~ 100)
+     * @return 백분위 값의 근사치 (해당 구간의 상한, 최댓값을 넘지 않는다. 기록된 값이 없는 경우 0)
+     */
+    public long getPercentile(final double percentile)
+    {
+        final long COUNT = getCount();
+
+        if (COUNT == 0L)
+            return 0L;
+
+        final long RANK = Math.max(1L, (long)Math.ceil((percentile / 100.0) * COUNT));
+        long accumulated = 0L;
+
+        for (int bucket = 0; bucket < NUM_BUCKETS; ++bucket)
+        {
+            accumulated += buckets.get(bucket);
+
+            if (accumulated >= RANK)
+                return Math.min(getUpperBound(bucket), getMax());
+        }
+
+        return getMax();
+    }
+
+    void reset()
+    {
+        for (int bucket = 0; bucket < NUM_BUCKETS; ++bucket)
+            buckets.set(bucket, 0L);
+
+        count.reset();
+        sum.reset();
+        max.set(0L);
+    }
+
+    /**
+     * @return 구간에 들어가는 값의 상한
+     */
+    private static long getUpperBound(final int bucket)
+    {
+        if (bucket == 0)
+            return 0L;
+
+        if (bucket >= 63)
+            return Long.MAX_VALUE;
+
+        return ((1L << bucket) - 1L);
+    }
+}
@@ -0,0 +1,455 @@
+package analysis;
+
+import java.io.*;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+import java.util.*;
+
+/**
+ * {@link TFIDFCalculator}, {@link DocumentVectorStore}, {@link WordCooccurrenceCalculator}의 구축 결과를 담는 디스크 색인 세그먼트<br>
+ * 한 번 기록해 두면 다시 시작할 때 원본 파일을 토큰화하거나 통계를 다시 계산하지 않고, 메모리 맵 버퍼에서 바로 복원한다.<br><br>
+ *
+ * 파일 구성 (big-endian):<br>
+ * 1. 헤더: {@link #MAGIC}, {@link #VERSION}, windowSize, numFeatures<br>
+ * 2. 원본 파일 목록: 경로, 크기, 마지막 수정 시각 ({@link SourceFile})<br>
+ * 3. {@link Term} 사전: 세그먼트 내 {@link Term} ID 순의 content<br>
+ * 4. {@link Document} 목록: ID, {@link Term} 개수<br>
+ * 5. 포스팅: {@link Term} ID, DF, {@link Document} 인덱스 배열, 출현 빈도 배열<br>
+ * 6. 벡터: {@link Document} 별 크기, L2 norm, {@link Term} ID 배열, 가중치 배열<br>
+ * 7. 동시 출현 빈도: ({@link Term} ID, {@link Term} ID, 빈도)<br><br>
+ *
+ * 참고: {@link TermDictionary}의 ID는 실행마다 달라질 수 있으므로, 세그먼트에는 세그먼트 내에서만 유효한 {@link Term} ID를 기록하고
+ * 복원 시 content를 다시 등록하여 현재 실행의 ID로 바꾼다. 복원된 {@link Document}는 ID만 가지며 {@link Term} 리스트는 비어있다.
+ *
+ * @see SourceFile
+ */
+public class IndexSegment
+{
+    /**
+     * 파일 식별자 ("DIAS")
+     */
+    private static final int MAGIC = 0x44494153;
+
+    /**
+     * 파일 형식 버전 (형식이 바뀌면 올린다.)
+     */
+    private static final int VERSION = 1;
+
+    private static final Timer OPEN_TIMER = MetricsRegistry.getInstance().timer("segment.open");
+    private static final Timer WRITE_TIMER = MetricsRegistry.getInstance().timer("segment.write");
+
+    private final int windowSize;
+    private final int numFeatures;
+
+    /**
+     * 세그먼트를 기록할 당시의 원본 파일 목록
+     */
+    private final List<SourceFile> sourceFileList = new ArrayList<>();
+
+    /**
+     * {@link Term} 리스트 없이 ID만 가진 {@link Document} 리스트
+     */
+    private final List<Document> documentList = new ArrayList<>();
+
+    private final InvertedIndex invertedIndex;
+    private final SparseVector[] vectors;
+    private final LongIntHashMap cooccurrenceMatrix;
+
+    private IndexSegment(final ByteBuffer buffer) throws IOException
+    {
+        if (buffer.getInt() != MAGIC)
+            throw new IOException("not an index segment");
+
+        final int VERSION_READ = buffer.getInt();
+
+        if (VERSION_READ != VERSION)
+            throw new IOException("unsupported index segment version: " + VERSION_READ);
+
+        windowSize = buffer.getInt();
+        numFeatures = buffer.getInt();
+
+        final int NUM_SOURCE_FILES = buffer.getInt();
+
+        for (int i = 0; i < NUM_SOURCE_FILES; ++i)
+            sourceFileList.add(new SourceFile(readString(buffer), buffer.getLong(), buffer.getLong()));
+
+        // 세그먼트 내 Term ID -> 현재 실행의 Term ID
+        final TermDictionary DICTIONARY = TermDictionary.getInstance();
+        final int[] TERM_IDS = new int[buffer.getInt()];
+
+        for (int localID = 0; localID < TERM_IDS.length; ++localID)
+            TERM_IDS[localID] = DICTIONARY.intern(readString(buffer));
+
+        final int NUM_DOCUMENTS = buffer.getInt();
+        final List<String> DOCUMENT_IDS = new ArrayList<>(NUM_DOCUMENTS);
+        final int[] DOCUMENT_LENGTHS = new int[NUM_DOCUMENTS];
+
+        for (int documentIndex = 0; documentIndex < NUM_DOCUMENTS; ++documentIndex)
+        {
+            final String DOCUMENT_ID = readString(buffer);
+
+            DOCUMENT_IDS.add(DOCUMENT_ID);
+            documentList.add(new Document(DOCUMENT_ID, Collections.emptyList()));
+            DOCUMENT_LENGTHS[documentIndex] = buffer.getInt();
+        }
+
+        final int NUM_POSTING_LISTS = buffer.getInt();
+        final PostingList[] POSTING_LISTS = new PostingList[DICTIONARY.size()];
+
+        for (int i = 0; i < NUM_POSTING_LISTS; ++i)
+        {
+            final int TERM_ID = TERM_IDS[buffer.getInt()];
+            final int DF = buffer.getInt();
+
+            POSTING_LISTS[TERM_ID] = new PostingList(readInts(buffer, DF), readInts(buffer, DF));
+        }
+
+        invertedIndex = new InvertedIndex(DOCUMENT_IDS, DOCUMENT_LENGTHS, POSTING_LISTS);
+
+        vectors = new SparseVector[NUM_DOCUMENTS];
+
+        for (int documentIndex = 0; documentIndex < NUM_DOCUMENTS; ++documentIndex)
+        {
+            final int SIZE = buffer.getInt();
+            final double NORM = buffer.getDouble();
+            final int[] VECTOR_TERM_IDS = readInts(buffer, SIZE);
+            final double[] WEIGHTS = readDoubles(buffer, SIZE);
+
+            for (int position = 0; position < SIZE; ++position)
+                VECTOR_TERM_IDS[position] = TERM_IDS[VECTOR_TERM_IDS[position]];
+
+            sortByTermID(VECTOR_TERM_IDS, WEIGHTS);
+            vectors[documentIndex] = new SparseVector(VECTOR_TERM_IDS, WEIGHTS, NORM);
+        }
+
+        final int NUM_ENTRIES = buffer.getInt();
+        cooccurrenceMatrix = new LongIntHashMap(NUM_ENTRIES);
+
+        for (int i = 0; i < NUM_ENTRIES; ++i)
+        {
+            final int TERM_ID1 = TERM_IDS[buffer.getInt()];
+            final int TERM_ID2 = TERM_IDS[buffer.getInt()];
+
+            cooccurrenceMatrix.addTo(WordCooccurrenceCalculator.toMatrixKey(TERM_ID1, TERM_ID2), buffer.getInt());
+        }
+    }
+
+    /**
+     * 세그먼트 파일을 메모리 맵으로 열어 복원한다.
+     * @param path 세그먼트 파일 경로
+     * @return {@link IndexSegment}
+     * @throws IOException 파일이 없거나, 세그먼트 파일이 아니거나, 버전이 다른 경우
+     */
+    public static IndexSegment open(final String path) throws IOException
+    {
+        final long START = OPEN_TIMER.start();
+
+        try (FileChannel channel = FileChannel.open(Paths.get(path), StandardOpenOption.READ))
+        {
+            final long SIZE = channel.size();
+
+            if (SIZE > Integer.MAX_VALUE)
+                throw new IOException("index segment is too large: " + SIZE);
+
+            final MappedByteBuffer BUFFER = channel.map(FileChannel.MapMode.READ_ONLY, 0, SIZE);
+
+            try
+            {
+                final IndexSegment RETVAL = new IndexSegment(BUFFER);
+                OPEN_TIMER.stop(START, RETVAL.documentList.size());
+
+                return RETVAL;
+            }
+            catch (BufferUnderflowException | IndexOutOfBoundsException e)
+            {
+                throw new IOException("corrupted index segment: " + path, e);
+            }
+        }
+    }
+
+    /**
+     * 계산기들의 구축 결과를 세그먼트 파일로 기록한다. 임시 파일에 모두 쓴 뒤 교체하므로, 기록 도중 실패해도 기존 세그먼트는 남는다.
+     * @param path 세그먼트 파일 경로
+     * @param sourceFileList 색인된 원본 파일 목록
+     * @param tfIdfCalculator {@link TFIDFCalculator}
+     * @param numFeatures 기록할 {@link DocumentVectorStore}의 상위 TF-IDF 가중치 개수
+     * @param wcCalculator {@link WordCooccurrenceCalculator} (tfIdfCalculator와 같은 {@link Document} 리스트로 구축되어 있어야 한다.)
+     * @throws IOException
+     */
+    public static void write(
+            final String path, final List<SourceFile> sourceFileList, final TFIDFCalculator tfIdfCalculator,
+            final int numFeatures, final WordCooccurrenceCalculator wcCalculator) throws IOException
+    {
+        final long START = WRITE_TIMER.start();
+        final InvertedIndex INVERTED_INDEX = tfIdfCalculator.getInvertedIndex();
+        final DocumentVectorStore VECTOR_STORE = tfIdfCalculator.getVectorStore(numFeatures);
+        final List<Document> DOCUMENT_LIST = tfIdfCalculator.getDocumentList();
+        final LongIntMap MATRIX = wcCalculator.cooccurrenceMatrix;
+        final TermDictionary DICTIONARY = TermDictionary.getInstance();
+
+        // 세그먼트 내 Term ID를 Term ID의 오름차순으로 부여한다. (벡터의 정렬 순서가 그대로 유지된다.)
+        final int[] LOCAL_IDS = new int[DICTIONARY.size()];
+        Arrays.fill(LOCAL_IDS, -1);
+
+        for (int termID = 0; termID < INVERTED_INDEX.getTermIDBound(); ++termID)
+        {
+            if (INVERTED_INDEX.getPostingList(termID) != null)
+                LOCAL_IDS[termID] = 0;
+        }
+
+        MATRIX.forEach((matrixKey, frequency) ->
+        {
+            LOCAL_IDS[WordCooccurrenceCalculator.getTermID1(matrixKey)] = 0;
+            LOCAL_IDS[WordCooccurrenceCalculator.getTermID2(matrixKey)] = 0;
+        });
+
+        int numTerms = 0;
+
+        for (int termID = 0; termID < LOCAL_IDS.length; ++termID)
+        {
+            if (LOCAL_IDS[termID] == 0)
+                LOCAL_IDS[termID] = ++numTerms;
+        }
+
+        for (int termID = 0; termID < LOCAL_IDS.length; ++termID)
+            --LOCAL_IDS[termID];
+
+        final Path TARGET = Paths.get(path);
+        final Path TEMP = Paths.get(path + ".tmp");
+
+        if (TARGET.getParent() != null)
+            Files.createDirectories(TARGET.getParent());
+
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(TEMP), (1 << 16))))
+        {
+            out.writeInt(MAGIC);
+            out.writeInt(VERSION);
+            out.writeInt(wcCalculator.getWindowSize());
+            out.writeInt(numFeatures);
+
+            out.writeInt(sourceFileList.size());
+
+            for (final SourceFile sourceFile : sourceFileList)
+            {
+                writeString(out, sourceFile.getPath());
+                out.writeLong(sourceFile.getSize());
+                out.writeLong(sourceFile.getLastModified());
+            }
+
+            out.writeInt(numTerms);
+
+            for (int termID = 0; termID < LOCAL_IDS.length; ++termID)
+            {
+                if (LOCAL_IDS[termID] >= 0)
+                    writeString(out, DICTIONARY.getContent(termID));
+            }
+
+            out.writeInt(DOCUMENT_LIST.size());
+
+            for (int documentIndex = 0; documentIndex < DOCUMENT_LIST.size(); ++documentIndex)
+            {
+                writeString(out, DOCUMENT_LIST.get(documentIndex).getID());
+                out.writeInt(INVERTED_INDEX.getDocumentLength(documentIndex));
+            }
+
+            int numPostingLists = 0;
+
+            for (int termID = 0; termID < INVERTED_INDEX.getTermIDBound(); ++termID)
+            {
+                if (INVERTED_INDEX.getPostingList(termID) != null)
+                    ++numPostingLists;
+            }
+
+            out.writeInt(numPostingLists);
+
+            for (int termID = 0; termID < INVERTED_INDEX.getTermIDBound(); ++termID)
+            {
+                final PostingList POSTING_LIST = INVERTED_INDEX.getPostingList(termID);
+
+                if (POSTING_LIST == null)
+                    continue;
+
+                out.writeInt(LOCAL_IDS[termID]);
+                out.writeInt(POSTING_LIST.size());
+
+                for (int position = 0; position < POSTING_LIST.size(); ++position)
+                    out.writeInt(POSTING_LIST.getDocumentIndex(position));
+
+                for (int position = 0; position < POSTING_LIST.size(); ++position)
+                    out.writeInt(POSTING_LIST.getFrequencyAt(position));
+            }
+
+            for (int documentIndex = 0; documentIndex < VECTOR_STORE.size(); ++documentIndex)
+            {
+                final SparseVector VECTOR = VECTOR_STORE.getVector(documentIndex);
+
+                out.writeInt(VECTOR.size());
+                out.writeDouble(VECTOR.getNorm());
+
+                for (int position = 0; position < VECTOR.size(); ++position)
+                    out.writeInt(LOCAL_IDS[VECTOR.getTermID(position)]);
+
+                for (int position = 0; position < VECTOR.size(); ++position)
+                    out.writeDouble(VECTOR.getWeight(position));
+            }
+
+            out.writeInt(MATRIX.size());
+
+            final IOException[] EXCEPTION = { null };
+
+            MATRIX.forEach((matrixKey, frequency) ->
+            {
+                if (EXCEPTION[0] != null)
+                    return;
+
+                try
+                {
+                    out.writeInt(LOCAL_IDS[WordCooccurrenceCalculator.getTermID1(matrixKey)]);
+                    out.writeInt(LOCAL_IDS[WordCooccurrenceCalculator.getTermID2(matrixKey)]);
+                    out.writeInt(frequency);
+                }
+                catch (IOException e)
+                {
+                    EXCEPTION[0] = e;
+                }
+            });
+
+            if (EXCEPTION[0] != null)
+                throw EXCEPTION[0];
+        }
+
+        Files.move(TEMP, TARGET, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+
+        WRITE_TIMER.stop(START, DOCUMENT_LIST.size());
+    }
+
+    public int getWindowSize()
+    {
+        return windowSize;
+    }
+
+    public int getNumFeatures()
+    {
+        return numFeatures;
+    }
+
+    public List<SourceFile> getSourceFileList()
+    {
+        return sourceFileList;
+    }
+
+    public List<Document> getDocumentList()
+    {
+        return documentList;
+    }
+
+    /**
+     * 기록된 원본 파일이 모두 그대로 남아있는지 확인한다. 새로 생긴 파일은 {@link #getNewSourceFiles(List)}로 추가할 수 있지만,
+     * 바뀌거나 사라진 파일이 있다면 세그먼트를 다시 구축해야 한다.
+     * @param sourceFileList 현재 원본 파일 목록
+     * @return 기록된 원본 파일이 모두 바뀌지 않은 경우 true
+     */
+    public boolean isUpToDate(final List<SourceFile> sourceFileList)
+    {
+        return new HashSet<>(sourceFileList).containsAll(this.sourceFileList);
+    }
+
+    /**
+     * @param sourceFileList 현재 원본 파일 목록
+     * @return 세그먼트에 기록되지 않은 원본 파일 목록 (sourceFileList의 순서를 유지한다.)
+     */
+    public List<SourceFile> getNewSourceFiles(final List<SourceFile> sourceFileList)
+    {
+        final HashSet<SourceFile> INDEXED = new HashSet<>(this.sourceFileList);
+        List<SourceFile> retVal = new ArrayList<>();
+
+        sourceFileList.forEach(sourceFile ->
+        {
+            if (!INDEXED.contains(sourceFile))
+                retVal.add(sourceFile);
+        });
+
+        return retVal;
+    }
+
+    /**
+     * @return 세그먼트의 역색인과 벡터로 복원한 {@link TFIDFCalculator}
+     */
+    public TFIDFCalculator createTFIDFCalculator()
+    {
+        return new TFIDFCalculator(
+                documentList, invertedIndex, new DocumentVectorStore(documentList, numFeatures, vectors));
+    }
+
+    /**
+     * @return 세그먼트의 동시 출현 빈도로 복원한 {@link WordCooccurrenceCalculator}
+     */
+    public WordCooccurrenceCalculator createWordCooccurrenceCalculator()
+    {
+        return new WordCooccurrenceCalculator(documentList, windowSize, cooccurrenceMatrix);
+    }
+
+    private static void writeString(final DataOutputStream out, final String str) throws IOException
+    {
+        final byte[] BYTES = str.getBytes(StandardCharsets.UTF_8);
+
+        out.writeInt(BYTES.length);
+        out.write(BYTES);
+    }
+
+    private static String readString(final ByteBuffer buffer)
+    {
+        final byte[] BYTES = new byte[buffer.getInt()];
+        buffer.get(BYTES);
+
+        return new String(BYTES, StandardCharsets.UTF_8);
+    }
+
+    private static int[] readInts(final ByteBuffer buffer, final int length)
+    {
+        final int[] RETVAL = new int[length];
+
+        buffer.asIntBuffer().get(RETVAL);
+        buffer.position(buffer.position() + (length << 2));
+
+        return RETVAL;
+    }
+
+    private static double[] readDoubles(final ByteBuffer buffer, final int length)
+    {
+        final double[] RETVAL = new double[length];
+
+        buffer.asDoubleBuffer().get(RETVAL);
+        buffer.position(buffer.position() + (length << 3));
+
+        return RETVAL;
+    }
+
+    /**
+     * 복원된 {@link Term} ID의 오름차순으로 벡터를 다시 정렬한다. (이미 정렬된 경우 그대로 둔다.)
+     */
+    private static void sortByTermID(final int[] termIDs, final double[] weights)
+    {
+        // 벡터의 크기는 상위 numFeatures개로 작으므로 삽입 정렬을 사용한다.
+        for (int i = 1; i < termIDs.length; ++i)
+        {
+            final int TERM_ID = termIDs[i];
+            final double WEIGHT = weights[i];
+            int j = (i - 1);
+
+            while ((j >= 0) && (termIDs[j] > TERM_ID))
+            {
+                termIDs[j + 1] = termIDs[j];
+                weights[j + 1] = weights[j];
+                --j;
+            }
+
+            termIDs[j + 1] = TERM_ID;
+            weights[j + 1] = WEIGHT;
+        }
+    }
+}
@@ -0,0 +1,242 @@
+package analysis;
+
+import javafx.util.Pair;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * 한 세대(generation)의 색인을 묶은 변경 불가능한 스냅샷<br>
+ * 생성 시 지연 구축되는 자료구조를 모두 구축해 두므로, 이후에는 잠금 없이 여러 스레드에서 동시에 조회할 수 있다.
+ * {@link Document}를 추가하면 이 스냅샷은 그대로 두고 새로운 세대의 스냅샷을 만든다.
+ *
+ * @see IndexSnapshotManager
+ */
+public class IndexSnapshot
+{
+    /**
+     * 코사인 유사도 상위 k개 리스트 캐시의 기본 최대 항목 개수
+     */
+    private static final int DEFAULT_CACHE_CAPACITY = 1024;
+
+    private static final Timer BUILD_TIMER = MetricsRegistry.getInstance().timer("snapshot.build");
+    private static final Timer TF_IDF_QUERY_TIMER = MetricsRegistry.getInstance().timer("query.tfidf");
+    private static final Timer COOCCURRENCE_QUERY_TIMER = MetricsRegistry.getInstance().timer("query.cooccurrence");
+    private static final Timer COSINE_QUERY_TIMER = MetricsRegistry.getInstance().timer("query.cosine");
+    private static final Timer COSINE_BATCH_QUERY_TIMER = MetricsRegistry.getInstance().timer("query.cosineBatch");
+
+    /**
+     * 세대 번호 (0부터 시작하여 {@link Document}가 추가될 때마다 1씩 증가한다.)
+     */
+    private final long generation;
+
+    private final TFIDFCalculator tfIdfCalculator;
+    private final WordCooccurrenceCalculator wcCalculator;
+    private final DocumentVectorStore vectorStore;
+
+    /**
+     * 코사인 유사도 계산에 사용하는 상위 TF-IDF 가중치 개수
+     */
+    private final int numFeatures;
+
+    /**
+     * 질의된 {@link Document}의 코사인 유사도 상위 k개 리스트 캐시 (세대마다 새로 채운다.)<br>
+     * key: {@link Document} ID<br>
+     * value: (계산에 사용한 k, 목표 문서와 유사도 값의 쌍 리스트) (리스트가 k개보다 짧은 경우 공유하는 {@link Term}이 있는 모든 문서)
+     */
+    private final QueryCache<String, Pair<Integer, List<Pair<Document, Double>>>> cosineSimilarityCache =
+            new QueryCache<>(DEFAULT_CACHE_CAPACITY);
+
+    /**
+     * 주어진 계산기들로 첫 번째 세대의 스냅샷을 만든다. 이후 계산기들을 직접 변경해서는 안 된다.
+     * @param tfIdfCalculator {@link TFIDFCalculator}
+     * @param wcCalculator {@link WordCooccurrenceCalculator}
+     * @param numFeatures 코사인 유사도 계산에 사용할 상위 TF-IDF 가중치 개수
+     */
+    public IndexSnapshot(final TFIDFCalculator tfIdfCalculator, final WordCooccurrenceCalculator wcCalculator, final int numFeatures)
+    {
+        this(0L, tfIdfCalculator, wcCalculator, numFeatures);
+    }
+
+    private IndexSnapshot(
+            final long generation, final TFIDFCalculator tfIdfCalculator,
+            final WordCooccurrenceCalculator wcCalculator, final int numFeatures)
+    {
+        this.generation = generation;
+        this.tfIdfCalculator = tfIdfCalculator;
+        this.wcCalculator = wcCalculator;
+        this.numFeatures = numFeatures;
+
+        final long START = BUILD_TIMER.start();
+
+        tfIdfCalculator.prepare(numFeatures);
+        wcCalculator.prepare();
+        vectorStore = tfIdfCalculator.getVectorStore(numFeatures);
+
+        BUILD_TIMER.stop(START, vectorStore.size());
+    }
+
+    /**
+     * {@link Document}들을 추가한 다음 세대의 스냅샷을 만든다. 이 스냅샷의 색인은 복사 시 공유되며(copy-on-write),
+     * 새로운 포스팅이 추가되는 부분만 복사된다.<br>
+     * 정방향 색인은 기존 {@link Document}의 행을, 동시 출현 행렬은 기존 층을, 인접 리스트는 바뀌지 않은 행을 공유한다.
+     * 다만 IDF가 {@link Document} 개수에 의존하므로, 문서 벡터는 공유한 행에서 세대마다 다시 고른다.
+     * @param documentList 추가할 {@link Document} 리스트
+     * @return 다음 세대의 스냅샷
+     */
+    public IndexSnapshot withDocuments(final List<Document> documentList)
+    {
+        final TFIDFCalculator TF_IDF_CALCULATOR = tfIdfCalculator.copy();
+        final WordCooccurrenceCalculator WC_CALCULATOR = wcCalculator.copy();
+
+        TF_IDF_CALCULATOR.addDocuments(documentList);
+        WC_CALCULATOR.addDocuments(documentList);
+
+        return new IndexSnapshot((generation + 1L), TF_IDF_CALCULATOR, WC_CALCULATOR, numFeatures);
+    }
+
+    public long getGeneration()
+    {
+        return generation;
+    }
+
+    public List<Document> getDocumentList()
+    {
+        return Collections.unmodifiableList(tfIdfCalculator.getDocumentList());
+    }
+
+    /**
+     * @see TFIDFCalculator#calculate(String, String)
+     */
+    public double calculateTfIdf(final String content, final String documentID)
+    {
+        final long START = TF_IDF_QUERY_TIMER.start();
+        final double RETVAL = tfIdfCalculator.calculate(content, documentID);
+
+        TF_IDF_QUERY_TIMER.stop(START);
+
+        return RETVAL;
+    }
+
+    /**
+     * @see WordCooccurrenceCalculator#getOrderedCooccurrenceList(String, int)
+     */
+    public List<Pair<Term, Integer>> getOrderedCooccurrenceList(final String termContent, final int k)
+    {
+        final long START = COOCCURRENCE_QUERY_TIMER.start();
+        final List<Pair<Term, Integer>> RETVAL = wcCalculator.getOrderedCooccurrenceList(termContent, k);
+
+        COOCCURRENCE_QUERY_TIMER.stop(START);
+
+        return RETVAL;
+    }
+
+    /**
+     * 모든 목표 문서의 유사도를 계산한다. 결과 크기가 {@link Document} 개수에 비례하므로 캐시하지 않는다.
+     * @param documentID 유사도를 계산할 원본 문서 ID
+     * @return 목표 문서와 유사도 값의 쌍 리스트 (유사도의 내림차순, 로드되지 않은 문서의 경우 null)
+     * @see #getCosineSimilarities(String, int)
+     */
+    public List<Pair<Document, Double>> getCosineSimilarities(final String documentID)
+    {
+        final long START = COSINE_QUERY_TIMER.start();
+        final Document DOCUMENT = vectorStore.getDocument(documentID);
+
+        if (DOCUMENT == null)
+        {
+            COSINE_QUERY_TIMER.stop(START);
+            return null;
+        }
+
+        final List<Pair<Document, Double>> RETVAL = CosineSimilarityCalculator.calculate(DOCUMENT, vectorStore);
+
+        COSINE_QUERY_TIMER.stop(START);
+
+        return RETVAL;
+    }
+
+    /**
+     * 유사도가 가장 높은 k개의 목표 문서를 구한다. 결과는 크기가 제한된 {@link QueryCache}에 보관하며,
+     * 캐시된 리스트를 더 작은 k로 계산한 경우에만 다시 계산한다.
+     * @param documentID 유사도를 계산할 원본 문서 ID
+     * @param k 반환할 목표 문서 개수
+     * @return 목표 문서와 유사도 값의 쌍 리스트 (유사도의 내림차순, 최대 k개, 질의와 공유하는 {@link Term}이 없는 문서 제외,
+     * 로드되지 않은 문서의 경우 null)
+     * @see CosineSimilarityCalculator#calculateTopK(Document, DocumentVectorStore, int)
+     */
+    public List<Pair<Document, Double>> getCosineSimilarities(final String documentID, final int k)
+    {
+        final long START = COSINE_QUERY_TIMER.start();
+        final Document DOCUMENT = vectorStore.getDocument(documentID);
+
+        if (DOCUMENT == null)
+        {
+            COSINE_QUERY_TIMER.stop(START);
+            return null;
+        }
+
+        final int SIZE = Math.min(k, vectorStore.size());
+        Pair<Integer, List<Pair<Document, Double>>> entry = cosineSimilarityCache.get(documentID);
+
+        if ((entry == null) || (entry.getKey() < SIZE))
+        {
+            entry = new Pair<>(SIZE, CosineSimilarityCalculator.calculateTopK(DOCUMENT, vectorStore, SIZE));
+            cosineSimilarityCache.put(documentID, entry);
+        }
+
+        final List<Pair<Document, Double>> SIMILARITY_LIST = entry.getValue();
+        final List<Pair<Document, Double>> RETVAL = new ArrayList<>(SIMILARITY_LIST.subList(0, Math.min(SIZE, SIMILARITY_LIST.size())));
+
+        COSINE_QUERY_TIMER.stop(START);
+
+        return RETVAL;
+    }
+
+    /**
+     * 여러 문서의 유사도 상위 k개를 한 번에 계산한다. 결과는 캐시하지 않는다.
+     * @param documentIDs 유사도를 계산할 원본 문서 ID 리스트
+     * @param k 원본 문서마다 반환할 목표 문서 개수
+     * @return 원본 문서 순서대로, 목표 문서와 유사도 값의 쌍 리스트 (유사도의 내림차순, 로드되지 않은 문서의 경우 빈 리스트)
+     * @see CosineSimilarityCalculator#calculateBatchTopK(SparseVector[], DocumentVectorStore, int, ForkJoinPool)
+     */
+    public List<List<Pair<Document, Double>>> getCosineSimilarities(final List<String> documentIDs, final int k)
+    {
+        final long START = COSINE_BATCH_QUERY_TIMER.start();
+        final SparseVector[] QUERIES = new SparseVector[documentIDs.size()];
+
+        for (int i = 0; i < QUERIES.length; ++i)
+            QUERIES[i] = vectorStore.getVector(documentIDs.get(i));
+
+        final List<List<Pair<Document, Double>>> RETVAL = CosineSimilarityCalculator.calculateBatchTopK(
+                QUERIES, vectorStore, k, ForkJoinPool.commonPool());
+
+        COSINE_BATCH_QUERY_TIMER.stop(START, QUERIES.length);
+
+        return RETVAL;
+    }
+
+    public TFIDFCalculator getTFIDFCalculator()
+    {
+        return tfIdfCalculator;
+    }
+
+    public WordCooccurrenceCalculator getWordCooccurrenceCalculator()
+    {
+        return wcCalculator;
+    }
+
+    public DocumentVectorStore getVectorStore()
+    {
+        return vectorStore;
+    }
+
+    /**
+     * @return 코사인 유사도 캐시 (적중/실패 횟수 조회용)
+     */
+    public QueryCache<String, Pair<Integer, List<Pair<Document, Double>>>> getCosineSimilarityCache()
+    {
+        return cosineSimilarityCache;
+    }
+}
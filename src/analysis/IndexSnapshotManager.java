@@ -0,0 +1,43 @@
+package analysis;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * 현재 세대의 {@link IndexSnapshot}을 게시하는 클래스<br>
+ * 조회하는 쪽은 {@link #getSnapshot()}으로 얻은 스냅샷을 질의가 끝날 때까지 사용하며 잠금을 잡지 않는다.
+ * {@link Document} 추가는 새로운 세대를 만든 뒤 한 번에 교체하므로, 진행 중인 조회는 이전 세대를 끝까지 본다.
+ *
+ * @see IndexSnapshot
+ * @see QueryServer
+ */
+public class IndexSnapshotManager
+{
+    private final AtomicReference<IndexSnapshot> currentSnapshot;
+
+    public IndexSnapshotManager(final IndexSnapshot snapshot)
+    {
+        currentSnapshot = new AtomicReference<>(snapshot);
+    }
+
+    /**
+     * @return 현재 세대의 {@link IndexSnapshot}
+     */
+    public IndexSnapshot getSnapshot()
+    {
+        return currentSnapshot.get();
+    }
+
+    /**
+     * {@link Document}들을 추가한 다음 세대를 만들어 게시한다. 추가 작업끼리는 순서대로 처리된다.
+     * @param documentList 추가할 {@link Document} 리스트
+     * @return 새로 게시된 {@link IndexSnapshot}
+     */
+    public synchronized IndexSnapshot addDocuments(final List<Document> documentList)
+    {
+        final IndexSnapshot SNAPSHOT = currentSnapshot.get().withDocuments(documentList);
+        currentSnapshot.set(SNAPSHOT);
+
+        return SNAPSHOT;
+    }
+}
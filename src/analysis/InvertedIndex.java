@@ -0,0 +1,351 @@
+package analysis;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+
+/**
+ * {@link TFIDFCalculator}가 사용하는 역색인(Inverted Index)<br>
+ * {@link Document} 리스트를 한 번만 순회하여 {@link Term} ID 별 {@link PostingList}와 DF를 구축한다.<br><br>
+ *
+ * 참고: {@link Term}은 {@link TermDictionary}의 ID로, {@link Document}는 리스트 내 위치(0부터 시작하는 인덱스)로 식별한다.
+ *
+ * @see PostingList
+ * @see TermDictionary
+ */
+public class InvertedIndex
+{
+    private static final Timer ADD_DOCUMENTS_TIMER = MetricsRegistry.getInstance().timer("tfidf.invertedIndex");
+
+    /**
+     * {@link Term} ID 별 {@link PostingList} (색인되지 않은 ID의 경우 null)
+     */
+    private PostingList[] postingLists;
+
+    /**
+     * key: {@link Document} ID<br>
+     * value: {@link Document} 인덱스
+     */
+    private HashMap<String, Integer> documentIndexMap = new HashMap<>();
+
+    /**
+     * {@link Document} 인덱스 별 {@link Term} 개수
+     */
+    private int[] documentLengths = new int[16];
+
+    /**
+     * 색인된 {@link Document} 개수
+     */
+    private int numDocuments = 0;
+
+    /**
+     * 문서 내 {@link Term} ID 별 출현 빈도 (문서마다 0으로 되돌려 재사용)
+     */
+    private int[] frequencies = new int[0];
+
+    /**
+     * 추가 중인 {@link Document}에서 처음 출현한 {@link Term} ID 목록 (앞의 numTouched개만 유효)
+     */
+    private int[] touchedIDs = new int[16];
+
+    private int numTouched = 0;
+
+    /**
+     * {@link #beginDocument(String)}로 추가 중인 {@link Document}의 ID
+     */
+    private String openDocumentID = null;
+
+    /**
+     * 추가 중인 {@link Document}와 ID가 같아 {@link #documentIndexMap}에서 대체된 {@link Document}의 인덱스 (없는 경우 null)
+     */
+    private Integer replacedDocumentIndex = null;
+
+    /**
+     * {@link Term} ID 별로 {@link PostingList}를 다른 역색인과 공유하는지 여부 (참고: {@link #copy()})<br>
+     * 공유 중인 {@link PostingList}에 포스팅을 추가할 때에는 먼저 복사한다.
+     */
+    private boolean[] sharedPostingLists = new boolean[0];
+
+    /**
+     * 여러 색인으로 나뉜 말뭉치 전체의 {@link Document} 개수 (-1인 경우 이 색인의 값을 사용한다.)
+     */
+    private int globalNumDocuments = -1;
+
+    /**
+     * {@link Term} ID 별 말뭉치 전체의 DF (null인 경우 이 색인의 값을 사용한다.)
+     */
+    private int[] globalDocumentFrequencies = null;
+
+    public InvertedIndex(final List<Document> documentList)
+    {
+        postingLists = new PostingList[TermDictionary.getInstance().size()];
+        addDocuments(documentList);
+    }
+
+    /**
+     * 이미 구축된 포스팅으로 역색인을 복원한다. ({@link IndexSegment}에서 복원할 때 사용한다.)
+     * @param documentIDs {@link Document} 인덱스 별 {@link Document} ID
+     * @param documentLengths {@link Document} 인덱스 별 {@link Term} 개수
+     * @param postingLists {@link Term} ID 별 {@link PostingList} (색인되지 않은 ID의 경우 null)
+     */
+    InvertedIndex(final List<String> documentIDs, final int[] documentLengths, final PostingList[] postingLists)
+    {
+        this.postingLists = postingLists;
+        this.documentLengths = documentLengths;
+        numDocuments = documentIDs.size();
+
+        for (int documentIndex = 0; documentIndex < numDocuments; ++documentIndex)
+            documentIndexMap.put(documentIDs.get(documentIndex), documentIndex);
+    }
+
+    /**
+     * {@link Document}들을 색인에 추가한다. 새로운 {@link Document}의 포스팅만 기존 {@link PostingList} 뒤에 덧붙이므로,
+     * 비용은 추가되는 {@link Document}의 크기에 비례한다.
+     * @param documentList 추가할 {@link Document} 리스트
+     */
+    public void addDocuments(final List<Document> documentList)
+    {
+        final long START = ADD_DOCUMENTS_TIMER.start();
+
+        for (final Document document : documentList)
+        {
+            beginDocument(document.getID());
+
+            for (final int TERM_ID : document.getTermIDs())
+                addTerm(TERM_ID);
+
+            endDocument();
+        }
+
+        ADD_DOCUMENTS_TIMER.stop(START, documentList.size());
+    }
+
+    /**
+     * {@link Document} 하나를 {@link Term} 단위로 추가하기 시작한다. {@link Term} 리스트를 보관하지 않고
+     * {@link #addTerm(int)}로 받은 {@link Term}을 바로 세므로, 토큰 스트림을 그대로 색인할 수 있다.
+     * (참고: {@link StreamingIndexBuilder})
+     * @param documentID {@link Document} ID
+     */
+    void beginDocument(final String documentID)
+    {
+        if (numDocuments == documentLengths.length)
+            documentLengths = Arrays.copyOf(documentLengths, Math.max(16, (documentLengths.length << 1)));
+
+        openDocumentID = documentID;
+        replacedDocumentIndex = documentIndexMap.put(documentID, numDocuments);
+        documentLengths[numDocuments] = 0;
+        numTouched = 0;
+    }
+
+    /**
+     * {@link #beginDocument(String)}로 시작한 {@link Document}에 {@link Term} 하나를 더한다.
+     * @param termID {@link Term} ID
+     */
+    void addTerm(final int termID)
+    {
+        if (termID >= frequencies.length)
+            frequencies = Arrays.copyOf(frequencies, Math.max((termID + 1), TermDictionary.getInstance().size()));
+
+        if (termID >= postingLists.length)
+            postingLists = Arrays.copyOf(postingLists, Math.max((termID + 1), TermDictionary.getInstance().size()));
+
+        if (frequencies[termID]++ == 0)
+        {
+            if (numTouched == touchedIDs.length)
+                touchedIDs = Arrays.copyOf(touchedIDs, (numTouched << 1));
+
+            touchedIDs[numTouched++] = termID;
+        }
+
+        ++documentLengths[numDocuments];
+    }
+
+    /**
+     * {@link #beginDocument(String)}로 시작한 {@link Document}의 출현 빈도를 {@link PostingList}에 덧붙인다.
+     */
+    void endDocument()
+    {
+        final int DOCUMENT_INDEX = numDocuments++;
+
+        for (int i = 0; i < numTouched; ++i)
+        {
+            final int TERM_ID = touchedIDs[i];
+
+            if (postingLists[TERM_ID] == null)
+                postingLists[TERM_ID] = new PostingList();
+            else if ((TERM_ID < sharedPostingLists.length) && sharedPostingLists[TERM_ID])
+            {
+                postingLists[TERM_ID] = postingLists[TERM_ID].copy();
+                sharedPostingLists[TERM_ID] = false;
+            }
+
+            postingLists[TERM_ID].add(DOCUMENT_INDEX, frequencies[TERM_ID]);
+            frequencies[TERM_ID] = 0;
+        }
+
+        numTouched = 0;
+        openDocumentID = null;
+    }
+
+    /**
+     * {@link #beginDocument(String)}로 시작한 {@link Document}를 색인하지 않고 버린다. (토큰화가 도중에 실패한 경우)<br>
+     * 세던 출현 빈도를 0으로 되돌리고, {@link Document} ID를 시작하기 전의 인덱스로 되돌린다.
+     */
+    void abortDocument()
+    {
+        if (openDocumentID == null)
+            return;
+
+        for (int i = 0; i < numTouched; ++i)
+            frequencies[touchedIDs[i]] = 0;
+
+        if (replacedDocumentIndex == null)
+            documentIndexMap.remove(openDocumentID);
+        else
+            documentIndexMap.put(openDocumentID, replacedDocumentIndex);
+
+        documentLengths[numDocuments] = 0;
+        numTouched = 0;
+        openDocumentID = null;
+    }
+
+    /**
+     * 포스팅을 공유하는 복사본을 만든다. (copy-on-write)<br>
+     * 복사에는 {@link Document} 개수에 비례하는 비용만 들며, 이후 어느 쪽에 {@link Document}를 추가하더라도
+     * 포스팅이 추가되는 {@link PostingList}만 그 쪽에서 복사되므로 서로의 내용은 바뀌지 않는다.
+     * @return 역색인의 복사본
+     */
+    public InvertedIndex copy()
+    {
+        final int[] DOCUMENT_LENGTHS = Arrays.copyOf(documentLengths, numDocuments);
+        final PostingList[] POSTING_LISTS = postingLists.clone();
+        List<String> documentIDs = new ArrayList<>(Collections.nCopies(numDocuments, (String)null));
+
+        documentIndexMap.forEach((documentID, documentIndex) -> documentIDs.set(documentIndex, documentID));
+
+        sharedPostingLists = new boolean[postingLists.length];
+        Arrays.fill(sharedPostingLists, true);
+
+        InvertedIndex retVal = new InvertedIndex(documentIDs, DOCUMENT_LENGTHS, POSTING_LISTS);
+        retVal.sharedPostingLists = sharedPostingLists.clone();
+        retVal.globalNumDocuments = globalNumDocuments;
+        retVal.globalDocumentFrequencies = globalDocumentFrequencies;
+
+        return retVal;
+    }
+
+    /**
+     * @param termID {@link Term} ID
+     * @return {@link PostingList} (색인되지 않은 ID의 경우 null)
+     */
+    public PostingList getPostingList(final int termID)
+    {
+        if ((termID < 0) || (termID >= postingLists.length))
+            return null;
+
+        return postingLists[termID];
+    }
+
+    /**
+     * @return 색인된 {@link Term} ID의 상한 (exclusive)
+     */
+    public int getTermIDBound()
+    {
+        return postingLists.length;
+    }
+
+    /**
+     * @param documentID {@link Document} ID
+     * @return {@link Document} 인덱스 (존재하지 않는 경우 -1)
+     */
+    public int getDocumentIndex(final String documentID)
+    {
+        final Integer DOCUMENT_INDEX = documentIndexMap.get(documentID);
+
+        if (DOCUMENT_INDEX == null)
+            return -1;
+
+        return DOCUMENT_INDEX;
+    }
+
+    public int getNumDocuments()
+    {
+        return numDocuments;
+    }
+
+    /**
+     * @param documentIndex {@link Document} 인덱스
+     * @return {@link Document} 내 {@link Term} 개수
+     */
+    public int getDocumentLength(final int documentIndex)
+    {
+        return documentLengths[documentIndex];
+    }
+
+    /**
+     * 말뭉치가 여러 색인으로 나뉜 경우, IDF 계산에 사용할 말뭉치 전체의 통계를 설정한다.
+     * 이후 {@link #calculateIdf(int)}와 {@link #getDocumentFrequency(int)}는 이 통계를 사용하므로,
+     * 각 색인의 TF-IDF 값은 하나의 색인으로 구축한 값과 같다. (참고: {@link ShardWorker})
+     * @param numDocuments 말뭉치 전체의 {@link Document} 개수
+     * @param documentFrequencies {@link Term} ID 별 말뭉치 전체의 DF
+     */
+    void setGlobalStatistics(final int numDocuments, final int[] documentFrequencies)
+    {
+        globalNumDocuments = numDocuments;
+        globalDocumentFrequencies = documentFrequencies;
+    }
+
+    /**
+     * @param termID {@link Term} ID
+     * @return {@link Term}이 등장하는 {@link Document} 개수 (전역 통계가 설정된 경우 말뭉치 전체의 값)
+     */
+    public int getDocumentFrequency(final int termID)
+    {
+        if (globalDocumentFrequencies != null)
+            return (((termID < 0) || (termID >= globalDocumentFrequencies.length)) ? 0 : globalDocumentFrequencies[termID]);
+
+        final PostingList POSTING_LIST = getPostingList(termID);
+
+        return ((POSTING_LIST == null) ? 0 : POSTING_LIST.size());
+    }
+
+    /**
+     * @param termID {@link Term} ID
+     * @param documentIndex {@link Document} 인덱스
+     * @return TF-IDF 값 (색인되지 않은 {@link Term}의 경우 0)
+     */
+    public double calculateTfIdf(final int termID, final int documentIndex)
+    {
+        final PostingList POSTING_LIST = getPostingList(termID);
+        final int DF = getDocumentFrequency(termID);
+
+        // DF가 0이면 IDF가 무한대가 되므로, 출현 빈도 0과 곱하지 않고 바로 0을 반환한다.
+        if ((POSTING_LIST == null) || (DF == 0))
+            return 0.0;
+
+        return (calculateTf(POSTING_LIST.getFrequency(documentIndex), documentIndex) * calculateIdf(DF));
+    }
+
+    /**
+     * @param frequency {@link Document} 내 출현 빈도
+     * @param documentIndex {@link Document} 인덱스
+     * @return TF 값
+     */
+    public double calculateTf(final int frequency, final int documentIndex)
+    {
+        return ((double)frequency / (double)documentLengths[documentIndex]);
+    }
+
+    /**
+     * @param df {@link Term}이 등장하는 {@link Document} 개수
+     * @return IDF 값
+     */
+    public double calculateIdf(final int df)
+    {
+        final int NUM_DOCUMENTS = ((globalNumDocuments < 0) ? numDocuments : globalNumDocuments);
+
+        return Math.log(1.0 + ((double)NUM_DOCUMENTS / (double)df));
+    }
+}
@@ -0,0 +1,150 @@
+package analysis;
+
+/**
+ * 여러 세대가 공유하는 변경 불가능한 층(layer)들과, 이 맵만 변경하는 맨 위 층으로 이루어진 {@link LongIntMap}<br>
+ * 키의 값은 모든 층의 값의 합이며, {@link #addTo(long, int)}는 맨 위 층만 변경한다.
+ * {@link WordCooccurrenceCalculator}의 복사본이 희소 행렬을 복사하지 않고 공유하는 데 사용한다. (copy-on-write)<br><br>
+ *
+ * 참고: 조회 비용은 층의 개수에 비례한다. 층의 개수는 {@link WordCooccurrenceCalculator}가 공유할 때
+ * 작은 층들을 합쳐 O(log 항목 개수)로 유지한다.
+ *
+ * @see WordCooccurrenceCalculator
+ */
+class LayeredLongIntMap implements LongIntMap
+{
+    /**
+     * 공유하는 층 (아래 층부터, 변경하지 않는다.)
+     */
+    private LongIntMap[] layers;
+
+    /**
+     * 이 맵만 변경하는 맨 위 층
+     */
+    private final LongIntMap top;
+
+    /**
+     * 모든 층에 걸쳐 서로 다른 키의 개수
+     */
+    private int size;
+
+    /**
+     * @param layers 공유할 층 (아래 층부터)
+     * @param size 공유할 층들에 걸쳐 서로 다른 키의 개수
+     * @param top 맨 위 층 (비어 있어야 한다.)
+     */
+    LayeredLongIntMap(final LongIntMap[] layers, final int size, final LongIntMap top)
+    {
+        this.layers = layers;
+        this.size = size;
+        this.top = top;
+    }
+
+    /**
+     * @return 공유하는 층 (아래 층부터, 변경해서는 안 된다.)
+     */
+    LongIntMap[] getLayers()
+    {
+        return layers;
+    }
+
+    LongIntMap getTop()
+    {
+        return top;
+    }
+
+    @Override
+    public int addTo(final long key, final int delta)
+    {
+        final int LAYER_VALUE = getFromLayers(key);
+
+        if ((LAYER_VALUE == 0) && !top.containsKey(key) && !containsKeyInLayers(key))
+            ++size;
+
+        return (LAYER_VALUE + top.addTo(key, delta));
+    }
+
+    @Override
+    public int get(final long key)
+    {
+        return (getFromLayers(key) + top.get(key));
+    }
+
+    @Override
+    public boolean containsKey(final long key)
+    {
+        return (top.containsKey(key) || containsKeyInLayers(key));
+    }
+
+    @Override
+    public int size()
+    {
+        return size;
+    }
+
+    /**
+     * 공유하는 층은 그대로 두고, 이 맵에서만 떼어낸다.
+     */
+    @Override
+    public void clear()
+    {
+        layers = new LongIntMap[0];
+        top.clear();
+        size = 0;
+    }
+
+    /**
+     * 서로 다른 키마다 한 번씩, 모든 층의 값을 더한 값으로 순회한다. (키는 그 키를 가진 가장 위 층에서 전달한다.)
+     */
+    @Override
+    public void forEach(final EntryConsumer consumer)
+    {
+        top.forEach((key, value) -> consumer.accept(key, (value + getFromLayers(key))));
+
+        for (int i = (layers.length - 1); i >= 0; --i)
+        {
+            final int LAYER = i;
+
+            layers[LAYER].forEach((key, value) ->
+            {
+                if (top.containsKey(key))
+                    return;
+
+                int sum = value;
+
+                for (int j = (layers.length - 1); j >= 0; --j)
+                {
+                    if (j == LAYER)
+                        continue;
+
+                    if ((j > LAYER) && layers[j].containsKey(key))
+                        return;
+
+                    sum += layers[j].get(key);
+                }
+
+                consumer.accept(key, sum);
+            });
+        }
+    }
+
+    private int getFromLayers(final long key)
+    {
+        int retVal = 0;
+
+        for (final LongIntMap LAYER : layers)
+            retVal += LAYER.get(key);
+
+        return retVal;
+    }
+
+    private boolean containsKeyInLayers(final long key)
+    {
+        for (final LongIntMap LAYER : layers)
+        {
+            if (LAYER.containsKey(key))
+                return true;
+        }
+
+        return false;
+    }
+}
@@ -0,0 +1,227 @@
+package analysis;
+
+import java.util.Arrays;
+
+/**
+ * long 키, int 값을 저장하는 개방 주소법(open addressing) 해시 맵<br>
+ * 키와 값을 원시 타입 배열에 저장하므로 항목마다 객체를 만들지 않는다.<br><br>
+ *
+ * 참고: 선형 탐사(linear probing)를 사용하며, 적재율이 {@link #LOAD_FACTOR}를 넘으면 용량을 두 배로 늘린다.
+ *
+ * @see OffHeapLongIntHashMap
+ */
+public class LongIntHashMap implements LongIntMap
+{
+    private static final float LOAD_FACTOR = 0.75f;
+
+    /**
+     * 비어있는 슬롯을 나타내는 키 (실제 키 0은 {@link #zeroValue}에 따로 저장한다.)
+     */
+    private static final long EMPTY_KEY = 0L;
+
+    private long[] keys;
+    private int[] values;
+
+    /**
+     * 슬롯 인덱스 계산용 마스크 (용량 - 1)
+     */
+    private int mask;
+
+    /**
+     * 키 0을 제외한 항목 개수
+     */
+    private int size = 0;
+
+    private boolean hasZeroKey = false;
+    private int zeroValue = 0;
+
+    public LongIntHashMap()
+    {
+        this(16);
+    }
+
+    /**
+     * @param expectedSize 예상 항목 개수
+     */
+    public LongIntHashMap(final int expectedSize)
+    {
+        int capacity = 2;
+
+        while ((capacity * LOAD_FACTOR) < expectedSize)
+            capacity <<= 1;
+
+        keys = new long[capacity];
+        values = new int[capacity];
+        mask = (capacity - 1);
+    }
+
+    /**
+     * 다른 맵의 항목을 복사한 맵을 만든다.
+     * @param map 복사할 맵
+     */
+    public LongIntHashMap(final LongIntHashMap map)
+    {
+        keys = map.keys.clone();
+        values = map.values.clone();
+        mask = map.mask;
+        size = map.size;
+        hasZeroKey = map.hasZeroKey;
+        zeroValue = map.zeroValue;
+    }
+
+    /**
+     * 키의 값에 delta를 더한다. 키가 없다면 delta를 값으로 하여 추가한다.
+     * @param key 키
+     * @param delta 더할 값
+     * @return 갱신된 값
+     */
+    @Override
+    public int addTo(final long key, final int delta)
+    {
+        if (key == EMPTY_KEY)
+        {
+            hasZeroKey = true;
+            zeroValue += delta;
+
+            return zeroValue;
+        }
+
+        int slot = (hash(key) & mask);
+
+        while (keys[slot] != EMPTY_KEY)
+        {
+            if (keys[slot] == key)
+            {
+                values[slot] += delta;
+
+                return values[slot];
+            }
+
+            slot = ((slot + 1) & mask);
+        }
+
+        keys[slot] = key;
+        values[slot] = delta;
+
+        if (++size > (keys.length * LOAD_FACTOR))
+            rehash(keys.length << 1);
+
+        return delta;
+    }
+
+    /**
+     * @param key 키
+     * @return 키의 값 (키가 없는 경우 0)
+     */
+    @Override
+    public int get(final long key)
+    {
+        if (key == EMPTY_KEY)
+            return zeroValue;
+
+        int slot = (hash(key) & mask);
+
+        while (keys[slot] != EMPTY_KEY)
+        {
+            if (keys[slot] == key)
+                return values[slot];
+
+            slot = ((slot + 1) & mask);
+        }
+
+        return 0;
+    }
+
+    @Override
+    public boolean containsKey(final long key)
+    {
+        if (key == EMPTY_KEY)
+            return hasZeroKey;
+
+        int slot = (hash(key) & mask);
+
+        while (keys[slot] != EMPTY_KEY)
+        {
+            if (keys[slot] == key)
+                return true;
+
+            slot = ((slot + 1) & mask);
+        }
+
+        return false;
+    }
+
+    @Override
+    public int size()
+    {
+        return (hasZeroKey ? (size + 1) : size);
+    }
+
+    @Override
+    public void clear()
+    {
+        Arrays.fill(keys, EMPTY_KEY);
+        size = 0;
+        hasZeroKey = false;
+        zeroValue = 0;
+    }
+
+    /**
+     * 모든 항목을 순회한다. (순서는 정해져 있지 않다.)
+     * @param consumer 항목을 전달받을 {@link EntryConsumer}
+     */
+    @Override
+    public void forEach(final EntryConsumer consumer)
+    {
+        if (hasZeroKey)
+            consumer.accept(EMPTY_KEY, zeroValue);
+
+        for (int slot = 0; slot < keys.length; ++slot)
+        {
+            if (keys[slot] != EMPTY_KEY)
+                consumer.accept(keys[slot], values[slot]);
+        }
+    }
+
+    private void rehash(final int newCapacity)
+    {
+        final long[] OLD_KEYS = keys;
+        final int[] OLD_VALUES = values;
+
+        keys = new long[newCapacity];
+        values = new int[newCapacity];
+        mask = (newCapacity - 1);
+
+        for (int i = 0; i < OLD_KEYS.length; ++i)
+        {
+            final long KEY = OLD_KEYS[i];
+
+            if (KEY == EMPTY_KEY)
+                continue;
+
+            int slot = (hash(KEY) & mask);
+
+            while (keys[slot] != EMPTY_KEY)
+                slot = ((slot + 1) & mask);
+
+            keys[slot] = KEY;
+            values[slot] = OLD_VALUES[i];
+        }
+    }
+
+    /**
+     * 키의 비트를 섞어 슬롯 인덱스를 고르게 분포시킨다. (MurmurHash3 fmix64)
+     */
+    private static int hash(final long key)
+    {
+        long h = key;
+
+        h ^= (h >>> 33);
+        h *= 0xff51afd7ed558ccdL;
+        h ^= (h >>> 33);
+        h *= 0xc4ceb9fe1a85ec53L;
+        h ^= (h >>> 33);
+
+        return (int)h;
+    }
+}
@@ -0,0 +1,53 @@
+package analysis;
+
+/**
+ * long 키, int 값을 저장하는 맵 (동시 출현 희소 행렬의 저장소)
+ *
+ * @see LongIntHashMap
+ * @see OffHeapLongIntHashMap
+ */
+public interface LongIntMap
+{
+    /**
+     * 맵의 항목을 순회하기 위한 함수형 인터페이스
+     */
+    interface EntryConsumer
+    {
+        void accept(long key, int value);
+    }
+
+    /**
+     * 키의 값에 delta를 더한다. 키가 없다면 delta를 값으로 하여 추가한다.
+     * @param key 키
+     * @param delta 더할 값
+     * @return 갱신된 값
+     */
+    int addTo(long key, int delta);
+
+    /**
+     * @param key 키
+     * @return 키의 값 (키가 없는 경우 0)
+     */
+    int get(long key);
+
+    boolean containsKey(long key);
+
+    /**
+     * 다른 맵의 모든 항목을 이 맵의 값에 더한다.
+     * @param map 더할 맵
+     */
+    default void addAll(final LongIntMap map)
+    {
+        map.forEach(this::addTo);
+    }
+
+    int size();
+
+    void clear();
+
+    /**
+     * 모든 항목을 순회한다. (순서는 정해져 있지 않다.)
+     * @param consumer 항목을 전달받을 {@link EntryConsumer}
+     */
+    void forEach(EntryConsumer consumer);
+}
@@ -0,0 +1,273 @@
+package analysis;
+
+import javafx.util.Pair;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Scanner;
+
+public class Main
+{
+    /**
+     * 색인 세그먼트를 연다. 세그먼트가 없거나, 읽을 수 없거나, 설정이 다르거나, 기록된 원본 파일이 바뀐 경우 null을 반환한다.
+     */
+    private static IndexSegment openIndexSegment(
+            String segmentPath, List<SourceFile> sourceFileList, final int windowSize, final int csNumFeaturesForCalculating)
+    {
+        try
+        {
+            IndexSegment segment = IndexSegment.open(segmentPath);
+
+            if ((segment.getWindowSize() != windowSize) ||
+                    (segment.getNumFeatures() != csNumFeaturesForCalculating) || !segment.isUpToDate(sourceFileList))
+                return null;
+
+            return segment;
+        }
+        catch (IOException e)
+        {
+            return null;
+        }
+    }
+
+    /**
+     * 실행 인자가 "--serve 포트"인 경우 루프백 질의 서버를 시작한다.
+     * @return {@link QueryServer} (시작하지 않은 경우 null)
+     */
+    private static QueryServer startQueryServer(String[] args, IndexSnapshotManager snapshotManager) throws IOException
+    {
+        if ((args.length != 2) || !args[0].equals("--serve"))
+            return null;
+
+        QueryServer queryServer = new QueryServer(snapshotManager, Integer.parseInt(args[1]));
+        System.out.println("질의 서버가 포트 " + queryServer.getPort() + "에서 시작되었습니다.");
+
+        return queryServer;
+    }
+
+    private static void writeIndexSegment(
+            String segmentPath, List<SourceFile> sourceFileList, TFIDFCalculator tfIdfCalculator,
+            final int csNumFeaturesForCalculating, WordCooccurrenceCalculator wcCalculator)
+    {
+        try
+        {
+            IndexSegment.write(segmentPath, sourceFileList, tfIdfCalculator, csNumFeaturesForCalculating, wcCalculator);
+        }
+        catch (IOException e)
+        {
+            System.out.println("색인 세그먼트 [" + segmentPath + "]를 기록하지 못하였습니다: " + e);
+        }
+    }
+
+    private static boolean checkTokenSize(String[] input)
+    {
+        return (input.length == 2);
+    }
+
+    private static void printTitle()
+    {
+        System.out.println("**********************************************");
+        System.out.println("\t신입사원 교육 - 정보검색 솔루션 데모 프로그램");
+        System.out.println("\t작성자: 원진");
+        System.out.println("\t작성일: 19.07.26");
+        System.out.println("**********************************************");
+    }
+
+    private static void printMenuBoard()
+    {
+        System.out.println("\n원하시는 작업을 선택하세요.");
+        System.out.println("1. 문서별 TF-IDF 스코어 출력 (입력 예: 1 A)");
+        System.out.println("2. Word Co-occurrence 출력 (입력 예: 2 A)");
+        System.out.println("3. TF-IDF 스코어 기반 코사인 유사도 출력 (입력 예: 3 sample01.data)");
+        System.out.println("4. 분석할 문서 추가 (입력 예: 4 directory)");
+        System.out.println("5. 데모 종료");
+        System.out.println("6. 성능 지표 출력 (입력 예: 6 query, 전체 출력: 6 *)");
+    }
+
+    private static void printTfIdfScores(String content, IndexSnapshot snapshot)
+    {
+        for (Document document : snapshot.getDocumentList())
+        {
+            final String docID = document.getID();
+            System.out.println(docID + ": " + snapshot.calculateTfIdf(content, docID));
+        }
+    }
+
+    private static void printCosineSimilarities(String docID, IndexSnapshot snapshot)
+    {
+        // 메뉴에서는 모든 문서의 유사도를 출력하므로 전체 리스트를 계산한다. (질의 서버는 상위 k개만 계산한다.)
+        List<Pair<Document, Double>> csList = snapshot.getCosineSimilarities(docID);
+
+        if (csList == null)
+        {
+            System.out.println("해당 문서는 현재 로드되어 있지 않습니다.");
+            return;
+        }
+
+        csList.forEach(pair ->
+        {
+            String targetDocID = pair.getKey().getID();
+            double targetCS = pair.getValue();
+
+            System.out.println(targetDocID + ": " + targetCS);
+        });
+    }
+
+    /**
+     * 색인 크기와 캐시 적중률을 조회 시점의 현재 세대에서 읽어오는 게이지를 등록한다.
+     */
+    private static void registerGauges(MetricsRegistry metrics, IndexSnapshotManager snapshotManager)
+    {
+        metrics.gauge("dictionary.size", () -> TermDictionary.getInstance().size());
+        metrics.gauge("index.generation", () -> snapshotManager.getSnapshot().getGeneration());
+        metrics.gauge("index.documents", () -> snapshotManager.getSnapshot().getDocumentList().size());
+        metrics.gauge("cooccurrence.matrixSize",
+                () -> snapshotManager.getSnapshot().getWordCooccurrenceCalculator().getMatrixSize());
+        metrics.gauge("cooccurrence.offHeapBytes", OffHeapArena::getTotalUsedBytes);
+        metrics.gauge("cache.cooccurrence.hits",
+                () -> snapshotManager.getSnapshot().getWordCooccurrenceCalculator().getNeighborListCache().getHitCount());
+        metrics.gauge("cache.cooccurrence.misses",
+                () -> snapshotManager.getSnapshot().getWordCooccurrenceCalculator().getNeighborListCache().getMissCount());
+        metrics.gauge("cache.cosine.hits", () -> snapshotManager.getSnapshot().getCosineSimilarityCache().getHitCount());
+        metrics.gauge("cache.cosine.misses", () -> snapshotManager.getSnapshot().getCosineSimilarityCache().getMissCount());
+    }
+
+    private static void printMetrics(String prefix, MetricsRegistry metrics)
+    {
+        if (!metrics.isEnabled())
+        {
+            System.out.println("성능 지표 수집이 꺼져 있습니다. (-Danalysis.metrics=false)");
+            return;
+        }
+
+        metrics.dump(System.out, (prefix.equals("*") ? "" : prefix));
+    }
+
+    public static void main(String[] args) throws Exception
+    {
+        // 데모에서는 -Danalysis.metrics=false로 끄지 않는 한 성능 지표를 수집한다.
+        MetricsRegistry metrics = MetricsRegistry.getInstance();
+        metrics.setEnabled(!"false".equals(System.getProperty("analysis.metrics")));
+
+        final String dataDirectory = "data/";
+        final String segmentPath = "index/data.segment";
+
+        List<SourceFile> sourceFileList = SourceFile.list(dataDirectory);
+        IndexSegment segment = openIndexSegment(segmentPath, sourceFileList, 2, 5);
+
+        TFIDFCalculator tfIdfCalculator;
+        WordCooccurrenceCalculator wcCalculator;
+
+        if (segment != null)
+        {
+            // 세그먼트에서 복원하고, 세그먼트 이후에 새로 생긴 파일만 읽어 추가한다.
+            tfIdfCalculator = segment.createTFIDFCalculator();
+            wcCalculator = segment.createWordCooccurrenceCalculator();
+
+            List<Document> newDocList = new ArrayList<>();
+            for (SourceFile sourceFile : segment.getNewSourceFiles(sourceFileList))
+                newDocList.add(new Document(sourceFile.getPath(), " "));
+
+            if (!newDocList.isEmpty())
+            {
+                tfIdfCalculator.addDocuments(newDocList);
+                wcCalculator.addDocuments(newDocList);
+                writeIndexSegment(segmentPath, sourceFileList, tfIdfCalculator, 5, wcCalculator);
+            }
+        }
+        else
+        {
+            // 파일을 한 번만 토큰화하며 역색인과 희소 행렬을 함께 구축한다.
+            StreamingIndexBuilder builder = new StreamingIndexBuilder(2);
+            builder.addDirectory(dataDirectory, " ").forEach((path, exception) ->
+                    System.out.println("파일 [" + path + "]을 읽지 못하였습니다: " + exception));
+            tfIdfCalculator = builder.createTFIDFCalculator();
+            wcCalculator = builder.createWordCooccurrenceCalculator();
+            writeIndexSegment(segmentPath, sourceFileList, tfIdfCalculator, 5, wcCalculator);
+        }
+
+        // 모든 질의는 현재 세대의 스냅샷으로 처리하며, 문서 추가 시 새로운 세대를 게시한다.
+        IndexSnapshotManager snapshotManager = new IndexSnapshotManager(new IndexSnapshot(tfIdfCalculator, wcCalculator, 5));
+        QueryServer queryServer = startQueryServer(args, snapshotManager);
+        registerGauges(metrics, snapshotManager);
+
+        Scanner scanner = new Scanner(System.in);
+
+        printTitle();
+        while (true)
+        {
+            printMenuBoard();
+            System.out.print(">> ");
+            String[] input = scanner.nextLine().split(" ");
+
+            if ((input.length == 1) && input[0].equals("5"))
+                break;
+
+            if (!checkTokenSize(input))
+            {
+                System.out.println("잘못된 입력입니다. 다시 입력해주세요.");
+                continue;
+            }
+
+            int menuNum = Integer.parseInt(input[0]);
+            switch (menuNum)
+            {
+                case 1:
+                {
+                    String content = input[1];
+                    printTfIdfScores(content, snapshotManager.getSnapshot());
+                }
+                    break;
+
+                case 2:
+                {
+                    String content = input[1];
+                    snapshotManager.getSnapshot().getOrderedCooccurrenceList(content, Integer.MAX_VALUE).forEach(System.out::println);
+                }
+                    break;
+
+                case 3:
+                {
+                    String docID = input[1];
+                    printCosineSimilarities(docID, snapshotManager.getSnapshot());
+                }
+                    break;
+
+                case 4:
+                {
+                    String directory = input[1];
+                    BatchReadResult batchReadResult =
+                            Document.batchRead(directory, Runtime.getRuntime().availableProcessors(), null);
+                    List<Document> newDocList = batchReadResult.getDocumentList();
+
+                    batchReadResult.getFailureMap().forEach((path, exception) ->
+                            System.out.println("파일 [" + path + "]을 읽지 못하였습니다: " + exception));
+
+                    // 새로운 문서의 통계만 반영한 다음 세대를 게시한다. 진행 중인 질의는 이전 세대로 끝까지 처리된다.
+                    snapshotManager.addDocuments(newDocList);
+
+                    System.out.println(
+                            "디렉토리 [" + directory + "]에 존재하는 " +
+                                    newDocList.size() + "개의 문서를 추가로 로드하였습니다.");
+                }
+                    break;
+
+                case 6:
+                {
+                    String prefix = input[1];
+                    printMetrics(prefix, metrics);
+                }
+                    break;
+
+                default:
+                    System.out.println("잘못된 입력입니다. 다시 입력해주세요.");
+            }
+        }
+
+        if (queryServer != null)
+            queryServer.close();
+
+        System.out.println("프로그램을 종료합니다.");
+    }
+}
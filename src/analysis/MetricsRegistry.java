@@ -0,0 +1,184 @@
+package analysis;
+
+import java.io.PrintStream;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.LongSupplier;
+
+/**
+ * 색인 구축 단계와 질의의 {@link Timer}, {@link Counter}, 게이지를 이름으로 관리하는 지표 저장소<br>
+ * 기본적으로 꺼져 있으며(-Danalysis.metrics=true 또는 {@link #setEnabled(boolean)}로 켠다.),
+ * 꺼져 있는 경우 측정 지점의 비용은 volatile 읽기 한 번이다.<br><br>
+ *
+ * 지표 이름은 "구성 요소.작업" 형식을 사용한다. (예: tfidf.buildCacheData, query.cosine)
+ *
+ * @see Timer
+ * @see Counter
+ */
+public class MetricsRegistry
+{
+    private static final MetricsRegistry INSTANCE = new MetricsRegistry();
+
+    /**
+     * jdk.jfr을 사용할 수 있는 런타임인지 여부 (아닌 경우 {@link TimerEvent}를 불러오지 않는다.)
+     */
+    private static final boolean JFR_AVAILABLE = isJfrAvailable();
+
+    private volatile boolean enabled = Boolean.getBoolean("analysis.metrics");
+
+    private final ConcurrentHashMap<String, Timer> timerMap = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<String, Counter> counterMap = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<String, LongSupplier> gaugeMap = new ConcurrentHashMap<>();
+
+    private MetricsRegistry() {}
+
+    public static MetricsRegistry getInstance()
+    {
+        return INSTANCE;
+    }
+
+    public boolean isEnabled()
+    {
+        return enabled;
+    }
+
+    public void setEnabled(final boolean enabled)
+    {
+        this.enabled = enabled;
+    }
+
+    /**
+     * @param name 지표 이름
+     * @return 이름에 해당하는 {@link Timer} (없는 경우 새로 등록한다.)
+     */
+    public Timer timer(final String name)
+    {
+        return timerMap.computeIfAbsent(name, key -> new Timer(this, key));
+    }
+
+    /**
+     * @param name 지표 이름
+     * @return 이름에 해당하는 {@link Counter} (없는 경우 새로 등록한다.)
+     */
+    public Counter counter(final String name)
+    {
+        return counterMap.computeIfAbsent(name, key -> new Counter(this, key));
+    }
+
+    /**
+     * 조회 시점에 값을 읽어오는 게이지를 등록한다. 같은 이름의 게이지가 있다면 교체한다.
+     * @param name 지표 이름
+     * @param supplier 게이지 값을 반환하는 함수
+     */
+    public void gauge(final String name, final LongSupplier supplier)
+    {
+        gaugeMap.put(name, supplier);
+    }
+
+    /**
+     * @param name 지표 이름
+     * @return {@link Timer} (등록되지 않은 경우 null)
+     */
+    public Timer getTimer(final String name)
+    {
+        return timerMap.get(name);
+    }
+
+    /**
+     * @param name 지표 이름
+     * @return {@link Counter} (등록되지 않은 경우 null)
+     */
+    public Counter getCounter(final String name)
+    {
+        return counterMap.get(name);
+    }
+
+    /**
+     * @param name 지표 이름
+     * @return 게이지 값 (등록되지 않은 경우 -1)
+     */
+    public long getGaugeValue(final String name)
+    {
+        final LongSupplier SUPPLIER = gaugeMap.get(name);
+
+        return ((SUPPLIER == null) ? -1L : SUPPLIER.getAsLong());
+    }
+
+    /**
+     * 모든 {@link Timer}, {@link Counter}의 값을 0으로 되돌린다. (게이지는 그대로 둔다.)
+     */
+    public void reset()
+    {
+        timerMap.values().forEach(Timer::reset);
+        counterMap.values().forEach(Counter::reset);
+    }
+
+    /**
+     * 이름이 prefix로 시작하는 지표를 이름 순으로 출력한다. 시간은 ms 단위로 출력한다.
+     * @param out 출력 스트림
+     * @param prefix 지표 이름 접두사 (빈 문자열인 경우 모든 지표)
+     */
+    public void dump(final PrintStream out, final String prefix)
+    {
+        final TreeSet<String> NAMES = new TreeSet<>();
+
+        NAMES.addAll(timerMap.keySet());
+        NAMES.addAll(counterMap.keySet());
+        NAMES.addAll(gaugeMap.keySet());
+
+        for (final String NAME : NAMES)
+        {
+            if (!NAME.startsWith(prefix))
+                continue;
+
+            final Timer TIMER = timerMap.get(NAME);
+
+            if (TIMER != null)
+            {
+                final Histogram HISTOGRAM = TIMER.getHistogram();
+
+                out.println(String.format(
+                        "%s: count=%d, total=%.3fms, mean=%.3fms, p50=%.3fms, p90=%.3fms, p99=%.3fms, max=%.3fms, items=%d, items/s=%.1f",
+                        NAME, HISTOGRAM.getCount(), toMillis(HISTOGRAM.getSum()), (HISTOGRAM.getMean() / 1.0e6),
+                        toMillis(HISTOGRAM.getPercentile(50.0)), toMillis(HISTOGRAM.getPercentile(90.0)),
+                        toMillis(HISTOGRAM.getPercentile(99.0)), toMillis(HISTOGRAM.getMax()),
+                        TIMER.getItemCount(), TIMER.getItemsPerSecond()));
+            }
+
+            final Counter COUNTER = counterMap.get(NAME);
+
+            if (COUNTER != null)
+                out.println(NAME + ": " + COUNTER.getValue());
+
+            if (gaugeMap.containsKey(NAME))
+                out.println(NAME + ": " + getGaugeValue(NAME));
+        }
+    }
+
+    /**
+     * {@link Timer}의 측정을 JFR 이벤트로 남긴다.
+     */
+    void commitTimerEvent(final String name, final long numItems, final long elapsed)
+    {
+        if (JFR_AVAILABLE)
+            TimerEvent.commit(name, numItems, elapsed);
+    }
+
+    private static double toMillis(final long nanos)
+    {
+        return (nanos / 1.0e6);
+    }
+
+    private static boolean isJfrAvailable()
+    {
+        try
+        {
+            Class.forName("jdk.jfr.Event");
+            return true;
+        }
+        catch (ClassNotFoundException | LinkageError e)
+        {
+            return false;
+        }
+    }
+}
@@ -0,0 +1,321 @@
+package analysis;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * {@link Document}별 서로 다른 {@link Term} 집합의 MinHash 서명과 LSH(Locality-Sensitive Hashing) 밴드 색인<br>
+ * 서명을 numBands개의 밴드로 나누어, 어느 한 밴드라도 완전히 일치하는 {@link Document}만 후보로 본다.
+ * 모든 쌍을 비교하지 않고 유사 중복 {@link Document}를 찾을 수 있다.<br><br>
+ *
+ * 참고:<br>
+ * Jaccard 유사도가 s인 두 {@link Document}가 후보가 될 확률은 1 - (1 - s^r)^b 이다. (b: 밴드 개수, r: 밴드 당 행 개수)<br>
+ * 서명 길이를 늘리면 추정이 정확해지고, 같은 서명 길이에서 밴드 개수를 늘리면 재현율이 높아지는 대신 후보가 많아진다.<br>
+ * {@link Term}이 없는 {@link Document}(Term 배열 없이 복원한 {@link Document} 등)는 버킷에 넣지 않는다.
+ * 빈 집합의 서명은 모두 같으므로, 넣으면 그런 {@link Document}끼리 모든 밴드에서 만나 모든 쌍이 유사도 1로 보고된다.
+ *
+ * @see CosineSimilarityCalculator#calculateWithManualWeight(Document, MinHashIndex, double)
+ */
+public class MinHashIndex
+{
+    /**
+     * {@link Document} 리스트
+     */
+    private final List<Document> documentList;
+
+    /**
+     * {@link Document} 인덱스 별 서로 다른 {@link Term} ID 배열 (오름차순)
+     */
+    private final int[][] termIDSets;
+
+    /**
+     * {@link Document} 인덱스 별 MinHash 서명
+     */
+    private final int[][] signatures;
+
+    private final int numBands;
+    private final int numRowsPerBand;
+
+    /**
+     * 해시 함수 별 시드
+     */
+    private final long[] seeds;
+
+    /**
+     * key: (밴드 번호, 밴드 해시 값)으로 만든 버킷 키<br>
+     * value: 버킷 번호 + 1
+     */
+    private final LongIntHashMap bucketMap = new LongIntHashMap();
+
+    /**
+     * 버킷 번호 별 첫 항목 (항목 = {@link Document} 인덱스 * numBands + 밴드 번호, 비어있는 경우 -1)
+     */
+    private int[] bucketHeads = new int[16];
+
+    /**
+     * 항목 별로 같은 버킷에 속한 다음 항목 (마지막인 경우 -1)
+     */
+    private final int[] nextEntries;
+
+    private int numBuckets = 0;
+
+    /**
+     * @param documentList 색인할 {@link Document} 리스트
+     * @param numHashes 서명 길이 (해시 함수 개수)
+     * @param numBands 밴드 개수 (numHashes의 약수)
+     */
+    public MinHashIndex(final List<Document> documentList, final int numHashes, final int numBands)
+    {
+        if ((numHashes <= 0) || (numBands <= 0) || ((numHashes % numBands) != 0))
+            throw new IllegalArgumentException("numBands must divide numHashes: " + numHashes + ", " + numBands);
+
+        this.documentList = new ArrayList<>(documentList);
+        this.numBands = numBands;
+        numRowsPerBand = (numHashes / numBands);
+
+        final Random RANDOM = new Random(0x5EEDL);
+        seeds = new long[numHashes];
+
+        for (int i = 0; i < numHashes; ++i)
+            seeds[i] = RANDOM.nextLong();
+
+        final int NUM_DOCUMENTS = this.documentList.size();
+        termIDSets = new int[NUM_DOCUMENTS][];
+        signatures = new int[NUM_DOCUMENTS][];
+        nextEntries = new int[NUM_DOCUMENTS * numBands];
+
+        for (int documentIndex = 0; documentIndex < NUM_DOCUMENTS; ++documentIndex)
+        {
+            termIDSets[documentIndex] = CosineSimilarityCalculator.getDistinctTermIDs(this.documentList.get(documentIndex));
+            signatures[documentIndex] = buildSignature(termIDSets[documentIndex]);
+
+            if (termIDSets[documentIndex].length == 0)
+                continue;
+
+            for (int band = 0; band < numBands; ++band)
+            {
+                final long BUCKET_KEY = getBucketKey(signatures[documentIndex], band);
+                int bucket = (bucketMap.get(BUCKET_KEY) - 1);
+
+                if (bucket < 0)
+                {
+                    bucket = numBuckets++;
+                    bucketMap.addTo(BUCKET_KEY, (bucket + 1));
+
+                    if (bucket == bucketHeads.length)
+                        bucketHeads = Arrays.copyOf(bucketHeads, (bucket << 1));
+
+                    bucketHeads[bucket] = -1;
+                }
+
+                final int ENTRY = ((documentIndex * numBands) + band);
+                nextEntries[ENTRY] = bucketHeads[bucket];
+                bucketHeads[bucket] = ENTRY;
+            }
+        }
+    }
+
+    public List<Document> getDocumentList()
+    {
+        return documentList;
+    }
+
+    /**
+     * @param documentIndex {@link Document} 인덱스
+     * @return 서로 다른 {@link Term} ID 배열 (오름차순)
+     */
+    public int[] getTermIDSet(final int documentIndex)
+    {
+        return termIDSets[documentIndex];
+    }
+
+    /**
+     * 후보가 될 확률이 1/2이 되는 Jaccard 유사도의 근사값 (1/b)^(1/r)
+     * @return 근사 임계값
+     */
+    public double getApproximateThreshold()
+    {
+        return Math.pow((1.0 / numBands), (1.0 / numRowsPerBand));
+    }
+
+    /**
+     * 색인된 {@link Document}와 밴드를 하나 이상 공유하는 후보 {@link Document}를 찾는다.
+     * @param documentIndex {@link Document} 인덱스
+     * @return 후보 {@link Document} 인덱스 배열 (자기 자신 제외, 오름차순, {@link Term}이 없는 경우 빈 배열)
+     */
+    public int[] findCandidates(final int documentIndex)
+    {
+        if (termIDSets[documentIndex].length == 0)
+            return new int[0];
+
+        return findCandidates(signatures[documentIndex], documentIndex);
+    }
+
+    /**
+     * 색인되지 않은 {@link Document}와 밴드를 하나 이상 공유하는 후보 {@link Document}를 찾는다.
+     * @param document {@link Document}
+     * @return 후보 {@link Document} 인덱스 배열 (오름차순, {@link Term}이 없는 경우 빈 배열)
+     */
+    public int[] findCandidates(final Document document)
+    {
+        final int[] TERM_ID_SET = CosineSimilarityCalculator.getDistinctTermIDs(document);
+
+        if (TERM_ID_SET.length == 0)
+            return new int[0];
+
+        return findCandidates(buildSignature(TERM_ID_SET), -1);
+    }
+
+    /**
+     * @return 두 {@link Document}의 서명이 일치하는 비율 (Jaccard 유사도의 추정값, 어느 한 쪽이라도 {@link Term}이 없는 경우 0)
+     */
+    public double estimateSimilarity(final int documentIndex1, final int documentIndex2)
+    {
+        if ((termIDSets[documentIndex1].length == 0) || (termIDSets[documentIndex2].length == 0))
+            return 0.0;
+
+        return estimateSimilarity(signatures[documentIndex1], signatures[documentIndex2]);
+    }
+
+    /**
+     * 같은 버킷에 속한 {@link Document} 쌍만 비교하여, 추정 Jaccard 유사도가 threshold 이상인 모든 쌍을 찾는다.
+     * @param threshold 유사도 임계값
+     * @return 유사 중복 쌍 리스트
+     */
+    public List<NearDuplicate> findNearDuplicates(final double threshold)
+    {
+        List<NearDuplicate> retVal = new ArrayList<>();
+
+        // 여러 밴드에서 만난 쌍을 한 번만 비교하기 위한 집합
+        LongIntHashMap comparedPairs = new LongIntHashMap();
+
+        for (int bucket = 0; bucket < numBuckets; ++bucket)
+        {
+            for (int entry1 = bucketHeads[bucket]; entry1 >= 0; entry1 = nextEntries[entry1])
+            {
+                for (int entry2 = nextEntries[entry1]; entry2 >= 0; entry2 = nextEntries[entry2])
+                {
+                    final int DOCUMENT_INDEX1 = (entry1 / numBands);
+                    final int DOCUMENT_INDEX2 = (entry2 / numBands);
+                    final long PAIR_KEY = WordCooccurrenceCalculator.toMatrixKey(DOCUMENT_INDEX1, DOCUMENT_INDEX2);
+
+                    if (comparedPairs.addTo(PAIR_KEY, 1) > 1)
+                        continue;
+
+                    final double SIMILARITY = estimateSimilarity(DOCUMENT_INDEX1, DOCUMENT_INDEX2);
+
+                    if (SIMILARITY >= threshold)
+                    {
+                        retVal.add(new NearDuplicate(
+                                documentList.get(Math.min(DOCUMENT_INDEX1, DOCUMENT_INDEX2)),
+                                documentList.get(Math.max(DOCUMENT_INDEX1, DOCUMENT_INDEX2)), SIMILARITY));
+                    }
+                }
+            }
+        }
+
+        return retVal;
+    }
+
+    private int[] findCandidates(final int[] signature, final int excludedDocumentIndex)
+    {
+        int[] retVal = new int[16];
+        int size = 0;
+
+        for (int band = 0; band < numBands; ++band)
+        {
+            final int BUCKET = (bucketMap.get(getBucketKey(signature, band)) - 1);
+
+            if (BUCKET < 0)
+                continue;
+
+            for (int entry = bucketHeads[BUCKET]; entry >= 0; entry = nextEntries[entry])
+            {
+                final int DOCUMENT_INDEX = (entry / numBands);
+
+                if (DOCUMENT_INDEX == excludedDocumentIndex)
+                    continue;
+
+                if (size == retVal.length)
+                    retVal = Arrays.copyOf(retVal, (size << 1));
+
+                retVal[size++] = DOCUMENT_INDEX;
+            }
+        }
+
+        // 여러 밴드에서 중복된 후보 제거
+        Arrays.sort(retVal, 0, size);
+
+        int numDistinct = 0;
+
+        for (int i = 0; i < size; ++i)
+        {
+            if ((numDistinct == 0) || (retVal[numDistinct - 1] != retVal[i]))
+                retVal[numDistinct++] = retVal[i];
+        }
+
+        return Arrays.copyOf(retVal, numDistinct);
+    }
+
+    private int[] buildSignature(final int[] termIDSet)
+    {
+        final int[] RETVAL = new int[seeds.length];
+        Arrays.fill(RETVAL, Integer.MAX_VALUE);
+
+        for (final int termID : termIDSet)
+        {
+            for (int i = 0; i < seeds.length; ++i)
+                RETVAL[i] = Math.min(RETVAL[i], hash(termID, seeds[i]));
+        }
+
+        return RETVAL;
+    }
+
+    /**
+     * 밴드에 속한 서명 값들과 밴드 번호를 하나의 버킷 키로 섞는다.
+     */
+    private long getBucketKey(final int[] signature, final int band)
+    {
+        long retVal = (band * 0x9E3779B97F4A7C15L);
+        final int FROM = (band * numRowsPerBand);
+
+        for (int row = FROM; row < (FROM + numRowsPerBand); ++row)
+            retVal = mix((retVal ^ signature[row]) * 0xBF58476D1CE4E5B9L);
+
+        return retVal;
+    }
+
+    private static double estimateSimilarity(final int[] signature1, final int[] signature2)
+    {
+        int numEquals = 0;
+
+        for (int i = 0; i < signature1.length; ++i)
+        {
+            if (signature1[i] == signature2[i])
+                ++numEquals;
+        }
+
+        return ((double)numEquals / (double)signature1.length);
+    }
+
+    private static int hash(final int termID, final long seed)
+    {
+        return (int)(mix(termID ^ seed) >>> 33);
+    }
+
+    /**
+     * 64비트 값의 비트를 섞는다. (MurmurHash3 fmix64)
+     */
+    private static long mix(long value)
+    {
+        value ^= (value >>> 33);
+        value *= 0xff51afd7ed558ccdL;
+        value ^= (value >>> 33);
+        value *= 0xc4ceb9fe1a85ec53L;
+        value ^= (value >>> 33);
+
+        return value;
+    }
+}
@@ -0,0 +1,47 @@
+package analysis;
+
+/**
+ * {@link MinHashIndex}가 찾은 유사 중복 {@link Document} 쌍
+ */
+public class NearDuplicate
+{
+    private final Document document1;
+    private final Document document2;
+
+    /**
+     * MinHash 서명으로 추정한 Jaccard 유사도
+     */
+    private final double similarity;
+
+    public NearDuplicate(final Document document1, final Document document2, final double similarity)
+    {
+        this.document1 = document1;
+        this.document2 = document2;
+        this.similarity = similarity;
+    }
+
+    public Document getDocument1()
+    {
+        return document1;
+    }
+
+    public Document getDocument2()
+    {
+        return document2;
+    }
+
+    public double getSimilarity()
+    {
+        return similarity;
+    }
+
+    @Override
+    public String toString()
+    {
+        return "NearDuplicate{" +
+                "document1=" + document1.getID() +
+                ", document2=" + document2.getID() +
+                ", similarity=" + similarity +
+                '}';
+    }
+}
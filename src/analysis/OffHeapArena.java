@@ -0,0 +1,227 @@
+package analysis;
+
+import java.io.Closeable;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.nio.*;
+import java.util.IdentityHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 정해진 예산 안에서 GC가 관리하지 않는 direct 버퍼를 할당하고 해제하는 메모리 영역<br>
+ * 할당한 버퍼는 {@link #release(Buffer)}로 하나씩, 또는 {@link #close()}로 한꺼번에 해제한다.
+ * 해제된 버퍼는 더 이상 사용할 수 없다.<br><br>
+ *
+ * 참고: 즉시 해제는 JVM 내부의 cleaner를 리플렉션으로 호출하여 구현한다. 호출할 수 없는 JVM에서는
+ * 예산만 돌려받고, 실제 메모리는 버퍼가 GC될 때 해제된다.
+ *
+ * @see OffHeapLongIntHashMap
+ * @see CooccurrenceAdjacency
+ */
+public class OffHeapArena implements Closeable
+{
+    /**
+     * 모든 영역에서 사용 중인 바이트 수 (성능 지표용)
+     */
+    private static final AtomicLong TOTAL_USED_BYTES = new AtomicLong();
+
+    /**
+     * direct 버퍼를 즉시 해제하는 함수 (사용할 수 없는 경우 null)
+     */
+    private static final Deallocator DEALLOCATOR = findDeallocator();
+
+    private interface Deallocator
+    {
+        void free(ByteBuffer buffer) throws Exception;
+    }
+
+    /**
+     * 할당할 수 있는 최대 바이트 수
+     */
+    private final long budget;
+
+    private long usedBytes = 0L;
+
+    /**
+     * 할당한 버퍼(또는 그 view)와 원본 direct 버퍼의 쌍
+     */
+    private final Map<Buffer, ByteBuffer> bufferMap = new IdentityHashMap<>();
+
+    private boolean closed = false;
+
+    /**
+     * @param budget 할당할 수 있는 최대 바이트 수
+     */
+    public OffHeapArena(final long budget)
+    {
+        if (budget <= 0L)
+            throw new IllegalArgumentException("budget must be positive: " + budget);
+
+        this.budget = budget;
+    }
+
+    /**
+     * @return 모든 영역에서 사용 중인 바이트 수
+     */
+    public static long getTotalUsedBytes()
+    {
+        return TOTAL_USED_BYTES.get();
+    }
+
+    public long getBudget()
+    {
+        return budget;
+    }
+
+    public synchronized long getUsedBytes()
+    {
+        return usedBytes;
+    }
+
+    /**
+     * @param numBytes 바이트 수
+     * @return 0으로 채워진 native byte order의 direct 버퍼
+     * @throws IllegalStateException 예산을 넘는 경우, 또는 이미 닫힌 경우
+     */
+    public synchronized ByteBuffer allocate(final int numBytes)
+    {
+        final ByteBuffer BUFFER = allocateDirect(numBytes);
+        bufferMap.put(BUFFER, BUFFER);
+
+        return BUFFER;
+    }
+
+    /**
+     * @param length int 개수
+     * @return 0으로 채워진 direct {@link IntBuffer}
+     * @throws IllegalStateException 예산을 넘는 경우, 또는 이미 닫힌 경우
+     */
+    public synchronized IntBuffer allocateInts(final int length)
+    {
+        final ByteBuffer BUFFER = allocateDirect(toNumBytes(length, Integer.BYTES));
+        final IntBuffer RETVAL = BUFFER.asIntBuffer();
+        bufferMap.put(RETVAL, BUFFER);
+
+        return RETVAL;
+    }
+
+    /**
+     * @param length long 개수
+     * @return 0으로 채워진 direct {@link LongBuffer}
+     * @throws IllegalStateException 예산을 넘는 경우, 또는 이미 닫힌 경우
+     */
+    public synchronized LongBuffer allocateLongs(final int length)
+    {
+        final ByteBuffer BUFFER = allocateDirect(toNumBytes(length, Long.BYTES));
+        final LongBuffer RETVAL = BUFFER.asLongBuffer();
+        bufferMap.put(RETVAL, BUFFER);
+
+        return RETVAL;
+    }
+
+    /**
+     * 이 영역에서 할당한 버퍼를 해제한다. (이 영역의 버퍼가 아닌 경우 무시한다.)
+     * @param buffer {@link #allocate(int)}, {@link #allocateInts(int)}, {@link #allocateLongs(int)}가 반환한 버퍼
+     */
+    public synchronized void release(final Buffer buffer)
+    {
+        final ByteBuffer BUFFER = bufferMap.remove(buffer);
+
+        if (BUFFER != null)
+            free(BUFFER);
+    }
+
+    /**
+     * 할당한 모든 버퍼를 해제한다. 이후에는 할당할 수 없다.
+     */
+    @Override
+    public synchronized void close()
+    {
+        bufferMap.values().forEach(this::free);
+        bufferMap.clear();
+        closed = true;
+    }
+
+    public synchronized boolean isClosed()
+    {
+        return closed;
+    }
+
+    private ByteBuffer allocateDirect(final int numBytes)
+    {
+        if (closed)
+            throw new IllegalStateException("off-heap arena is closed");
+
+        if ((usedBytes + numBytes) > budget)
+            throw new IllegalStateException(
+                    "off-heap budget exceeded: " + (usedBytes + numBytes) + " > " + budget + " bytes");
+
+        final ByteBuffer RETVAL = ByteBuffer.allocateDirect(numBytes).order(ByteOrder.nativeOrder());
+
+        usedBytes += numBytes;
+        TOTAL_USED_BYTES.addAndGet(numBytes);
+
+        return RETVAL;
+    }
+
+    private void free(final ByteBuffer buffer)
+    {
+        usedBytes -= buffer.capacity();
+        TOTAL_USED_BYTES.addAndGet(-buffer.capacity());
+
+        if (DEALLOCATOR == null)
+            return;
+
+        try
+        {
+            DEALLOCATOR.free(buffer);
+        }
+        catch (Exception e)
+        {
+            // GC에 의해 해제된다.
+        }
+    }
+
+    private static int toNumBytes(final int length, final int elementSize)
+    {
+        if ((length < 0) || (length > (Integer.MAX_VALUE / elementSize)))
+            throw new IllegalStateException("off-heap buffer too large: " + length + " elements");
+
+        return (length * elementSize);
+    }
+
+    /**
+     * Java 9 이상에서는 Unsafe.invokeCleaner, Java 8에서는 DirectBuffer.cleaner().clean()을 사용한다.
+     */
+    private static Deallocator findDeallocator()
+    {
+        try
+        {
+            final Class<?> UNSAFE_CLASS = Class.forName("sun.misc.Unsafe");
+            final Method INVOKE_CLEANER = UNSAFE_CLASS.getMethod("invokeCleaner", ByteBuffer.class);
+            final Field THE_UNSAFE = UNSAFE_CLASS.getDeclaredField("theUnsafe");
+            THE_UNSAFE.setAccessible(true);
+
+            final Object UNSAFE = THE_UNSAFE.get(null);
+
+            return buffer -> INVOKE_CLEANER.invoke(UNSAFE, buffer);
+        }
+        catch (Exception e)
+        {
+            // Java 8
+        }
+
+        try
+        {
+            final Method CLEANER = Class.forName("sun.nio.ch.DirectBuffer").getMethod("cleaner");
+            final Method CLEAN = Class.forName("sun.misc.Cleaner").getMethod("clean");
+
+            return buffer -> CLEAN.invoke(CLEANER.invoke(buffer));
+        }
+        catch (Exception e)
+        {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,279 @@
+package analysis;
+
+import java.nio.IntBuffer;
+import java.nio.LongBuffer;
+
+/**
+ * 키와 값을 {@link OffHeapArena}의 direct 버퍼에 저장하는 {@link LongIntHashMap}<br>
+ * 항목이 GC 관리 대상인 힙에 올라가지 않으므로, 항목이 많아도 GC 일시 정지 시간이 늘어나지 않는다.
+ * 탐사 방식과 적재율은 {@link LongIntHashMap}과 같다.<br><br>
+ *
+ * 참고: 용량을 늘리는 동안에는 이전 버퍼와 새 버퍼가 함께 예산을 차지한다. 예산이 부족하여 늘리지 못한 경우
+ * {@link IllegalStateException}이 발생하며, 마지막으로 추가하려던 항목을 제외한 맵의 내용은 유지된다.
+ * 사용이 끝나면 {@link #release()}로 버퍼를 해제한다.
+ */
+public class OffHeapLongIntHashMap implements LongIntMap
+{
+    private static final float LOAD_FACTOR = 0.75f;
+
+    /**
+     * 비어있는 슬롯을 나타내는 키 (실제 키 0은 {@link #zeroValue}에 따로 저장한다.)
+     */
+    private static final long EMPTY_KEY = 0L;
+
+    private final OffHeapArena arena;
+
+    private LongBuffer keys;
+    private IntBuffer values;
+
+    /**
+     * 슬롯 인덱스 계산용 마스크 (용량 - 1)
+     */
+    private int mask;
+
+    /**
+     * 키 0을 제외한 항목 개수
+     */
+    private int size = 0;
+
+    private boolean hasZeroKey = false;
+    private int zeroValue = 0;
+
+    /**
+     * @param arena 버퍼를 할당할 {@link OffHeapArena}
+     * @param expectedSize 예상 항목 개수
+     */
+    public OffHeapLongIntHashMap(final OffHeapArena arena, final int expectedSize)
+    {
+        this.arena = arena;
+
+        int capacity = 16;
+
+        while ((capacity * LOAD_FACTOR) < expectedSize)
+            capacity <<= 1;
+
+        allocate(capacity);
+    }
+
+    /**
+     * 다른 맵의 항목을 복사한 맵을 만든다.
+     * @param arena 버퍼를 할당할 {@link OffHeapArena}
+     * @param map 복사할 맵
+     */
+    public OffHeapLongIntHashMap(final OffHeapArena arena, final LongIntMap map)
+    {
+        this(arena, map.size());
+        addAll(map);
+    }
+
+    @Override
+    public int addTo(final long key, final int delta)
+    {
+        if (key == EMPTY_KEY)
+        {
+            hasZeroKey = true;
+            zeroValue += delta;
+
+            return zeroValue;
+        }
+
+        int slot = (hash(key) & mask);
+        long slotKey;
+
+        while ((slotKey = keys.get(slot)) != EMPTY_KEY)
+        {
+            if (slotKey == key)
+            {
+                final int VALUE = (values.get(slot) + delta);
+                values.put(slot, VALUE);
+
+                return VALUE;
+            }
+
+            slot = ((slot + 1) & mask);
+        }
+
+        keys.put(slot, key);
+        values.put(slot, delta);
+
+        if (++size > ((mask + 1) * LOAD_FACTOR))
+        {
+            try
+            {
+                rehash((mask + 1) << 1);
+            }
+            catch (IllegalStateException e)
+            {
+                // 예산이 부족한 경우 추가한 항목을 되돌린다. (탐사 경로의 마지막 슬롯이므로 비워도 다른 키의 탐색에 영향이 없다.)
+                keys.put(slot, EMPTY_KEY);
+                --size;
+
+                throw e;
+            }
+        }
+
+        return delta;
+    }
+
+    @Override
+    public int get(final long key)
+    {
+        if (key == EMPTY_KEY)
+            return zeroValue;
+
+        final int SLOT = findSlot(key);
+
+        return ((SLOT < 0) ? 0 : values.get(SLOT));
+    }
+
+    @Override
+    public boolean containsKey(final long key)
+    {
+        if (key == EMPTY_KEY)
+            return hasZeroKey;
+
+        return (findSlot(key) >= 0);
+    }
+
+    @Override
+    public int size()
+    {
+        return (hasZeroKey ? (size + 1) : size);
+    }
+
+    @Override
+    public void clear()
+    {
+        for (int slot = 0; slot <= mask; ++slot)
+            keys.put(slot, EMPTY_KEY);
+
+        size = 0;
+        hasZeroKey = false;
+        zeroValue = 0;
+    }
+
+    @Override
+    public void forEach(final EntryConsumer consumer)
+    {
+        if (hasZeroKey)
+            consumer.accept(EMPTY_KEY, zeroValue);
+
+        for (int slot = 0; slot <= mask; ++slot)
+        {
+            final long KEY = keys.get(slot);
+
+            if (KEY != EMPTY_KEY)
+                consumer.accept(KEY, values.get(slot));
+        }
+    }
+
+    /**
+     * @return 키와 값 버퍼가 차지하는 바이트 수
+     */
+    public long getNumBytes()
+    {
+        return ((mask + 1L) * (Long.BYTES + Integer.BYTES));
+    }
+
+    /**
+     * @return 버퍼를 할당한 {@link OffHeapArena}
+     */
+    OffHeapArena getArena()
+    {
+        return arena;
+    }
+
+    /**
+     * 버퍼를 {@link OffHeapArena}에 돌려준다. 이후에는 맵을 사용할 수 없다.
+     */
+    public void release()
+    {
+        if (keys == null)
+            return;
+
+        arena.release(keys);
+        arena.release(values);
+        keys = null;
+        values = null;
+    }
+
+    private int findSlot(final long key)
+    {
+        int slot = (hash(key) & mask);
+        long slotKey;
+
+        while ((slotKey = keys.get(slot)) != EMPTY_KEY)
+        {
+            if (slotKey == key)
+                return slot;
+
+            slot = ((slot + 1) & mask);
+        }
+
+        return -1;
+    }
+
+    private void allocate(final int capacity)
+    {
+        final LongBuffer KEYS = arena.allocateLongs(capacity);
+        final IntBuffer VALUES;
+
+        try
+        {
+            VALUES = arena.allocateInts(capacity);
+        }
+        catch (IllegalStateException e)
+        {
+            arena.release(KEYS);
+            throw e;
+        }
+
+        keys = KEYS;
+        values = VALUES;
+        mask = (capacity - 1);
+    }
+
+    private void rehash(final int newCapacity)
+    {
+        final LongBuffer OLD_KEYS = keys;
+        final IntBuffer OLD_VALUES = values;
+        final int OLD_CAPACITY = (mask + 1);
+
+        allocate(newCapacity);
+
+        for (int i = 0; i < OLD_CAPACITY; ++i)
+        {
+            final long KEY = OLD_KEYS.get(i);
+
+            if (KEY == EMPTY_KEY)
+                continue;
+
+            int slot = (hash(KEY) & mask);
+
+            while (keys.get(slot) != EMPTY_KEY)
+                slot = ((slot + 1) & mask);
+
+            keys.put(slot, KEY);
+            values.put(slot, OLD_VALUES.get(i));
+        }
+
+        arena.release(OLD_KEYS);
+        arena.release(OLD_VALUES);
+    }
+
+    /**
+     * 키의 비트를 섞어 슬롯 인덱스를 고르게 분포시킨다. (MurmurHash3 fmix64)
+     */
+    private static int hash(final long key)
+    {
+        long h = key;
+
+        h ^= (h >>> 33);
+        h *= 0xff51afd7ed558ccdL;
+        h ^= (h >>> 33);
+        h *= 0xc4ceb9fe1a85ec53L;
+        h ^= (h >>> 33);
+
+        return (int)h;
+    }
+}
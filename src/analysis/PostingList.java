@@ -0,0 +1,98 @@
+package analysis;
+
+import java.util.Arrays;
+
+/**
+ * 하나의 {@link Term} content에 대한 포스팅 리스트<br>
+ * 포스팅은 ({@link Document} 인덱스, 출현 빈도) 쌍이며, {@link Document} 인덱스의 오름차순으로 저장된다.
+ *
+ * @see InvertedIndex
+ */
+public class PostingList
+{
+    /**
+     * {@link Document} 인덱스 배열
+     */
+    private int[] documentIndices = new int[4];
+
+    /**
+     * {@link Document} 내 출현 빈도 배열
+     */
+    private int[] frequencies = new int[4];
+
+    /**
+     * 포스팅 개수 (= DF)
+     */
+    private int size = 0;
+
+    public PostingList() {}
+
+    /**
+     * 이미 만들어진 포스팅 배열로 포스팅 리스트를 만든다. ({@link IndexSegment}에서 복원할 때 사용한다.)
+     * @param documentIndices 오름차순으로 정렬된 {@link Document} 인덱스 배열
+     * @param frequencies {@link Document} 내 출현 빈도 배열
+     */
+    PostingList(final int[] documentIndices, final int[] frequencies)
+    {
+        this.documentIndices = documentIndices;
+        this.frequencies = frequencies;
+        size = documentIndices.length;
+    }
+
+    /**
+     * 포스팅을 추가한다. {@link Document} 인덱스는 오름차순으로 추가되어야 한다.
+     * @param documentIndex {@link Document} 인덱스
+     * @param frequency {@link Document} 내 출현 빈도
+     */
+    public void add(final int documentIndex, final int frequency)
+    {
+        if (size == documentIndices.length)
+        {
+            final int NEW_CAPACITY = (size << 1);
+
+            documentIndices = Arrays.copyOf(documentIndices, NEW_CAPACITY);
+            frequencies = Arrays.copyOf(frequencies, NEW_CAPACITY);
+        }
+
+        documentIndices[size] = documentIndex;
+        frequencies[size] = frequency;
+        ++size;
+    }
+
+    /**
+     * @param documentIndex {@link Document} 인덱스
+     * @return {@link Document} 내 출현 빈도 (출현하지 않는 경우 0)
+     */
+    public int getFrequency(final int documentIndex)
+    {
+        final int POSITION = Arrays.binarySearch(documentIndices, 0, size, documentIndex);
+
+        if (POSITION < 0)
+            return 0;
+
+        return frequencies[POSITION];
+    }
+
+    public int getDocumentIndex(final int position)
+    {
+        return documentIndices[position];
+    }
+
+    public int getFrequencyAt(final int position)
+    {
+        return frequencies[position];
+    }
+
+    public int size()
+    {
+        return size;
+    }
+
+    /**
+     * @return 같은 포스팅을 가진 새로운 {@link PostingList} (이후 서로의 변경에 영향을 주지 않는다.)
+     */
+    public PostingList copy()
+    {
+        return new PostingList(Arrays.copyOf(documentIndices, size), Arrays.copyOf(frequencies, size));
+    }
+}
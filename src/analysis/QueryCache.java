@@ -0,0 +1,211 @@
+package analysis;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 크기가 제한된 근사 LRU 질의 캐시<br>
+ * 조회({@link #get(Object)})는 잠금 없이 {@link ConcurrentHashMap}을 읽고 항목의 마지막 조회 시각만 갱신하므로,
+ * 여러 스레드가 동시에 조회해도 서로 기다리지 않는다. 적중/실패/제거 횟수는 {@link LongAdder}로 센다.<br>
+ * 넘치는 경우 저장({@link #put(Object, Object)})하는 스레드만 잠금을 잡고, 마지막 조회 시각이 가장 오래된 항목부터
+ * 최대 항목 개수의 1/{@link #EVICTION_BATCH_DIVISOR}만큼 여유가 생기도록 한꺼번에 버린다.<br><br>
+ *
+ * 참고:<br>
+ * 조회 시각은 잠금 없이 기록하므로, 동시에 조회된 항목 사이의 순서는 정확한 LRU와 다를 수 있다.<br>
+ * null 값은 저장할 수 없다. 부정 캐시(negative cache)가 필요하다면 별도의 표식 객체를 값으로 사용한다.
+ *
+ * @param <K> 키 타입
+ * @param <V> 값 타입
+ */
+public class QueryCache<K, V>
+{
+    /**
+     * 한 번에 버리는 여유분 (최대 항목 개수의 1/8)<br>
+     * 넘칠 때마다 조회 시각을 정렬하지 않도록, 한 번 정렬할 때 여러 항목을 함께 버린다.
+     */
+    private static final int EVICTION_BATCH_DIVISOR = 8;
+
+    /**
+     * 캐시 항목 (값과 마지막 조회 시각)
+     */
+    private static final class Entry<V>
+    {
+        private final V value;
+        private volatile long accessTime;
+
+        private Entry(final V value)
+        {
+            this.value = value;
+            accessTime = System.nanoTime();
+        }
+    }
+
+    private final ConcurrentHashMap<K, Entry<V>> map = new ConcurrentHashMap<>();
+
+    /**
+     * 항목을 버리는 스레드 사이의 잠금 (조회에서는 사용하지 않는다.)
+     */
+    private final Object evictionLock = new Object();
+
+    /**
+     * 보관하는 최대 항목 개수 (0인 경우 캐시하지 않는다.)
+     */
+    private volatile int capacity;
+
+    private final LongAdder hitCount = new LongAdder();
+    private final LongAdder missCount = new LongAdder();
+    private final LongAdder evictionCount = new LongAdder();
+
+    /**
+     * @param capacity 보관하는 최대 항목 개수 (0인 경우 캐시하지 않는다.)
+     */
+    public QueryCache(final int capacity)
+    {
+        setCapacity(capacity);
+    }
+
+    /**
+     * @param key 키
+     * @return 값 (캐시되지 않은 경우 null)
+     */
+    public V get(final K key)
+    {
+        final Entry<V> ENTRY = map.get(key);
+
+        if (ENTRY == null)
+        {
+            missCount.increment();
+            return null;
+        }
+
+        ENTRY.accessTime = System.nanoTime();
+        hitCount.increment();
+
+        return ENTRY.value;
+    }
+
+    public void put(final K key, final V value)
+    {
+        if (value == null)
+            throw new IllegalArgumentException("value must not be null");
+
+        if (capacity == 0)
+            return;
+
+        map.put(key, new Entry<>(value));
+
+        if (map.size() > capacity)
+            trim();
+    }
+
+    public void clear()
+    {
+        map.clear();
+    }
+
+    /**
+     * 보관하는 최대 항목 개수를 바꾼다. 줄어드는 경우 넘치는 항목을 바로 버린다.
+     * @param capacity 보관하는 최대 항목 개수 (0인 경우 캐시하지 않는다.)
+     */
+    public void setCapacity(final int capacity)
+    {
+        if (capacity < 0)
+            throw new IllegalArgumentException("capacity must not be negative: " + capacity);
+
+        this.capacity = capacity;
+
+        if (map.size() > capacity)
+            trim();
+    }
+
+    public int getCapacity()
+    {
+        return capacity;
+    }
+
+    public int size()
+    {
+        return map.size();
+    }
+
+    public long getHitCount()
+    {
+        return hitCount.sum();
+    }
+
+    public long getMissCount()
+    {
+        return missCount.sum();
+    }
+
+    public long getEvictionCount()
+    {
+        return evictionCount.sum();
+    }
+
+    @Override
+    public String toString()
+    {
+        return "QueryCache{" +
+                "size=" + map.size() +
+                ", capacity=" + capacity +
+                ", hitCount=" + hitCount.sum() +
+                ", missCount=" + missCount.sum() +
+                ", evictionCount=" + evictionCount.sum() +
+                '}';
+    }
+
+    /**
+     * 마지막 조회 시각이 가장 오래된 항목부터, 항목 개수가 최대 항목 개수에서 여유분을 뺀 값이 될 때까지 버린다.
+     * 정렬하는 동안 조회된 항목은 조회 시각이 바뀌므로 버리지 않는다.
+     */
+    private void trim()
+    {
+        synchronized (evictionLock)
+        {
+            final int CAPACITY = capacity;
+            final int SIZE = map.size();
+
+            // 다른 스레드가 먼저 버린 경우
+            if (SIZE <= CAPACITY)
+                return;
+
+            final int TARGET_SIZE = (CAPACITY - (CAPACITY / EVICTION_BATCH_DIVISOR));
+            long[] accessTimes = new long[SIZE];
+            int numEntries = 0;
+
+            for (Entry<V> entry : map.values())
+            {
+                if (numEntries == accessTimes.length)
+                    break;
+
+                accessTimes[numEntries++] = entry.accessTime;
+            }
+
+            final int NUM_EVICTIONS = (numEntries - TARGET_SIZE);
+
+            if (NUM_EVICTIONS <= 0)
+                return;
+
+            Arrays.sort(accessTimes, 0, numEntries);
+
+            final long THRESHOLD = accessTimes[NUM_EVICTIONS - 1];
+            int numEvicted = 0;
+
+            for (Map.Entry<K, Entry<V>> mapEntry : map.entrySet())
+            {
+                if (numEvicted == NUM_EVICTIONS)
+                    break;
+
+                final Entry<V> ENTRY = mapEntry.getValue();
+
+                if ((ENTRY.accessTime <= THRESHOLD) && map.remove(mapEntry.getKey(), ENTRY))
+                    ++numEvicted;
+            }
+
+            evictionCount.add(numEvicted);
+        }
+    }
+}
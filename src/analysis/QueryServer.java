@@ -0,0 +1,191 @@
+package analysis;
+
+import javafx.util.Pair;
+
+import java.io.*;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.net.SocketException;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * 루프백 주소에서 TF-IDF, Word Co-occurrence, 코사인 유사도 질의를 받는 텍스트 질의 서버<br>
+ * 연결마다 스레드 하나가 요청을 처리하며, 요청마다 {@link IndexSnapshotManager}의 현재 세대를 잡아 잠금 없이 응답한다.<br><br>
+ *
+ * 요청은 한 줄이며, 응답은 0개 이상의 줄 뒤에 빈 줄이 붙는다. 오류의 경우 "ERROR "로 시작하는 한 줄을 응답한다.<br>
+ * TFIDF content: 문서별 "문서 ID: TF-IDF 값"<br>
+ * COOCCURRENCE content [k]: 빈도순 "content: 빈도" (최대 k개)<br>
+ * COSINE documentID [k]: 유사도순 "문서 ID: 유사도" (최대 k개, 원본 문서와 공유하는 {@link Term}이 없는 문서 제외)<br>
+ * GENERATION: 현재 세대 번호<br>
+ * QUIT: 연결을 닫는다.
+ *
+ * @see IndexSnapshotManager
+ */
+public class QueryServer implements Closeable
+{
+    private final IndexSnapshotManager snapshotManager;
+    private final ServerSocket serverSocket;
+
+    /**
+     * 연결을 처리하는 스레드 풀 (연결마다 스레드 하나를 사용한다.)
+     */
+    private final ExecutorService executor = Executors.newCachedThreadPool(runnable ->
+    {
+        Thread thread = new Thread(runnable, "query-server-connection");
+        thread.setDaemon(true);
+
+        return thread;
+    });
+
+    private final Thread acceptThread;
+
+    /**
+     * 서버를 열고 연결을 받기 시작한다.
+     * @param snapshotManager 질의에 사용할 {@link IndexSnapshotManager}
+     * @param port 포트 번호 (0인 경우 임의의 빈 포트)
+     * @throws IOException
+     */
+    public QueryServer(final IndexSnapshotManager snapshotManager, final int port) throws IOException
+    {
+        this.snapshotManager = snapshotManager;
+
+        serverSocket = new ServerSocket(port, 50, InetAddress.getLoopbackAddress());
+
+        acceptThread = new Thread(this::acceptConnections, "query-server-accept");
+        acceptThread.setDaemon(true);
+        acceptThread.start();
+    }
+
+    public int getPort()
+    {
+        return serverSocket.getLocalPort();
+    }
+
+    /**
+     * 더 이상 연결을 받지 않고, 처리 중인 연결을 닫는다.
+     */
+    @Override
+    public void close() throws IOException
+    {
+        serverSocket.close();
+        executor.shutdownNow();
+    }
+
+    private void acceptConnections()
+    {
+        while (!serverSocket.isClosed())
+        {
+            try
+            {
+                final Socket SOCKET = serverSocket.accept();
+                executor.execute(() -> serve(SOCKET));
+            }
+            catch (SocketException e)
+            {
+                // close()에 의해 닫힌 경우
+                break;
+            }
+            catch (IOException e)
+            {
+                System.err.println("질의 서버가 연결을 받지 못하였습니다: " + e);
+            }
+        }
+    }
+
+    private void serve(final Socket socket)
+    {
+        try (Socket connection = socket;
+             BufferedReader reader = new BufferedReader(new InputStreamReader(connection.getInputStream(), StandardCharsets.UTF_8));
+             PrintWriter writer = new PrintWriter(new BufferedWriter(new OutputStreamWriter(connection.getOutputStream(), StandardCharsets.UTF_8))))
+        {
+            String line;
+
+            while ((line = reader.readLine()) != null)
+            {
+                final String[] TOKENS = line.trim().split(" ");
+
+                if (TOKENS[0].equalsIgnoreCase("QUIT"))
+                    break;
+
+                handle(TOKENS, writer);
+                writer.println();
+                writer.flush();
+            }
+        }
+        catch (IOException e)
+        {
+            // 연결이 끊긴 경우
+        }
+    }
+
+    /**
+     * 요청 하나에 응답한다. 요청을 처리하는 동안 같은 세대의 {@link IndexSnapshot}만 사용한다.
+     */
+    private void handle(final String[] tokens, final PrintWriter writer)
+    {
+        final IndexSnapshot SNAPSHOT = snapshotManager.getSnapshot();
+        final String COMMAND = tokens[0].toUpperCase();
+
+        try
+        {
+            if (COMMAND.equals("GENERATION") && (tokens.length == 1))
+            {
+                writer.println(SNAPSHOT.getGeneration());
+                return;
+            }
+
+            if ((tokens.length < 2) || (tokens.length > 3))
+            {
+                writer.println("ERROR invalid request");
+                return;
+            }
+
+            final int K = ((tokens.length == 3) ? Integer.parseInt(tokens[2]) : Integer.MAX_VALUE);
+
+            if (K < 0)
+                throw new NumberFormatException();
+
+            switch (COMMAND)
+            {
+                case "TFIDF":
+                    for (final Document DOCUMENT : SNAPSHOT.getDocumentList())
+                        writer.println(DOCUMENT.getID() + ": " + SNAPSHOT.calculateTfIdf(tokens[1], DOCUMENT.getID()));
+                    break;
+
+                case "COOCCURRENCE":
+                {
+                    final List<Pair<Term, Integer>> COOCCURRENCE_LIST = SNAPSHOT.getOrderedCooccurrenceList(tokens[1], K);
+
+                    if (COOCCURRENCE_LIST != null)
+                        COOCCURRENCE_LIST.forEach(pair -> writer.println(pair.getKey().getContent() + ": " + pair.getValue()));
+                }
+                    break;
+
+                case "COSINE":
+                {
+                    final List<Pair<Document, Double>> SIMILARITY_LIST = SNAPSHOT.getCosineSimilarities(tokens[1], K);
+
+                    if (SIMILARITY_LIST == null)
+                    {
+                        writer.println("ERROR document not loaded: " + tokens[1]);
+                        break;
+                    }
+
+                    SIMILARITY_LIST.forEach(pair -> writer.println(pair.getKey().getID() + ": " + pair.getValue()));
+                }
+                    break;
+
+                default:
+                    writer.println("ERROR unknown command: " + tokens[0]);
+            }
+        }
+        catch (NumberFormatException e)
+        {
+            writer.println("ERROR invalid k: " + tokens[2]);
+        }
+    }
+}
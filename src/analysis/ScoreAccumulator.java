@@ -0,0 +1,312 @@
+package analysis;
+
+import java.util.Arrays;
+
+/**
+ * {@link Document} 인덱스 별 부분 유사도를 누적하는 재사용 가능한 보조 클래스<br>
+ * 질의마다 배열 전체를 초기화하지 않도록, 각 {@link Document}가 마지막으로 누적된 질의 번호(stamp)를 함께 저장한다.<br>
+ * {@link #reset(int, int)}로 k를 지정한 경우, 누적하는 동안 점수가 높은 k개를 크기 k의 최소 힙으로 유지하여
+ * k번째 점수를 O(1)에 조회할 수 있다. (누적되는 점수는 0 이상이어야 한다.)
+ *
+ * @see CosineSimilarityCalculator
+ */
+public class ScoreAccumulator
+{
+    private double[] scores = new double[0];
+    private int[] stamps = new int[0];
+    private int stamp = 0;
+
+    /**
+     * 현재 질의에서 누적된 {@link Document} 인덱스 배열
+     */
+    private int[] touched = new int[16];
+    private int numTouched = 0;
+
+    /**
+     * 점수가 높은 k개를 유지하는 최소 힙 (가장 낮은 점수가 루트, k가 0인 경우 유지하지 않는다.)
+     */
+    private int[] topK = new int[0];
+    private int topKSize = 0;
+    private int k = 0;
+
+    /**
+     * {@link Document} 인덱스 별 {@link #topK} 내 위치 (현재 질의에서 누적된 {@link Document}만 유효하며, 힙에 없는 경우 -1)
+     */
+    private int[] topKPositions = new int[0];
+
+    /**
+     * 새로운 질의를 시작한다.
+     * @param numDocuments 전체 {@link Document} 개수
+     */
+    public void reset(final int numDocuments)
+    {
+        reset(numDocuments, 0);
+    }
+
+    /**
+     * 점수가 높은 k개를 유지하며 새로운 질의를 시작한다. (참고: {@link #getKthScore()})
+     * @param numDocuments 전체 {@link Document} 개수
+     * @param k 유지할 개수 (0인 경우 유지하지 않는다.)
+     */
+    public void reset(final int numDocuments, final int k)
+    {
+        if (scores.length < numDocuments)
+        {
+            scores = new double[numDocuments];
+            stamps = new int[numDocuments];
+            stamp = 0;
+        }
+
+        if (k > 0)
+        {
+            if (topKPositions.length < scores.length)
+                topKPositions = new int[scores.length];
+
+            if (topK.length < k)
+                topK = new int[k];
+        }
+
+        this.k = Math.max(0, k);
+        topKSize = 0;
+
+        if (++stamp == Integer.MAX_VALUE)
+        {
+            Arrays.fill(stamps, 0);
+            stamp = 1;
+        }
+
+        numTouched = 0;
+    }
+
+    public boolean isTouched(final int documentIndex)
+    {
+        return (stamps[documentIndex] == stamp);
+    }
+
+    public void add(final int documentIndex, final double score)
+    {
+        if (stamps[documentIndex] != stamp)
+        {
+            stamps[documentIndex] = stamp;
+            scores[documentIndex] = score;
+
+            if (numTouched == touched.length)
+                touched = Arrays.copyOf(touched, (numTouched << 1));
+
+            touched[numTouched++] = documentIndex;
+
+            if (k > 0)
+            {
+                topKPositions[documentIndex] = -1;
+                updateTopK(documentIndex);
+            }
+
+            return;
+        }
+
+        scores[documentIndex] += score;
+
+        if (k > 0)
+            updateTopK(documentIndex);
+    }
+
+    public double getScore(final int documentIndex)
+    {
+        return scores[documentIndex];
+    }
+
+    public int getNumTouched()
+    {
+        return numTouched;
+    }
+
+    /**
+     * 누적된 {@link Document} 중 점수가 높은 k개를 고른다. (크기 k의 최소 힙 사용)
+     * @param k 고를 개수
+     * @return {@link Document} 인덱스 배열 (점수의 내림차순, 같은 점수의 경우 인덱스 오름차순)
+     */
+    public int[] selectTopK(final int k)
+    {
+        final int SIZE = Math.min(k, numTouched);
+        final int[] HEAP = new int[SIZE];
+        int heapSize = 0;
+
+        for (int i = 0; i < numTouched; ++i)
+        {
+            final int DOCUMENT_INDEX = touched[i];
+
+            if (heapSize < SIZE)
+            {
+                HEAP[heapSize] = DOCUMENT_INDEX;
+                siftUp(HEAP, heapSize++);
+            }
+            else if ((SIZE > 0) && isBetter(DOCUMENT_INDEX, HEAP[0]))
+            {
+                HEAP[0] = DOCUMENT_INDEX;
+                siftDown(HEAP, 0, heapSize);
+            }
+        }
+
+        // 힙 정렬로 최소 원소를 뒤에서부터 채운다.
+        for (int last = (heapSize - 1); last > 0; --last)
+        {
+            final int TEMP = HEAP[0];
+            HEAP[0] = HEAP[last];
+            HEAP[last] = TEMP;
+            siftDown(HEAP, 0, last);
+        }
+
+        return HEAP;
+    }
+
+    /**
+     * @return 누적된 {@link Document} 중 k번째로 높은 점수 (누적된 {@link Document}가 k개 미만인 경우 0)
+     */
+    public double getKthScore(final int k)
+    {
+        if ((k <= 0) || (numTouched < k))
+            return 0.0;
+
+        if (k == this.k)
+            return getKthScore();
+
+        final int[] TOP_K = selectTopK(k);
+
+        return scores[TOP_K[k - 1]];
+    }
+
+    /**
+     * @return {@link #reset(int, int)}로 지정한 k에 대해, 누적된 {@link Document} 중 k번째로 높은 점수
+     * (누적된 {@link Document}가 k개 미만이거나 k를 지정하지 않은 경우 0)
+     */
+    public double getKthScore()
+    {
+        if ((k == 0) || (topKSize < k))
+            return 0.0;
+
+        return scores[topK[0]];
+    }
+
+    /**
+     * 점수가 늘어난 {@link Document}를 {@link #topK}에 반영한다.<br>
+     * 점수는 늘어나기만 하므로, 힙에 있는 {@link Document}는 리프 쪽으로만 움직이고,
+     * 힙에 없는 {@link Document}는 루트(k번째 점수)보다 높아진 경우에만 루트와 교체된다.
+     */
+    private void updateTopK(final int documentIndex)
+    {
+        final int POSITION = topKPositions[documentIndex];
+
+        if (POSITION >= 0)
+            siftDownTopK(POSITION);
+        else if (topKSize < k)
+        {
+            topK[topKSize] = documentIndex;
+            topKPositions[documentIndex] = topKSize;
+            siftUpTopK(topKSize++);
+        }
+        else if (isBetter(documentIndex, topK[0]))
+        {
+            topKPositions[topK[0]] = -1;
+            topK[0] = documentIndex;
+            topKPositions[documentIndex] = 0;
+            siftDownTopK(0);
+        }
+    }
+
+    private void siftUpTopK(int position)
+    {
+        while (position > 0)
+        {
+            final int PARENT = ((position - 1) >>> 1);
+
+            if (!isBetter(topK[PARENT], topK[position]))
+                break;
+
+            swapTopK(PARENT, position);
+            position = PARENT;
+        }
+    }
+
+    private void siftDownTopK(int position)
+    {
+        while (true)
+        {
+            final int LEFT = ((position << 1) + 1);
+            final int RIGHT = (LEFT + 1);
+            int worst = position;
+
+            if ((LEFT < topKSize) && isBetter(topK[worst], topK[LEFT]))
+                worst = LEFT;
+
+            if ((RIGHT < topKSize) && isBetter(topK[worst], topK[RIGHT]))
+                worst = RIGHT;
+
+            if (worst == position)
+                break;
+
+            swapTopK(worst, position);
+            position = worst;
+        }
+    }
+
+    private void swapTopK(final int position1, final int position2)
+    {
+        final int TEMP = topK[position1];
+
+        topK[position1] = topK[position2];
+        topK[position2] = TEMP;
+        topKPositions[topK[position1]] = position1;
+        topKPositions[topK[position2]] = position2;
+    }
+
+    private boolean isBetter(final int documentIndex1, final int documentIndex2)
+    {
+        final double SCORE1 = scores[documentIndex1];
+        final double SCORE2 = scores[documentIndex2];
+
+        if (SCORE1 != SCORE2)
+            return (SCORE1 > SCORE2);
+
+        return (documentIndex1 < documentIndex2);
+    }
+
+    private void siftUp(final int[] heap, int position)
+    {
+        while (position > 0)
+        {
+            final int PARENT = ((position - 1) >>> 1);
+
+            if (!isBetter(heap[PARENT], heap[position]))
+                break;
+
+            final int TEMP = heap[PARENT];
+            heap[PARENT] = heap[position];
+            heap[position] = TEMP;
+            position = PARENT;
+        }
+    }
+
+    private void siftDown(final int[] heap, int position, final int size)
+    {
+        while (true)
+        {
+            final int LEFT = ((position << 1) + 1);
+            final int RIGHT = (LEFT + 1);
+            int worst = position;
+
+            if ((LEFT < size) && isBetter(heap[worst], heap[LEFT]))
+                worst = LEFT;
+
+            if ((RIGHT < size) && isBetter(heap[worst], heap[RIGHT]))
+                worst = RIGHT;
+
+            if (worst == position)
+                break;
+
+            final int TEMP = heap[worst];
+            heap[worst] = heap[position];
+            heap[position] = TEMP;
+            position = worst;
+        }
+    }
+}
@@ -0,0 +1,165 @@
+package analysis;
+
+import java.io.*;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * {@link ShardWorker} 하나와의 연결<br>
+ * 요청은 한 줄의 명령과 0개 이상의 본문 줄이며, 응답은 빈 줄이 나올 때까지의 줄이다. (참고: {@link QueryServer})
+ * 하나의 연결에서는 요청을 순서대로 하나씩 처리한다.<br>
+ * {@link Term} content와 {@link Document} ID는 {@link #escape(String)}로 바꾸어 보낸다. 줄바꿈 문자('\r', '\n')가
+ * 그대로 전달되면 {@link BufferedReader#readLine()}이 줄을 나누어 요청과 응답의 순서가 어긋난다.
+ *
+ * @see ShardedIndex
+ */
+public class ShardClient implements Closeable
+{
+    private final InetSocketAddress address;
+    private final Socket socket;
+    private final BufferedReader reader;
+    private final PrintWriter writer;
+
+    /**
+     * @param address {@link ShardWorker}의 주소
+     * @throws IOException
+     */
+    public ShardClient(final InetSocketAddress address) throws IOException
+    {
+        this.address = address;
+
+        socket = new Socket(address.getAddress(), address.getPort());
+        reader = new BufferedReader(new InputStreamReader(socket.getInputStream(), StandardCharsets.UTF_8));
+        writer = new PrintWriter(new BufferedWriter(new OutputStreamWriter(socket.getOutputStream(), StandardCharsets.UTF_8)));
+    }
+
+    public InetSocketAddress getAddress()
+    {
+        return address;
+    }
+
+    public List<String> request(final String command) throws IOException
+    {
+        return request(command, new ArrayList<>());
+    }
+
+    /**
+     * @param command 명령 줄
+     * @param body 명령 뒤에 보낼 본문 줄 리스트
+     * @return 응답 줄 리스트 (마지막 빈 줄 제외)
+     * @throws IOException 연결이 끊긴 경우, 또는 {@link ShardWorker}가 "ERROR"로 응답한 경우
+     */
+    public synchronized List<String> request(final String command, final List<String> body) throws IOException
+    {
+        writer.println(command);
+        body.forEach(writer::println);
+        writer.flush();
+
+        List<String> retVal = new ArrayList<>();
+        String line;
+
+        while (!(line = readLine()).isEmpty())
+            retVal.add(line);
+
+        if (!retVal.isEmpty() && retVal.get(0).startsWith("ERROR"))
+            throw new IOException("샤드 [" + address + "]: " + retVal.get(0));
+
+        return retVal;
+    }
+
+    /**
+     * content 필드를 줄바꿈과 공백이 없는 문자열로 바꾼다. ('\\' → "\\\\", '\r' → "\\r", '\n' → "\\n", ' ' → "\\s")
+     * @param content {@link Term} content 또는 {@link Document} ID
+     * @return 바꾼 문자열 (참고: {@link #unescape(String)})
+     */
+    static String escape(final String content)
+    {
+        StringBuilder retVal = null;
+
+        for (int i = 0; i < content.length(); ++i)
+        {
+            final char CH = content.charAt(i);
+            final char ESCAPED;
+
+            switch (CH)
+            {
+                case '\\': ESCAPED = '\\'; break;
+                case '\r': ESCAPED = 'r'; break;
+                case '\n': ESCAPED = 'n'; break;
+                case ' ': ESCAPED = 's'; break;
+                default: ESCAPED = 0;
+            }
+
+            if ((ESCAPED != 0) && (retVal == null))
+                retVal = new StringBuilder(content.length() + 8).append(content, 0, i);
+
+            if (ESCAPED != 0)
+                retVal.append('\\').append(ESCAPED);
+            else if (retVal != null)
+                retVal.append(CH);
+        }
+
+        return ((retVal == null) ? content : retVal.toString());
+    }
+
+    /**
+     * {@link #escape(String)}로 바꾼 문자열을 되돌린다.
+     * @param field 바꾼 문자열
+     * @return {@link Term} content 또는 {@link Document} ID
+     * @throws IllegalArgumentException 잘못된 escape 문자열인 경우
+     */
+    static String unescape(final String field)
+    {
+        if (field.indexOf('\\') < 0)
+            return field;
+
+        StringBuilder retVal = new StringBuilder(field.length());
+
+        for (int i = 0; i < field.length(); ++i)
+        {
+            final char CH = field.charAt(i);
+
+            if (CH != '\\')
+            {
+                retVal.append(CH);
+                continue;
+            }
+
+            if (++i == field.length())
+                throw new IllegalArgumentException("dangling escape: " + field);
+
+            switch (field.charAt(i))
+            {
+                case '\\': retVal.append('\\'); break;
+                case 'r': retVal.append('\r'); break;
+                case 'n': retVal.append('\n'); break;
+                case 's': retVal.append(' '); break;
+                default: throw new IllegalArgumentException("invalid escape: " + field);
+            }
+        }
+
+        return retVal.toString();
+    }
+
+    /**
+     * 연결만 닫는다. ({@link ShardWorker}는 계속 실행된다.)
+     */
+    @Override
+    public void close() throws IOException
+    {
+        socket.close();
+    }
+
+    private String readLine() throws IOException
+    {
+        final String LINE = reader.readLine();
+
+        if (LINE == null)
+            throw new EOFException("샤드 [" + address + "]와의 연결이 끊어졌습니다.");
+
+        return LINE;
+    }
+}
@@ -0,0 +1,358 @@
+package analysis;
+
+import javafx.util.Pair;
+
+import java.io.*;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.net.SocketException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * 말뭉치의 일부(샤드)를 색인하고 {@link ShardedIndex}의 부분 질의에 응답하는 작업 프로세스<br>
+ * 실행 인자는 "포트 윈도우크기 벡터Term개수"이며, 표준 입력으로 색인할 파일 경로를 한 줄에 하나씩('\n'으로 구분) 받는다.
+ * 색인이 끝나면 표준 출력에 "PORT 포트번호"를 출력하고 루프백 주소에서 요청을 받는다.<br><br>
+ *
+ * 샤드 간에는 content로 {@link Term}을 주고받는다. ({@link Term} ID는 프로세스마다 다르다.)
+ * content와 documentID 필드는 {@link ShardClient#escape(String)}로 바꾼 값이다.<br>
+ * STATS: 첫 줄에 {@link Document} 개수, 이후 "DF content" (이 샤드의 통계)<br>
+ * GLOBAL numDocuments numTerms + "DF content" numTerms줄: 말뭉치 전체의 통계를 설정하고 질의를 받을 준비를 한다.<br>
+ * DOCUMENTS: {@link Document} ID<br>
+ * TFIDF content documentID: TF-IDF 값<br>
+ * VECTOR documentID: 첫 줄에 L2 norm, 이후 "가중치 content"<br>
+ * SCORE k norm n + "가중치 content" n줄: 유사도순 "유사도 documentID" (최대 k개)<br>
+ * NEIGHBORS content: 빈도순 "빈도 content" (전체)<br>
+ * QUIT: 연결을 닫는다. SHUTDOWN: 프로세스를 종료한다.
+ *
+ * @see ShardedIndex
+ * @see ShardClient
+ */
+public class ShardWorker
+{
+    private final TFIDFCalculator tfIdfCalculator;
+    private final WordCooccurrenceCalculator wcCalculator;
+
+    /**
+     * 코사인 유사도 계산에 사용하는 상위 TF-IDF 가중치 개수
+     */
+    private final int numFeatures;
+
+    /**
+     * 말뭉치 전체의 통계로 구축된 벡터 저장소 (GLOBAL 요청 전에는 null)
+     */
+    private volatile DocumentVectorStore vectorStore = null;
+
+    private final ServerSocket serverSocket;
+
+    /**
+     * 연결을 처리하는 스레드 풀 (연결마다 스레드 하나를 사용한다.)
+     */
+    private final ExecutorService executor = Executors.newCachedThreadPool(runnable ->
+    {
+        Thread thread = new Thread(runnable, "shard-worker-connection");
+        thread.setDaemon(true);
+
+        return thread;
+    });
+
+    /**
+     * @param builder 샤드의 파일을 색인한 {@link StreamingIndexBuilder}
+     * @param numFeatures 코사인 유사도 계산에 사용할 상위 TF-IDF 가중치 개수
+     * @param port 포트 번호 (0인 경우 임의의 빈 포트)
+     * @throws IOException
+     */
+    public ShardWorker(final StreamingIndexBuilder builder, final int numFeatures, final int port) throws IOException
+    {
+        this.numFeatures = numFeatures;
+
+        tfIdfCalculator = builder.createTFIDFCalculator();
+        wcCalculator = builder.createWordCooccurrenceCalculator();
+        wcCalculator.prepare();
+
+        serverSocket = new ServerSocket(port, 50, InetAddress.getLoopbackAddress());
+    }
+
+    public static void main(String[] args) throws IOException
+    {
+        if (args.length != 3)
+        {
+            System.err.println("사용법: ShardWorker 포트 윈도우크기 벡터Term개수 < 파일목록");
+            System.exit(1);
+        }
+
+        StreamingIndexBuilder builder = new StreamingIndexBuilder(Integer.parseInt(args[1]));
+
+        for (final String PATH : readPathList(System.in))
+            builder.addFile(PATH, " ");
+
+        ShardWorker worker = new ShardWorker(builder, Integer.parseInt(args[2]), Integer.parseInt(args[0]));
+
+        System.out.println("PORT " + worker.getPort());
+        System.out.flush();
+
+        worker.acceptConnections();
+        System.exit(0);
+    }
+
+    /**
+     * 파일 경로 목록을 읽는다. 파일 이름에 들어갈 수 있는 '\r'은 줄바꿈으로 보지 않고, '\n'으로만 나눈다. (CRLF의 '\r'은 버린다.)
+     * @param in 한 줄에 경로 하나씩 적힌 입력
+     * @return 빈 줄을 제외한 경로 리스트
+     * @throws IOException
+     */
+    static List<String> readPathList(final InputStream in) throws IOException
+    {
+        final ByteArrayOutputStream BYTES = new ByteArrayOutputStream();
+        final byte[] BUFFER = new byte[8192];
+        int length;
+
+        while ((length = in.read(BUFFER)) > 0)
+            BYTES.write(BUFFER, 0, length);
+
+        List<String> retVal = new ArrayList<>();
+
+        for (String path : new String(BYTES.toByteArray(), StandardCharsets.UTF_8).split("\n"))
+        {
+            if (path.endsWith("\r"))
+                path = path.substring(0, (path.length() - 1));
+
+            if (!path.isEmpty())
+                retVal.add(path);
+        }
+
+        return retVal;
+    }
+
+    public int getPort()
+    {
+        return serverSocket.getLocalPort();
+    }
+
+    /**
+     * SHUTDOWN 요청을 받을 때까지 연결을 받는다.
+     */
+    public void acceptConnections()
+    {
+        while (!serverSocket.isClosed())
+        {
+            try
+            {
+                final Socket SOCKET = serverSocket.accept();
+                executor.execute(() -> serve(SOCKET));
+            }
+            catch (SocketException e)
+            {
+                // SHUTDOWN 요청에 의해 닫힌 경우
+                break;
+            }
+            catch (IOException e)
+            {
+                System.err.println("샤드가 연결을 받지 못하였습니다: " + e);
+            }
+        }
+
+        executor.shutdownNow();
+    }
+
+    private void serve(final Socket socket)
+    {
+        try (Socket connection = socket;
+             BufferedReader reader = new BufferedReader(new InputStreamReader(connection.getInputStream(), StandardCharsets.UTF_8));
+             PrintWriter writer = new PrintWriter(new BufferedWriter(new OutputStreamWriter(connection.getOutputStream(), StandardCharsets.UTF_8))))
+        {
+            String line;
+
+            while ((line = reader.readLine()) != null)
+            {
+                final String[] TOKENS = line.split(" ", 2);
+                final String COMMAND = TOKENS[0].toUpperCase();
+
+                if (COMMAND.equals("QUIT"))
+                    break;
+
+                if (COMMAND.equals("SHUTDOWN"))
+                {
+                    serverSocket.close();
+                    break;
+                }
+
+                try
+                {
+                    handle(COMMAND, ((TOKENS.length == 2) ? TOKENS[1] : ""), reader, writer);
+                }
+                catch (IllegalArgumentException | ArrayIndexOutOfBoundsException e)
+                {
+                    writer.println("ERROR invalid request: " + line);
+                }
+
+                writer.println();
+                writer.flush();
+            }
+        }
+        catch (IOException e)
+        {
+            // 연결이 끊긴 경우
+        }
+    }
+
+    private void handle(
+            final String command, final String argument, final BufferedReader reader, final PrintWriter writer) throws IOException
+    {
+        if (command.equals("STATS"))
+        {
+            writeStatistics(writer);
+            return;
+        }
+
+        if (command.equals("GLOBAL"))
+        {
+            final String[] TOKENS = argument.split(" ");
+            final int NUM_TERMS = Integer.parseInt(TOKENS[1]);
+            List<String> lineList = new ArrayList<>(NUM_TERMS);
+
+            for (int i = 0; i < NUM_TERMS; ++i)
+                lineList.add(reader.readLine());
+
+            setGlobalStatistics(Integer.parseInt(TOKENS[0]), lineList);
+            writer.println("OK");
+            return;
+        }
+
+        final DocumentVectorStore VECTOR_STORE = vectorStore;
+
+        if (VECTOR_STORE == null)
+        {
+            writer.println("ERROR global statistics not set");
+            return;
+        }
+
+        final TermDictionary DICTIONARY = TermDictionary.getInstance();
+
+        switch (command)
+        {
+            case "DOCUMENTS":
+                tfIdfCalculator.getDocumentList().forEach(document -> writer.println(ShardClient.escape(document.getID())));
+                break;
+
+            case "TFIDF":
+            {
+                final String[] TOKENS = argument.split(" ", 2);
+                writer.println(tfIdfCalculator.calculate(ShardClient.unescape(TOKENS[0]), ShardClient.unescape(TOKENS[1])));
+            }
+                break;
+
+            case "VECTOR":
+            {
+                final String DOCUMENT_ID = ShardClient.unescape(argument);
+
+                if (VECTOR_STORE.getDocument(DOCUMENT_ID) == null)
+                {
+                    writer.println("ERROR document not loaded: " + argument);
+                    break;
+                }
+
+                final SparseVector VECTOR = VECTOR_STORE.getVector(DOCUMENT_ID);
+                writer.println(VECTOR.getNorm());
+
+                for (int position = 0; position < VECTOR.size(); ++position)
+                    writer.println(VECTOR.getWeight(position) + " " + ShardClient.escape(DICTIONARY.getContent(VECTOR.getTermID(position))));
+            }
+                break;
+
+            case "SCORE":
+            {
+                final String[] TOKENS = argument.split(" ");
+                final int K = Integer.parseInt(TOKENS[0]);
+                final double NORM = Double.parseDouble(TOKENS[1]);
+                final int SIZE = Integer.parseInt(TOKENS[2]);
+
+                // 이 샤드에 없는 Term은 내적에 기여하지 않으므로 버리고, norm은 원래 질의 벡터의 값을 유지한다.
+                List<Pair<Integer, Double>> entryList = new ArrayList<>(SIZE);
+
+                for (int i = 0; i < SIZE; ++i)
+                {
+                    final String[] ENTRY = reader.readLine().split(" ", 2);
+                    final int TERM_ID = DICTIONARY.getID(ShardClient.unescape(ENTRY[1]));
+
+                    if (TERM_ID >= 0)
+                        entryList.add(new Pair<>(TERM_ID, Double.parseDouble(ENTRY[0])));
+                }
+
+                entryList.sort((entry1, entry2) -> Integer.compare(entry1.getKey(), entry2.getKey()));
+
+                final int[] TERM_IDS = new int[entryList.size()];
+                final double[] WEIGHTS = new double[entryList.size()];
+
+                for (int i = 0; i < TERM_IDS.length; ++i)
+                {
+                    TERM_IDS[i] = entryList.get(i).getKey();
+                    WEIGHTS[i] = entryList.get(i).getValue();
+                }
+
+                CosineSimilarityCalculator.calculateTopK(new SparseVector(TERM_IDS, WEIGHTS, NORM), VECTOR_STORE, K)
+                        .forEach(pair -> writer.println(pair.getValue() + " " + ShardClient.escape(pair.getKey().getID())));
+            }
+                break;
+
+            case "NEIGHBORS":
+            {
+                final List<Pair<Term, Integer>> NEIGHBOR_LIST = wcCalculator.getOrderedCooccurrenceList(ShardClient.unescape(argument));
+
+                if (NEIGHBOR_LIST != null)
+                    NEIGHBOR_LIST.forEach(pair -> writer.println(pair.getValue() + " " + ShardClient.escape(pair.getKey().getContent())));
+            }
+                break;
+
+            default:
+                writer.println("ERROR unknown command: " + command);
+        }
+    }
+
+    /**
+     * 이 샤드의 {@link Document} 개수와 {@link Term} 별 DF를 출력한다.
+     */
+    private void writeStatistics(final PrintWriter writer)
+    {
+        final InvertedIndex INVERTED_INDEX = tfIdfCalculator.getInvertedIndex();
+        final TermDictionary DICTIONARY = TermDictionary.getInstance();
+
+        writer.println(INVERTED_INDEX.getNumDocuments());
+
+        for (int termID = 0; termID < INVERTED_INDEX.getTermIDBound(); ++termID)
+        {
+            final PostingList POSTING_LIST = INVERTED_INDEX.getPostingList(termID);
+
+            if (POSTING_LIST != null)
+                writer.println(POSTING_LIST.size() + " " + ShardClient.escape(DICTIONARY.getContent(termID)));
+        }
+    }
+
+    /**
+     * 말뭉치 전체의 통계로 IDF를 바꾸고 벡터 저장소를 다시 구축한다.
+     * @param numDocuments 말뭉치 전체의 {@link Document} 개수
+     * @param lineList "DF content" 줄 리스트
+     */
+    private synchronized void setGlobalStatistics(final int numDocuments, final List<String> lineList)
+    {
+        final TermDictionary DICTIONARY = TermDictionary.getInstance();
+        final int[] DOCUMENT_FREQUENCIES = new int[tfIdfCalculator.getInvertedIndex().getTermIDBound()];
+
+        for (final String LINE : lineList)
+        {
+            final String[] ENTRY = LINE.split(" ", 2);
+            final int TERM_ID = DICTIONARY.getID(ShardClient.unescape(ENTRY[1]));
+
+            if ((TERM_ID >= 0) && (TERM_ID < DOCUMENT_FREQUENCIES.length))
+                DOCUMENT_FREQUENCIES[TERM_ID] = Integer.parseInt(ENTRY[0]);
+        }
+
+        tfIdfCalculator.setGlobalStatistics(numDocuments, DOCUMENT_FREQUENCIES);
+        tfIdfCalculator.prepare(numFeatures);
+        vectorStore = tfIdfCalculator.getVectorStore(numFeatures);
+    }
+}
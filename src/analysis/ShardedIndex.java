@@ -0,0 +1,385 @@
+package analysis;
+
+import javafx.util.Pair;
+
+import java.io.*;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * 말뭉치를 여러 {@link ShardWorker}에 나누어 색인하고, 질의를 모든 샤드에 보내 부분 결과를 합치는(scatter-gather) 색인<br>
+ * 생성 시 샤드별 DF를 합쳐 말뭉치 전체의 통계를 모든 샤드에 돌려주므로, TF-IDF 값과 벡터는 하나의 색인으로 구축한 값과 같다.<br><br>
+ *
+ * TF-IDF: {@link Document}를 가진 샤드에만 질의한다.<br>
+ * 코사인 유사도: 원본 문서를 가진 샤드에서 질의 벡터를 받아 모든 샤드에 보내고, 샤드별 상위 k개를 합쳐 다시 상위 k개를 고른다.<br>
+ * Word Co-occurrence: 모든 샤드의 이웃 빈도를 content 별로 더한 뒤 상위 k개를 고른다.
+ *
+ * @see ShardWorker
+ * @see ShardClient
+ */
+public class ShardedIndex implements Closeable
+{
+    private static final Timer TF_IDF_QUERY_TIMER = MetricsRegistry.getInstance().timer("shard.query.tfidf");
+    private static final Timer COOCCURRENCE_QUERY_TIMER = MetricsRegistry.getInstance().timer("shard.query.cooccurrence");
+    private static final Timer COSINE_QUERY_TIMER = MetricsRegistry.getInstance().timer("shard.query.cosine");
+
+    /**
+     * 유사도 리스트 정렬을 위한 sorter (유사도의 내림차순)
+     */
+    private static final Comparator<Pair<Document, Double>> SIMILARITY_SORTER =
+            (pair1, pair2) -> Double.compare(pair2.getValue(), pair1.getValue());
+
+    /**
+     * 이웃 리스트 정렬을 위한 sorter (빈도의 내림차순, 같은 빈도의 경우 content 오름차순)
+     */
+    private static final Comparator<Pair<String, Integer>> NEIGHBOR_SORTER = (pair1, pair2) ->
+    {
+        final int COMPARISON = Integer.compare(pair2.getValue(), pair1.getValue());
+
+        return ((COMPARISON != 0) ? COMPARISON : pair1.getKey().compareTo(pair2.getKey()));
+    };
+
+    private final List<ShardClient> clientList;
+
+    /**
+     * {@link #launch(List, int, int, int)}로 시작한 작업 프로세스 리스트 (직접 연결한 경우 비어 있다.)
+     */
+    private final List<Process> processList;
+
+    /**
+     * 샤드에 요청을 동시에 보내는 스레드 풀 (샤드마다 스레드 하나)
+     */
+    private final ExecutorService executor;
+
+    /**
+     * key: {@link Document} ID<br>
+     * value: {@link Document}를 가진 샤드의 인덱스
+     */
+    private final HashMap<String, Integer> ownerMap = new HashMap<>();
+
+    /**
+     * 샤드 순서대로의 {@link Document} 리스트 (ID만 갖는다.)
+     */
+    private final List<Document> documentList = new ArrayList<>();
+
+    /**
+     * 이미 실행 중인 {@link ShardWorker}들에 연결하여 말뭉치 전체의 통계를 맞춘다.
+     * @param addressList {@link ShardWorker} 주소 리스트
+     * @throws IOException
+     */
+    public ShardedIndex(final List<InetSocketAddress> addressList) throws IOException
+    {
+        this(addressList, new ArrayList<>());
+    }
+
+    private ShardedIndex(final List<InetSocketAddress> addressList, final List<Process> processList) throws IOException
+    {
+        this.processList = processList;
+
+        clientList = new ArrayList<>(addressList.size());
+        executor = Executors.newFixedThreadPool(Math.max(1, addressList.size()), runnable ->
+        {
+            Thread thread = new Thread(runnable, "sharded-index-request");
+            thread.setDaemon(true);
+
+            return thread;
+        });
+
+        try
+        {
+            for (final InetSocketAddress ADDRESS : addressList)
+                clientList.add(new ShardClient(ADDRESS));
+
+            mergeStatistics();
+        }
+        catch (IOException e)
+        {
+            close();
+            throw e;
+        }
+    }
+
+    /**
+     * 파일들을 numShards개의 샤드에 번갈아 나누고, 샤드마다 {@link ShardWorker} 프로세스를 현재 클래스패스로 시작한다.
+     * @param pathList 색인할 파일 경로 리스트
+     * @param numShards 샤드 개수
+     * @param windowSize 동시 출현으로 인정하는 최대 거리
+     * @param numFeatures 코사인 유사도 계산에 사용할 상위 TF-IDF 가중치 개수
+     * @return {@link ShardedIndex} ({@link #close()} 시 작업 프로세스도 종료한다.)
+     * @throws IOException
+     */
+    public static ShardedIndex launch(
+            final List<String> pathList, final int numShards, final int windowSize, final int numFeatures) throws IOException
+    {
+        if (numShards < 1)
+            throw new IllegalArgumentException("numShards must be positive: " + numShards);
+
+        final String JAVA = (System.getProperty("java.home") + File.separator + "bin" + File.separator + "java");
+        List<Process> processList = new ArrayList<>();
+        List<InetSocketAddress> addressList = new ArrayList<>();
+
+        try
+        {
+            // 모든 작업 프로세스가 동시에 색인하도록 먼저 시작한 뒤 포트를 기다린다.
+            for (int shard = 0; shard < numShards; ++shard)
+            {
+                ProcessBuilder builder = new ProcessBuilder(
+                        JAVA, "-cp", System.getProperty("java.class.path"), ShardWorker.class.getName(),
+                        "0", String.valueOf(windowSize), String.valueOf(numFeatures));
+                builder.redirectError(ProcessBuilder.Redirect.INHERIT);
+
+                final Process PROCESS = builder.start();
+                processList.add(PROCESS);
+
+                try (PrintWriter writer = new PrintWriter(new OutputStreamWriter(PROCESS.getOutputStream(), StandardCharsets.UTF_8)))
+                {
+                    for (int i = shard; i < pathList.size(); i += numShards)
+                        writer.println(pathList.get(i));
+                }
+            }
+
+            for (final Process PROCESS : processList)
+            {
+                final BufferedReader READER =
+                        new BufferedReader(new InputStreamReader(PROCESS.getInputStream(), StandardCharsets.UTF_8));
+                final String LINE = READER.readLine();
+
+                if ((LINE == null) || !LINE.startsWith("PORT "))
+                    throw new IOException("샤드 작업 프로세스가 시작되지 않았습니다: " + LINE);
+
+                addressList.add(new InetSocketAddress(InetAddress.getLoopbackAddress(), Integer.parseInt(LINE.substring(5))));
+            }
+        }
+        catch (IOException e)
+        {
+            processList.forEach(Process::destroy);
+            throw e;
+        }
+
+        return new ShardedIndex(addressList, processList);
+    }
+
+    public int getNumShards()
+    {
+        return clientList.size();
+    }
+
+    /**
+     * @return 샤드 순서대로의 {@link Document} 리스트 (ID만 갖는다.)
+     */
+    public List<Document> getDocumentList()
+    {
+        return Collections.unmodifiableList(documentList);
+    }
+
+    /**
+     * @param content {@link Term} content
+     * @param documentID {@link Document} ID
+     * @return TF-IDF 값 (색인되지 않은 content나 {@link Document}의 경우 0)
+     * @throws IOException
+     */
+    public double calculateTfIdf(final String content, final String documentID) throws IOException
+    {
+        final Integer OWNER = ownerMap.get(documentID);
+
+        if (OWNER == null)
+            return 0.0;
+
+        final long START = TF_IDF_QUERY_TIMER.start();
+        final double RETVAL = Double.parseDouble(clientList.get(OWNER).request("TFIDF " + ShardClient.escape(content) + " " + ShardClient.escape(documentID)).get(0));
+
+        TF_IDF_QUERY_TIMER.stop(START);
+
+        return RETVAL;
+    }
+
+    /**
+     * @param termContent {@link Term} content
+     * @param k 반환할 리스트의 최대 크기
+     * @return 빈도수에 따라 정렬된 {@link Term}, 빈도수 쌍의 리스트 (함께 출현한 {@link Term}이 없는 경우 null)
+     * @throws IOException
+     */
+    public List<Pair<Term, Integer>> getOrderedCooccurrenceList(final String termContent, final int k) throws IOException
+    {
+        final long START = COOCCURRENCE_QUERY_TIMER.start();
+        final HashMap<String, Integer> COUNT_MAP = new HashMap<>();
+
+        // 샤드별 상위 k개만으로는 전체 빈도를 알 수 없으므로, 모든 이웃의 빈도를 더한 뒤에 고른다.
+        for (final List<String> LINE_LIST : broadcast("NEIGHBORS " + ShardClient.escape(termContent), new ArrayList<>()))
+        {
+            for (final String LINE : LINE_LIST)
+            {
+                final String[] ENTRY = LINE.split(" ", 2);
+                COUNT_MAP.merge(ShardClient.unescape(ENTRY[1]), Integer.parseInt(ENTRY[0]), Integer::sum);
+            }
+        }
+
+        if (COUNT_MAP.isEmpty() || (k <= 0))
+        {
+            COOCCURRENCE_QUERY_TIMER.stop(START);
+            return null;
+        }
+
+        List<Pair<String, Integer>> neighborList = new ArrayList<>(COUNT_MAP.size());
+        COUNT_MAP.forEach((content, count) -> neighborList.add(new Pair<>(content, count)));
+        neighborList.sort(NEIGHBOR_SORTER);
+
+        List<Pair<Term, Integer>> retVal = new ArrayList<>();
+        neighborList.stream().limit(k).forEach(pair -> retVal.add(new Pair<>(new Term(pair.getKey()), pair.getValue())));
+
+        COOCCURRENCE_QUERY_TIMER.stop(START);
+
+        return retVal;
+    }
+
+    /**
+     * @param documentID 유사도를 계산할 원본 문서 ID
+     * @param k 반환할 목표 문서 개수
+     * @return 목표 문서와 유사도 값의 쌍 리스트 (유사도의 내림차순, 최대 k개, 로드되지 않은 문서의 경우 null)
+     * @throws IOException
+     */
+    public List<Pair<Document, Double>> getCosineSimilarities(final String documentID, final int k) throws IOException
+    {
+        final Integer OWNER = ownerMap.get(documentID);
+
+        if (OWNER == null)
+            return null;
+
+        final long START = COSINE_QUERY_TIMER.start();
+        final List<String> VECTOR = clientList.get(OWNER).request("VECTOR " + ShardClient.escape(documentID));
+        final List<String> BODY = VECTOR.subList(1, VECTOR.size());
+        final String REQUEST = ("SCORE " + k + " " + VECTOR.get(0) + " " + BODY.size());
+
+        List<Pair<Document, Double>> retVal = new ArrayList<>();
+
+        for (final List<String> LINE_LIST : broadcast(REQUEST, BODY))
+        {
+            for (final String LINE : LINE_LIST)
+            {
+                final String[] ENTRY = LINE.split(" ", 2);
+                retVal.add(new Pair<>(new Document(ShardClient.unescape(ENTRY[1]), Collections.emptyList()), Double.parseDouble(ENTRY[0])));
+            }
+        }
+
+        // 샤드 순서를 유지하는 안정 정렬
+        retVal.sort(SIMILARITY_SORTER);
+
+        if (retVal.size() > k)
+            retVal = new ArrayList<>(retVal.subList(0, k));
+
+        COSINE_QUERY_TIMER.stop(START);
+
+        return retVal;
+    }
+
+    /**
+     * 연결을 닫는다. {@link #launch(List, int, int, int)}로 시작한 경우 작업 프로세스도 종료한다.
+     */
+    @Override
+    public void close() throws IOException
+    {
+        for (int shard = 0; shard < clientList.size(); ++shard)
+        {
+            final ShardClient CLIENT = clientList.get(shard);
+
+            try
+            {
+                if (!processList.isEmpty())
+                    CLIENT.request("SHUTDOWN");
+            }
+            catch (IOException e)
+            {
+                // SHUTDOWN에는 응답이 오지 않고 연결이 닫힌다.
+            }
+
+            CLIENT.close();
+        }
+
+        executor.shutdownNow();
+        processList.forEach(Process::destroy);
+    }
+
+    /**
+     * 샤드별 {@link Document} 개수와 DF를 더해 말뭉치 전체의 통계를 만들고, 모든 샤드에 돌려준다.
+     */
+    private void mergeStatistics() throws IOException
+    {
+        final List<List<String>> STATISTICS = broadcast("STATS", new ArrayList<>());
+        final HashMap<String, Integer> DOCUMENT_FREQUENCY_MAP = new HashMap<>();
+        int numDocuments = 0;
+
+        // content는 escape된 그대로 합친다. (escape는 일대일 대응이다.)
+        for (final List<String> LINE_LIST : STATISTICS)
+        {
+            numDocuments += Integer.parseInt(LINE_LIST.get(0));
+
+            for (final String LINE : LINE_LIST.subList(1, LINE_LIST.size()))
+            {
+                final String[] ENTRY = LINE.split(" ", 2);
+                DOCUMENT_FREQUENCY_MAP.merge(ENTRY[1], Integer.parseInt(ENTRY[0]), Integer::sum);
+            }
+        }
+
+        List<String> body = new ArrayList<>(DOCUMENT_FREQUENCY_MAP.size());
+        DOCUMENT_FREQUENCY_MAP.forEach((content, df) -> body.add(df + " " + content));
+
+        broadcast(("GLOBAL " + numDocuments + " " + body.size()), body);
+
+        final List<List<String>> DOCUMENT_IDS = broadcast("DOCUMENTS", new ArrayList<>());
+
+        for (int shard = 0; shard < DOCUMENT_IDS.size(); ++shard)
+        {
+            for (final String LINE : DOCUMENT_IDS.get(shard))
+            {
+                final String DOCUMENT_ID = ShardClient.unescape(LINE);
+
+                ownerMap.put(DOCUMENT_ID, shard);
+                documentList.add(new Document(DOCUMENT_ID, Collections.emptyList()));
+            }
+        }
+    }
+
+    /**
+     * 같은 요청을 모든 샤드에 동시에 보낸다.
+     * @return 샤드 순서대로의 응답 줄 리스트
+     */
+    private List<List<String>> broadcast(final String command, final List<String> body) throws IOException
+    {
+        List<Future<List<String>>> futureList = new ArrayList<>(clientList.size());
+
+        for (final ShardClient CLIENT : clientList)
+            futureList.add(executor.submit(() -> CLIENT.request(command, body)));
+
+        List<List<String>> retVal = new ArrayList<>(clientList.size());
+
+        try
+        {
+            for (final Future<List<String>> FUTURE : futureList)
+                retVal.add(FUTURE.get());
+        }
+        catch (ExecutionException e)
+        {
+            final Throwable CAUSE = e.getCause();
+
+            if (CAUSE instanceof IOException)
+                throw (IOException)CAUSE;
+            else if (CAUSE instanceof RuntimeException)
+                throw (RuntimeException)CAUSE;
+
+            throw new IllegalStateException(CAUSE);
+        }
+        catch (InterruptedException e)
+        {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("샤드 응답을 기다리는 중 중단되었습니다.");
+        }
+
+        return retVal;
+    }
+}
@@ -0,0 +1,134 @@
+package analysis;
+
+import java.nio.IntBuffer;
+import java.nio.LongBuffer;
+
+/**
+ * 키의 오름차순으로 정렬된 배열에 저장한 변경할 수 없는 {@link LongIntMap}<br>
+ * 항목 하나가 12바이트(키 8바이트, 값 4바이트)만 차지하며, 조회는 이진 탐색으로 한다.
+ * {@link SpillingCooccurrenceBuilder}의 병합 결과처럼 이미 정렬된 항목을 해시 테이블로 옮기지 않고 저장하는 데 사용한다.<br><br>
+ *
+ * 참고: {@link #addTo(long, int)}와 {@link #clear()}는 지원하지 않는다. 빈도를 더하려면 {@link LayeredLongIntMap}의 층으로 둔다.
+ * {@link OffHeapArena}에 할당한 경우 사용이 끝나면 {@link #release()}로 해제한다.
+ */
+class SortedLongIntMap implements LongIntMap
+{
+    /**
+     * 키 배열 (오름차순, 중복 없음)
+     */
+    private final LongBuffer keys;
+
+    /**
+     * 키 별 값 배열
+     */
+    private final IntBuffer values;
+
+    /**
+     * keys, values를 할당한 {@link OffHeapArena} (힙에 저장한 경우 null)
+     */
+    private final OffHeapArena arena;
+
+    /**
+     * @param keys 키 배열 (오름차순, 중복 없음, 길이가 항목 개수)
+     * @param values 키 별 값 배열
+     * @param arena keys, values를 할당한 {@link OffHeapArena} (힙에 저장한 경우 null)
+     */
+    SortedLongIntMap(final LongBuffer keys, final IntBuffer values, final OffHeapArena arena)
+    {
+        this.keys = keys;
+        this.values = values;
+        this.arena = arena;
+    }
+
+    /**
+     * @throws UnsupportedOperationException 항상
+     */
+    @Override
+    public int addTo(final long key, final int delta)
+    {
+        throw new UnsupportedOperationException("SortedLongIntMap is read-only");
+    }
+
+    @Override
+    public int get(final long key)
+    {
+        final int INDEX = indexOf(key);
+
+        return ((INDEX < 0) ? 0 : values.get(INDEX));
+    }
+
+    @Override
+    public boolean containsKey(final long key)
+    {
+        return (indexOf(key) >= 0);
+    }
+
+    @Override
+    public int size()
+    {
+        return keys.limit();
+    }
+
+    /**
+     * @throws UnsupportedOperationException 항상
+     */
+    @Override
+    public void clear()
+    {
+        throw new UnsupportedOperationException("SortedLongIntMap is read-only");
+    }
+
+    /**
+     * 키의 오름차순으로 순회한다.
+     */
+    @Override
+    public void forEach(final EntryConsumer consumer)
+    {
+        for (int i = 0; i < keys.limit(); ++i)
+            consumer.accept(keys.get(i), values.get(i));
+    }
+
+    /**
+     * @return 버퍼를 할당한 {@link OffHeapArena} (힙에 저장한 경우 null)
+     */
+    OffHeapArena getArena()
+    {
+        return arena;
+    }
+
+    /**
+     * {@link OffHeapArena}에 할당한 경우 버퍼를 돌려준다. 이후에는 맵을 사용할 수 없다.
+     */
+    void release()
+    {
+        if (arena == null)
+            return;
+
+        arena.release(keys);
+        arena.release(values);
+    }
+
+    /**
+     * @return 키의 위치 (없는 경우 -1)
+     */
+    private int indexOf(final long key)
+    {
+        int low = 0;
+        int high = (keys.limit() - 1);
+
+        while (low <= high)
+        {
+            final int MID = ((low + high) >>> 1);
+            final long MID_KEY = keys.get(MID);
+
+            if (MID_KEY < key)
+                low = (MID + 1);
+            else if (MID_KEY > key)
+                high = (MID - 1);
+            else
+                return MID;
+        }
+
+        return -1;
+    }
+}
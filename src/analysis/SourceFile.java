@@ -0,0 +1,101 @@
+package analysis;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 색인된 원본 파일의 경로, 크기, 마지막 수정 시각<br>
+ * {@link IndexSegment}를 기록한 이후 파일이 바뀌었는지 다시 읽지 않고 판단하는 데 사용한다.
+ *
+ * @see IndexSegment
+ */
+public class SourceFile
+{
+    private final String path;
+
+    /**
+     * 파일 크기 (byte)
+     */
+    private final long size;
+
+    /**
+     * 마지막 수정 시각 (epoch milliseconds)
+     */
+    private final long lastModified;
+
+    public SourceFile(final String path, final long size, final long lastModified)
+    {
+        this.path = path;
+        this.size = size;
+        this.lastModified = lastModified;
+    }
+
+    public SourceFile(final File file)
+    {
+        this(file.getPath(), file.length(), file.lastModified());
+    }
+
+    /**
+     * {@link Document#batchRead(String)}와 같은 순서로 디렉토리 내의 파일들을 나열한다.
+     * @param directory 디렉토리 경로
+     * @return {@link SourceFile} 리스트
+     */
+    public static List<SourceFile> list(final String directory)
+    {
+        final File dir = new File(directory);
+
+        List<SourceFile> retVal = new ArrayList<>();
+
+        if (!dir.isDirectory())
+            retVal.add(new SourceFile(new File(directory)));
+        else
+        {
+            for (final File file : dir.listFiles())
+                retVal.add(new SourceFile(file));
+        }
+
+        return retVal;
+    }
+
+    public String getPath()
+    {
+        return path;
+    }
+
+    public long getSize()
+    {
+        return size;
+    }
+
+    public long getLastModified()
+    {
+        return lastModified;
+    }
+
+    @Override
+    public boolean equals(Object object)
+    {
+        if (this == object)
+            return true;
+
+        if (!(object instanceof SourceFile))
+            return false;
+
+        final SourceFile OBJECT = (SourceFile)object;
+
+        return (path.equals(OBJECT.path) && (size == OBJECT.size) && (lastModified == OBJECT.lastModified));
+    }
+
+    @Override
+    public int hashCode()
+    {
+        return ((path.hashCode() * 31) + Long.hashCode(size ^ lastModified));
+    }
+
+    @Override
+    public String toString()
+    {
+        return path;
+    }
+}
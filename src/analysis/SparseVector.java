@@ -0,0 +1,101 @@
+package analysis;
+
+/**
+ * {@link Term} ID의 오름차순으로 정렬된 희소 벡터<br>
+ * 생성 시 L2 norm을 미리 계산해둔다.
+ *
+ * @see DocumentVectorStore
+ */
+public class SparseVector
+{
+    /**
+     * {@link Term} ID 배열 (오름차순)
+     */
+    private final int[] termIDs;
+
+    /**
+     * {@link Term} ID 별 가중치 배열
+     */
+    private final double[] weights;
+
+    /**
+     * L2 norm
+     */
+    private final double norm;
+
+    /**
+     * @param termIDs 오름차순으로 정렬된 {@link Term} ID 배열
+     * @param weights {@link Term} ID 별 가중치 배열
+     */
+    public SparseVector(final int[] termIDs, final double[] weights)
+    {
+        this.termIDs = termIDs;
+        this.weights = weights;
+
+        norm = Math.sqrt(DotProductKernel.squaredNorm(weights, weights.length));
+    }
+
+    /**
+     * 미리 계산된 L2 norm으로 벡터를 만든다. ({@link IndexSegment}에서 복원할 때 사용한다.)
+     * @param termIDs 오름차순으로 정렬된 {@link Term} ID 배열
+     * @param weights {@link Term} ID 별 가중치 배열
+     * @param norm L2 norm
+     */
+    SparseVector(final int[] termIDs, final double[] weights, final double norm)
+    {
+        this.termIDs = termIDs;
+        this.weights = weights;
+        this.norm = norm;
+    }
+
+    public int size()
+    {
+        return termIDs.length;
+    }
+
+    public int getTermID(final int position)
+    {
+        return termIDs[position];
+    }
+
+    public double getWeight(final int position)
+    {
+        return weights[position];
+    }
+
+    public double getNorm()
+    {
+        return norm;
+    }
+
+    /**
+     * 두 벡터의 {@link Term} ID 배열을 병합 조인(merge join)하여 내적을 구한다.
+     * @param vector 내적을 계산할 벡터
+     * @return 내적 값
+     */
+    public double dot(final SparseVector vector)
+    {
+        double retVal = 0.0;
+        int i = 0;
+        int j = 0;
+
+        while ((i < termIDs.length) && (j < vector.termIDs.length))
+        {
+            final int TERM_ID1 = termIDs[i];
+            final int TERM_ID2 = vector.termIDs[j];
+
+            if (TERM_ID1 < TERM_ID2)
+                ++i;
+            else if (TERM_ID1 > TERM_ID2)
+                ++j;
+            else
+            {
+                retVal += (weights[i] * vector.weights[j]);
+                ++i;
+                ++j;
+            }
+        }
+
+        return retVal;
+    }
+}
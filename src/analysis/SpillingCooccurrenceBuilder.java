@@ -0,0 +1,501 @@
+package analysis;
+
+import java.io.*;
+import java.nio.IntBuffer;
+import java.nio.LongBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.PriorityQueue;
+
+/**
+ * 메모리 예산을 넘는 동시 출현 빈도를 정렬된 런(run) 파일로 내보내고, k-way 병합으로 합치는 외부 메모리 희소 행렬 구축기<br>
+ * 빈도는 예산 안에서 {@link LongIntHashMap}에 모으다가, 예산에 이르면 희소 행렬 키의 오름차순으로 정렬하여
+ * 임시 디렉토리에 기록하고 비운다. 병합 결과는 정렬된 희소 행렬({@link #mergeToMatrix(OffHeapArena)})이나
+ * 디스크의 인접 리스트 파일({@link #writeAdjacency(String)})로 바로 만든다. 따라서 구축 중의 힙 사용량은 예산에 의해 제한된다.
+ * 인접 리스트 파일의 크기는 디스크에, 정렬된 희소 행렬의 크기는 메모리(힙 또는 off-heap)에 의해 제한된다.<br><br>
+ *
+ * 런 파일 형식 (big-endian): (키, 빈도)의 반복. 키는 {@link WordCooccurrenceCalculator#toMatrixKey(int, int)}로 만든
+ * (작은 {@link Term} ID, 큰 {@link Term} ID) 키이며, 같은 쌍은 한 번만 기록된다.<br><br>
+ *
+ * 참고: 사용이 끝나면 {@link #close()}로 임시 디렉토리를 지운다.
+ *
+ * @see WordCooccurrenceCalculator#setSpillBudget(long, File)
+ * @see CooccurrenceAdjacency#open(String)
+ */
+public class SpillingCooccurrenceBuilder implements Closeable
+{
+    /**
+     * 버퍼의 항목 하나가 차지하는 힙 크기의 상한 (해시 슬롯 12바이트 / 최소 적재율 0.375, 정렬용 키 8바이트)
+     */
+    static final int BYTES_PER_ENTRY = 40;
+
+    /**
+     * 한 번에 병합하는 최대 런 개수 (넘는 경우 여러 단계로 병합한다.)
+     */
+    static final int MAX_MERGE_FAN_IN = 64;
+
+    private static final int IO_BUFFER_SIZE = (1 << 16);
+
+    private static final Timer SPILL_TIMER = MetricsRegistry.getInstance().timer("cooccurrence.spill");
+    private static final Timer MERGE_TIMER = MetricsRegistry.getInstance().timer("cooccurrence.merge");
+
+    /**
+     * 정렬된 런 파일 하나
+     */
+    private static class Run
+    {
+        private final File file;
+
+        /**
+         * 기록된 (키, 빈도) 개수
+         */
+        private final long numEntries;
+
+        private Run(final File file, final long numEntries)
+        {
+            this.file = file;
+            this.numEntries = numEntries;
+        }
+    }
+
+    /**
+     * 런 파일을 순서대로 읽는 커서
+     */
+    private static class RunReader implements Closeable
+    {
+        private final DataInputStream in;
+        private long numRemaining;
+        private long key;
+        private int count;
+
+        private RunReader(final Run run) throws IOException
+        {
+            in = new DataInputStream(new BufferedInputStream(new FileInputStream(run.file), IO_BUFFER_SIZE));
+            numRemaining = run.numEntries;
+        }
+
+        /**
+         * @return 다음 항목을 읽은 경우 true, 런의 끝인 경우 false
+         */
+        private boolean next() throws IOException
+        {
+            if (numRemaining == 0L)
+                return false;
+
+            key = in.readLong();
+            count = in.readInt();
+            --numRemaining;
+
+            return true;
+        }
+
+        @Override
+        public void close() throws IOException
+        {
+            in.close();
+        }
+    }
+
+    /**
+     * 병합 결과를 키의 오름차순으로 전달받는 함수형 인터페이스
+     */
+    private interface MergeConsumer
+    {
+        void accept(long key, int count) throws IOException;
+    }
+
+    /**
+     * 동시 출현으로 인정하는 최대 거리
+     */
+    private final int windowSize;
+
+    /**
+     * 버퍼에 보관하는 최대 항목 개수
+     */
+    private final int maxBufferedEntries;
+
+    private final Path spillDirectory;
+    private final LongIntHashMap buffer = new LongIntHashMap();
+    private final CooccurrenceWindow window;
+    private final List<Run> runList = new ArrayList<>();
+
+    /**
+     * 지금까지 만든 런 파일 개수 (파일 이름에 사용한다.)
+     */
+    private int numRunsCreated = 0;
+
+    /**
+     * 지금까지 출현한 가장 큰 {@link Term} ID + 1
+     */
+    private int termIDBound = 0;
+
+    /**
+     * @param windowSize 동시 출현으로 인정하는 최대 거리
+     * @param memoryBudget 버퍼에 사용할 최대 바이트 수
+     * @param directory 임시 디렉토리를 만들 디렉토리 (null인 경우 시스템 임시 디렉토리)
+     * @throws IOException
+     */
+    public SpillingCooccurrenceBuilder(final int windowSize, final long memoryBudget, final File directory) throws IOException
+    {
+        if (memoryBudget < BYTES_PER_ENTRY)
+            throw new IllegalArgumentException("memoryBudget is too small: " + memoryBudget);
+
+        this.windowSize = windowSize;
+        maxBufferedEntries = (int)Math.min((memoryBudget / BYTES_PER_ENTRY), (Integer.MAX_VALUE / 2));
+        window = new CooccurrenceWindow(windowSize);
+
+        spillDirectory = ((directory == null) ?
+                Files.createTempDirectory("cooccurrence-spill") :
+                Files.createTempDirectory(directory.toPath(), "cooccurrence-spill"));
+    }
+
+    /**
+     * {@link Document}들의 동시 출현 빈도를 센다. 버퍼가 가득 차면 런 파일로 내보낸다.
+     * @param documentList 빈도를 셀 {@link Document} 리스트
+     * @throws IOException
+     */
+    public void addDocuments(final List<Document> documentList) throws IOException
+    {
+        for (final Document DOCUMENT : documentList)
+        {
+            window.reset();
+
+            for (final int TERM_ID : DOCUMENT.getTermIDs())
+            {
+                window.add(TERM_ID, buffer);
+                termIDBound = Math.max(termIDBound, (TERM_ID + 1));
+
+                if (buffer.size() >= maxBufferedEntries)
+                    spill();
+            }
+        }
+    }
+
+    public int getWindowSize()
+    {
+        return windowSize;
+    }
+
+    /**
+     * @return 지금까지 기록된 런 파일 개수 (다단계 병합으로 합쳐진 런은 하나로 센다.)
+     */
+    public int getNumRuns()
+    {
+        return runList.size();
+    }
+
+    /**
+     * 모든 빈도를 병합하여 희소 행렬에 더한다.
+     * @param matrix 빈도를 더할 희소 행렬 (참고: {@link WordCooccurrenceCalculator#toMatrixKey(int, int)})
+     * @throws IOException
+     */
+    public void mergeInto(final LongIntMap matrix) throws IOException
+    {
+        final long START = MERGE_TIMER.start();
+        final long NUM_ENTRIES = merge(matrix::addTo);
+
+        MERGE_TIMER.stop(START, NUM_ENTRIES);
+    }
+
+    /**
+     * 모든 빈도를 병합하여 정렬된 희소 행렬을 만든다. 병합 결과는 키의 오름차순이므로 해시 테이블을 거치지 않고
+     * 항목 개수만큼만 할당한 배열에 순서대로 채운다. (항목 개수를 세기 위해 런을 두 번 읽는다.)
+     * @param arena 희소 행렬을 할당할 {@link OffHeapArena} (null인 경우 힙에 저장한다.)
+     * @return 변경할 수 없는 희소 행렬 (빈도를 더하려면 {@link LayeredLongIntMap}의 층으로 둔다.)
+     * @throws IOException
+     * @throws IllegalStateException arena의 예산이 부족한 경우
+     */
+    LongIntMap mergeToMatrix(final OffHeapArena arena) throws IOException
+    {
+        final long START = MERGE_TIMER.start();
+        final long NUM_ENTRIES = merge((key, count) -> {});
+
+        if (NUM_ENTRIES > Integer.MAX_VALUE)
+            throw new IOException("matrix is too large: " + NUM_ENTRIES + " entries");
+
+        final LongBuffer KEYS = ((arena == null) ? LongBuffer.allocate((int)NUM_ENTRIES) : arena.allocateLongs((int)NUM_ENTRIES));
+        final IntBuffer COUNTS;
+
+        try
+        {
+            COUNTS = ((arena == null) ? IntBuffer.allocate((int)NUM_ENTRIES) : arena.allocateInts((int)NUM_ENTRIES));
+        }
+        catch (IllegalStateException e)
+        {
+            arena.release(KEYS);
+            throw e;
+        }
+
+        final int[] INDEX = { 0 };
+
+        merge((key, count) ->
+        {
+            KEYS.put(INDEX[0], key);
+            COUNTS.put(INDEX[0]++, count);
+        });
+
+        MERGE_TIMER.stop(START, NUM_ENTRIES);
+
+        return new SortedLongIntMap(KEYS, COUNTS, arena);
+    }
+
+    /**
+     * 모든 빈도를 병합하여 {@link CooccurrenceAdjacency#open(String)}으로 열 수 있는 인접 리스트 파일을 기록한다.
+     * 런을 한 번 읽어 {@link Term} ID 별 이웃 개수를 센 뒤, 다시 읽으면서 각 쌍을 양쪽 행의 자리에 메모리 맵으로 바로 쓴다.
+     * neighbors, counts는 1GB 단위의 조각으로 매핑하므로 파일 크기는 2GB로 제한되지 않는다. (항목 개수는 int 범위로 제한된다.)
+     * 임시 파일에 모두 쓴 뒤 교체하므로, 기록 도중 실패해도 기존 파일은 남는다.<br><br>
+     *
+     * 파일 구성 (big-endian): {@link CooccurrenceAdjacency#FILE_MAGIC}, {@link CooccurrenceAdjacency#FILE_VERSION},
+     * {@link Term} ID 상한, 항목 개수, offsets, neighbors, counts, {@link Term} ID 별 content (UTF-8 바이트 수, 바이트)<br>
+     * 참고: 파일의 {@link Term} ID는 기록한 프로세스의 {@link TermDictionary} ID이다. 여는 쪽은 content로 자신의 ID에 대응시킨다.
+     * @param path 인접 리스트 파일 경로
+     * @throws IOException
+     */
+    public void writeAdjacency(final String path) throws IOException
+    {
+        writeAdjacency(path, ChunkedIntBuffer.DEFAULT_CHUNK_SHIFT);
+    }
+
+    /**
+     * @param path 인접 리스트 파일 경로
+     * @param chunkShift neighbors, counts를 매핑할 조각 크기(int 개수)의 log2
+     * @throws IOException
+     */
+    void writeAdjacency(final String path, final int chunkShift) throws IOException
+    {
+        final long START = MERGE_TIMER.start();
+        final int[] OFFSETS = new int[termIDBound + 1];
+        final Path TARGET = Paths.get(path);
+        final Path TEMP = Paths.get(path + ".tmp");
+
+        // 병합 결과는 (작은 ID, 큰 ID) 키이므로 양쪽 행의 이웃 개수를 센다.
+        final long NUM_PAIRS = merge((key, count) ->
+        {
+            ++OFFSETS[WordCooccurrenceCalculator.getTermID1(key) + 1];
+            ++OFFSETS[WordCooccurrenceCalculator.getTermID2(key) + 1];
+        });
+
+        final long NUM_ENTRIES = (NUM_PAIRS << 1);
+
+        // offsets가 int 배열이므로 항목 개수는 int 범위여야 한다.
+        if (NUM_ENTRIES > Integer.MAX_VALUE)
+            throw new IOException("adjacency is too large: " + NUM_ENTRIES + " entries");
+
+        final long NEIGHBORS_POSITION = ((4L + OFFSETS.length) * Integer.BYTES);
+        final long COUNTS_POSITION = (NEIGHBORS_POSITION + (NUM_ENTRIES * Integer.BYTES));
+        final long CONTENTS_POSITION = (COUNTS_POSITION + (NUM_ENTRIES * Integer.BYTES));
+
+        for (int termID = 0; termID < termIDBound; ++termID)
+            OFFSETS[termID + 1] += OFFSETS[termID];
+
+        if (TARGET.getParent() != null)
+            Files.createDirectories(TARGET.getParent());
+
+        try (FileChannel channel = FileChannel.open(TEMP,
+                StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.READ, StandardOpenOption.WRITE))
+        {
+            // 채널을 닫지 않도록 스트림은 닫지 않는다. (채널은 try에서 닫는다.)
+            final DataOutputStream HEADER = new DataOutputStream(new BufferedOutputStream(Channels.newOutputStream(channel), IO_BUFFER_SIZE));
+
+            HEADER.writeInt(CooccurrenceAdjacency.FILE_MAGIC);
+            HEADER.writeInt(CooccurrenceAdjacency.FILE_VERSION);
+            HEADER.writeInt(termIDBound);
+            HEADER.writeInt((int)NUM_ENTRIES);
+
+            for (final int OFFSET : OFFSETS)
+                HEADER.writeInt(OFFSET);
+
+            HEADER.flush();
+
+            final ChunkedIntBuffer NEIGHBORS =
+                    ChunkedIntBuffer.map(channel, FileChannel.MapMode.READ_WRITE, NEIGHBORS_POSITION, (int)NUM_ENTRIES, chunkShift);
+            final ChunkedIntBuffer COUNTS =
+                    ChunkedIntBuffer.map(channel, FileChannel.MapMode.READ_WRITE, COUNTS_POSITION, (int)NUM_ENTRIES, chunkShift);
+            final int[] NEXT = Arrays.copyOf(OFFSETS, termIDBound);
+
+            // 키의 오름차순으로 채우므로 각 행의 이웃도 Term ID 오름차순이 된다.
+            merge((key, count) ->
+            {
+                final int TERM_ID1 = WordCooccurrenceCalculator.getTermID1(key);
+                final int TERM_ID2 = WordCooccurrenceCalculator.getTermID2(key);
+
+                NEIGHBORS.put(NEXT[TERM_ID1], TERM_ID2);
+                COUNTS.put(NEXT[TERM_ID1]++, count);
+
+                NEIGHBORS.put(NEXT[TERM_ID2], TERM_ID1);
+                COUNTS.put(NEXT[TERM_ID2]++, count);
+            });
+
+            NEIGHBORS.force();
+            COUNTS.force();
+            channel.position(CONTENTS_POSITION);
+
+            final DataOutputStream OUT = new DataOutputStream(new BufferedOutputStream(Channels.newOutputStream(channel), IO_BUFFER_SIZE));
+
+            for (int termID = 0; termID < termIDBound; ++termID)
+            {
+                final byte[] CONTENT = TermDictionary.getInstance().getContent(termID).getBytes(StandardCharsets.UTF_8);
+
+                OUT.writeInt(CONTENT.length);
+                OUT.write(CONTENT);
+            }
+
+            OUT.flush();
+        }
+        catch (IOException | RuntimeException e)
+        {
+            Files.deleteIfExists(TEMP);
+            throw e;
+        }
+
+        Files.move(TEMP, TARGET, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+
+        MERGE_TIMER.stop(START, NUM_ENTRIES);
+    }
+
+    /**
+     * 런 파일과 임시 디렉토리를 지운다.
+     * @throws IOException
+     */
+    @Override
+    public void close() throws IOException
+    {
+        for (final Run RUN : runList)
+            Files.deleteIfExists(RUN.file.toPath());
+
+        runList.clear();
+        buffer.clear();
+        Files.deleteIfExists(spillDirectory);
+    }
+
+    /**
+     * 버퍼의 빈도를 키의 오름차순으로 정렬하여 런 파일로 기록하고 버퍼를 비운다.
+     */
+    private void spill() throws IOException
+    {
+        if (buffer.size() == 0)
+            return;
+
+        final long START = SPILL_TIMER.start();
+        final long[] KEYS = new long[buffer.size()];
+        final int[] NUM_KEYS = { 0 };
+
+        buffer.forEach((matrixKey, frequency) -> KEYS[NUM_KEYS[0]++] = matrixKey);
+        Arrays.sort(KEYS);
+
+        final File FILE = newRunFile();
+
+        try (DataOutputStream out = openOutput(FILE))
+        {
+            for (final long KEY : KEYS)
+            {
+                out.writeLong(KEY);
+                out.writeInt(buffer.get(KEY));
+            }
+        }
+
+        runList.add(new Run(FILE, KEYS.length));
+        buffer.clear();
+
+        SPILL_TIMER.stop(START, KEYS.length);
+    }
+
+    /**
+     * 남은 버퍼를 내보낸 뒤 모든 런을 키의 오름차순으로 병합한다. 같은 키의 빈도는 더한다.
+     * 런이 {@link #MAX_MERGE_FAN_IN}개를 넘는 경우 먼저 앞의 런들을 하나로 합친다. 런은 지우지 않으므로 다시 호출할 수 있다.
+     * @return 병합된 항목 개수
+     */
+    private long merge(final MergeConsumer consumer) throws IOException
+    {
+        spill();
+
+        while (runList.size() > MAX_MERGE_FAN_IN)
+        {
+            final List<Run> GROUP = new ArrayList<>(runList.subList(0, MAX_MERGE_FAN_IN));
+            final File FILE = newRunFile();
+            final long NUM_ENTRIES;
+
+            try (DataOutputStream out = openOutput(FILE))
+            {
+                NUM_ENTRIES = merge(GROUP, (key, count) ->
+                {
+                    out.writeLong(key);
+                    out.writeInt(count);
+                });
+            }
+
+            for (final Run RUN : GROUP)
+                Files.deleteIfExists(RUN.file.toPath());
+
+            runList.subList(0, MAX_MERGE_FAN_IN).clear();
+            runList.add(new Run(FILE, NUM_ENTRIES));
+        }
+
+        return merge(runList, consumer);
+    }
+
+    private static long merge(final List<Run> runList, final MergeConsumer consumer) throws IOException
+    {
+        final List<RunReader> READER_LIST = new ArrayList<>(runList.size());
+        final PriorityQueue<RunReader> QUEUE =
+                new PriorityQueue<>(Math.max(runList.size(), 1), (reader1, reader2) -> Long.compare(reader1.key, reader2.key));
+        long retVal = 0L;
+
+        try
+        {
+            for (final Run RUN : runList)
+            {
+                final RunReader READER = new RunReader(RUN);
+                READER_LIST.add(READER);
+
+                if (READER.next())
+                    QUEUE.add(READER);
+            }
+
+            while (!QUEUE.isEmpty())
+            {
+                RunReader reader = QUEUE.poll();
+                final long KEY = reader.key;
+                int count = 0;
+
+                while (true)
+                {
+                    count += reader.count;
+
+                    if (reader.next())
+                        QUEUE.add(reader);
+
+                    if (QUEUE.isEmpty() || (QUEUE.peek().key != KEY))
+                        break;
+
+                    reader = QUEUE.poll();
+                }
+
+                consumer.accept(KEY, count);
+                ++retVal;
+            }
+        }
+        finally
+        {
+            for (final RunReader READER : READER_LIST)
+                READER.close();
+        }
+
+        return retVal;
+    }
+
+    private File newRunFile()
+    {
+        return spillDirectory.resolve("run-" + (numRunsCreated++) + ".bin").toFile();
+    }
+
+    private static DataOutputStream openOutput(final File file) throws IOException
+    {
+        return new DataOutputStream(new BufferedOutputStream(new FileOutputStream(file), IO_BUFFER_SIZE));
+    }
+}
@@ -0,0 +1,299 @@
+package analysis;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 파일을 한 번만 토큰화하면서 역색인과 동시 출현 희소 행렬을 함께 구축하는 스트리밍 색인기<br>
+ * 토큰은 {@link DocumentLoader.TokenHandler}로 받는 즉시 {@link Term} ID로 바꾸어 TF 계산과 동시 출현 윈도우에 넘기며,
+ * {@link Term} 리스트는 보관하지 않는다. 따라서 메모리 사용량은 원문의 토큰 수가 아니라 색인의 크기에 비례한다.<br><br>
+ *
+ * 참고: 만들어진 {@link Document}는 ID만 갖는다. 문서 벡터는 모든 {@link Document}의 DF가 정해진 뒤에
+ * 역색인으로부터 구축된다. (참고: {@link TFIDFCalculator#getVectorStore(int)})<br>
+ * 토큰화가 도중에 실패한 {@link Document}는 색인에 남지 않는다. 동시 출현 빈도는 {@link Document}마다 따로 센 뒤
+ * {@link Document}가 끝날 때 희소 행렬에 더한다.
+ *
+ * @see InvertedIndex
+ * @see CooccurrenceWindow
+ */
+public class StreamingIndexBuilder
+{
+    private static final Timer INGEST_TIMER = MetricsRegistry.getInstance().timer("ingest.stream");
+
+    /**
+     * 동시 출현으로 인정하는 최대 거리
+     */
+    private final int windowSize;
+
+    private final InvertedIndex invertedIndex = new InvertedIndex(Collections.emptyList());
+    private final LongIntHashMap cooccurrenceMatrix = new LongIntHashMap();
+
+    /**
+     * 추가 중인 {@link Document}의 동시 출현 빈도 ({@link Document}가 끝나면 {@link #cooccurrenceMatrix}에 더한다.)
+     */
+    private LongIntHashMap documentMatrix = new LongIntHashMap();
+
+    private final CooccurrenceWindow window;
+
+    /**
+     * 색인된 {@link Document} 리스트 (ID만 갖는다.)
+     */
+    private final List<Document> documentList = new ArrayList<>();
+
+    /**
+     * 지금까지 읽은 토큰 개수
+     */
+    private long numTokens = 0L;
+
+    /**
+     * 계산기를 만든 뒤에는 색인을 공유하므로 더 이상 {@link Document}를 추가할 수 없다.
+     */
+    private boolean built = false;
+
+    /**
+     * @param windowSize 동시 출현으로 인정하는 최대 거리
+     */
+    public StreamingIndexBuilder(final int windowSize)
+    {
+        this.windowSize = windowSize;
+        window = new CooccurrenceWindow(windowSize);
+    }
+
+    /**
+     * 디렉토리 내에 존재하는 모든 파일을 {@link Document#batchRead(String)}와 같은 순서로 색인한다.<br>
+     * 읽지 못한 파일은 전체 작업을 중단하지 않고 건너뛰며, 일반 파일이 아닌 항목(하위 디렉토리 등)은 무시한다.
+     * @param directory 디렉토리 경로 (파일 경로인 경우 그 파일만 색인한다.)
+     * @param delimiter {@link Term} 구분자
+     * @return 읽지 못한 파일 경로 별 예외 (디렉토리 내 파일 순서)
+     * @throws IOException 디렉토리의 목록을 읽지 못한 경우
+     * @throws IllegalArgumentException 구분자가 빈 문자열인 경우
+     */
+    public Map<String, IOException> addDirectory(final String directory, final String delimiter) throws IOException
+    {
+        if (delimiter.isEmpty())
+            throw new IllegalArgumentException("delimiter must not be empty");
+
+        final File dir = new File(directory);
+        final File[] FILES = (dir.isDirectory() ? dir.listFiles() : new File[] { dir });
+
+        if (FILES == null)
+            throw new IOException("cannot list directory: " + directory);
+
+        LinkedHashMap<String, IOException> retVal = new LinkedHashMap<>();
+
+        for (final File file : FILES)
+        {
+            if (dir.isDirectory() && !file.isFile())
+                continue;
+
+            try
+            {
+                addFile(file.getPath(), delimiter);
+            }
+            catch (IOException e)
+            {
+                retVal.put(file.getPath(), e);
+            }
+        }
+
+        return retVal;
+    }
+
+    /**
+     * 파일 하나를 {@link Document} 하나로 색인한다. {@link Document} ID는 파일 이름이다.<br>
+     * 파일을 읽는 도중 실패한 경우 그 {@link Document}는 색인하지 않는다.
+     * @param path 파일 경로
+     * @param delimiter {@link Term} 구분자
+     * @throws IOException
+     * @throws IllegalArgumentException 구분자가 빈 문자열인 경우
+     */
+    public void addFile(final String path, final String delimiter) throws IOException
+    {
+        checkNotBuilt();
+
+        final long START = INGEST_TIMER.start();
+        final long NUM_TOKENS = numTokens;
+        final String DOCUMENT_ID = new File(path).getName();
+        boolean completed = false;
+
+        beginDocument(DOCUMENT_ID);
+
+        try
+        {
+            DocumentLoader.tokenize(path, delimiter, new DocumentLoader.TokenHandler()
+            {
+                @Override
+                public void onToken(final String content)
+                {
+                    addToken(content);
+                }
+
+                @Override
+                public void onDocumentEnd() {}
+            });
+
+            endDocument(DOCUMENT_ID);
+            completed = true;
+        }
+        finally
+        {
+            if (!completed)
+            {
+                abortDocument();
+                numTokens = NUM_TOKENS;
+            }
+        }
+
+        INGEST_TIMER.stop(START, (numTokens - NUM_TOKENS));
+    }
+
+    /**
+     * 파일의 각 줄을 {@link Document} 하나로 색인한다. {@link Document} ID는 "파일 이름#줄 번호" 형식이며,
+     * {@link Term}이 없는 줄은 건너뛴다. (참고: {@link DocumentLoader#readDocumentPerLine(String, String)})<br>
+     * 파일을 읽는 도중 실패한 경우 읽고 있던 줄만 색인하지 않으며, 그 전까지 읽은 줄은 색인에 남는다.
+     * @param path 파일 경로
+     * @param delimiter {@link Term} 구분자
+     * @throws IOException
+     * @throws IllegalArgumentException 구분자가 빈 문자열인 경우
+     */
+    public void addLines(final String path, final String delimiter) throws IOException
+    {
+        checkNotBuilt();
+
+        final long START = INGEST_TIMER.start();
+        final long NUM_TOKENS = numTokens;
+        final String FILE_NAME = new File(path).getName();
+        final long[] LINE_START_TOKENS = { numTokens };
+        boolean completed = false;
+
+        try
+        {
+            DocumentLoader.tokenizeLines(path, delimiter, new DocumentLoader.TokenHandler()
+            {
+                private int lineNumber = 0;
+                private boolean empty = true;
+
+                @Override
+                public void onToken(final String content)
+                {
+                    if (empty)
+                    {
+                        beginDocument(FILE_NAME + "#" + (lineNumber + 1));
+                        empty = false;
+                    }
+
+                    addToken(content);
+                }
+
+                @Override
+                public void onDocumentEnd()
+                {
+                    ++lineNumber;
+
+                    if (empty)
+                        return;
+
+                    endDocument(FILE_NAME + "#" + lineNumber);
+                    LINE_START_TOKENS[0] = numTokens;
+                    empty = true;
+                }
+            });
+
+            completed = true;
+        }
+        finally
+        {
+            if (!completed)
+            {
+                abortDocument();
+                numTokens = LINE_START_TOKENS[0];
+            }
+        }
+
+        INGEST_TIMER.stop(START, (numTokens - NUM_TOKENS));
+    }
+
+    public int getNumDocuments()
+    {
+        return documentList.size();
+    }
+
+    public long getNumTokens()
+    {
+        return numTokens;
+    }
+
+    /**
+     * @return 색인된 {@link Document} 리스트 (ID만 갖는다.)
+     */
+    public List<Document> getDocumentList()
+    {
+        return Collections.unmodifiableList(documentList);
+    }
+
+    /**
+     * 구축된 역색인으로 {@link TFIDFCalculator}를 만든다. 이후에는 {@link Document}를 추가할 수 없다.
+     * @return {@link TFIDFCalculator}
+     */
+    public TFIDFCalculator createTFIDFCalculator()
+    {
+        built = true;
+
+        return new TFIDFCalculator(documentList, invertedIndex, null);
+    }
+
+    /**
+     * 구축된 희소 행렬로 {@link WordCooccurrenceCalculator}를 만든다. 이후에는 {@link Document}를 추가할 수 없다.
+     * @return {@link WordCooccurrenceCalculator}
+     */
+    public WordCooccurrenceCalculator createWordCooccurrenceCalculator()
+    {
+        built = true;
+
+        return new WordCooccurrenceCalculator(documentList, windowSize, cooccurrenceMatrix);
+    }
+
+    private void beginDocument(final String documentID)
+    {
+        invertedIndex.beginDocument(documentID);
+        window.reset();
+    }
+
+    private void addToken(final String content)
+    {
+        final int TERM_ID = TermDictionary.getInstance().intern(content);
+
+        invertedIndex.addTerm(TERM_ID);
+        window.add(TERM_ID, documentMatrix);
+        ++numTokens;
+    }
+
+    private void endDocument(final String documentID)
+    {
+        invertedIndex.endDocument();
+        cooccurrenceMatrix.addAll(documentMatrix);
+        documentMatrix = new LongIntHashMap();
+        documentList.add(new Document(documentID, Collections.emptyList()));
+    }
+
+    /**
+     * 시작한 {@link Document}를 버린다. (시작한 {@link Document}가 없는 경우 아무 것도 하지 않는다.)
+     */
+    private void abortDocument()
+    {
+        invertedIndex.abortDocument();
+        documentMatrix = new LongIntHashMap();
+        window.reset();
+    }
+
+    private void checkNotBuilt()
+    {
+        if (built)
+            throw new IllegalStateException("calculators have already been created");
+    }
+}
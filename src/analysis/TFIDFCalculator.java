@@ -0,0 +1,268 @@
+package analysis;
+
+import javafx.util.Pair;
+
+import java.util.*;
+
+/**
+ * TF-IDF의 계산을 돕는 클래스<br><br>
+ *
+ * 참고:<br>
+ * TF-IDF(Term Frequency - Inverse Document Frequency): 정보 검색과 텍스트 마이닝에서 주로 사용하는 기법으로,
+ * 여러 문서로 이루어진 문서집합이 있을 때 특정 단어가 특정 문서 내에서 얼마나 중요한 것인지를 나타내는 통계적 수치이다.
+ *
+ * @see Term
+ * @see Document
+ */
+public class TFIDFCalculator
+{
+    private static final Timer BUILD_TIMER = MetricsRegistry.getInstance().timer("tfidf.buildCacheData");
+
+    /**
+     * {@link Document} 리스트에 대해 구축된 역색인
+     */
+    private InvertedIndex invertedIndex = null;
+
+    /**
+     * {@link Document} 별 {@link Term} 목록을 담은 정방향 색인 (IDF가 바뀌면 무효화된다.)
+     */
+    private ForwardIndex forwardIndex = null;
+
+    /**
+     * 무효화된 정방향 색인 (다음 구축 시 행을 재사용한다. 참고: {@link ForwardIndex#ForwardIndex(ForwardIndex, InvertedIndex)})
+     */
+    private ForwardIndex previousForwardIndex = null;
+
+    /**
+     * 마지막으로 구축된 {@link DocumentVectorStore} (IDF가 바뀌면 무효화된다.)
+     */
+    private DocumentVectorStore vectorStore = null;
+
+    /**
+     * {@link Document} 리스트
+     */
+    private List<Document> documentList = new ArrayList<>();
+
+    public TFIDFCalculator() {}
+
+    public TFIDFCalculator(final List<Document> documentList)
+    {
+        setDocumentList(documentList);
+    }
+
+    /**
+     * 이미 구축된 역색인과 {@link DocumentVectorStore}로 계산기를 복원한다. ({@link IndexSegment} 참고)<br>
+     * 복원된 {@link Document}는 {@link Term} 리스트를 갖지 않을 수 있으므로, 이후 {@link #buildCacheData()}를 호출해서는 안 된다.
+     * @param documentList {@link Document} 리스트 (역색인의 {@link Document} 인덱스 순)
+     * @param invertedIndex 역색인 (null인 경우 조회 시 구축한다.)
+     * @param vectorStore {@link DocumentVectorStore} (null인 경우 조회 시 구축한다.)
+     */
+    TFIDFCalculator(final List<Document> documentList, final InvertedIndex invertedIndex, final DocumentVectorStore vectorStore)
+    {
+        this.documentList = new ArrayList<>(documentList);
+        this.invertedIndex = invertedIndex;
+        this.vectorStore = vectorStore;
+    }
+
+    /**
+     * {@link #buildInvertedIndex()} 함수를 명시적으로 호출하고, 정방향 색인을 구축한다.
+     */
+    public void buildCacheData()
+    {
+        final long START = BUILD_TIMER.start();
+
+        invertedIndex = buildInvertedIndex();
+        forwardIndex = new ForwardIndex(invertedIndex);
+        previousForwardIndex = null;
+        vectorStore = null;
+
+        BUILD_TIMER.stop(START, documentList.size());
+    }
+
+    public void setDocumentList(final List<Document> documentList)
+    {
+        this.documentList = new ArrayList<>(documentList);
+        invertedIndex = null;
+        forwardIndex = null;
+        previousForwardIndex = null;
+        vectorStore = null;
+    }
+
+    /**
+     * {@link Document}들을 추가한다. 역색인에는 새로운 {@link Document}의 포스팅과 DF 변화만 반영하며,
+     * IDF에 의존하는 정방향 색인과 {@link DocumentVectorStore}는 무효화하여 다음 조회 시 다시 구축한다.
+     * (정방향 색인은 기존 {@link Document}의 행을 재사용한다.)
+     * @param documentList 추가할 {@link Document} 리스트
+     */
+    public void addDocuments(final List<Document> documentList)
+    {
+        this.documentList.addAll(documentList);
+
+        if (invertedIndex != null)
+            invertedIndex.addDocuments(documentList);
+
+        invalidateForwardIndex();
+        vectorStore = null;
+    }
+
+    public List<Document> getDocumentList()
+    {
+        return documentList;
+    }
+
+    /**
+     * @return 역색인 (아직 구축되지 않은 경우 구축한다.)
+     */
+    InvertedIndex getInvertedIndex()
+    {
+        if (invertedIndex == null)
+            buildCacheData();
+
+        return invertedIndex;
+    }
+
+    /**
+     * 상위 numFeatures개의 TF-IDF 가중치로 구성된 {@link DocumentVectorStore}를 반환한다.
+     * 같은 numFeatures로 이미 구축된 저장소가 있다면 재사용한다.
+     * @param numFeatures 벡터에 남길 상위 TF-IDF 가중치 개수
+     * @return {@link DocumentVectorStore}
+     */
+    public DocumentVectorStore getVectorStore(final int numFeatures)
+    {
+        if ((vectorStore == null) || (vectorStore.getNumFeatures() != numFeatures))
+            vectorStore = new DocumentVectorStore(this, numFeatures);
+
+        return vectorStore;
+    }
+
+    /**
+     * 역색인과 정방향 색인의 행을 공유하는 복사본을 만든다. 복사본에 {@link Document}를 추가하더라도
+     * 이 계산기의 조회 결과는 바뀌지 않는다. (참고: {@link InvertedIndex#copy()})
+     * @return {@link TFIDFCalculator}의 복사본
+     */
+    TFIDFCalculator copy()
+    {
+        TFIDFCalculator retVal =
+                new TFIDFCalculator(documentList, ((invertedIndex == null) ? null : invertedIndex.copy()), null);
+        retVal.previousForwardIndex = ((forwardIndex == null) ? previousForwardIndex : forwardIndex);
+
+        return retVal;
+    }
+
+    /**
+     * 말뭉치가 여러 계산기로 나뉜 경우, IDF 계산에 사용할 말뭉치 전체의 통계를 설정한다.
+     * IDF에 의존하는 정방향 색인과 {@link DocumentVectorStore}는 무효화하여 다음 조회 시 다시 구축한다.
+     * @param numDocuments 말뭉치 전체의 {@link Document} 개수
+     * @param documentFrequencies {@link Term} ID 별 말뭉치 전체의 DF
+     * @see InvertedIndex#setGlobalStatistics(int, int[])
+     */
+    void setGlobalStatistics(final int numDocuments, final int[] documentFrequencies)
+    {
+        getInvertedIndex().setGlobalStatistics(numDocuments, documentFrequencies);
+
+        invalidateForwardIndex();
+        vectorStore = null;
+    }
+
+    /**
+     * 조회 시 지연 구축되는 역색인, 정방향 색인, {@link DocumentVectorStore}를 미리 구축한다.
+     * 이후의 조회는 내부 상태를 바꾸지 않으므로, 여러 스레드에서 잠금 없이 동시에 조회할 수 있다.
+     * @param numFeatures {@link DocumentVectorStore}에 남길 상위 TF-IDF 가중치 개수
+     */
+    void prepare(final int numFeatures)
+    {
+        getForwardIndex();
+        getVectorStore(numFeatures);
+    }
+
+    /**
+     * @param content {@link Term} content
+     * @param documentID {@link Document} ID
+     * @return TF-IDF 값 (색인되지 않은 content나 {@link Document}의 경우 0)
+     */
+    public double calculate(final String content, final String documentID)
+    {
+        if (invertedIndex == null)
+            buildCacheData();
+
+        // TermDictionary의 조회는 잠금 없이 O(1)이므로 따로 캐시하지 않는다. (사전에 없는 content는 -1)
+        final int TERM_ID = TermDictionary.getInstance().getID(content);
+        final int DOCUMENT_INDEX = invertedIndex.getDocumentIndex(documentID);
+
+        if ((TERM_ID < 0) || (DOCUMENT_INDEX < 0))
+            return 0.0;
+
+        return invertedIndex.calculateTfIdf(TERM_ID, DOCUMENT_INDEX);
+    }
+
+    // 반환 값: content, tfIdf 쌍 (tfIdf 값에 대한 오름차순 정렬)
+    public List<Pair<String, Double>> rank(final String documentID, final int listSize)
+    {
+        final TermDictionary DICTIONARY = TermDictionary.getInstance();
+        List<Pair<String, Double>> retVal = new ArrayList<>();
+
+        rankByTermID(documentID, listSize).forEach(pair ->
+                retVal.add(new Pair<>(DICTIONARY.getContent(pair.getKey()), pair.getValue())));
+
+        return retVal;
+    }
+
+    /**
+     * {@link #rank(String, int)}와 같으나, {@link Term} content 대신 {@link TermDictionary}의 ID를 반환한다.
+     * @param documentID {@link Document} ID
+     * @param listSize 반환할 리스트의 최대 크기
+     * @return {@link Term} ID, tfIdf 쌍 (tfIdf 값에 대한 오름차순 정렬)
+     */
+    List<Pair<Integer, Double>> rankByTermID(final String documentID, final int listSize)
+    {
+        final ForwardIndex FORWARD_INDEX = getForwardIndex();
+
+        List<Pair<Integer, Double>> retVal = new ArrayList<>();
+        final int DOCUMENT_INDEX = invertedIndex.getDocumentIndex(documentID);
+
+        if (DOCUMENT_INDEX < 0)
+            return retVal;
+
+        // 행 전체를 정렬하지 않고 TF-IDF 값이 높은 listSize개만 고른다.
+        for (final int POSITION : FORWARD_INDEX.selectTopK(DOCUMENT_INDEX, listSize))
+            retVal.add(new Pair<>(FORWARD_INDEX.getTermID(DOCUMENT_INDEX, POSITION), FORWARD_INDEX.getWeight(DOCUMENT_INDEX, POSITION)));
+
+        return retVal;
+    }
+
+    /**
+     * @return 정방향 색인 (무효화된 경우 이전 정방향 색인의 행을 재사용하여 다시 구축한다.)
+     */
+    private ForwardIndex getForwardIndex()
+    {
+        if (invertedIndex == null)
+            buildCacheData();
+        else if (forwardIndex == null)
+        {
+            forwardIndex = new ForwardIndex(previousForwardIndex, invertedIndex);
+            previousForwardIndex = null;
+        }
+
+        return forwardIndex;
+    }
+
+    /**
+     * IDF가 바뀌었으므로 정방향 색인을 무효화한다. {@link Document} 별 행은 바뀌지 않으므로 다음 구축 시 재사용한다.
+     */
+    private void invalidateForwardIndex()
+    {
+        if (forwardIndex != null)
+            previousForwardIndex = forwardIndex;
+
+        forwardIndex = null;
+    }
+
+    /**
+     * {@link Document} 리스트를 한 번 순회하여 모든 {@link Term}의 역색인을 구축한다.
+     * @return 역색인
+     */
+    private InvertedIndex buildInvertedIndex()
+    {
+        return new InvertedIndex(documentList);
+    }
+}
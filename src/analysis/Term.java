@@ -1,4 +1,4 @@
-import java.util.Objects;
+package analysis;
 
 public class Term implements Comparable<Term>
 {
@@ -7,10 +7,15 @@ public class Term implements Comparable<Term>
      */
     private String content;
 
+    /**
+     * {@link TermDictionary}가 부여한 Term ID
+     */
+    private int id;
+
     /**
      * Term 가중치
      */
-    private Double weight = 1.0;
+    private double weight = 1.0;
 
     public Term(final String content)
     {
@@ -23,19 +28,41 @@ public class Term implements Comparable<Term>
         setWeight(weight);
     }
 
+    /**
+     * {@link TermDictionary}에 등록된 ID로부터 {@link Term}을 생성한다.
+     * @param id {@link Term} ID
+     * @return {@link Term}
+     */
+    public static Term fromID(final int id)
+    {
+        return new Term(TermDictionary.getInstance().getContent(id));
+    }
+
     public String getContent()
     {
         return content;
     }
 
-    public Double getWeight()
+    public int getID()
+    {
+        return id;
+    }
+
+    public double getWeight()
     {
         return weight;
     }
 
+    /**
+     * content를 설정한다. content는 {@link TermDictionary}에 등록되며, 사전이 보관하는 문자열을 공유한다.
+     * @param content Term 내용
+     */
     public void setContent(final String content)
     {
-        this.content = content;
+        final TermDictionary DICTIONARY = TermDictionary.getInstance();
+
+        id = DICTIONARY.intern(content);
+        this.content = DICTIONARY.getContent(id);
     }
 
     public void setWeight(final double weight)
@@ -54,19 +81,19 @@ public class Term implements Comparable<Term>
 
         final Term OBJECT = (Term)object;
 
-        return content.equals(OBJECT.content);
+        return (id == OBJECT.id);
     }
 
     @Override
     public int hashCode()
     {
-        return content.hashCode();
+        return id;
     }
 
     @Override
     public int compareTo(Term term)
     {
-        return weight.compareTo(term.getWeight());
+        return Double.compare(weight, term.weight);
     }
 
     @Override
@@ -0,0 +1,100 @@
+package analysis;
+
+import java.util.Arrays;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 모든 계산기가 공유하는 {@link Term} 사전<br>
+ * 서로 다른 {@link Term} content마다 0부터 시작하는 조밀한(dense) 정수 ID를 부여한다.<br><br>
+ *
+ * 참고: ID는 한 번 부여되면 변하지 않으며, 같은 content는 항상 같은 ID를 가진다.
+ *
+ * @see Term
+ */
+public class TermDictionary
+{
+    private static final TermDictionary INSTANCE = new TermDictionary();
+
+    /**
+     * key: {@link Term} content<br>
+     * value: {@link Term} ID
+     */
+    private final ConcurrentHashMap<String, Integer> idMap = new ConcurrentHashMap<>();
+
+    /**
+     * {@link Term} ID 별 content
+     */
+    private volatile String[] contents = new String[64];
+
+    /**
+     * 부여된 ID 개수
+     */
+    private volatile int size = 0;
+
+    public static TermDictionary getInstance()
+    {
+        return INSTANCE;
+    }
+
+    /**
+     * content의 ID를 반환한다. 등록되지 않은 content인 경우 새로운 ID를 부여한다.
+     * @param content {@link Term} content
+     * @return {@link Term} ID
+     */
+    public int intern(final String content)
+    {
+        final Integer ID = idMap.get(content);
+
+        if (ID != null)
+            return ID;
+
+        synchronized (this)
+        {
+            final Integer EXISTING_ID = idMap.get(content);
+
+            if (EXISTING_ID != null)
+                return EXISTING_ID;
+
+            if (size == contents.length)
+                contents = Arrays.copyOf(contents, (size << 1));
+
+            final int NEW_ID = size;
+            contents[NEW_ID] = content;
+            size = (NEW_ID + 1);
+            idMap.put(content, NEW_ID);
+
+            return NEW_ID;
+        }
+    }
+
+    /**
+     * @param content {@link Term} content
+     * @return {@link Term} ID (등록되지 않은 content인 경우 -1)
+     */
+    public int getID(final String content)
+    {
+        final Integer ID = idMap.get(content);
+
+        if (ID == null)
+            return -1;
+
+        return ID;
+    }
+
+    /**
+     * @param id {@link Term} ID
+     * @return {@link Term} content
+     */
+    public String getContent(final int id)
+    {
+        return contents[id];
+    }
+
+    /**
+     * @return 부여된 ID 개수
+     */
+    public int size()
+    {
+        return size;
+    }
+}
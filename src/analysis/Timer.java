@@ -0,0 +1,105 @@
+package analysis;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * {@link MetricsRegistry}에 등록되는 구간 시간 측정기<br>
+ * 걸린 시간(ns)을 {@link Histogram}에 기록하고, 구간에서 처리한 항목 수({@link Document}, {@link Term} 등)를 함께 세어 초당 처리량을 구한다.
+ * JFR을 사용할 수 있는 경우 측정마다 {@link TimerEvent}를 남긴다.<br><br>
+ *
+ * 사용 예:<br>
+ * final long START = TIMER.start();<br>
+ * ... (측정할 구간)<br>
+ * TIMER.stop(START, numDocuments);
+ *
+ * @see MetricsRegistry
+ */
+public class Timer
+{
+    /**
+     * {@link MetricsRegistry}가 꺼져 있을 때 {@link #start()}가 반환하는 값
+     */
+    private static final long NOT_STARTED = Long.MIN_VALUE;
+
+    private final MetricsRegistry registry;
+    private final String name;
+
+    /**
+     * 걸린 시간 (ns)
+     */
+    private final Histogram histogram = new Histogram();
+
+    /**
+     * 처리한 항목 수의 합
+     */
+    private final LongAdder itemCount = new LongAdder();
+
+    Timer(final MetricsRegistry registry, final String name)
+    {
+        this.registry = registry;
+        this.name = name;
+    }
+
+    public String getName()
+    {
+        return name;
+    }
+
+    /**
+     * @return 측정 시작 시각 ({@link #stop(long)}에 전달한다.)
+     */
+    public long start()
+    {
+        return (registry.isEnabled() ? System.nanoTime() : NOT_STARTED);
+    }
+
+    public void stop(final long startTime)
+    {
+        stop(startTime, 0L);
+    }
+
+    /**
+     * @param startTime {@link #start()}의 반환 값
+     * @param numItems 구간에서 처리한 항목 수
+     */
+    public void stop(final long startTime, final long numItems)
+    {
+        if (startTime == NOT_STARTED)
+            return;
+
+        final long ELAPSED = (System.nanoTime() - startTime);
+
+        histogram.record(ELAPSED);
+        itemCount.add(numItems);
+        registry.commitTimerEvent(name, numItems, ELAPSED);
+    }
+
+    /**
+     * @return 걸린 시간(ns)의 {@link Histogram}
+     */
+    public Histogram getHistogram()
+    {
+        return histogram;
+    }
+
+    public long getItemCount()
+    {
+        return itemCount.sum();
+    }
+
+    /**
+     * @return 측정된 전체 시간 동안의 초당 처리 항목 수 (측정된 시간이 없는 경우 0)
+     */
+    public double getItemsPerSecond()
+    {
+        final long TOTAL_NANOS = histogram.getSum();
+
+        return ((TOTAL_NANOS == 0L) ? 0.0 : ((getItemCount() * 1.0e9) / TOTAL_NANOS));
+    }
+
+    void reset()
+    {
+        histogram.reset();
+        itemCount.reset();
+    }
+}
@@ -0,0 +1,42 @@
+package analysis;
+
+import jdk.jfr.*;
+
+/**
+ * {@link Timer}의 측정 하나를 기록하는 JFR 이벤트<br>
+ * JFR 기록 중에 이 이벤트가 켜져 있는 경우에만 남는다. (예: -XX:StartFlightRecording)<br><br>
+ *
+ * 참고: jdk.jfr이 없는 런타임에서도 동작하도록, {@link MetricsRegistry}는 jdk.jfr을 사용할 수 있을 때에만 이 클래스를 불러온다.
+ *
+ * @see Timer
+ */
+@Name("analysis.Timer")
+@Label("Analysis Timer")
+@Category("Document Analysis")
+@Description("Build stage or query timing recorded by analysis.Timer")
+@StackTrace(false)
+class TimerEvent extends Event
+{
+    @Label("Timer")
+    String timer;
+
+    @Label("Items")
+    long items;
+
+    @Label("Elapsed")
+    @Timespan(Timespan.NANOSECONDS)
+    long elapsed;
+
+    static void commit(final String timer, final long items, final long elapsed)
+    {
+        final TimerEvent EVENT = new TimerEvent();
+
+        if (!EVENT.shouldCommit())
+            return;
+
+        EVENT.timer = timer;
+        EVENT.items = items;
+        EVENT.elapsed = elapsed;
+        EVENT.commit();
+    }
+}
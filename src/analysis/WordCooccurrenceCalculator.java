@@ -0,0 +1,918 @@
+package analysis;
+
+import javafx.util.Pair;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.*;
+import java.util.concurrent.ForkJoinPool;
+
+public class WordCooccurrenceCalculator
+{
+    /**
+     * 기본적으로 캐시에 보관하는 {@link Term}의 이웃 리스트 개수
+     */
+    private static final int DEFAULT_CACHE_CAPACITY = 1024;
+
+    /**
+     * 기본 off-heap 예산 (바이트, -Danalysis.cooccurrence.offHeapBudget으로 지정하며 0인 경우 힙에 저장한다.)
+     */
+    private static final long DEFAULT_OFF_HEAP_BUDGET = Long.getLong("analysis.cooccurrence.offHeapBudget", 0L);
+
+    private static final Timer BUILD_TIMER = MetricsRegistry.getInstance().timer("cooccurrence.buildMatrix");
+
+    private List<Document> documentList = new ArrayList<>();
+
+    /**
+     * 동시 출현으로 인정하는 최대 거리
+     */
+    private int windowSize = 0;
+
+    /**
+     * 희소 행렬 구축에 사용할 {@link ForkJoinPool} (null인 경우 호출한 스레드에서 순차적으로 구축한다.)
+     */
+    private ForkJoinPool pool = null;
+
+    /**
+     * 2차원 희소 행렬을 구현한 {@link LongIntMap} (off-heap 예산이 있는 경우 {@link OffHeapLongIntHashMap})<br>
+     * key: 두 {@link Term} ID를 (작은 ID, 큰 ID) 순으로 묶은 값 (참고: {@link #toMatrixKey(int, int)})<br>
+     * value: 동시 출현 빈도
+     */
+    LongIntMap cooccurrenceMatrix = null;
+
+    /**
+     * 거리별 희소 행렬 (distanceMatrices[d - 1]: 거리가 d인 동시 출현 빈도, 단일 윈도우로 구축한 경우 null)<br>
+     * 윈도우 크기 w의 희소 행렬은 앞의 w개 행렬의 합이다. (참고: {@link #setWindowSize(int)})
+     */
+    private LongIntMap[] distanceMatrices = null;
+
+    /**
+     * 희소 행렬과 인접 리스트를 저장할 off-heap 예산 (바이트, 0인 경우 힙에 저장한다.)
+     */
+    private long offHeapBudget = DEFAULT_OFF_HEAP_BUDGET;
+
+    /**
+     * off-heap 저장소 (예산이 없거나 아직 할당하지 않은 경우 null)
+     */
+    private OffHeapArena arena = null;
+
+    /**
+     * 희소 행렬 구축 시 빈도를 모으는 힙 예산 (바이트, 0인 경우 내보내지 않고 메모리에서 구축한다.)
+     */
+    private long spillBudget = 0L;
+
+    /**
+     * 런 파일을 기록할 디렉토리 (null인 경우 시스템 임시 디렉토리)
+     */
+    private File spillDirectory = null;
+
+    /**
+     * {@link #release()}가 호출되었는지 여부
+     */
+    private boolean released = false;
+
+    /**
+     * 희소 행렬을 {@link Term} ID 별로 펼친 인접 리스트<br>
+     * {@link Document}가 추가되면 빈도가 바뀐 행만 다시 만들고, 희소 행렬이 바뀌면 무효화하여 다음 조회 시 다시 만든다.
+     */
+    private CooccurrenceAdjacency adjacency = null;
+
+    /**
+     * 희소 행렬과 거리별 희소 행렬을 복사본과 공유하는지 여부 (참고: {@link #copy()})<br>
+     * 공유하는 동안 빈도를 더할 때에는 먼저 공유하는 행렬 위에 새로운 층을 얹는다. (참고: {@link LayeredLongIntMap})
+     */
+    private boolean sharedMatrices = false;
+
+    /**
+     * 인접 리스트의 CSR 배열을 다른 계산기와 공유하는지 여부 (공유하는 경우 해제하지 않는다.)
+     */
+    private boolean sharedAdjacency = false;
+
+    /**
+     * 복사된 적이 있는지 여부<br>
+     * 복사본이 이 계산기의 off-heap 저장소에 할당된 층을 참조할 수 있으므로, 이후에는 저장소를 직접 해제하지 않고 GC에 맡긴다.
+     */
+    private boolean copied = false;
+
+    /**
+     * 최근에 조회된 {@link Term}의 이웃 리스트 (근사 LRU, 조회 시 잠금 없음)<br>
+     * key: {@link Term} ID<br>
+     * value: 빈도수에 따라 정렬된 상위 {@link Term}, 빈도수 쌍의 {@link ArrayList}
+     */
+    private final QueryCache<Integer, ArrayList<Pair<Term, Integer>>> neighborListCache =
+            new QueryCache<>(DEFAULT_CACHE_CAPACITY);
+
+    public WordCooccurrenceCalculator() {}
+
+    public WordCooccurrenceCalculator(final List<Document> documentList, final int windowSize)
+    {
+        setDocumentList(documentList, windowSize);
+    }
+
+    /**
+     * 이미 구축된 희소 행렬로 계산기를 복원한다. ({@link IndexSegment}에서 복원할 때 사용한다.)
+     * @param documentList {@link Document} 리스트
+     * @param windowSize 동시 출현으로 인정하는 최대 거리
+     * @param cooccurrenceMatrix 희소 행렬
+     */
+    WordCooccurrenceCalculator(final List<Document> documentList, final int windowSize, final LongIntHashMap cooccurrenceMatrix)
+    {
+        this.documentList = new ArrayList<>(documentList);
+        this.windowSize = windowSize;
+        this.cooccurrenceMatrix = (((cooccurrenceMatrix == null) || (offHeapBudget <= 0L)) ?
+                cooccurrenceMatrix : new OffHeapLongIntHashMap(getArena(), cooccurrenceMatrix));
+    }
+
+    public void setDocumentList(final List<Document> documentList, final int windowSize)
+    {
+        checkNotReleased();
+
+        this.documentList = new ArrayList<>(documentList);
+        this.windowSize = windowSize;
+
+        invalidateAdjacency();
+        releaseMatrix();
+        releaseDistanceMatrices();
+        sharedMatrices = false;
+        cooccurrenceMatrix = buildMatrix(this.documentList, windowSize, true);
+    }
+
+    /**
+     * {@link Document}들을 한 번만 훑으면서 거리 1..maxWindowSize의 동시 출현 빈도를 거리별로 센다.
+     * 이후에는 {@link #setWindowSize(int)}로 maxWindowSize 이하의 윈도우 크기를 다시 구축하지 않고 바꿀 수 있다.
+     * @param documentList {@link Document} 리스트
+     * @param windowSize 조회에 사용할 윈도우 크기
+     * @param maxWindowSize 거리별로 셀 최대 거리
+     */
+    public void setDocumentList(final List<Document> documentList, final int windowSize, final int maxWindowSize)
+    {
+        if ((maxWindowSize < 1) || (windowSize < 0) || (windowSize > maxWindowSize))
+            throw new IllegalArgumentException("invalid window size: " + windowSize + " (max " + maxWindowSize + ")");
+
+        checkNotReleased();
+
+        this.documentList = new ArrayList<>(documentList);
+        this.windowSize = windowSize;
+
+        invalidateAdjacency();
+        releaseMatrix();
+        releaseDistanceMatrices();
+        sharedMatrices = false;
+
+        distanceMatrices = new LongIntMap[maxWindowSize];
+
+        for (int i = 0; i < maxWindowSize; ++i)
+            distanceMatrices[i] = createMatrix();
+
+        buildDistanceMatrices(this.documentList, distanceMatrices);
+        cooccurrenceMatrix = sumDistanceMatrices(windowSize);
+    }
+
+    /**
+     * 거리별 희소 행렬의 앞부분을 더하여 윈도우 크기를 바꾼다. ({@link Document}를 다시 훑지 않는다.)<br><br>
+     *
+     * 참고: 조회 중인 계산기의 상태를 바꾸므로, 공개된 {@link IndexSnapshot}의 계산기에는 사용하지 않는다.
+     * 여러 윈도우 크기의 빈도를 동시에 비교하는 경우 {@link #getCooccurrenceCount(String, String, int)}를 사용한다.
+     * @param windowSize 동시 출현으로 인정하는 최대 거리 (0 이상 {@link #getMaxWindowSize()} 이하)
+     * @throws IllegalStateException 거리별로 구축하지 않은 경우
+     */
+    public void setWindowSize(final int windowSize)
+    {
+        checkNotReleased();
+        checkWindowSize(windowSize);
+
+        if (windowSize == this.windowSize)
+            return;
+
+        this.windowSize = windowSize;
+
+        invalidateAdjacency();
+        releaseMatrix();
+        cooccurrenceMatrix = sumDistanceMatrices(windowSize);
+    }
+
+    /**
+     * @return 거리별로 센 최대 거리 (단일 윈도우로 구축한 경우 윈도우 크기)
+     */
+    public int getMaxWindowSize()
+    {
+        return ((distanceMatrices == null) ? windowSize : distanceMatrices.length);
+    }
+
+    /**
+     * 두 {@link Term}이 주어진 윈도우 크기 안에서 함께 출현한 빈도를 거리별 빈도의 합으로 구한다.
+     * @param termContent1 {@link Term} content
+     * @param termContent2 {@link Term} content
+     * @param windowSize 윈도우 크기 (0 이상 {@link #getMaxWindowSize()} 이하)
+     * @return 동시 출현 빈도
+     * @throws IllegalStateException 거리별로 구축하지 않았고, windowSize가 현재 윈도우 크기와 다른 경우
+     */
+    public int getCooccurrenceCount(final String termContent1, final String termContent2, final int windowSize)
+    {
+        checkNotReleased();
+
+        final TermDictionary DICTIONARY = TermDictionary.getInstance();
+        final int TERM_ID1 = DICTIONARY.getID(termContent1);
+        final int TERM_ID2 = DICTIONARY.getID(termContent2);
+
+        if ((distanceMatrices == null) && (windowSize == this.windowSize))
+            return (((cooccurrenceMatrix == null) || (TERM_ID1 < 0) || (TERM_ID2 < 0)) ?
+                    0 : cooccurrenceMatrix.get(toMatrixKey(TERM_ID1, TERM_ID2)));
+
+        checkWindowSize(windowSize);
+
+        if ((TERM_ID1 < 0) || (TERM_ID2 < 0))
+            return 0;
+
+        final long MATRIX_KEY = toMatrixKey(TERM_ID1, TERM_ID2);
+        int retVal = 0;
+
+        for (int i = 0; i < windowSize; ++i)
+            retVal += distanceMatrices[i].get(MATRIX_KEY);
+
+        return retVal;
+    }
+
+    /**
+     * 희소 행렬과 인접 리스트를 GC가 관리하지 않는 direct 버퍼에 저장할지 정한다. 이미 구축된 희소 행렬은 새 저장소로 옮긴다.<br>
+     * 예산을 넘는 경우 구축과 조회에서 {@link IllegalStateException}이 발생한다. 사용이 끝나면 {@link #release()}로 해제한다.
+     * @param offHeapBudget 희소 행렬과 인접 리스트에 사용할 최대 바이트 수 (0인 경우 힙에 저장한다.)
+     */
+    public void setOffHeapBudget(final long offHeapBudget)
+    {
+        if (offHeapBudget < 0L)
+            throw new IllegalArgumentException("offHeapBudget must not be negative: " + offHeapBudget);
+
+        checkNotReleased();
+
+        final OffHeapArena OLD_ARENA = arena;
+        final LongIntMap OLD_MATRIX = cooccurrenceMatrix;
+
+        invalidateAdjacency();
+
+        this.offHeapBudget = offHeapBudget;
+        arena = null;
+
+        if (OLD_MATRIX != null)
+            cooccurrenceMatrix = copyMatrix(OLD_MATRIX);
+
+        if (distanceMatrices != null)
+            distanceMatrices = copyDistanceMatrices(distanceMatrices);
+
+        sharedMatrices = false;
+
+        // 복사본이 이전 저장소의 층을 참조할 수 있으므로, 복사된 적이 있다면 GC에 맡긴다.
+        if ((OLD_ARENA != null) && !copied)
+            OLD_ARENA.close();
+    }
+
+    /**
+     * 단일 윈도우 희소 행렬을 구축할 때 빈도를 모으는 힙 예산을 정한다. 예산을 넘는 빈도는 정렬된 런 파일로 내보낸 뒤
+     * 병합하여 희소 행렬을 만든다. (참고: {@link SpillingCooccurrenceBuilder})<br>
+     * 병합 결과는 해시 테이블을 거치지 않고 정렬된 배열(항목당 12바이트)에 바로 채운다.
+     * off-heap 예산과 함께 사용하면 이 배열을 direct 버퍼에 두므로, 구축 중의 힙 사용량이 이 예산으로 제한된다. 병렬화 정도는 무시하고 순차적으로 구축한다.<br>
+     * 이웃 조회에 사용하는 인접 리스트(쌍당 16바이트)는 spillDirectory에 기록한 파일을 매핑하여 메모리에 올리지 않는다.
+     * 반면 정렬된 배열은 빈도 조회와 {@link Document} 추가를 위해 메모리(힙 또는 off-heap)에 남으므로,
+     * 최종 희소 행렬의 크기는 여전히 메모리에 의해 제한된다. 거리별로 구축하거나 off-heap 예산을 바꾼 뒤에는 인접 리스트를 메모리에 다시 구축한다.
+     * @param spillBudget 빈도를 모을 최대 바이트 수 (0인 경우 메모리에서 구축한다.)
+     * @param spillDirectory 런 파일을 기록할 디렉토리 (null인 경우 시스템 임시 디렉토리)
+     */
+    public void setSpillBudget(final long spillBudget, final File spillDirectory)
+    {
+        if ((spillBudget != 0L) && (spillBudget < SpillingCooccurrenceBuilder.BYTES_PER_ENTRY))
+            throw new IllegalArgumentException("invalid spillBudget: " + spillBudget);
+
+        this.spillBudget = spillBudget;
+        this.spillDirectory = spillDirectory;
+    }
+
+    public long getSpillBudget()
+    {
+        return spillBudget;
+    }
+
+    public long getOffHeapBudget()
+    {
+        return offHeapBudget;
+    }
+
+    /**
+     * @return off-heap 저장소에서 사용 중인 바이트 수 (힙에 저장한 경우 0)
+     */
+    public long getOffHeapUsedBytes()
+    {
+        return ((arena == null) ? 0L : arena.getUsedBytes());
+    }
+
+    /**
+     * off-heap 저장소를 즉시 해제한다. 이후에는 계산기를 사용할 수 없다. (힙에 저장한 경우 참조만 버린다.)<br>
+     * 복사된 적이 있는 계산기는 복사본이 저장소를 공유할 수 있으므로 참조만 버리며, 저장소는 GC가 해제한다.
+     */
+    public void release()
+    {
+        invalidateAdjacency();
+        releaseMatrix();
+        releaseDistanceMatrices();
+
+        if ((arena != null) && !copied)
+            arena.close();
+
+        arena = null;
+        released = true;
+    }
+
+    /**
+     * 희소 행렬을 병렬로 구축할 {@link ForkJoinPool}을 설정한다. 설정한 경우 풀에서 {@link Document}를 나누어
+     * 부분 행렬을 만들고 합친다. 빈도는 순차 구축과 동일하다.<br>
+     * 풀은 호출한 쪽이 소유하며 계산기와 그 복사본이 함께 사용한다. (계산기는 풀을 종료하지 않는다.)
+     * @param pool 사용할 {@link ForkJoinPool} (null인 경우 호출한 스레드에서 순차적으로 구축한다.)
+     */
+    public void setPool(final ForkJoinPool pool)
+    {
+        this.pool = pool;
+    }
+
+    public ForkJoinPool getPool()
+    {
+        return pool;
+    }
+
+    public int getWindowSize()
+    {
+        return windowSize;
+    }
+
+    /**
+     * @return 희소 행렬에 저장된 서로 다른 {@link Term} 쌍의 개수
+     */
+    public int getMatrixSize()
+    {
+        return ((cooccurrenceMatrix == null) ? 0 : cooccurrenceMatrix.size());
+    }
+
+    /**
+     * 희소 행렬과 인접 리스트를 공유하는 계산기를 만든다. (copy-on-write)<br>
+     * 복사본은 이 계산기의 희소 행렬을 변경하지 않는 층으로 두고 그 위의 새 층에만 빈도를 더하며,
+     * 인접 리스트는 빈도가 바뀐 행만 다시 만든다. 따라서 복사본에 {@link Document}를 추가하더라도
+     * 이 계산기의 조회 결과는 바뀌지 않으며, 비용은 추가되는 {@link Document}에 비례한다.<br>
+     * off-heap 예산이 있는 경우 복사본은 같은 크기의 예산을 갖는 별도의 저장소에 새 층을 할당한다.
+     * @return {@link WordCooccurrenceCalculator}의 복사본
+     */
+    WordCooccurrenceCalculator copy()
+    {
+        checkNotReleased();
+
+        WordCooccurrenceCalculator retVal = new WordCooccurrenceCalculator(documentList, windowSize, null);
+        retVal.pool = pool;
+        retVal.offHeapBudget = offHeapBudget;
+        retVal.spillBudget = spillBudget;
+        retVal.spillDirectory = spillDirectory;
+        retVal.setCacheCapacity(neighborListCache.getCapacity());
+
+        if (cooccurrenceMatrix != null)
+            retVal.cooccurrenceMatrix = retVal.shareMatrix(cooccurrenceMatrix);
+
+        if (distanceMatrices != null)
+        {
+            retVal.distanceMatrices = new LongIntMap[distanceMatrices.length];
+
+            for (int i = 0; i < distanceMatrices.length; ++i)
+                retVal.distanceMatrices[i] = retVal.shareMatrix(distanceMatrices[i]);
+        }
+
+        if (adjacency != null)
+        {
+            retVal.adjacency = adjacency;
+            retVal.sharedAdjacency = true;
+            sharedAdjacency = true;
+        }
+
+        sharedMatrices = true;
+        copied = true;
+
+        return retVal;
+    }
+
+    /**
+     * 조회 시 지연 구축되는 인접 리스트를 미리 구축한다.
+     * 이후의 조회는 캐시를 제외한 내부 상태를 바꾸지 않으므로, 여러 스레드에서 동시에 조회할 수 있다.
+     */
+    void prepare()
+    {
+        checkNotReleased();
+
+        if ((cooccurrenceMatrix != null) && (adjacency == null))
+            adjacency = new CooccurrenceAdjacency(cooccurrenceMatrix, getArena());
+    }
+
+    /**
+     * 이웃 리스트 캐시의 크기를 설정한다. 넘치는 경우 가장 오래 조회되지 않은 리스트부터 버린다.
+     * @param cacheCapacity 캐시에 보관할 최대 리스트 개수 (0인 경우 캐시하지 않는다.)
+     */
+    public void setCacheCapacity(final int cacheCapacity)
+    {
+        neighborListCache.setCapacity(cacheCapacity);
+    }
+
+    /**
+     * @return 이웃 리스트 캐시 (적중/실패 횟수 조회용)
+     */
+    public QueryCache<Integer, ArrayList<Pair<Term, Integer>>> getNeighborListCache()
+    {
+        return neighborListCache;
+    }
+
+    /**
+     * {@link Document}들을 추가한다. 새로운 {@link Document}의 동시 출현 빈도만 희소 행렬에 더하고,
+     * 인접 리스트는 빈도가 바뀐 행만 다시 만든다. 이웃 리스트 캐시는 비운다.
+     * @param documentList 추가할 {@link Document} 리스트
+     */
+    public void addDocuments(final List<Document> documentList)
+    {
+        checkNotReleased();
+
+        if (cooccurrenceMatrix == null)
+        {
+            setDocumentList(documentList, windowSize);
+            return;
+        }
+
+        this.documentList.addAll(documentList);
+
+        // 복사본과 공유하는 행렬은 변경하지 않고, 그 위에 얹은 새 층에 빈도를 더한다.
+        if (sharedMatrices)
+        {
+            cooccurrenceMatrix = shareMatrix(cooccurrenceMatrix);
+
+            if (distanceMatrices != null)
+            {
+                for (int i = 0; i < distanceMatrices.length; ++i)
+                    distanceMatrices[i] = shareMatrix(distanceMatrices[i]);
+            }
+
+            sharedMatrices = false;
+        }
+
+        final LongIntMap DELTA;
+
+        if (distanceMatrices == null)
+        {
+            DELTA = buildMatrix(documentList, windowSize, false);
+            cooccurrenceMatrix.addAll(DELTA);
+        }
+        else
+        {
+            // 새로운 Document의 거리별 빈도만 세어 거리별 희소 행렬과 현재 윈도우의 희소 행렬에 더한다.
+            final LongIntMap[] NEW_MATRICES = new LongIntMap[distanceMatrices.length];
+
+            for (int i = 0; i < NEW_MATRICES.length; ++i)
+                NEW_MATRICES[i] = new LongIntHashMap();
+
+            buildDistanceMatrices(documentList, NEW_MATRICES);
+            DELTA = new LongIntHashMap();
+
+            for (int i = 0; i < NEW_MATRICES.length; ++i)
+            {
+                distanceMatrices[i].addAll(NEW_MATRICES[i]);
+
+                if (i < windowSize)
+                {
+                    cooccurrenceMatrix.addAll(NEW_MATRICES[i]);
+                    DELTA.addAll(NEW_MATRICES[i]);
+                }
+            }
+        }
+
+        updateAdjacency(DELTA);
+        releaseOwnedMatrix(DELTA);
+    }
+
+    /**
+     * @param termContent {@link Term} content
+     * @return 빈도수에 따라 정렬된 {@link Term}, 빈도수 쌍의 리스트 (함께 출현한 {@link Term}이 없는 경우 null)
+     */
+    public List<Pair<Term, Integer>> getOrderedCooccurrenceList(final String termContent)
+    {
+        return getOrderedCooccurrenceList(TermDictionary.getInstance().getID(termContent), Integer.MAX_VALUE);
+    }
+
+    public List<Pair<Term, Integer>> getOrderedCooccurrenceList(final Term term)
+    {
+        return getOrderedCooccurrenceList(term.getID(), Integer.MAX_VALUE);
+    }
+
+    /**
+     * 함께 출현한 {@link Term} 중 빈도수가 높은 k개만 고른다. 전체 이웃을 정렬하지 않으므로 이웃이 많은 {@link Term}에 유리하다.
+     * @param termContent {@link Term} content
+     * @param k 반환할 리스트의 최대 크기
+     * @return 빈도수에 따라 정렬된 {@link Term}, 빈도수 쌍의 리스트 (함께 출현한 {@link Term}이 없는 경우 null)
+     */
+    public List<Pair<Term, Integer>> getOrderedCooccurrenceList(final String termContent, final int k)
+    {
+        return getOrderedCooccurrenceList(TermDictionary.getInstance().getID(termContent), k);
+    }
+
+    public List<Pair<Term, Integer>> getOrderedCooccurrenceList(final Term term, final int k)
+    {
+        return getOrderedCooccurrenceList(term.getID(), k);
+    }
+
+    /**
+     * 캐시된 이웃 리스트가 k개 이상이면 앞부분을 잘라 쓰고, 그렇지 않으면 인접 리스트에서 상위 k개를 골라 캐시한다.
+     */
+    private List<Pair<Term, Integer>> getOrderedCooccurrenceList(final int termID, final int k)
+    {
+        checkNotReleased();
+
+        if (cooccurrenceMatrix == null)
+            return null;
+
+        if (adjacency == null)
+            adjacency = new CooccurrenceAdjacency(cooccurrenceMatrix, getArena());
+
+        final int SIZE = Math.min(k, adjacency.degree(termID));
+
+        if (SIZE <= 0)
+            return null;
+
+        ArrayList<Pair<Term, Integer>> neighborList = neighborListCache.get(termID);
+
+        if ((neighborList == null) || (neighborList.size() < SIZE))
+        {
+            neighborList = new ArrayList<>(SIZE);
+
+            for (final int INDEX : adjacency.selectTopK(termID, SIZE))
+                neighborList.add(new Pair<>(Term.fromID(adjacency.getNeighbor(termID, INDEX)), adjacency.getCount(termID, INDEX)));
+
+            neighborListCache.put(termID, neighborList);
+        }
+
+        return new ArrayList<>(neighborList.subList(0, SIZE));
+    }
+
+    /**
+     * 희소 행렬을 만든다.<br>
+     * 런 파일로 내보내는 경우 병합 결과를 해시 테이블로 옮기지 않고, 현재 저장소에 정렬된 희소 행렬로 바로 채운다.
+     * 이 행렬은 변경할 수 없으므로, 빈도를 더할 빈 층을 얹은 {@link LayeredLongIntMap}으로 반환한다.
+     * 전체를 구축하는 경우 인접 리스트는 행렬로부터 메모리에 구축하지 않고, 디스크에 기록한 인접 리스트 파일을 매핑하여 사용한다.
+     * @param documentList 빈도를 셀 {@link Document} 리스트
+     * @param windowSize 동시 출현으로 인정하는 최대 거리
+     * @param openAdjacency 런 파일로 내보내는 경우 인접 리스트 파일을 기록하여 인접 리스트로 사용할지 여부 (더해질 빈도만 세는 경우 false)
+     * @return 희소 행렬
+     * @throws UncheckedIOException 런 파일을 기록하거나 읽지 못한 경우
+     */
+    private LongIntMap buildMatrix(final List<Document> documentList, final int windowSize, final boolean openAdjacency)
+    {
+        final long START = BUILD_TIMER.start();
+        LongIntMap retVal;
+
+        if (spillBudget > 0L)
+        {
+            try (SpillingCooccurrenceBuilder builder = new SpillingCooccurrenceBuilder(windowSize, spillBudget, spillDirectory))
+            {
+                builder.addDocuments(documentList);
+
+                final LongIntMap MERGED = builder.mergeToMatrix(getArena());
+                retVal = new LayeredLongIntMap(new LongIntMap[] { MERGED }, MERGED.size(), createMatrix());
+
+                if (openAdjacency)
+                    adjacency = openSpilledAdjacency(builder);
+            }
+            catch (IOException e)
+            {
+                throw new UncheckedIOException("failed to spill co-occurrence counts", e);
+            }
+        }
+        else if (pool != null)
+        {
+            final LongIntHashMap PARTIAL_MATRIX = pool.invoke(new CooccurrenceCountTask(documentList, windowSize))[0];
+            retVal = ((offHeapBudget > 0L) ? new OffHeapLongIntHashMap(getArena(), PARTIAL_MATRIX) : PARTIAL_MATRIX);
+        }
+        else
+        {
+            retVal = createMatrix();
+            countCooccurrences(documentList, windowSize, retVal);
+        }
+
+        BUILD_TIMER.stop(START, documentList.size());
+
+        return retVal;
+    }
+
+    /**
+     * 병합 결과를 런 파일과 같은 디렉토리의 인접 리스트 파일로 기록하고 매핑한다.<br>
+     * 매핑은 파일을 지워도 유효하므로 연 뒤 바로 지운다. (열려 있는 파일을 지울 수 없는 경우 종료 시 지운다.)
+     * @param builder 빈도를 모두 더한 {@link SpillingCooccurrenceBuilder}
+     * @return 파일을 매핑한 인접 리스트
+     * @throws IOException
+     */
+    private CooccurrenceAdjacency openSpilledAdjacency(final SpillingCooccurrenceBuilder builder) throws IOException
+    {
+        final File FILE = File.createTempFile("cooccurrence", ".adj", spillDirectory);
+
+        try
+        {
+            builder.writeAdjacency(FILE.getPath());
+
+            return CooccurrenceAdjacency.open(FILE.getPath());
+        }
+        finally
+        {
+            if (!FILE.delete())
+                FILE.deleteOnExit();
+        }
+    }
+
+    /**
+     * 거리별 희소 행렬에 빈도를 더한다.
+     * @param documentList 빈도를 셀 {@link Document} 리스트
+     * @param matrices 빈도를 더할 거리별 희소 행렬 (길이: 최대 거리)
+     */
+    private void buildDistanceMatrices(final List<Document> documentList, final LongIntMap[] matrices)
+    {
+        final long START = BUILD_TIMER.start();
+
+        if (pool != null)
+        {
+            final LongIntHashMap[] PARTIAL_MATRICES = pool.invoke(new CooccurrenceCountTask(documentList, matrices.length, true));
+
+            for (int i = 0; i < matrices.length; ++i)
+                matrices[i].addAll(PARTIAL_MATRICES[i]);
+        }
+        else
+            countCooccurrencesByDistance(documentList, matrices);
+
+        BUILD_TIMER.stop(START, documentList.size());
+    }
+
+    /**
+     * @param windowSize 윈도우 크기
+     * @return 거리별 희소 행렬 중 앞의 windowSize개를 더한 희소 행렬
+     */
+    private LongIntMap sumDistanceMatrices(final int windowSize)
+    {
+        if (windowSize == 0)
+            return createMatrix();
+
+        // 가장 큰 행렬을 복사한 뒤 나머지를 더한다.
+        int largest = 0;
+
+        for (int i = 1; i < windowSize; ++i)
+        {
+            if (distanceMatrices[i].size() > distanceMatrices[largest].size())
+                largest = i;
+        }
+
+        final LongIntMap RETVAL = copyMatrix(distanceMatrices[largest]);
+
+        for (int i = 0; i < windowSize; ++i)
+        {
+            if (i != largest)
+                RETVAL.addAll(distanceMatrices[i]);
+        }
+
+        return RETVAL;
+    }
+
+    /**
+     * {@link Document}들의 동시 출현 빈도를 희소 행렬에 더한다.
+     * @param documentList 빈도를 셀 {@link Document} 리스트
+     * @param windowSize 동시 출현으로 인정하는 최대 거리
+     * @param matrix 빈도를 더할 희소 행렬
+     */
+    static void countCooccurrences(final List<Document> documentList, final int windowSize, final LongIntMap matrix)
+    {
+        final CooccurrenceWindow WINDOW = new CooccurrenceWindow(windowSize);
+
+        documentList.forEach(document ->
+        {
+            WINDOW.reset();
+
+            for (final int TERM_ID : document.getTermIDs())
+                WINDOW.add(TERM_ID, matrix);
+        });
+    }
+
+    /**
+     * {@link Document}들의 동시 출현 빈도를 거리별 희소 행렬에 나누어 더한다.
+     * @param documentList 빈도를 셀 {@link Document} 리스트
+     * @param matrices 빈도를 더할 거리별 희소 행렬 (길이: 최대 거리)
+     */
+    static void countCooccurrencesByDistance(final List<Document> documentList, final LongIntMap[] matrices)
+    {
+        final CooccurrenceWindow WINDOW = new CooccurrenceWindow(matrices.length);
+
+        documentList.forEach(document ->
+        {
+            WINDOW.reset();
+
+            for (final int TERM_ID : document.getTermIDs())
+                WINDOW.addByDistance(TERM_ID, matrices);
+        });
+    }
+
+    /**
+     * 희소 행렬이 바뀌었으므로 인접 리스트와 이웃 리스트 캐시를 버린다.
+     */
+    private void invalidateAdjacency()
+    {
+        if ((adjacency != null) && !sharedAdjacency)
+            adjacency.release();
+
+        adjacency = null;
+        sharedAdjacency = false;
+        neighborListCache.clear();
+    }
+
+    /**
+     * 희소 행렬에 더해진 빈도로 인접 리스트를 갱신한다. 빈도가 바뀐 {@link Term}의 행만 다시 만든다.
+     * (인접 리스트가 아직 없는 경우 다음 조회 시 구축한다.)
+     * @param delta 더해진 빈도
+     */
+    private void updateAdjacency(final LongIntMap delta)
+    {
+        neighborListCache.clear();
+
+        if (adjacency == null)
+            return;
+
+        final CooccurrenceAdjacency PREVIOUS = adjacency;
+        adjacency = PREVIOUS.update(cooccurrenceMatrix, delta, getArena());
+
+        // 전체를 다시 구축한 경우, 다른 계산기와 공유하지 않는 이전 인접 리스트를 해제한다.
+        if (!adjacency.sharesStorageWith(PREVIOUS))
+        {
+            if (!sharedAdjacency)
+                PREVIOUS.release();
+
+            sharedAdjacency = false;
+        }
+    }
+
+    /**
+     * 희소 행렬을 다른 계산기와 공유할 수 있도록 변경하지 않는 층으로 두고, 그 위에 빈 층을 얹은 희소 행렬을 만든다.<br>
+     * 맨 위 층이 바로 아래 층 크기의 절반 이상이면 두 층을 합쳐(크기 계층 병합) 층의 개수를 O(log 항목 개수)로 유지한다.
+     * 합친 층은 이 계산기의 저장소에 새로 만들며, 공유하는 층은 변경하지 않는다.
+     * @param matrix 공유할 희소 행렬
+     * @return 공유하는 층 위에 빈 층을 얹은 희소 행렬
+     */
+    private LongIntMap shareMatrix(final LongIntMap matrix)
+    {
+        ArrayList<LongIntMap> layers = new ArrayList<>();
+
+        if (matrix instanceof LayeredLongIntMap)
+        {
+            final LayeredLongIntMap LAYERED = (LayeredLongIntMap)matrix;
+
+            layers.addAll(Arrays.asList(LAYERED.getLayers()));
+
+            if (LAYERED.getTop().size() > 0)
+                layers.add(LAYERED.getTop());
+        }
+        else
+            layers.add(matrix);
+
+        while ((layers.size() >= 2) &&
+                ((2L * layers.get(layers.size() - 1).size()) >= layers.get(layers.size() - 2).size()))
+        {
+            final LongIntMap UPPER = layers.remove(layers.size() - 1);
+            final LongIntMap MERGED = copyMatrix(layers.remove(layers.size() - 1));
+
+            MERGED.addAll(UPPER);
+            layers.add(MERGED);
+        }
+
+        return new LayeredLongIntMap(layers.toArray(new LongIntMap[0]), matrix.size(), createMatrix());
+    }
+
+    private void releaseMatrix()
+    {
+        releaseMatrix(cooccurrenceMatrix);
+        cooccurrenceMatrix = null;
+    }
+
+    private void releaseDistanceMatrices()
+    {
+        if (distanceMatrices == null)
+            return;
+
+        for (final LongIntMap MATRIX : distanceMatrices)
+            releaseMatrix(MATRIX);
+
+        distanceMatrices = null;
+    }
+
+    /**
+     * 희소 행렬 중 이 계산기의 저장소에 할당된 부분을 해제한다. 복사된 적이 있다면 복사본이 참조할 수 있으므로 GC에 맡긴다.
+     */
+    private void releaseMatrix(final LongIntMap matrix)
+    {
+        if (!copied)
+            releaseOwnedMatrix(matrix);
+    }
+
+    /**
+     * 이 계산기의 저장소에 할당된 희소 행렬을 해제한다. (다른 계산기의 저장소에 할당된 층은 그 계산기가 해제한다.)
+     */
+    private void releaseOwnedMatrix(final LongIntMap matrix)
+    {
+        if (matrix instanceof LayeredLongIntMap)
+        {
+            for (final LongIntMap LAYER : ((LayeredLongIntMap)matrix).getLayers())
+                releaseOwnedMatrix(LAYER);
+
+            releaseOwnedMatrix(((LayeredLongIntMap)matrix).getTop());
+        }
+        else if ((matrix instanceof OffHeapLongIntHashMap) && (((OffHeapLongIntHashMap)matrix).getArena() == arena))
+            ((OffHeapLongIntHashMap)matrix).release();
+        else if ((matrix instanceof SortedLongIntMap) && (((SortedLongIntMap)matrix).getArena() == arena))
+            ((SortedLongIntMap)matrix).release();
+    }
+
+    /**
+     * @return 현재 예산에 맞는 저장소에 만든 빈 희소 행렬
+     */
+    private LongIntMap createMatrix()
+    {
+        return ((offHeapBudget > 0L) ? new OffHeapLongIntHashMap(getArena(), 16) : new LongIntHashMap());
+    }
+
+    /**
+     * @return off-heap 저장소 (예산이 없는 경우 null)
+     */
+    private OffHeapArena getArena()
+    {
+        if ((arena == null) && (offHeapBudget > 0L))
+            arena = new OffHeapArena(offHeapBudget);
+
+        return arena;
+    }
+
+    /**
+     * @param matrix 복사할 희소 행렬
+     * @return 현재 예산에 맞는 저장소에 복사한 희소 행렬
+     */
+    private LongIntMap copyMatrix(final LongIntMap matrix)
+    {
+        if (offHeapBudget > 0L)
+            return new OffHeapLongIntHashMap(getArena(), matrix);
+
+        if (matrix instanceof LongIntHashMap)
+            return new LongIntHashMap((LongIntHashMap)matrix);
+
+        LongIntHashMap retVal = new LongIntHashMap(matrix.size());
+        retVal.addAll(matrix);
+
+        return retVal;
+    }
+
+    private LongIntMap[] copyDistanceMatrices(final LongIntMap[] matrices)
+    {
+        final LongIntMap[] RETVAL = new LongIntMap[matrices.length];
+
+        for (int i = 0; i < matrices.length; ++i)
+            RETVAL[i] = copyMatrix(matrices[i]);
+
+        return RETVAL;
+    }
+
+    private void checkWindowSize(final int windowSize)
+    {
+        if (distanceMatrices == null)
+            throw new IllegalStateException("distance buckets were not built (use setDocumentList with maxWindowSize)");
+
+        if ((windowSize < 0) || (windowSize > distanceMatrices.length))
+            throw new IllegalArgumentException("invalid window size: " + windowSize + " (max " + distanceMatrices.length + ")");
+    }
+
+    private void checkNotReleased()
+    {
+        if (released)
+            throw new IllegalStateException("calculator has been released");
+    }
+
+    /**
+     * 두 {@link Term} ID를 순서에 상관 없이 하나의 희소 행렬 키로 묶는다.<br><br>
+     *
+     * 참고: (A, B) == (B, A)
+     * @return 상위 32비트에 작은 ID, 하위 32비트에 큰 ID를 담은 키
+     */
+    static long toMatrixKey(final int termID1, final int termID2)
+    {
+        final long MIN = Math.min(termID1, termID2);
+        final long MAX = Math.max(termID1, termID2);
+
+        return ((MIN << 32) | MAX);
+    }
+
+    static int getTermID1(final long matrixKey)
+    {
+        return (int)(matrixKey >>> 32);
+    }
+
+    static int getTermID2(final long matrixKey)
+    {
+        return (int)matrixKey;
+    }
+}